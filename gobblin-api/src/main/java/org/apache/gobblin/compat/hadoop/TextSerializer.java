@@ -64,7 +64,7 @@ public class TextSerializer {
    * @param i Long to be serialized
    * @throws java.io.IOException
    */
-  private static void writeVLong(DataOutput stream, long i) throws IOException {
+  public static void writeVLong(DataOutput stream, long i) throws IOException {
     if (i >= -112 && i <= 127) {
       stream.writeByte((byte)i);
       return;
@@ -99,7 +99,7 @@ public class TextSerializer {
    * @throws java.io.IOException
    * @return deserialized long from stream.
    */
-  private static long readVLong(DataInput stream) throws IOException {
+  public static long readVLong(DataInput stream) throws IOException {
     byte firstByte = stream.readByte();
     int len = decodeVIntSize(firstByte);
     if (len == 1) {
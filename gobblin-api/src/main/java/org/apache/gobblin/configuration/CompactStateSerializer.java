@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.configuration;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+import org.apache.gobblin.compat.hadoop.TextSerializer;
+
+
+/**
+ * Serializes the properties of a group of {@link State}s in a compact, versioned binary format.
+ *
+ * <p>
+ *   States serialized together, such as the {@link org.apache.gobblin.source.workunit.WorkUnit}s of a
+ *   {@link org.apache.gobblin.source.workunit.MultiWorkUnit}, usually carry the same job-level properties. The
+ *   format therefore writes:
+ *   <ul>
+ *     <li>A dictionary of all distinct property keys, each written once. Entries refer to keys by index.</li>
+ *     <li>A common block of the key/value pairs that are identical in every state, written once.</li>
+ *     <li>For each state, only the key/value pairs that are not in the common block.</li>
+ *   </ul>
+ * </p>
+ *
+ * <p>
+ *   On deserialization, all states share a single {@link Properties} instance holding the common block as their
+ *   common properties, so the job-level properties are held in memory once. {@link State} copies its common
+ *   properties before removing from them, so the shared instance is never modified.
+ * </p>
+ */
+public class CompactStateSerializer {
+
+  public static final int FORMAT_VERSION = 1;
+
+  private CompactStateSerializer() {
+  }
+
+  /**
+   * Serialize the properties of the given {@link State}s.
+   *
+   * @param out the {@link DataOutput} to write to
+   * @param states the {@link State}s to serialize
+   */
+  public static void write(DataOutput out, List<? extends State> states) throws IOException {
+    List<Properties> propertiesList = new ArrayList<>(states.size());
+    for (State state : states) {
+      propertiesList.add(state.getProperties());
+    }
+
+    Map<String, String> common = new HashMap<>();
+    if (!propertiesList.isEmpty()) {
+      for (String key : propertiesList.get(0).stringPropertyNames()) {
+        common.put(key, propertiesList.get(0).getProperty(key));
+      }
+      for (int i = 1; i < propertiesList.size() && !common.isEmpty(); i++) {
+        Properties properties = propertiesList.get(i);
+        Iterator<Map.Entry<String, String>> iterator = common.entrySet().iterator();
+        while (iterator.hasNext()) {
+          Map.Entry<String, String> entry = iterator.next();
+          if (!entry.getValue().equals(properties.getProperty(entry.getKey()))) {
+            iterator.remove();
+          }
+        }
+      }
+    }
+
+    Map<String, Integer> dictionary = new LinkedHashMap<>();
+    for (Properties properties : propertiesList) {
+      for (String key : properties.stringPropertyNames()) {
+        if (!dictionary.containsKey(key)) {
+          dictionary.put(key, dictionary.size());
+        }
+      }
+    }
+
+    out.writeInt(FORMAT_VERSION);
+    TextSerializer.writeVLong(out, dictionary.size());
+    for (String key : dictionary.keySet()) {
+      TextSerializer.writeStringAsText(out, key);
+    }
+
+    TextSerializer.writeVLong(out, common.size());
+    for (Map.Entry<String, String> entry : common.entrySet()) {
+      TextSerializer.writeVLong(out, dictionary.get(entry.getKey()));
+      TextSerializer.writeStringAsText(out, entry.getValue());
+    }
+
+    TextSerializer.writeVLong(out, propertiesList.size());
+    for (Properties properties : propertiesList) {
+      List<String> deltaKeys = new ArrayList<>();
+      for (String key : properties.stringPropertyNames()) {
+        if (!common.containsKey(key)) {
+          deltaKeys.add(key);
+        }
+      }
+      TextSerializer.writeVLong(out, deltaKeys.size());
+      for (String key : deltaKeys) {
+        TextSerializer.writeVLong(out, dictionary.get(key));
+        TextSerializer.writeStringAsText(out, properties.getProperty(key));
+      }
+    }
+  }
+
+  /**
+   * Deserialize {@link State}s written by {@link #write(DataOutput, List)}.
+   *
+   * @param in the {@link DataInput} to read from
+   * @param stateSupplier creates an empty {@link State} for each serialized state
+   * @return the deserialized {@link State}s, in the order they were written
+   */
+  public static <T extends State> List<T> read(DataInput in, Supplier<T> stateSupplier) throws IOException {
+    List<T> states = new ArrayList<>();
+    read(in, stateSupplier, states, false);
+    return states;
+  }
+
+  /**
+   * Deserialize {@link State}s written by {@link #write(DataOutput, List)} into existing {@link State} instances.
+   *
+   * @param in the {@link DataInput} to read from
+   * @param states the {@link State}s to populate, one per serialized state, in the order they were written
+   */
+  public static void readInto(DataInput in, List<? extends State> states) throws IOException {
+    read(in, null, states, true);
+  }
+
+  private static <T extends State> void read(DataInput in, Supplier<T> stateSupplier, List<? super T> states,
+      boolean populateExisting) throws IOException {
+    int version = in.readInt();
+    if (version != FORMAT_VERSION) {
+      throw new IOException("Unsupported compact state format version " + version);
+    }
+
+    String[] dictionary = new String[(int) TextSerializer.readVLong(in)];
+    for (int i = 0; i < dictionary.length; i++) {
+      dictionary[i] = TextSerializer.readTextAsString(in).intern();
+    }
+
+    Properties common = new Properties();
+    long numCommonEntries = TextSerializer.readVLong(in);
+    for (long i = 0; i < numCommonEntries; i++) {
+      String key = dictionary[(int) TextSerializer.readVLong(in)];
+      common.put(key, TextSerializer.readTextAsString(in).intern());
+    }
+
+    int numStates = (int) TextSerializer.readVLong(in);
+    if (populateExisting && numStates != states.size()) {
+      throw new IOException(String.format("Expected %d serialized states but found %d", states.size(), numStates));
+    }
+    for (int i = 0; i < numStates; i++) {
+      Properties spec = new Properties();
+      long numEntries = TextSerializer.readVLong(in);
+      for (long j = 0; j < numEntries; j++) {
+        String key = dictionary[(int) TextSerializer.readVLong(in)];
+        spec.put(key, TextSerializer.readTextAsString(in));
+      }
+      State state;
+      if (populateExisting) {
+        state = (State) states.get(i);
+      } else {
+        T newState = stateSupplier.get();
+        states.add(newState);
+        state = newState;
+      }
+      state.setProps(common, spec);
+    }
+  }
+}
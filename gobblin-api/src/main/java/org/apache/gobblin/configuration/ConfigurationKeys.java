@@ -58,6 +58,9 @@ public class ConfigurationKeys {
   // are the job.state files stored using the state store?
   public static final String JOB_STATE_IN_STATE_STORE = "state.store.jobStateInStateStore";
   public static final boolean DEFAULT_JOB_STATE_IN_STATE_STORE = false;
+  // Serialize the inner work units of a MultiWorkUnit with a shared key dictionary and common property block
+  public static final String STATE_COMPACT_SERIALIZATION_ENABLED_KEY = "state.compactSerialization.enabled";
+  public static final boolean DEFAULT_STATE_COMPACT_SERIALIZATION_ENABLED = false;
 
   public static final String CONFIG_RUNTIME_PREFIX = "gobblin.config.runtime.";
   // Root directory where task state files are stored
@@ -360,6 +363,14 @@ public class ConfigurationKeys {
   public static final long DEFAULT_FORK_RECORD_QUEUE_TIMEOUT = 1000;
   public static final String FORK_RECORD_QUEUE_TIMEOUT_UNIT_KEY = "fork.record.queue.timeout.unit";
   public static final String DEFAULT_FORK_RECORD_QUEUE_TIMEOUT_UNIT = TimeUnit.MILLISECONDS.name();
+  // Use a lock-free single-producer/single-consumer ring buffer instead of an ArrayBlockingQueue for fork hand-off
+  public static final String FORK_RECORD_QUEUE_SPSC_ENABLED_KEY = "fork.record.queue.spsc.enabled";
+  public static final boolean DEFAULT_FORK_RECORD_QUEUE_SPSC_ENABLED = false;
+  // One of BUSY_SPIN, YIELD or PARK
+  public static final String FORK_RECORD_QUEUE_SPSC_WAIT_STRATEGY_KEY = "fork.record.queue.spsc.waitStrategy";
+  public static final String DEFAULT_FORK_RECORD_QUEUE_SPSC_WAIT_STRATEGY = "PARK";
+  public static final String FORK_RECORD_QUEUE_DRAIN_BATCH_SIZE_KEY = "fork.record.queue.drain.batch.size";
+  public static final int DEFAULT_FORK_RECORD_QUEUE_DRAIN_BATCH_SIZE = 1;
   public static final String FORK_MAX_WAIT_MININUTES = "fork.max.wait.minutes";
   public static final long DEFAULT_FORK_MAX_WAIT_MININUTES = 60;
   public static final String FORK_FINISHED_CHECK_INTERVAL = "fork.finished.check.interval";
@@ -677,6 +688,9 @@ public class ConfigurationKeys {
   public static final String TASK_STATE_COLLECTOR_INTERVAL_SECONDS = "task.state.collector.interval.secs";
   public static final int DEFAULT_TASK_STATE_COLLECTOR_INTERVAL_SECONDS = 60;
   public static final String TASK_STATE_COLLECTOR_HANDLER_CLASS = "task.state.collector.handler.class";
+  // Write the task states of all tasks run by a multi-task attempt into one task state store table
+  public static final String TASK_STATE_STORE_SEGMENT_ENABLED = "task.state.store.segment.enabled";
+  public static final boolean DEFAULT_TASK_STATE_STORE_SEGMENT_ENABLED = false;
 
   /**
    * Set to true so that job still proceed if TaskStateCollectorService failed.
@@ -19,6 +19,8 @@ package org.apache.gobblin.source.extractor;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.gobblin.metadata.GlobalMetadata;
@@ -118,6 +120,23 @@ public interface Extractor<S, D> extends Closeable {
     return record == null ? null : new RecordEnvelope<>(record);
   }
 
+  /**
+   * Read a batch of up to {@code maxBatchSize} {@link RecordEnvelope}s. By default, just call
+   * {@link #readRecordEnvelope()} repeatedly until the batch is full or the source is exhausted. Extractors that can
+   * fetch records in bulk may override this to amortize per-record overhead.
+   *
+   * @param maxBatchSize maximum number of records to return
+   * @return the next batch of records, or an empty list if there are no more records
+   */
+  default List<RecordEnvelope<D>> readRecordBatch(int maxBatchSize) throws DataRecordException, IOException {
+    List<RecordEnvelope<D>> batch = new ArrayList<>(maxBatchSize);
+    RecordEnvelope<D> record;
+    while (batch.size() < maxBatchSize && (record = readRecordEnvelope()) != null) {
+      batch.add(record);
+    }
+    return batch;
+  }
+
   /**
    * Read an {@link StreamEntity}. By default, just return result of {@link #readRecordEnvelope()}.
    */
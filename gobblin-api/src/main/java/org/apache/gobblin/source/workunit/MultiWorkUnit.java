@@ -28,6 +28,9 @@ import com.google.common.collect.Lists;
 
 import lombok.ToString;
 
+import org.apache.gobblin.configuration.CompactStateSerializer;
+import org.apache.gobblin.configuration.ConfigurationKeys;
+
 
 /**
  * A class that wraps multiple {@link WorkUnit}s so they can executed within a single task.
@@ -45,6 +48,9 @@ import lombok.ToString;
 @ToString(callSuper = true)
 public class MultiWorkUnit extends WorkUnit {
 
+  // Written in place of the number of inner work units to mark the compact serialization format
+  private static final int COMPACT_FORMAT_MARKER = -1;
+
   private final List<WorkUnit> workUnits = Lists.newArrayList();
 
   /**
@@ -111,10 +117,14 @@ public class MultiWorkUnit extends WorkUnit {
   public void readFields(DataInput in)
       throws IOException {
     int numWorkUnits = in.readInt();
-    for (int i = 0; i < numWorkUnits; i++) {
-      WorkUnit workUnit = WorkUnit.createEmpty();
-      workUnit.readFields(in);
-      this.workUnits.add(workUnit);
+    if (numWorkUnits == COMPACT_FORMAT_MARKER) {
+      readCompactWorkUnits(in);
+    } else {
+      for (int i = 0; i < numWorkUnits; i++) {
+        WorkUnit workUnit = WorkUnit.createEmpty();
+        workUnit.readFields(in);
+        this.workUnits.add(workUnit);
+      }
     }
     super.readFields(in);
   }
@@ -122,13 +132,43 @@ public class MultiWorkUnit extends WorkUnit {
   @Override
   public void write(DataOutput out)
       throws IOException {
-    out.writeInt(this.workUnits.size());
-    for (WorkUnit workUnit : this.workUnits) {
-      workUnit.write(out);
+    if (getPropAsBoolean(ConfigurationKeys.STATE_COMPACT_SERIALIZATION_ENABLED_KEY,
+        ConfigurationKeys.DEFAULT_STATE_COMPACT_SERIALIZATION_ENABLED)) {
+      out.writeInt(COMPACT_FORMAT_MARKER);
+      writeCompactWorkUnits(out);
+    } else {
+      out.writeInt(this.workUnits.size());
+      for (WorkUnit workUnit : this.workUnits) {
+        workUnit.write(out);
+      }
     }
     super.write(out);
   }
 
+  /**
+   * Write the inner {@link WorkUnit}s and their {@link Extract}s with {@link CompactStateSerializer}, so that
+   * properties shared by all inner {@link WorkUnit}s are only written once.
+   */
+  private void writeCompactWorkUnits(DataOutput out) throws IOException {
+    List<Extract> extracts = Lists.newArrayListWithCapacity(this.workUnits.size());
+    for (WorkUnit workUnit : this.workUnits) {
+      extracts.add(workUnit.getMutableExtract());
+    }
+    CompactStateSerializer.write(out, this.workUnits);
+    CompactStateSerializer.write(out, extracts);
+  }
+
+  private void readCompactWorkUnits(DataInput in) throws IOException {
+    List<WorkUnit> compactWorkUnits = CompactStateSerializer.read(in, WorkUnit::createEmpty);
+    List<Extract> extracts = Lists.newArrayListWithCapacity(compactWorkUnits.size());
+    for (WorkUnit workUnit : compactWorkUnits) {
+      // Read into the extract of the work unit itself, getExtract() returns a copy
+      extracts.add(workUnit.getMutableExtract());
+    }
+    CompactStateSerializer.readInto(in, extracts);
+    this.workUnits.addAll(compactWorkUnits);
+  }
+
   @Override
   public boolean equals(Object object) {
     if (!(object instanceof MultiWorkUnit)) {
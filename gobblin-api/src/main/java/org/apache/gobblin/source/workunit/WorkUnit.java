@@ -183,6 +183,14 @@ public class WorkUnit extends State {
     return new ImmutableExtract(this.extract);
   }
 
+  /**
+   * Get the {@link Extract} of this {@link WorkUnit} itself rather than an immutable copy, for the serialization of
+   * a {@link MultiWorkUnit}.
+   */
+  Extract getMutableExtract() {
+    return this.extract;
+  }
+
   /**
    * This method will allow a work unit to be skipped if needed.
    */
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.configuration;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+
+import org.apache.gobblin.source.workunit.Extract;
+import org.apache.gobblin.source.workunit.MultiWorkUnit;
+import org.apache.gobblin.source.workunit.WorkUnit;
+
+
+public class CompactStateSerializerTest {
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    List<State> states = Lists.newArrayList();
+    for (int i = 0; i < 3; i++) {
+      State state = new State();
+      state.setProp("job.name", "testJob");
+      state.setProp("partition", Integer.toString(i));
+      if (i == 1) {
+        state.setProp("extra", "value");
+      }
+      states.add(state);
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    CompactStateSerializer.write(new DataOutputStream(bytes), states);
+    List<State> deserialized = CompactStateSerializer.read(
+        new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), State::new);
+
+    Assert.assertEquals(deserialized.size(), states.size());
+    for (int i = 0; i < states.size(); i++) {
+      Assert.assertEquals(deserialized.get(i).getProperties(), states.get(i).getProperties());
+    }
+    // Properties identical in all states are held once and shared
+    Assert.assertEquals(deserialized.get(0).getCommonProperties().getProperty("job.name"), "testJob");
+    Assert.assertSame(deserialized.get(0).getCommonProperties(), deserialized.get(2).getCommonProperties());
+    Assert.assertFalse(deserialized.get(0).getCommonProperties().containsKey("partition"));
+
+    // Removing a common property from one state must not affect the others
+    deserialized.get(0).removeProp("job.name");
+    Assert.assertFalse(deserialized.get(0).contains("job.name"));
+    Assert.assertEquals(deserialized.get(1).getProp("job.name"), "testJob");
+  }
+
+  @Test
+  public void testMultiWorkUnitSerialization() throws IOException {
+    for (boolean compact : new boolean[] {true, false}) {
+      MultiWorkUnit multiWorkUnit = MultiWorkUnit.createEmpty();
+      for (int i = 0; i < 3; i++) {
+        WorkUnit workUnit = WorkUnit.create(new Extract(Extract.TableType.SNAPSHOT_ONLY, "namespace", "table" + i));
+        workUnit.setProp("job.name", "testJob");
+        workUnit.setProp(ConfigurationKeys.TASK_ID_KEY, "task_" + i);
+        multiWorkUnit.addWorkUnit(workUnit);
+      }
+      multiWorkUnit.setPropExcludeInnerWorkUnits(ConfigurationKeys.STATE_COMPACT_SERIALIZATION_ENABLED_KEY, compact);
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      multiWorkUnit.write(new DataOutputStream(bytes));
+      MultiWorkUnit deserialized = MultiWorkUnit.createEmpty();
+      deserialized.readFields(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+      Assert.assertEquals(deserialized.getProperties(), multiWorkUnit.getProperties());
+      Assert.assertEquals(deserialized.getWorkUnits().size(), 3);
+      for (int i = 0; i < 3; i++) {
+        WorkUnit expected = multiWorkUnit.getWorkUnits().get(i);
+        WorkUnit actual = deserialized.getWorkUnits().get(i);
+        Assert.assertEquals(actual.getProperties(), expected.getProperties());
+        Assert.assertEquals(actual.getExtract().getProperties(), expected.getExtract().getProperties());
+      }
+    }
+  }
+
+  @Test
+  public void testMultiWorkUnitInnerExtractProps() throws IOException {
+    MultiWorkUnit multiWorkUnit = MultiWorkUnit.createEmpty();
+    for (int i = 0; i < 2; i++) {
+      Extract extract = new Extract(Extract.TableType.APPEND_ONLY, "namespace", "table" + i);
+      extract.setProp("extract.custom", "value" + i);
+      multiWorkUnit.addWorkUnit(WorkUnit.create(extract));
+    }
+    multiWorkUnit.setPropExcludeInnerWorkUnits(ConfigurationKeys.STATE_COMPACT_SERIALIZATION_ENABLED_KEY, true);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    multiWorkUnit.write(new DataOutputStream(bytes));
+    MultiWorkUnit deserialized = MultiWorkUnit.createEmpty();
+    deserialized.readFields(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+    for (int i = 0; i < 2; i++) {
+      WorkUnit workUnit = deserialized.getWorkUnits().get(i);
+      Assert.assertEquals(workUnit.getProp("extract.custom"), "value" + i);
+      Assert.assertEquals(workUnit.getExtract().getTable(), "table" + i);
+      Assert.assertEquals(workUnit.getExtract().getType(), Extract.TableType.APPEND_ONLY);
+    }
+  }
+}
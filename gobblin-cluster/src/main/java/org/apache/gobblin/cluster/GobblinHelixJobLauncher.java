@@ -426,6 +426,11 @@ public class GobblinHelixJobLauncher extends AbstractJobLauncher {
     if (workUnit instanceof MultiWorkUnit) {
       workUnitFileName += MULTI_WORK_UNIT_FILE_EXTENSION;
       stateStore = stateStores.getMwuStateStore();
+      if (this.jobContext.getJobState().getPropAsBoolean(ConfigurationKeys.STATE_COMPACT_SERIALIZATION_ENABLED_KEY,
+          ConfigurationKeys.DEFAULT_STATE_COMPACT_SERIALIZATION_ENABLED)) {
+        ((MultiWorkUnit) workUnit).setPropExcludeInnerWorkUnits(
+            ConfigurationKeys.STATE_COMPACT_SERIALIZATION_ENABLED_KEY, true);
+      }
     } else {
       workUnitFileName += WORK_UNIT_FILE_EXTENSION;
       stateStore = stateStores.getWuStateStore();
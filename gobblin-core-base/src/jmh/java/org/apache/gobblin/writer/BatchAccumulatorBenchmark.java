@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks {@link BatchAccumulator#append(Object, WriteCallback)} from several producer threads, as done by
+ * multiple forks sharing one {@link BufferedAsyncDataWriter}, while a consumer thread drains and acknowledges
+ * batches.
+ */
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@org.openjdk.jmh.annotations.Fork(value = 3)
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class BatchAccumulatorBenchmark {
+
+  @State(value = Scope.Benchmark)
+  public static class AccumulatorState {
+    @Param({"sequential", "concurrent"})
+    public String accumulatorType;
+
+    private final String record = "0123456789012345678901234567890123456789012345678901234567890123456789";
+    private BatchAccumulator<String> accumulator;
+    private Thread consumer;
+
+    @Setup
+    public void setup() {
+      if (this.accumulatorType.equals("sequential")) {
+        this.accumulator = new SequentialBasedBatchAccumulator<>(Batch.BATCH_SIZE_DEFAULT, Batch.BATCH_TTL_DEFAULT,
+            Batch.BATCH_QUEUE_CAPACITY_DEFAULT);
+      } else {
+        this.accumulator = new ConcurrentBatchAccumulator<>(Batch.BATCH_SIZE_DEFAULT, Batch.BATCH_TTL_DEFAULT,
+            Batch.BATCH_QUEUE_CAPACITY_DEFAULT, Runtime.getRuntime().availableProcessors());
+      }
+      this.consumer = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          Batch<String> batch;
+          while (!accumulator.isClosed()) {
+            if ((batch = accumulator.getNextAvailableBatch()) != null) {
+              acknowledge(batch);
+            }
+          }
+          accumulator.waitClose();
+          while ((batch = accumulator.getNextAvailableBatch()) != null) {
+            acknowledge(batch);
+          }
+        }
+      });
+      this.consumer.setDaemon(true);
+      this.consumer.start();
+    }
+
+    private void acknowledge(Batch<String> batch) {
+      batch.onSuccess(WriteResponse.EMPTY);
+      batch.done();
+      this.accumulator.deallocate(batch);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+      this.accumulator.close();
+      this.consumer.join();
+    }
+  }
+
+  @Benchmark
+  public void append(AccumulatorState state) throws InterruptedException {
+    state.accumulator.append(state.record, WriteCallback.EMPTY);
+  }
+}
@@ -21,7 +21,6 @@ import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -64,7 +63,8 @@ import org.apache.gobblin.util.FinalState;
  * 2. Wait for a specified amount of time on commit for all pending writes to complete.
  * 3. Do not proceed if a certain failure threshold is exceeded.
  * 4. Support a fixed number of retries on failure of individual records (TODO: retry strategies)
- * 5. Support a max number of outstanding / unacknowledged writes
+ * 5. Support a max number of outstanding / unacknowledged writes, optionally tuned between a min and the max based on
+ *    observed latency and failures (see {@link #ADAPTIVE_WINDOW_ENABLED_KEY} and {@link InFlightWindow})
  * 6. TODO: Support ordered / unordered write semantics
  *
  *
@@ -79,6 +79,23 @@ public class AsyncWriterManager<D> implements WatermarkAwareWriter<D>, DataWrite
   public static final int MIN_RETRY_INTERVAL_MILLIS_DEFAULT = 3;
   public static final int MAX_OUTSTANDING_WRITES_DEFAULT = 1000;
 
+  private static final String CONFIG_PREFIX = "asyncWriterManager.";
+  /** Tune the number of outstanding writes between the min and the max instead of always allowing the max */
+  public static final String ADAPTIVE_WINDOW_ENABLED_KEY = CONFIG_PREFIX + "adaptiveWindow.enabled";
+  public static final boolean ADAPTIVE_WINDOW_ENABLED_DEFAULT = false;
+  public static final String ADAPTIVE_WINDOW_MIN_OUTSTANDING_WRITES_KEY =
+      CONFIG_PREFIX + "adaptiveWindow.minOutstandingWrites";
+  public static final int ADAPTIVE_WINDOW_MIN_OUTSTANDING_WRITES_DEFAULT = 10;
+  /** Writes slower than this shrink the window */
+  public static final String ADAPTIVE_WINDOW_TARGET_LATENCY_MILLIS_KEY =
+      CONFIG_PREFIX + "adaptiveWindow.targetLatencyMillis";
+  public static final long ADAPTIVE_WINDOW_TARGET_LATENCY_MILLIS_DEFAULT = 1000L;
+  public static final String ADAPTIVE_WINDOW_DECREASE_FACTOR_KEY = CONFIG_PREFIX + "adaptiveWindow.decreaseFactor";
+  public static final double ADAPTIVE_WINDOW_DECREASE_FACTOR_DEFAULT = 0.5;
+  /** Max number of queued retries sent together by the retry thread */
+  public static final String RETRY_BATCH_SIZE_KEY = CONFIG_PREFIX + "retryBatchSize";
+  public static final int RETRY_BATCH_SIZE_DEFAULT = 100;
+
   private final boolean instrumentationEnabled;
 
   private MetricContext metricContext;
@@ -107,7 +124,9 @@ public class AsyncWriterManager<D> implements WatermarkAwareWriter<D>, DataWrite
   @VisibleForTesting
   final Optional<LinkedBlockingQueue<Attempt>> retryQueue;
   private final int maxOutstandingWrites;
-  private final Semaphore writePermits;
+  @VisibleForTesting
+  final InFlightWindow writePermits;
+  private final int retryBatchSize;
   private volatile Throwable cachedWriteException = null;
 
   @Override
@@ -224,6 +243,8 @@ public class AsyncWriterManager<D> implements WatermarkAwareWriter<D>, DataWrite
     this.commitStepWaitTimeMillis = commitStepWaitTimeMillis;
     this.failureAllowanceRatio = failureAllowanceRatio;
     this.minRetryIntervalMillis = minRetryIntervalMillis;
+    this.retryBatchSize = ConfigUtils.getInt(config, RETRY_BATCH_SIZE_KEY, RETRY_BATCH_SIZE_DEFAULT);
+    Preconditions.checkArgument(this.retryBatchSize > 0, "Retry batch size must be greater than 0");
     if (retriesEnabled) {
       this.numRetries = numRetries;
       this.retryQueue = Optional.of(new LinkedBlockingQueue<Attempt>());
@@ -236,7 +257,17 @@ public class AsyncWriterManager<D> implements WatermarkAwareWriter<D>, DataWrite
       this.retryThreadPool = Optional.absent();
     }
     this.maxOutstandingWrites = maxOutstandingWrites;
-    this.writePermits = new Semaphore(maxOutstandingWrites);
+    if (ConfigUtils.getBoolean(config, ADAPTIVE_WINDOW_ENABLED_KEY, ADAPTIVE_WINDOW_ENABLED_DEFAULT)) {
+      int minOutstandingWrites = Math.min(maxOutstandingWrites, ConfigUtils.getInt(config,
+          ADAPTIVE_WINDOW_MIN_OUTSTANDING_WRITES_KEY, ADAPTIVE_WINDOW_MIN_OUTSTANDING_WRITES_DEFAULT));
+      this.writePermits = new InFlightWindow(minOutstandingWrites, maxOutstandingWrites,
+          ConfigUtils.getLong(config, ADAPTIVE_WINDOW_TARGET_LATENCY_MILLIS_KEY,
+              ADAPTIVE_WINDOW_TARGET_LATENCY_MILLIS_DEFAULT), TimeUnit.MILLISECONDS,
+          ConfigUtils.getDouble(config, ADAPTIVE_WINDOW_DECREASE_FACTOR_KEY, ADAPTIVE_WINDOW_DECREASE_FACTOR_DEFAULT));
+      log.info("Using an adaptive window of {} to {} outstanding writes", minOutstandingWrites, maxOutstandingWrites);
+    } else {
+      this.writePermits = new InFlightWindow(maxOutstandingWrites);
+    }
     this.asyncDataWriter = asyncDataWriter;
     this.closer.register(asyncDataWriter);
   }
@@ -264,6 +295,7 @@ public class AsyncWriterManager<D> implements WatermarkAwareWriter<D>, DataWrite
         if (spinNum % 50 == 0) {
           log.info("Spinning due to pending writes, in = " + this.recordsIn.getCount() +
               ", success = " + this.recordsSuccess.getCount() + ", failed = " + this.recordsFailed.getCount() +
+              ", outstandingWritesLimit = " + this.writePermits.getLimit() +
               ", maxOutstandingWrites = " + this.maxOutstandingWrites);
         }
       }
@@ -305,6 +337,7 @@ public class AsyncWriterManager<D> implements WatermarkAwareWriter<D>, DataWrite
 
       @Override
       public void onSuccess(WriteResponse writeResponse) {
+        long latencyNanos = System.nanoTime() - attempt.getPrevAttemptTimestampNanos();
         try {
           attempt.ackable.ack();
           AsyncWriterManager.this.recordsSuccess.mark();
@@ -312,11 +345,10 @@ public class AsyncWriterManager<D> implements WatermarkAwareWriter<D>, DataWrite
             AsyncWriterManager.this.bytesWritten.mark(writeResponse.bytesWritten());
           }
           if (AsyncWriterManager.this.dataWriterTimer.isPresent()) {
-            AsyncWriterManager.this.dataWriterTimer.get()
-                .update(System.nanoTime() - attempt.getPrevAttemptTimestampNanos(), TimeUnit.NANOSECONDS);
+            AsyncWriterManager.this.dataWriterTimer.get().update(latencyNanos, TimeUnit.NANOSECONDS);
           }
         } finally {
-          AsyncWriterManager.this.writePermits.release();
+          AsyncWriterManager.this.writePermits.onSuccess(latencyNanos);
         }
       }
 
@@ -332,6 +364,7 @@ public class AsyncWriterManager<D> implements WatermarkAwareWriter<D>, DataWrite
               attempt.getRecord().toString());
           attempt.incAttempt();
           attempt.setPrevAttemptFailure(throwable);
+          AsyncWriterManager.this.writePermits.onRetriableFailure();
           AsyncWriterManager.this.retryQueue.get().add(attempt);
         } else {
           try {
@@ -345,7 +378,7 @@ public class AsyncWriterManager<D> implements WatermarkAwareWriter<D>, DataWrite
               attempt.ackable.ack();
             }
           } finally {
-            AsyncWriterManager.this.writePermits.release();
+            AsyncWriterManager.this.writePermits.onFailure();
           }
         }
       }
@@ -374,16 +407,27 @@ public class AsyncWriterManager<D> implements WatermarkAwareWriter<D>, DataWrite
       }
     }
 
+    /**
+     * Retries are sent in batches: all attempts queued when the retry thread wakes up (up to the retry batch size)
+     * wait out the min retry interval together and are then re-attempted back to back.
+     */
     @Override
     public void run() {
+      List<Attempt> batch = Lists.newArrayListWithCapacity(AsyncWriterManager.this.retryBatchSize);
       while (true) {
         try {
-          Attempt attempt = this.retryQueue.take();
-          if (attempt != null) {
-            maybeSleep(attempt.getPrevAttemptTimestampNanos());
-            log.debug("Retry thread will retry record: {}", attempt.getRecord().toString());
+          batch.add(this.retryQueue.take());
+          this.retryQueue.drainTo(batch, AsyncWriterManager.this.retryBatchSize - 1);
+          long lastAttemptTimestampNanos = Long.MIN_VALUE;
+          for (Attempt attempt : batch) {
+            lastAttemptTimestampNanos = Math.max(lastAttemptTimestampNanos, attempt.getPrevAttemptTimestampNanos());
+          }
+          maybeSleep(lastAttemptTimestampNanos);
+          log.debug("Retry thread will retry {} records", batch.size());
+          for (Attempt attempt : batch) {
             attemptWrite(attempt);
           }
+          batch.clear();
         } catch (InterruptedException e) {
           log.info("Retry thread interrupted... will exit");
           Throwables.propagate(e);
@@ -433,16 +477,20 @@ public class AsyncWriterManager<D> implements WatermarkAwareWriter<D>, DataWrite
     long commitTimeoutNanos = commitTimeoutMillis * MILLIS_TO_NANOS;
     long commitStartTime = System.nanoTime();
     this.asyncDataWriter.flush();
-    while (((System.nanoTime() - commitStartTime) < commitTimeoutNanos) && (this.recordsIn.getCount() != (
-        this.recordsSuccess.getCount() + this.recordsFailed.getCount()))) {
-      log.debug("Commit waiting... records produced: {}, written: {}, failed: {}", this.recordsIn.getCount(),
-          this.recordsSuccess.getCount(), this.recordsFailed.getCount());
-      try {
-        Thread.sleep(this.commitStepWaitTimeMillis);
-      } catch (InterruptedException e) {
-        log.info("Interrupted while waiting for commit to complete");
-        throw new IOException("Interrupted while waiting for commit to complete", e);
+    // Every pending write holds a slot in the window until it completes, so wait for the window to drain. The wait
+    // returns as soon as the last write completes; commitStepWaitTimeMillis only bounds the interval between progress
+    // logs.
+    try {
+      long remainingNanos;
+      while ((remainingNanos = commitTimeoutNanos - (System.nanoTime() - commitStartTime)) > 0
+          && !this.writePermits.awaitEmpty(Math.min(remainingNanos, this.commitStepWaitTimeMillis * MILLIS_TO_NANOS),
+          TimeUnit.NANOSECONDS)) {
+        log.debug("Commit waiting... records produced: {}, written: {}, failed: {}", this.recordsIn.getCount(),
+            this.recordsSuccess.getCount(), this.recordsFailed.getCount());
       }
+    } catch (InterruptedException e) {
+      log.info("Interrupted while waiting for commit to complete");
+      throw new IOException("Interrupted while waiting for commit to complete", e);
     }
     log.debug("Commit done waiting");
     long recordsProducedFinal = this.recordsIn.getCount();
@@ -43,6 +43,8 @@ public abstract class Batch<D>{
   public static final long   BATCH_SIZE_DEFAULT = 256 * 1024; // 256KB
   public static final String BATCH_QUEUE_CAPACITY = "writer.batch.queue.capacity";
   public static final long   BATCH_QUEUE_CAPACITY_DEFAULT = 100;
+  public static final String BATCH_ACCUMULATOR_CONCURRENT = "writer.batch.accumulator.concurrent";
+  public static final boolean BATCH_ACCUMULATOR_CONCURRENT_DEFAULT = false;
 
   private final List<Thunk> thunks;
 
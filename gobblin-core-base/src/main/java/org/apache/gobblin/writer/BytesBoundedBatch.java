@@ -44,6 +44,13 @@ public class BytesBoundedBatch<D> extends Batch<D>{
     return (System.currentTimeMillis() - creationTimestamp) >= ttlInMilliSeconds;
   }
 
+  /**
+   * Time left until {@link #isTTLExpire()} becomes true, 0 if it already is
+   */
+  public long getTTLRemainingInMilliSeconds() {
+    return Math.max(0, ttlInMilliSeconds - (System.currentTimeMillis() - creationTimestamp));
+  }
+
   private long getInternalSize(D record) {
     return (record).toString().length() + this.OVERHEAD_SIZE_IN_BYTES;
   }
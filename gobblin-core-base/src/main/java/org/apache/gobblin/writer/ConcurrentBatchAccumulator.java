@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gobblin.writer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.Futures;
+import com.typesafe.config.Config;
+
+import org.apache.gobblin.annotation.Alpha;
+import org.apache.gobblin.util.ConfigUtils;
+
+
+/**
+ * A TTL based accumulator for multiple producer threads with the same batching semantics as
+ * {@link SequentialBasedBatchAccumulator}.
+ * <p>
+ *   Instead of a single deque guarded by one lock, each producer thread appends to the open {@link BytesBoundedBatch}
+ *   of its own stripe (selected by thread id), so producers on different stripes never contend. A full batch is
+ *   sealed into a lock-free queue of completed batches, which {@link BufferedAsyncDataWriter} drains one by one. An
+ *   open batch is handed out once its TTL expires. The records of a single producer thread keep their order, there is
+ *   no ordering across producer threads.
+ * </p>
+ * <p>
+ *   The capacity bounds the number of open and completed batches held by the accumulator, producers block on
+ *   {@link #enqueue(Object, WriteCallback)} while it is reached. Unlike {@link SequentialBasedBatchAccumulator},
+ *   {@link #getNextAvailableBatch()} waits until the oldest open batch expires instead of returning null right away,
+ *   so the consumer does not spin while batches are being filled.
+ * </p>
+ */
+@Alpha
+public class ConcurrentBatchAccumulator<D> extends BatchAccumulator<D> {
+
+  /** Number of stripes producer threads are spread over, defaults to the number of available processors */
+  public static final String NUM_STRIPES = "writer.batch.accumulator.numStripes";
+
+  private static final LargeMessagePolicy DEFAULT_LARGE_MESSAGE_POLICY = LargeMessagePolicy.FAIL;
+  private static final Logger LOG = LoggerFactory.getLogger(ConcurrentBatchAccumulator.class);
+
+  private final Stripe<D>[] stripes;
+  private final ConcurrentLinkedQueue<BytesBoundedBatch<D>> completed = new ConcurrentLinkedQueue<>();
+  private final Set<Batch<D>> incomplete = Collections.newSetFromMap(new ConcurrentHashMap<Batch<D>, Boolean>());
+  private final Semaphore permits;
+  private final int capacity;
+  private final long memSizeLimit;
+  private final double tolerance = 0.95;
+  private final long expireInMilliSecond;
+  private final LargeMessagePolicy largeMessagePolicy;
+
+  /** Only taken once per batch, to wake up the consumer when a batch is created or completed */
+  private final ReentrantLock signalLock = new ReentrantLock();
+  private final Condition batchEvent = signalLock.newCondition();
+  private long numBatchEvents = 0;
+
+  public ConcurrentBatchAccumulator(Properties properties) {
+    this(ConfigUtils.propertiesToConfig(properties));
+  }
+
+  public ConcurrentBatchAccumulator(Config config) {
+    this(ConfigUtils.getLong(config, Batch.BATCH_SIZE, Batch.BATCH_SIZE_DEFAULT),
+        ConfigUtils.getLong(config, Batch.BATCH_TTL, Batch.BATCH_TTL_DEFAULT),
+        ConfigUtils.getLong(config, Batch.BATCH_QUEUE_CAPACITY, Batch.BATCH_QUEUE_CAPACITY_DEFAULT),
+        ConfigUtils.getInt(config, NUM_STRIPES, Runtime.getRuntime().availableProcessors()));
+  }
+
+  public ConcurrentBatchAccumulator(long batchSizeLimit, long expireInMilliSecond, long capacity, int numStripes) {
+    this(batchSizeLimit, expireInMilliSecond, capacity, numStripes, DEFAULT_LARGE_MESSAGE_POLICY);
+  }
+
+  @SuppressWarnings("unchecked")
+  public ConcurrentBatchAccumulator(long batchSizeLimit,
+      long expireInMilliSecond,
+      long capacity,
+      int numStripes,
+      LargeMessagePolicy largeMessagePolicy) {
+    if (numStripes <= 0) {
+      throw new IllegalArgumentException("Number of stripes must be greater than 0");
+    }
+    this.expireInMilliSecond = expireInMilliSecond;
+    this.capacity = (int) Math.min(Integer.MAX_VALUE, capacity);
+    this.permits = new Semaphore(this.capacity);
+    this.memSizeLimit = (long) (this.tolerance * batchSizeLimit);
+    this.largeMessagePolicy = largeMessagePolicy;
+    this.stripes = new Stripe[numStripes];
+    for (int i = 0; i < numStripes; i++) {
+      this.stripes[i] = new Stripe<>();
+    }
+  }
+
+  /**
+   * Number of open and completed batches held by this accumulator
+   */
+  public long getNumOfBatches() {
+    return this.capacity - this.permits.availablePermits();
+  }
+
+  /**
+   * Add a record to the open batch of the stripe of the current thread, creating a new batch if it has no room
+   */
+  public final Future<RecordMetadata> enqueue(D record, WriteCallback callback) throws InterruptedException {
+    Stripe<D> stripe = this.stripes[(int) (Thread.currentThread().getId() % this.stripes.length)];
+
+    synchronized (stripe) {
+      BytesBoundedBatch<D> open = stripe.open;
+      if (open != null) {
+        Future<RecordMetadata> future = null;
+        try {
+          future = open.tryAppend(record, callback, this.largeMessagePolicy);
+        } catch (RecordTooLargeException e) {
+          // Ok if the record was too large for the current batch
+        }
+        if (future != null) {
+          return future;
+        }
+        stripe.open = null;
+        complete(open);
+      }
+    }
+
+    // Create a new batch because previous one has no space, if the accumulator is full, we should not add more
+    this.permits.acquire();
+    BytesBoundedBatch<D> batch = new BytesBoundedBatch<>(this.memSizeLimit, this.expireInMilliSecond);
+    LOG.debug("Batch " + batch.getId() + " is generated");
+    Future<RecordMetadata> future = null;
+    try {
+      future = batch.tryAppend(record, callback, this.largeMessagePolicy);
+    } catch (RecordTooLargeException e) {
+      this.permits.release();
+      // If a new batch also wasn't able to accomodate the new message
+      throw new RuntimeException("Failed due to a message that was too large", e);
+    }
+
+    // The future might be null, since the largeMessagePolicy might be set to DROP
+    if (future == null) {
+      assert largeMessagePolicy.equals(LargeMessagePolicy.DROP);
+      this.permits.release();
+      LOG.error("Batch " + batch.getId() + " is silently marked as complete, dropping a huge record: " + record);
+      callback.onSuccess(WriteResponse.EMPTY);
+      return Futures.immediateFuture(new RecordMetadata(0));
+    }
+
+    this.incomplete.add(batch);
+    synchronized (stripe) {
+      // Another thread of the same stripe may have opened a batch in the meantime
+      if (stripe.open != null) {
+        complete(stripe.open);
+      }
+      stripe.open = batch;
+    }
+    signalBatchEvent();
+    return future;
+  }
+
+  private void complete(BytesBoundedBatch<D> batch) {
+    this.completed.add(batch);
+    signalBatchEvent();
+  }
+
+  private void signalBatchEvent() {
+    this.signalLock.lock();
+    try {
+      this.numBatchEvents++;
+      this.batchEvent.signalAll();
+    } finally {
+      this.signalLock.unlock();
+    }
+  }
+
+  /**
+   * If accumulator has been closed, remove and return a completed batch, or else an open batch, or null if there
+   * are none.
+   * If accumulator has not been closed, remove and return a completed batch, or else the first open batch whose TTL
+   * has expired. If there are none, block until a batch completes or expires, or the accumulator is closed.
+   */
+  public Batch<D> getNextAvailableBatch() {
+    try {
+      while (true) {
+        long observedBatchEvents = getNumBatchEvents();
+        BytesBoundedBatch<D> candidate = this.completed.poll();
+        if (candidate != null) {
+          LOG.debug("retrieve batch " + candidate.getId());
+          return take(candidate);
+        }
+
+        boolean closed = isClosed();
+        long waitMillis = Long.MAX_VALUE;
+        for (Stripe<D> stripe : this.stripes) {
+          synchronized (stripe) {
+            BytesBoundedBatch<D> open = stripe.open;
+            if (open == null) {
+              continue;
+            }
+            if (closed || open.isTTLExpire()) {
+              LOG.debug("Batch " + open.getId() + " is expired");
+              stripe.open = null;
+              return take(open);
+            }
+            waitMillis = Math.min(waitMillis, open.getTTLRemainingInMilliSeconds());
+          }
+        }
+
+        if (closed) {
+          return take(this.completed.poll());
+        }
+        awaitBatchEvent(observedBatchEvents, waitMillis);
+      }
+    } catch (InterruptedException e) {
+      LOG.error("Wait for next batch is interrupted. " + e.toString());
+    }
+    return null;
+  }
+
+  private BytesBoundedBatch<D> take(BytesBoundedBatch<D> batch) {
+    if (batch != null) {
+      this.permits.release();
+    }
+    return batch;
+  }
+
+  private long getNumBatchEvents() {
+    this.signalLock.lock();
+    try {
+      return this.numBatchEvents;
+    } finally {
+      this.signalLock.unlock();
+    }
+  }
+
+  /**
+   * Wait up to waitMillis unless a batch was created or completed since observedBatchEvents was read
+   */
+  private void awaitBatchEvent(long observedBatchEvents, long waitMillis) throws InterruptedException {
+    this.signalLock.lock();
+    try {
+      if (this.numBatchEvents != observedBatchEvents || isClosed()) {
+        return;
+      }
+      if (waitMillis == Long.MAX_VALUE) {
+        LOG.debug("ready to sleep because of queue is empty");
+        this.batchEvent.await();
+      } else if (waitMillis > 0) {
+        this.batchEvent.await(waitMillis, TimeUnit.MILLISECONDS);
+      }
+    } finally {
+      this.signalLock.unlock();
+    }
+  }
+
+  public void close() {
+    super.close();
+    signalBatchEvent();
+  }
+
+  /**
+   * This will block until all the incomplete batches are acknowledged
+   */
+  public void flush() {
+    try {
+      ArrayList<Batch<D>> batches = new ArrayList<>(this.incomplete);
+      int numOutstandingRecords = 0;
+      for (Batch<D> batch: batches) {
+        numOutstandingRecords += batch.getRecords().size();
+      }
+      LOG.debug("Flush called on {} batches with {} records total", batches.size(), numOutstandingRecords);
+      for (Batch<D> batch: batches) {
+        batch.await();
+      }
+    } catch (Exception e) {
+      LOG.error("Error happened while flushing batches");
+    }
+  }
+
+  /**
+   * Once batch is acknowledged, remove it from incomplete list
+   */
+  public void deallocate(Batch<D> batch) {
+    if (!this.incomplete.remove(batch)) {
+      throw new IllegalStateException("Remove from the incomplete set failed. This should be impossible.");
+    }
+  }
+
+  /**
+   * The open batch of the producer threads mapped to a stripe
+   */
+  private static final class Stripe<D> {
+    private BytesBoundedBatch<D> open;
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.base.Preconditions;
+
+
+/**
+ * Bounds the number of in-flight writes of an {@link AsyncWriterManager}.
+ *
+ * <p>
+ *   A fixed window behaves like a {@link java.util.concurrent.Semaphore} with maxLimit permits. An adaptive window
+ *   tunes its limit between minLimit and maxLimit with additive-increase / multiplicative-decrease (AIMD): every write
+ *   completing within the target latency grows the limit by 1 / limit (about one per window of successful writes),
+ *   while a failed write or a write slower than the target latency multiplies the limit by the decrease factor. The
+ *   limit is decreased at most once per target latency interval, so a burst of failures from a single overloaded
+ *   window only shrinks it once.
+ * </p>
+ */
+class InFlightWindow {
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final boolean adaptive;
+  private final long targetLatencyNanos;
+  private final double decreaseFactor;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition belowLimit = this.lock.newCondition();
+  private final Condition empty = this.lock.newCondition();
+
+  private int inFlight = 0;
+  private double limit;
+  private long lastDecreaseNanos;
+
+  /**
+   * Create a fixed window allowing limit in-flight writes.
+   */
+  InFlightWindow(int limit) {
+    this(limit, limit, false, 0, 1.0);
+  }
+
+  /**
+   * Create an adaptive window, starting at maxLimit.
+   */
+  InFlightWindow(int minLimit, int maxLimit, long targetLatency, TimeUnit unit, double decreaseFactor) {
+    this(minLimit, maxLimit, true, unit.toNanos(targetLatency), decreaseFactor);
+  }
+
+  private InFlightWindow(int minLimit, int maxLimit, boolean adaptive, long targetLatencyNanos,
+      double decreaseFactor) {
+    Preconditions.checkArgument(minLimit > 0 && minLimit <= maxLimit,
+        "Min limit must be greater than 0 and at most max limit");
+    Preconditions.checkArgument(decreaseFactor > 0 && decreaseFactor <= 1.0, "Decrease factor must be in (0, 1]");
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.adaptive = adaptive;
+    this.targetLatencyNanos = targetLatencyNanos;
+    this.decreaseFactor = decreaseFactor;
+    this.limit = maxLimit;
+    this.lastDecreaseNanos = System.nanoTime() - targetLatencyNanos;
+  }
+
+  /**
+   * Acquire a slot for a write, waiting up to the given time for the number of in-flight writes to drop below the
+   * limit.
+   * @return true if a slot was acquired
+   */
+  boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+    long remainingNanos = unit.toNanos(timeout);
+    this.lock.lockInterruptibly();
+    try {
+      while (this.inFlight >= getLimitLocked()) {
+        if (remainingNanos <= 0) {
+          return false;
+        }
+        remainingNanos = this.belowLimit.awaitNanos(remainingNanos);
+      }
+      this.inFlight++;
+      return true;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Release the slot of a write that completed successfully after latencyNanos.
+   */
+  void onSuccess(long latencyNanos) {
+    this.lock.lock();
+    try {
+      if (this.adaptive) {
+        if (latencyNanos > this.targetLatencyNanos) {
+          maybeDecreaseLocked();
+        } else {
+          this.limit = Math.min(this.maxLimit, this.limit + 1.0 / this.limit);
+        }
+      }
+      releaseLocked();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Release the slot of a write that failed permanently.
+   */
+  void onFailure() {
+    this.lock.lock();
+    try {
+      if (this.adaptive) {
+        maybeDecreaseLocked();
+      }
+      releaseLocked();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Record a failed write attempt that will be retried. The write keeps its slot.
+   */
+  void onRetriableFailure() {
+    if (!this.adaptive) {
+      return;
+    }
+    this.lock.lock();
+    try {
+      maybeDecreaseLocked();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Wait up to the given time for all in-flight writes to complete.
+   * @return true if there are no in-flight writes
+   */
+  boolean awaitEmpty(long timeout, TimeUnit unit) throws InterruptedException {
+    long remainingNanos = unit.toNanos(timeout);
+    this.lock.lockInterruptibly();
+    try {
+      while (this.inFlight > 0) {
+        if (remainingNanos <= 0) {
+          return false;
+        }
+        remainingNanos = this.empty.awaitNanos(remainingNanos);
+      }
+      return true;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  int getLimit() {
+    this.lock.lock();
+    try {
+      return getLimitLocked();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  int getInFlight() {
+    this.lock.lock();
+    try {
+      return this.inFlight;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private int getLimitLocked() {
+    return (int) this.limit;
+  }
+
+  private void maybeDecreaseLocked() {
+    long now = System.nanoTime();
+    if (now - this.lastDecreaseNanos >= this.targetLatencyNanos) {
+      this.limit = Math.max(this.minLimit, this.limit * this.decreaseFactor);
+      this.lastDecreaseNanos = now;
+    }
+  }
+
+  private void releaseLocked() {
+    this.inFlight--;
+    if (this.inFlight < getLimitLocked()) {
+      this.belowLimit.signalAll();
+    }
+    if (this.inFlight == 0) {
+      this.empty.signalAll();
+    }
+  }
+}
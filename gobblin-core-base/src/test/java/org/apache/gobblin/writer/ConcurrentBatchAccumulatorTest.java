@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gobblin.writer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+
+public class ConcurrentBatchAccumulatorTest {
+
+  private static final String RECORD = Strings.repeat("a", 40);
+
+  @Test
+  public void testConcurrentAppends() throws Exception {
+    final int numProducers = 4;
+    final int recordsPerProducer = 1000;
+    final ConcurrentBatchAccumulator<String> accumulator =
+        new ConcurrentBatchAccumulator<>(1024, 1000, 10, numProducers);
+
+    List<Thread> producers = Lists.newArrayList();
+    for (int p = 0; p < numProducers; p++) {
+      final String producer = Integer.toString(p);
+      producers.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            for (int i = 0; i < recordsPerProducer; i++) {
+              accumulator.append(producer + ":" + i, WriteCallback.EMPTY);
+            }
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        }
+      }));
+    }
+    for (Thread producer : producers) {
+      producer.start();
+    }
+
+    Map<String, Integer> lastIndex = Maps.newHashMap();
+    int numRecords = 0;
+    while (numRecords < numProducers * recordsPerProducer) {
+      Batch<String> batch = accumulator.getNextAvailableBatch();
+      Assert.assertNotNull(batch);
+      for (String record : batch.getRecords()) {
+        String[] parts = record.split(":");
+        int index = Integer.parseInt(parts[1]);
+        Integer last = lastIndex.get(parts[0]);
+        Assert.assertEquals(index, last == null ? 0 : last + 1, "Records of a producer should keep their order");
+        lastIndex.put(parts[0], index);
+        numRecords++;
+      }
+      batch.done();
+      accumulator.deallocate(batch);
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    Assert.assertEquals(accumulator.getNumOfBatches(), 0);
+  }
+
+  @Test
+  public void testAccumulatorCapacity() throws Exception {
+    final ConcurrentBatchAccumulator<String> accumulator = new ConcurrentBatchAccumulator<>(64, 1000, 5, 1);
+    for (int i = 0; i < 5; i++) {
+      accumulator.append(RECORD, WriteCallback.EMPTY);
+    }
+    Assert.assertEquals(accumulator.getNumOfBatches(), 5);
+
+    final CountDownLatch appended = new CountDownLatch(1);
+    new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          accumulator.append(RECORD, WriteCallback.EMPTY);
+          appended.countDown();
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    }).start();
+
+    // the accumulator is full, so the append blocks until a batch is removed
+    Assert.assertFalse(appended.await(500, TimeUnit.MILLISECONDS));
+    Assert.assertNotNull(accumulator.getNextAvailableBatch());
+    Assert.assertTrue(appended.await(10, TimeUnit.SECONDS));
+    Assert.assertEquals(accumulator.getNumOfBatches(), 5);
+  }
+
+  @Test
+  public void testExpiredBatch() throws Exception {
+    ConcurrentBatchAccumulator<String> accumulator = new ConcurrentBatchAccumulator<>(64, 500, 5, 1);
+    accumulator.append("1", WriteCallback.EMPTY);
+    long startTime = System.currentTimeMillis();
+    // the consumer waits for the open batch to expire
+    Batch<String> batch = accumulator.getNextAvailableBatch();
+    Assert.assertTrue(System.currentTimeMillis() - startTime >= 400);
+    Assert.assertEquals(batch.getRecords(), Lists.newArrayList("1"));
+  }
+
+  @Test
+  public void testClose() throws Exception {
+    final ConcurrentBatchAccumulator<String> accumulator = new ConcurrentBatchAccumulator<>(64, 60000, 5, 2);
+    for (int i = 0; i < 3; i++) {
+      accumulator.append(RECORD + i, WriteCallback.EMPTY);
+    }
+
+    new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          Thread.sleep(500);
+        } catch (InterruptedException e) {
+        }
+        accumulator.close();
+      }
+    }).start();
+
+    // the first two batches are complete, the last one is only handed out because the accumulator gets closed
+    for (int i = 0; i < 3; i++) {
+      Assert.assertEquals(accumulator.getNextAvailableBatch().getRecords().get(0), RECORD + i);
+    }
+    Assert.assertNull(accumulator.getNextAvailableBatch());
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class InFlightWindowTest {
+
+  @Test
+  public void testFixedWindow() throws InterruptedException {
+    InFlightWindow window = new InFlightWindow(2);
+    Assert.assertTrue(window.tryAcquire(0, TimeUnit.MILLISECONDS));
+    Assert.assertTrue(window.tryAcquire(0, TimeUnit.MILLISECONDS));
+    Assert.assertFalse(window.tryAcquire(10, TimeUnit.MILLISECONDS));
+
+    // failures and slow writes do not change a fixed window
+    window.onRetriableFailure();
+    window.onFailure();
+    window.onSuccess(TimeUnit.HOURS.toNanos(1));
+    Assert.assertEquals(window.getLimit(), 2);
+    Assert.assertEquals(window.getInFlight(), 0);
+    Assert.assertTrue(window.awaitEmpty(0, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testAdaptiveWindow() throws InterruptedException {
+    // a target latency of 0 lets every failure decrease the limit
+    InFlightWindow window = new InFlightWindow(2, 16, 0, TimeUnit.MILLISECONDS, 0.5);
+    Assert.assertEquals(window.getLimit(), 16);
+
+    Assert.assertTrue(window.tryAcquire(0, TimeUnit.MILLISECONDS));
+    window.onRetriableFailure();
+    Assert.assertEquals(window.getLimit(), 8);
+    Assert.assertEquals(window.getInFlight(), 1);
+    window.onFailure();
+    Assert.assertEquals(window.getLimit(), 4);
+    Assert.assertEquals(window.getInFlight(), 0);
+
+    for (int i = 0; i < 3; i++) {
+      Assert.assertTrue(window.tryAcquire(0, TimeUnit.MILLISECONDS));
+      window.onFailure();
+    }
+    Assert.assertEquals(window.getLimit(), 2, "Limit should not drop below the min limit");
+
+    InFlightWindow growing = new InFlightWindow(2, 4, 1, TimeUnit.HOURS, 0.5);
+    Assert.assertTrue(growing.tryAcquire(0, TimeUnit.MILLISECONDS));
+    growing.onFailure();
+    Assert.assertEquals(growing.getLimit(), 2);
+    // additive increase of about one per limit successful writes
+    for (int i = 0; i < 3; i++) {
+      Assert.assertTrue(growing.tryAcquire(0, TimeUnit.MILLISECONDS));
+      growing.onSuccess(0);
+    }
+    Assert.assertEquals(growing.getLimit(), 3);
+    for (int i = 0; i < 100; i++) {
+      Assert.assertTrue(growing.tryAcquire(0, TimeUnit.MILLISECONDS));
+      growing.onSuccess(0);
+    }
+    Assert.assertEquals(growing.getLimit(), 4, "Limit should not grow above the max limit");
+
+    // the limit is decreased at most once per target latency interval
+    Assert.assertTrue(growing.tryAcquire(0, TimeUnit.MILLISECONDS));
+    growing.onSuccess(TimeUnit.HOURS.toNanos(2));
+    Assert.assertTrue(growing.tryAcquire(0, TimeUnit.MILLISECONDS));
+    growing.onFailure();
+    Assert.assertEquals(growing.getLimit(), 4);
+  }
+
+  @Test
+  public void testAwaitEmpty() throws Exception {
+    final InFlightWindow window = new InFlightWindow(10);
+    Assert.assertTrue(window.tryAcquire(0, TimeUnit.MILLISECONDS));
+    Assert.assertFalse(window.awaitEmpty(10, TimeUnit.MILLISECONDS));
+
+    Thread completer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          Thread.sleep(100);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        window.onSuccess(0);
+      }
+    });
+    long startTime = System.currentTimeMillis();
+    completer.start();
+    Assert.assertTrue(window.awaitEmpty(1, TimeUnit.MINUTES));
+    Assert.assertTrue(System.currentTimeMillis() - startTime < 30000);
+    completer.join();
+  }
+}
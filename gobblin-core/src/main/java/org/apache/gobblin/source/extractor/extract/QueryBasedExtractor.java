@@ -151,10 +151,7 @@ public abstract class QueryBasedExtractor<S, D> implements Extractor<S, D>, Prot
     try {
       if (isInitialPull()) {
         log.info("Initial pull");
-
-        if (shouldRemoveDataPullUpperBounds()) {
-          this.removeDataPullUpperBounds();
-        }
+        this.prepareInitialPull();
         this.iterator = this.getIterator();
       }
 
@@ -175,6 +172,15 @@ public abstract class QueryBasedExtractor<S, D> implements Extractor<S, D>, Prot
     return nextElement;
   }
 
+  /**
+   * Prepare the predicates of the initial data pull, removing the upper bounds of the last work unit if allowed
+   */
+  protected void prepareInitialPull() {
+    if (shouldRemoveDataPullUpperBounds()) {
+      this.removeDataPullUpperBounds();
+    }
+  }
+
   /**
    * Check if it's appropriate to remove data pull upper bounds in the last work unit, fetching as much data as possible
    * from the source. As between the time when data query was created and that was executed, there might be some
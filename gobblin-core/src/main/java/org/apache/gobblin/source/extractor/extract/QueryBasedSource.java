@@ -219,7 +219,7 @@ public abstract class QueryBasedSource<S, D> extends AbstractSource<S, D> {
     TableType tableType =
         TableType.valueOf(state.getProp(ConfigurationKeys.EXTRACT_TABLE_TYPE_KEY).toUpperCase());
 
-    List<Partition> partitions = new Partitioner(state).getPartitionList(previousWatermark);
+    List<Partition> partitions = getPartitionList(sourceEntity, state, previousWatermark);
     Collections.sort(partitions, Partitioner.ascendingComparator);
 
     // {@link ConfigurationKeys.EXTRACT_TABLE_NAME_KEY} specify the output path for Extract
@@ -246,6 +246,13 @@ public abstract class QueryBasedSource<S, D> extends AbstractSource<S, D> {
     return workUnits;
   }
 
+  /**
+   * Get the partitions of a source entity, each of which becomes a work unit. Uses a {@link Partitioner} by default.
+   */
+  protected List<Partition> getPartitionList(SourceEntity sourceEntity, SourceState state, long previousWatermark) {
+    return new Partitioner(state).getPartitionList(previousWatermark);
+  }
+
   protected void addLineageSourceInfo(SourceState sourceState, SourceEntity entity, WorkUnit workUnit) {
     // Does nothing by default
   }
@@ -21,12 +21,14 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.commons.math3.util.ArithmeticUtils;
+import org.apache.hadoop.fs.FileChecksum;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 
@@ -38,6 +40,7 @@ import com.google.common.collect.Sets;
 import com.google.gson.Gson;
 
 import org.apache.gobblin.configuration.ConfigurationKeys;
+import org.apache.gobblin.configuration.SourceState;
 import org.apache.gobblin.configuration.State;
 import org.apache.gobblin.configuration.WorkUnitState;
 import org.apache.gobblin.converter.IdentityConverter;
@@ -55,6 +58,12 @@ import org.apache.gobblin.util.guid.Guid;
  * Helper class for splitting files for distcp. The property flag gobblin.copy.split.enabled should be used to enable
  * splitting of files (which is disabled by default). Splitting should only be used if the distcp job uses only the
  * IdentityConverter and should not be used for distcp jobs that require decryption/ungzipping.
+ *
+ * <p>
+ *   With gobblin.copy.split.auto.enabled, splitting is enabled and the max split size is chosen automatically so that
+ *   each split takes about gobblin.copy.split.auto.targetSplitDurationSeconds to copy, based on the copy throughput
+ *   observed by the tasks of previous executions of the job (see {@link #configureAutoSplitSize(SourceState)}).
+ * </p>
  */
 @Slf4j
 public class DistcpFileSplitter {
@@ -63,6 +72,26 @@ public class DistcpFileSplitter {
   public static final String MAX_SPLIT_SIZE_KEY = CopyConfiguration.COPY_PREFIX + ".file.max.split.size";
 
   public static final long DEFAULT_MAX_SPLIT_SIZE = Long.MAX_VALUE;
+
+  public static final String AUTO_SPLIT_ENABLED = CopyConfiguration.COPY_PREFIX + ".split.auto.enabled";
+  public static final String AUTO_SPLIT_TARGET_DURATION_SECONDS_KEY =
+      CopyConfiguration.COPY_PREFIX + ".split.auto.targetSplitDurationSeconds";
+  public static final long DEFAULT_AUTO_SPLIT_TARGET_DURATION_SECONDS = 600;
+  /** Throughput assumed when no previous execution reported an observed throughput. */
+  public static final String AUTO_SPLIT_DEFAULT_BYTES_PER_SECOND_KEY =
+      CopyConfiguration.COPY_PREFIX + ".split.auto.defaultBytesPerSecond";
+  public static final long DEFAULT_AUTO_SPLIT_DEFAULT_BYTES_PER_SECOND = 50L * 1024 * 1024;
+  public static final String AUTO_SPLIT_MIN_SPLIT_SIZE_KEY = CopyConfiguration.COPY_PREFIX + ".split.auto.minSplitSize";
+  public static final long DEFAULT_AUTO_SPLIT_MIN_SPLIT_SIZE = 1024L * 1024 * 1024;
+  /** Set by the writer on the task state: the copy throughput in bytes per second observed by the task. */
+  public static final String OBSERVED_BYTES_PER_SECOND_KEY =
+      CopyConfiguration.COPY_PREFIX + ".split.observedBytesPerSecond";
+  /**
+   * If true, the checksum of a merged file is compared with the checksum of the origin file. Only use this if the
+   * origin and target file systems compute checksums the same way (e.g. HDFS to HDFS with the same block size).
+   */
+  public static final String MERGE_VERIFY_CHECKSUM_KEY = CopyConfiguration.COPY_PREFIX + ".split.merge.verifyChecksum";
+  public static final boolean DEFAULT_MERGE_VERIFY_CHECKSUM = false;
   public static final Set<String> KNOWN_SCHEMES_SUPPORTING_CONCAT = Sets.newHashSet("hdfs", "adl");
 
   /**
@@ -202,10 +231,75 @@ public class DistcpFileSplitter {
     fs.concat(target, Arrays.copyOfRange(parts, 1, parts.length));
 
     WorkUnitState finalWorkUnit = workUnits.iterator().next();
+    verifyMergedFile(fs, file, target,
+        finalWorkUnit.getPropAsBoolean(MERGE_VERIFY_CHECKSUM_KEY, DEFAULT_MERGE_VERIFY_CHECKSUM));
     finalWorkUnit.removeProp(SPLIT_KEY);
     return finalWorkUnit;
   }
 
+  /**
+   * Verifies that a merged file has the length, and optionally the checksum, of the origin file.
+   * @throws IOException if the merged file does not match the origin file.
+   */
+  private static void verifyMergedFile(FileSystem fs, CopyableFile file, Path target, boolean verifyChecksum)
+      throws IOException {
+    long mergedLength = fs.getFileStatus(target).getLen();
+    if (mergedLength != file.getFileStatus().getLen()) {
+      throw new IOException(String.format("Merged file %s has length %d, expected %d.", target, mergedLength,
+          file.getFileStatus().getLen()));
+    }
+
+    if (verifyChecksum && file.getChecksum() != null && file.getChecksum().length > 0) {
+      FileChecksum mergedChecksum = fs.getFileChecksum(target);
+      if (mergedChecksum == null) {
+        log.warn(String.format("File system does not provide a checksum for %s. Skipping checksum verification.",
+            target));
+      } else if (!Arrays.equals(mergedChecksum.getBytes(), file.getChecksum())) {
+        throw new IOException(String.format("Checksum of merged file %s does not match the origin file %s.", target,
+            file.getOrigin().getPath()));
+      }
+    }
+  }
+
+  /**
+   * If automatic splitting is enabled, enables splitting and sets the max split size in the given {@link SourceState}
+   * so that a split is expected to be copied in about {@link #AUTO_SPLIT_TARGET_DURATION_SECONDS_KEY} seconds. The
+   * expected throughput is the median of the throughputs observed by the tasks of the previous execution, or
+   * {@link #AUTO_SPLIT_DEFAULT_BYTES_PER_SECOND_KEY} if none was observed.
+   */
+  public static void configureAutoSplitSize(SourceState state) {
+    if (!state.getPropAsBoolean(AUTO_SPLIT_ENABLED, false)) {
+      return;
+    }
+
+    List<Long> observedThroughputs = Lists.newArrayList();
+    for (WorkUnitState workUnitState : state.getPreviousWorkUnitStates()) {
+      if (workUnitState.contains(OBSERVED_BYTES_PER_SECOND_KEY)) {
+        observedThroughputs.add(workUnitState.getPropAsLong(OBSERVED_BYTES_PER_SECOND_KEY));
+      }
+    }
+
+    long bytesPerSecond;
+    if (observedThroughputs.isEmpty()) {
+      bytesPerSecond = state.getPropAsLong(AUTO_SPLIT_DEFAULT_BYTES_PER_SECOND_KEY,
+          DEFAULT_AUTO_SPLIT_DEFAULT_BYTES_PER_SECOND);
+    } else {
+      Collections.sort(observedThroughputs);
+      bytesPerSecond = observedThroughputs.get(observedThroughputs.size() / 2);
+    }
+
+    long targetDurationSeconds = Math.max(1, state.getPropAsLong(AUTO_SPLIT_TARGET_DURATION_SECONDS_KEY,
+        DEFAULT_AUTO_SPLIT_TARGET_DURATION_SECONDS));
+    long minSplitSize = state.getPropAsLong(AUTO_SPLIT_MIN_SPLIT_SIZE_KEY, DEFAULT_AUTO_SPLIT_MIN_SPLIT_SIZE);
+    long maxSplitSize = bytesPerSecond > Long.MAX_VALUE / targetDurationSeconds ? Long.MAX_VALUE
+        : Math.max(minSplitSize, bytesPerSecond * targetDurationSeconds);
+
+    log.info(String.format("Automatic splitting: %d observed task throughputs, expected throughput %d B/s, "
+        + "max split size %d.", observedThroughputs.size(), bytesPerSecond, maxSplitSize));
+    state.setProp(SPLIT_ENABLED, true);
+    state.setProp(MAX_SPLIT_SIZE_KEY, maxSplitSize);
+  }
+
   /**
    * @return whether the {@link WorkUnit} is a split work unit.
    */
@@ -26,6 +26,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -58,6 +61,7 @@ import org.apache.gobblin.util.FinalState;
 import org.apache.gobblin.util.ForkOperatorUtils;
 import org.apache.gobblin.util.PathUtils;
 import org.apache.gobblin.util.WriterUtils;
+import org.apache.gobblin.util.io.FileChannelCopier;
 import org.apache.gobblin.util.io.StreamCopier;
 import org.apache.gobblin.util.io.StreamThrottler;
 import org.apache.gobblin.util.io.ThrottledInputStream;
@@ -84,6 +88,14 @@ public class FileAwareInputStreamDataWriter extends InstrumentedDataWriter<FileA
   public static final boolean DEFAULT_GOBBLIN_COPY_CHECK_FILESIZE = false;
   public static final String GOBBLIN_COPY_TASK_OVERWRITE_ON_COMMIT = "gobblin.copy.task.overwrite.on.commit";
   public static final boolean DEFAULT_GOBBLIN_COPY_TASK_OVERWRITE_ON_COMMIT = false;
+  /**
+   * If true, files copied between two local (or locally mounted) file systems are copied with
+   * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} instead of through a stream.
+   * Such copies are not throttled by the {@link StreamThrottler}.
+   */
+  public static final String GOBBLIN_COPY_LOCAL_TRANSFER_ENABLED = "gobblin.copy.localTransfer.enabled";
+  public static final boolean DEFAULT_GOBBLIN_COPY_LOCAL_TRANSFER_ENABLED = false;
+  private static final long MIN_OBSERVED_COPY_MILLIS = 10000;
 
   protected final AtomicLong bytesWritten = new AtomicLong();
   protected final AtomicLong filesWritten = new AtomicLong();
@@ -97,6 +109,7 @@ public class FileAwareInputStreamDataWriter extends InstrumentedDataWriter<FileA
   protected final SharedResourcesBroker<GobblinScopeTypes> taskBroker;
   protected final int bufferSize;
   private final boolean checkFileSize;
+  private final boolean localTransferEnabled;
   private final Options.Rename renameOptions;
   private final FileContext fileContext;
 
@@ -164,6 +177,8 @@ public class FileAwareInputStreamDataWriter extends InstrumentedDataWriter<FileA
         .getConfigForBranch(EncryptionConfigParser.EntityType.WRITER, this.state, numBranches, branchId);
 
     this.checkFileSize = state.getPropAsBoolean(GOBBLIN_COPY_CHECK_FILESIZE, DEFAULT_GOBBLIN_COPY_CHECK_FILESIZE);
+    this.localTransferEnabled =
+        state.getPropAsBoolean(GOBBLIN_COPY_LOCAL_TRANSFER_ENABLED, DEFAULT_GOBBLIN_COPY_LOCAL_TRANSFER_ENABLED);
     boolean taskOverwriteOnCommit = state.getPropAsBoolean(GOBBLIN_COPY_TASK_OVERWRITE_ON_COMMIT, DEFAULT_GOBBLIN_COPY_TASK_OVERWRITE_ON_COMMIT);
     if (taskOverwriteOnCommit) {
       this.renameOptions = Options.Rename.OVERWRITE;
@@ -256,6 +271,16 @@ public class FileAwareInputStreamDataWriter extends InstrumentedDataWriter<FileA
         return;
       }
 
+      if (canTransferLocally(copyableFile, writeAt)) {
+        try {
+          long position = record.getSplit().isPresent() ? record.getSplit().get().getLowPosition() : 0;
+          copyLocalFile(copyableFile, writeAt, position, maxBytes, expectedBytes, mustMatchMaxBytes);
+        } finally {
+          inputStream.close();
+        }
+        return;
+      }
+
       OutputStream os =
           this.fs.create(writeAt, true, this.fs.getConf().getInt("io.file.buffer.size", 4096), replication, blockSize);
       if (encryptionConfig != null) {
@@ -275,12 +300,14 @@ public class FileAwareInputStreamDataWriter extends InstrumentedDataWriter<FileA
         if (isInstrumentationEnabled()) {
           copier.withCopySpeedMeter(this.copySpeedMeter);
         }
+        long startTime = System.currentTimeMillis();
         long numBytes = copier.copy();
         if ((this.checkFileSize || mustMatchMaxBytes) && numBytes != expectedBytes) {
           throw new IOException(String.format("Incomplete write: expected %d, wrote %d bytes.",
               expectedBytes, numBytes));
         }
         this.bytesWritten.addAndGet(numBytes);
+        recordObservedThroughput(numBytes, System.currentTimeMillis() - startTime);
         if (isInstrumentationEnabled()) {
           log.info("File {}: copied {} bytes, average rate: {} B/s", copyableFile.getOrigin().getPath(),
               this.copySpeedMeter.getCount(), this.copySpeedMeter.getMeanRate());
@@ -296,6 +323,57 @@ public class FileAwareInputStreamDataWriter extends InstrumentedDataWriter<FileA
     }
   }
 
+  /**
+   * Records the copy throughput of this task in the task state, so that {@link DistcpFileSplitter} can size the splits
+   * of future executions. Copies shorter than {@link #MIN_OBSERVED_COPY_MILLIS} are dominated by overhead and ignored.
+   */
+  private void recordObservedThroughput(long numBytes, long copyMillis) {
+    if (copyMillis >= MIN_OBSERVED_COPY_MILLIS) {
+      this.state.setProp(DistcpFileSplitter.OBSERVED_BYTES_PER_SECOND_KEY, numBytes * 1000 / copyMillis);
+    }
+  }
+
+  /**
+   * Whether the file can be copied with {@link #copyLocalFile}: local transfer must be enabled, the file must not be
+   * encrypted, and both the origin and writeAt must be on a local file system.
+   */
+  private boolean canTransferLocally(CopyableFile copyableFile, Path writeAt) {
+    if (!this.localTransferEnabled || this.encryptionConfig != null) {
+      return false;
+    }
+    return "file".equals(copyableFile.getOrigin().getPath().toUri().getScheme())
+        && "file".equals(this.fs.makeQualified(writeAt).toUri().getScheme());
+  }
+
+  /**
+   * Copy a local file into writeAt with a {@link FileChannelCopier}, avoiding the copy through JVM buffers.
+   */
+  private void copyLocalFile(CopyableFile copyableFile, Path writeAt, long position, Long maxBytes,
+      long expectedBytes, boolean mustMatchMaxBytes) throws IOException {
+    java.nio.file.Path source = Paths.get(copyableFile.getOrigin().getPath().toUri());
+    java.nio.file.Path target = Paths.get(this.fs.makeQualified(writeAt).toUri());
+
+    log.info("File {}: Starting local transfer", copyableFile.getOrigin().getPath());
+
+    try (FileChannel inputChannel = FileChannel.open(source, StandardOpenOption.READ);
+        FileChannel outputChannel = FileChannel.open(target, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      FileChannelCopier copier = new FileChannelCopier(inputChannel, position, maxBytes, outputChannel);
+      if (isInstrumentationEnabled()) {
+        copier.withCopySpeedMeter(this.copySpeedMeter);
+      }
+      long startTime = System.currentTimeMillis();
+      long numBytes = copier.copy();
+      if ((this.checkFileSize || mustMatchMaxBytes) && numBytes != expectedBytes) {
+        throw new IOException(String.format("Incomplete write: expected %d, wrote %d bytes.",
+            expectedBytes, numBytes));
+      }
+      this.bytesWritten.addAndGet(numBytes);
+      recordObservedThroughput(numBytes, System.currentTimeMillis() - startTime);
+    }
+    log.info("File {} copied.", copyableFile.getOrigin().getPath());
+  }
+
   /**
    * Sets the owner/group and permission for the file in the task staging directory
    */
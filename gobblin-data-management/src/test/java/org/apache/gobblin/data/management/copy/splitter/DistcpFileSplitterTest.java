@@ -16,6 +16,7 @@
  */
 package org.apache.gobblin.data.management.copy.splitter;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.Collection;
 import java.util.HashSet;
@@ -31,8 +32,11 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
 
 import org.apache.gobblin.configuration.ConfigurationKeys;
+import org.apache.gobblin.configuration.SourceState;
+import org.apache.gobblin.configuration.State;
 import org.apache.gobblin.configuration.WorkUnitState;
 import org.apache.gobblin.data.management.copy.CopySource;
 import org.apache.gobblin.data.management.copy.CopyableDatasetMetadata;
@@ -71,10 +75,57 @@ public class DistcpFileSplitterTest {
             .map(wu -> new WorkUnitState(wu)).collect(Collectors.toList());
     Assert.assertEquals(splitWorkUnits.size(), expectedSplits);
 
+    // The merged file has the length of the (empty) test copyable file
+    when(fs.getFileStatus(any(Path.class))).thenReturn(new FileStatus(0L, false, 0, 0L, 0L, new Path("/merged")));
+
     Collection<WorkUnitState> mergedWorkUnits = DistcpFileSplitter.mergeAllSplitWorkUnits(fs, splitWorkUnits);
     Assert.assertEquals(mergedWorkUnits.size(), 1);
   }
 
+  @Test(expectedExceptions = IOException.class)
+  public void testMergeSplitWorkUnitsLengthMismatch() throws Exception {
+    FileSystem fs = mock(FileSystem.class);
+
+    List<WorkUnitState> splitWorkUnits = createMockSplitWorkUnits(fs, 12L, 4L, 4L).stream()
+        .map(wu -> new WorkUnitState(wu)).collect(Collectors.toList());
+    when(fs.getFileStatus(any(Path.class))).thenReturn(new FileStatus(5L, false, 0, 0L, 0L, new Path("/merged")));
+
+    DistcpFileSplitter.mergeAllSplitWorkUnits(fs, splitWorkUnits);
+  }
+
+  @Test
+  public void testConfigureAutoSplitSize() {
+    State properties = new State();
+    properties.setProp(DistcpFileSplitter.AUTO_SPLIT_ENABLED, true);
+    properties.setProp(DistcpFileSplitter.AUTO_SPLIT_TARGET_DURATION_SECONDS_KEY, 10);
+    properties.setProp(DistcpFileSplitter.AUTO_SPLIT_MIN_SPLIT_SIZE_KEY, 100);
+
+    // No previous executions: use the default throughput
+    properties.setProp(DistcpFileSplitter.AUTO_SPLIT_DEFAULT_BYTES_PER_SECOND_KEY, 20);
+    SourceState state = new SourceState(properties);
+    DistcpFileSplitter.configureAutoSplitSize(state);
+    Assert.assertTrue(state.getPropAsBoolean(DistcpFileSplitter.SPLIT_ENABLED));
+    Assert.assertEquals(state.getPropAsLong(DistcpFileSplitter.MAX_SPLIT_SIZE_KEY), 200L);
+
+    // Use the median of the observed throughputs
+    List<WorkUnitState> previousWorkUnitStates = Lists.newArrayList();
+    for (long bytesPerSecond : new long[] {1000, 30, 50}) {
+      WorkUnitState workUnitState = new WorkUnitState();
+      workUnitState.setProp(DistcpFileSplitter.OBSERVED_BYTES_PER_SECOND_KEY, bytesPerSecond);
+      previousWorkUnitStates.add(workUnitState);
+    }
+    previousWorkUnitStates.add(new WorkUnitState());
+    state = new SourceState(properties, previousWorkUnitStates);
+    DistcpFileSplitter.configureAutoSplitSize(state);
+    Assert.assertEquals(state.getPropAsLong(DistcpFileSplitter.MAX_SPLIT_SIZE_KEY), 500L);
+
+    // Never below the min split size
+    properties.setProp(DistcpFileSplitter.AUTO_SPLIT_TARGET_DURATION_SECONDS_KEY, 1);
+    state = new SourceState(properties, previousWorkUnitStates);
+    DistcpFileSplitter.configureAutoSplitSize(state);
+    Assert.assertEquals(state.getPropAsLong(DistcpFileSplitter.MAX_SPLIT_SIZE_KEY), 100L);
+  }
+
   // This test checks whether a work unit has been successfully set up for a split,
   // but does not check that the split is actually done correctly when input streams are used.
   @Test
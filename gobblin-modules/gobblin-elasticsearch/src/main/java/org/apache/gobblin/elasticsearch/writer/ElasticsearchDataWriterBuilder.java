@@ -21,8 +21,11 @@ import java.util.Properties;
 
 import org.apache.gobblin.util.ConfigUtils;
 import org.apache.gobblin.writer.AsyncWriterManager;
+import org.apache.gobblin.writer.Batch;
+import org.apache.gobblin.writer.BatchAccumulator;
 import org.apache.gobblin.writer.BatchAsyncDataWriter;
 import org.apache.gobblin.writer.BufferedAsyncDataWriter;
+import org.apache.gobblin.writer.ConcurrentBatchAccumulator;
 import org.apache.gobblin.writer.DataWriter;
 import org.apache.gobblin.writer.DataWriterBuilder;
 import org.apache.gobblin.writer.SequentialBasedBatchAccumulator;
@@ -41,7 +44,10 @@ public class ElasticsearchDataWriterBuilder extends DataWriterBuilder {
     Properties taskProps = state.getProperties();
     Config config = ConfigUtils.propertiesToConfig(taskProps);
 
-    SequentialBasedBatchAccumulator<JsonObject> batchAccumulator = new SequentialBasedBatchAccumulator<>(taskProps);
+    BatchAccumulator<JsonObject> batchAccumulator =
+        ConfigUtils.getBoolean(config, Batch.BATCH_ACCUMULATOR_CONCURRENT, Batch.BATCH_ACCUMULATOR_CONCURRENT_DEFAULT)
+            ? new ConcurrentBatchAccumulator<JsonObject>(taskProps)
+            : new SequentialBasedBatchAccumulator<JsonObject>(taskProps);
 
     BatchAsyncDataWriter asyncDataWriter;
     switch (ElasticsearchWriterConfigurationKeys.ClientType.valueOf(
@@ -16,11 +16,13 @@
  */
 package org.apache.gobblin.eventhub.writer;
 
+import org.apache.gobblin.writer.BatchAccumulator;
 import org.apache.gobblin.writer.BufferedAsyncDataWriter;
 
 /**
  * A batch writer for eventhub, composed by {@link EventhubBatchAccumulator} and {@link EventhubDataWriter}
- * {@link EventhubBatchAccumulator} provides a buffer to store pending records
+ * {@link EventhubBatchAccumulator} (or a {@link org.apache.gobblin.writer.ConcurrentBatchAccumulator} if
+ * {@link org.apache.gobblin.writer.Batch#BATCH_ACCUMULATOR_CONCURRENT} is set) provides a buffer to store pending records
  * {@link EventhubDataWriter} is the actual writer ships data to eventhub
  */
 public class BatchedEventhubDataWriter extends BufferedAsyncDataWriter<String> {
@@ -37,7 +39,7 @@ public class BatchedEventhubDataWriter extends BufferedAsyncDataWriter<String> {
   public final static String  EVH_SAS_KEYNAME = "eventhub.sas.keyname";
   public final static String  EVH_SAS_KEYVALUE = "eventhub.sas.keyvalue";
 
-  public BatchedEventhubDataWriter (EventhubBatchAccumulator accumulator, EventhubDataWriter dataWriter) {
+  public BatchedEventhubDataWriter (BatchAccumulator<String> accumulator, EventhubDataWriter dataWriter) {
     super (accumulator, dataWriter);
   }
 }
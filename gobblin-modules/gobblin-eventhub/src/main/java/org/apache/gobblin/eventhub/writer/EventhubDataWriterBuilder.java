@@ -26,6 +26,9 @@ import org.apache.gobblin.configuration.State;
 import org.apache.gobblin.util.ConfigUtils;
 import org.apache.gobblin.writer.AsyncDataWriter;
 import org.apache.gobblin.writer.AsyncWriterManager;
+import org.apache.gobblin.writer.Batch;
+import org.apache.gobblin.writer.BatchAccumulator;
+import org.apache.gobblin.writer.ConcurrentBatchAccumulator;
 import org.apache.gobblin.writer.DataWriter;
 import org.apache.gobblin.writer.DataWriterBuilder;
 
@@ -40,7 +43,11 @@ public class EventhubDataWriterBuilder extends DataWriterBuilder {
    */
   public AsyncDataWriter getAsyncDataWriter(Properties properties) {
     EventhubDataWriter eventhubDataWriter = new EventhubDataWriter(properties);
-    EventhubBatchAccumulator accumulator = new EventhubBatchAccumulator(properties);
+    BatchAccumulator<String> accumulator =
+        Boolean.parseBoolean(properties.getProperty(Batch.BATCH_ACCUMULATOR_CONCURRENT,
+            Boolean.toString(Batch.BATCH_ACCUMULATOR_CONCURRENT_DEFAULT)))
+            ? new ConcurrentBatchAccumulator<String>(properties)
+            : new EventhubBatchAccumulator(properties);
     BatchedEventhubDataWriter batchedEventhubDataWriter = new BatchedEventhubDataWriter(accumulator, eventhubDataWriter);
     return batchedEventhubDataWriter;
   }
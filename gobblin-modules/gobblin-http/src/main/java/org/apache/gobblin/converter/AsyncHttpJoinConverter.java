@@ -19,14 +19,21 @@ package org.apache.gobblin.converter;
 import java.io.IOException;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.avro.generic.GenericRecord;
 
+import com.codahale.metrics.Counter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -45,7 +52,8 @@ import org.apache.gobblin.http.HttpClient;
 import org.apache.gobblin.http.HttpOperation;
 import org.apache.gobblin.http.ResponseHandler;
 import org.apache.gobblin.http.ResponseStatus;
-import org.apache.gobblin.net.Request;
+import org.apache.gobblin.instrumented.Instrumented;
+import org.apache.gobblin.metrics.MetricContext;
 import org.apache.gobblin.utils.HttpConstants;
 import org.apache.gobblin.writer.WriteCallback;
 import edu.umd.cs.findbugs.annotations.SuppressWarnings;
@@ -59,20 +67,44 @@ import edu.umd.cs.findbugs.annotations.SuppressWarnings;
  * Convert HttpOperation to RQ (by internal AsyncRequestBuilder)
  * Execute http request, get response RP (by HttpClient)
  * Combine info (DI, RQ, RP, status, etc..) to generate output DO
+ *
+ * <p>
+ *   With {@link #CACHE_ENABLED}, the results of the requests are cached by their {@link HttpOperation}, which fully
+ *   determines the request, for {@link #CACHE_TTL_SECONDS} and up to {@link #CACHE_MAX_SIZE} entries. Records whose
+ *   operation is being looked up by an in flight request share the result of that request instead of sending their
+ *   own. Only responses with a status are cached, failed sends and server errors are not. Cache hits, misses and
+ *   coalesced lookups are counted in the metric context of the converter.
+ * </p>
  */
 @Slf4j
 public abstract class AsyncHttpJoinConverter<SI, SO, DI, DO, RQ, RP> extends AsyncConverter1to1<SI, SO, DI, DO> {
   public static final String CONF_PREFIX = "gobblin.converter.http.";
+  public static final String CACHE_ENABLED = "cache.enabled";
+  public static final String CACHE_MAX_SIZE = "cache.maxSize";
+  public static final String CACHE_TTL_SECONDS = "cache.ttlSeconds";
+  public static final String CACHE_HITS_METRIC = CONF_PREFIX + "cache.hits";
+  public static final String CACHE_MISSES_METRIC = CONF_PREFIX + "cache.misses";
+  public static final String CACHE_COALESCED_METRIC = CONF_PREFIX + "cache.coalesced";
   public static final Config DEFAULT_FALLBACK =
       ConfigFactory.parseMap(ImmutableMap.<String, Object>builder()
           .put(HttpConstants.CONTENT_TYPE, "application/json")
           .put(HttpConstants.VERB, "GET")
+          .put(CACHE_ENABLED, false)
+          .put(CACHE_MAX_SIZE, 100000)
+          .put(CACHE_TTL_SECONDS, TimeUnit.MINUTES.toSeconds(10L))
           .build());
 
   protected HttpClient<RQ, RP> httpClient = null;
   protected ResponseHandler<RQ, RP> responseHandler = null;
   protected AsyncRequestBuilder<GenericRecord, RQ> requestBuilder = null;
   protected boolean skipFailedRecord;
+  protected Cache<HttpOperation, JoinResult<RQ>> responseCache = null;
+
+  private final ConcurrentMap<HttpOperation, CompletableFuture<JoinResult<RQ>>> inflightLookups =
+      new ConcurrentHashMap<>();
+  private Counter cacheHits;
+  private Counter cacheMisses;
+  private Counter cacheCoalesced;
 
   public AsyncHttpJoinConverter init(WorkUnitState workUnitState) {
     super.init(workUnitState);
@@ -82,6 +114,13 @@ public abstract class AsyncHttpJoinConverter<SI, SO, DI, DO, RQ, RP> extends Asy
     httpClient = createHttpClient(config, workUnitState.getTaskBroker());
     responseHandler = createResponseHandler(config);
     requestBuilder = createRequestBuilder(config);
+    responseCache = createResponseCache(config);
+    if (responseCache != null) {
+      MetricContext metricContext = Instrumented.getMetricContext(workUnitState, getClass());
+      cacheHits = metricContext.counter(CACHE_HITS_METRIC);
+      cacheMisses = metricContext.counter(CACHE_MISSES_METRIC);
+      cacheCoalesced = metricContext.counter(CACHE_COALESCED_METRIC);
+    }
     return this;
   }
 
@@ -99,72 +138,118 @@ public abstract class AsyncHttpJoinConverter<SI, SO, DI, DO, RQ, RP> extends Asy
   protected abstract DO convertRecordImpl (SO outputSchema, DI input, RQ rawRequest, ResponseStatus status) throws DataConversionException;
 
   /**
-   * A helper class which performs the conversion from http response to DO type output, saved as a {@link CompletableFuture}
+   * Create the cache of the join results, or return null to send a request for every record
    */
-  private class AsyncHttpJoinConverterContext<SO, DI, DO, RP, RQ> {
-    private final CompletableFuture<DO> future;
-    private final AsyncHttpJoinConverter<SI, SO, DI, DO, RQ, RP> converter;
+  protected Cache<HttpOperation, JoinResult<RQ>> createResponseCache(Config config) {
+    if (!config.getBoolean(CACHE_ENABLED)) {
+      return null;
+    }
+    return CacheBuilder.newBuilder()
+        .maximumSize(config.getLong(CACHE_MAX_SIZE))
+        .expireAfterWrite(config.getLong(CACHE_TTL_SECONDS), TimeUnit.SECONDS)
+        .<HttpOperation, JoinResult<RQ>>build();
+  }
 
-    @Getter
-    private final Callback<RP> callback;
+  /**
+   * The result of a request: the status of its response, or the failure of the send
+   */
+  @Getter
+  @AllArgsConstructor
+  protected static class JoinResult<RQ> {
+    private final RQ rawRequest;
+    private final ResponseStatus status;
+    private final Throwable sendFailure;
+  }
+
+  /**
+   * Send the request of an operation. The returned future completes with the status of an OK or client error
+   * response, or the failure of the send, and completes exceptionally on a server error.
+   */
+  private CompletableFuture<JoinResult<RQ>> sendRequest(HttpOperation operation) throws DataConversionException {
+    // Convert HttpOperation to RQ
+    BufferedRecord<GenericRecord> bufferedRecord = new BufferedRecord<>(operation, WriteCallback.EMPTY);
+    Queue<BufferedRecord<GenericRecord>> buffer = new LinkedBlockingDeque<>();
+    buffer.add(bufferedRecord);
+    final AsyncRequest<GenericRecord, RQ> request = this.requestBuilder.buildRequest(buffer);
+    final RQ rawRequest = request.getRawRequest();
+    final CompletableFuture<JoinResult<RQ>> future = new CompletableFuture<>();
 
-    public AsyncHttpJoinConverterContext(AsyncHttpJoinConverter converter, SO outputSchema, DI input, Request<RQ> request) {
-      this.future = new CompletableFuture();
-      this.converter = converter;
-      this.callback = new Callback<RP>() {
+    // Execute query and get response
+    try {
+      httpClient.sendAsyncRequest(rawRequest, new Callback<RP>() {
         @Override
         public void onSuccess(RP result) {
           try {
-            ResponseStatus status = AsyncHttpJoinConverterContext.this.converter.responseHandler.handleResponse(request, result);
+            ResponseStatus status = responseHandler.handleResponse(request, result);
             switch (status.getType()) {
               case OK:
-                AsyncHttpJoinConverterContext.this.onSuccess(request.getRawRequest(), status, outputSchema, input);
+                log.debug("{} send with status type {}", rawRequest, status.getType());
+                future.complete(new JoinResult<>(rawRequest, status, null));
                 break;
               case CLIENT_ERROR:
-                log.error ("Http converter client error with request {}", request.getRawRequest());
-                AsyncHttpJoinConverterContext.this.onSuccess(request.getRawRequest(), status, outputSchema, input);
+                log.error ("Http converter client error with request {}", rawRequest);
+                future.complete(new JoinResult<>(rawRequest, status, null));
                 break;
               case SERVER_ERROR:
                 // Server side error. Retry
-                log.error ("Http converter server error with request {}", request.getRawRequest());
-                throw new DataConversionException(request.getRawRequest() + " send failed due to server error");
+                log.error ("Http converter server error with request {}", rawRequest);
+                throw new DataConversionException(rawRequest + " send failed due to server error");
               default:
-                throw new DataConversionException(request.getRawRequest() + " Should not reach here");
+                throw new DataConversionException(rawRequest + " Should not reach here");
             }
           } catch (Exception e) {
-            log.error ("Http converter exception {} with request {}", e.toString(), request.getRawRequest());
-            AsyncHttpJoinConverterContext.this.future.completeExceptionally(e);
+            log.error ("Http converter exception {} with request {}", e.toString(), rawRequest);
+            future.completeExceptionally(e);
           }
         }
 
-        @SuppressWarnings(value = "NP_NONNULL_PARAM_VIOLATION",
-            justification = "CompletableFuture will replace null value with NIL")
         @Override
         public void onFailure(Throwable throwable) {
           String errorMsg = ExceptionUtils.getMessage(throwable);
-          log.error ("Http converter on failure with request {} and throwable {}", request.getRawRequest(), errorMsg);
-
-          if (skipFailedRecord) {
-            AsyncHttpJoinConverterContext.this.future.complete( null);
-          } else {
-            AsyncHttpJoinConverterContext.this.future.completeExceptionally(throwable);
-          }
+          log.error ("Http converter on failure with request {} and throwable {}", rawRequest, errorMsg);
+          future.complete(new JoinResult<>(rawRequest, null, throwable));
         }
-      };
+      });
+    } catch (IOException e) {
+      throw new DataConversionException(e);
     }
+    return future;
+  }
 
-    private void onSuccess(RQ rawRequest, ResponseStatus status, SO outputSchema, DI input) throws DataConversionException {
-      log.debug("{} send with status type {}", rawRequest, status.getType());
-      DO output = this.converter.convertRecordImpl(outputSchema, input, rawRequest, status);
-      AsyncHttpJoinConverterContext.this.future.complete(output);
-    }
+  /**
+   * Convert the result of the request of an input record to an output record
+   */
+  @SuppressWarnings(value = "NP_NONNULL_PARAM_VIOLATION",
+      justification = "CompletableFuture will replace null value with NIL")
+  private CompletableFuture<DO> toOutput(CompletableFuture<JoinResult<RQ>> lookup, SO outputSchema, DI input) {
+    CompletableFuture<DO> output = new CompletableFuture<>();
+    lookup.whenComplete((result, throwable) -> {
+      if (throwable != null) {
+        output.completeExceptionally(throwable);
+      } else if (result.getSendFailure() != null) {
+        if (skipFailedRecord) {
+          output.complete(null);
+        } else {
+          output.completeExceptionally(result.getSendFailure());
+        }
+      } else {
+        try {
+          output.complete(convertRecordImpl(outputSchema, input, result.getRawRequest(), result.getStatus()));
+        } catch (Exception e) {
+          log.error ("Http converter exception {} with request {}", e.toString(), result.getRawRequest());
+          output.completeExceptionally(e);
+        }
+      }
+    });
+    return output;
   }
 
   /**
    * Convert an input record to a future object where an output record will be filled in sometime later
    * Sequence:
    *    Convert input (DI) to an http request
-   *    Send http request asynchronously, and registers an http callback
+   *    Send http request asynchronously, and registers an http callback, unless the result of the same request is
+   *    cached or being looked up
    *    Create an {@link CompletableFuture} object. When the callback is invoked, this future object is filled in by an output record which is converted from http response.
    *    Return the future object.
    */
@@ -174,27 +259,69 @@ public abstract class AsyncHttpJoinConverter<SI, SO, DI, DO, RQ, RP> extends Asy
 
     // Convert DI to HttpOperation
     HttpOperation operation = generateHttpOperation(inputRecord, workUnitState);
-    BufferedRecord<GenericRecord> bufferedRecord = new BufferedRecord<>(operation, WriteCallback.EMPTY);
+    if (this.responseCache == null) {
+      return toOutput(sendRequest(operation), outputSchema, inputRecord);
+    }
+    return toOutput(lookup(operation), outputSchema, inputRecord);
+  }
 
-    // Convert HttpOperation to RQ
-    Queue<BufferedRecord<GenericRecord>> buffer = new LinkedBlockingDeque<>();
-    buffer.add(bufferedRecord);
-    AsyncRequest<GenericRecord, RQ> request = this.requestBuilder.buildRequest(buffer);
-    RQ rawRequest = request.getRawRequest();
+  /**
+   * Get the result of an operation from the cache, from the in flight request of the same operation, or else by
+   * sending a request
+   */
+  private CompletableFuture<JoinResult<RQ>> lookup(final HttpOperation operation) throws DataConversionException {
+    JoinResult<RQ> cached = this.responseCache.getIfPresent(operation);
+    if (cached != null) {
+      this.cacheHits.inc();
+      return CompletableFuture.completedFuture(cached);
+    }
 
-    // Execute query and get response
-    AsyncHttpJoinConverterContext context = new AsyncHttpJoinConverterContext(this, outputSchema, inputRecord, request);
+    final CompletableFuture<JoinResult<RQ>> lookup = new CompletableFuture<>();
+    CompletableFuture<JoinResult<RQ>> inflight = this.inflightLookups.putIfAbsent(operation, lookup);
+    if (inflight != null) {
+      this.cacheCoalesced.inc();
+      return inflight;
+    }
 
-    try {
-      httpClient.sendAsyncRequest(rawRequest, context.getCallback());
-    } catch (IOException e) {
-      throw new DataConversionException(e);
+    // The previous lookup may have completed after the cache was checked
+    cached = this.responseCache.getIfPresent(operation);
+    if (cached != null) {
+      this.inflightLookups.remove(operation, lookup);
+      lookup.complete(cached);
+      this.cacheHits.inc();
+      return lookup;
     }
 
-    return context.future;
+    this.cacheMisses.inc();
+    CompletableFuture<JoinResult<RQ>> response;
+    try {
+      response = sendRequest(operation);
+    } catch (DataConversionException | RuntimeException e) {
+      this.inflightLookups.remove(operation, lookup);
+      lookup.completeExceptionally(e);
+      throw e;
+    }
+    response.whenComplete((result, throwable) -> {
+      if (result != null && result.getStatus() != null) {
+        this.responseCache.put(operation, result);
+      }
+      this.inflightLookups.remove(operation, lookup);
+      if (throwable != null) {
+        lookup.completeExceptionally(throwable);
+      } else {
+        lookup.complete(result);
+      }
+    });
+    return lookup;
   }
 
   public void close() throws IOException {
+    if (this.responseCache != null) {
+      long hits = this.cacheHits.getCount() + this.cacheCoalesced.getCount();
+      long lookups = hits + this.cacheMisses.getCount();
+      log.info("Join result cache hit rate {} of {} lookups ({} shared with in flight requests)",
+          lookups == 0 ? 0 : (double) hits / lookups, lookups, this.cacheCoalesced.getCount());
+    }
     this.httpClient.close();
   }
 }
@@ -36,15 +36,24 @@ import org.apache.gobblin.http.ApacheHttpResponseStatus;
 import org.apache.gobblin.http.ApacheHttpRequestBuilder;
 import org.apache.gobblin.http.HttpRequestResponseRecord;
 import org.apache.gobblin.http.ResponseStatus;
+import org.apache.gobblin.http.WindowedHttpAsyncClient;
 import org.apache.gobblin.utils.HttpConstants;
 
 /**
  * Apache version of http join converter
+ *
+ * <p>
+ *   Setting {@link WindowedHttpAsyncClient#WINDOW_SIZE} uses a {@link WindowedHttpAsyncClient}, which bounds the
+ *   requests in flight and backs off on throttled responses.
+ * </p>
  */
 @Slf4j
 public class AvroApacheHttpJoinConverter extends AvroHttpJoinConverter<HttpUriRequest, HttpResponse> {
   @Override
   public ApacheHttpAsyncClient createHttpClient(Config config, SharedResourcesBroker<GobblinScopeTypes> broker) {
+    if (config.hasPath(WindowedHttpAsyncClient.WINDOW_SIZE)) {
+      return new WindowedHttpAsyncClient(HttpAsyncClientBuilder.create(), config, broker);
+    }
     return new ApacheHttpAsyncClient(HttpAsyncClientBuilder.create(), config, broker);
   }
 
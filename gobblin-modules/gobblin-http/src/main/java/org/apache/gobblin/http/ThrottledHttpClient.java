@@ -48,6 +48,7 @@ public abstract class ThrottledHttpClient<RQ, RP> implements HttpClient<RQ, RP>
 
   @Getter
   private final Timer sendTimer;
+  @Getter
   private final MetricContext metricContext;
 
   public ThrottledHttpClient (SharedResourcesBroker<GobblinScopeTypes> broker, String limiterKey) {
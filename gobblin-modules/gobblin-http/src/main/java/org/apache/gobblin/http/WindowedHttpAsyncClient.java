@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gobblin.http;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.util.EntityUtils;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.SettableFuture;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.gobblin.async.Callback;
+import org.apache.gobblin.broker.gobblin_scopes.GobblinScopeTypes;
+import org.apache.gobblin.broker.iface.SharedResourcesBroker;
+import org.apache.gobblin.util.ExecutorsUtils;
+
+
+/**
+ * An {@link ApacheHttpAsyncClient} keeping a bounded window of requests in flight and backing off when the service
+ * asks for it.
+ *
+ * <p>
+ *   At most {@link #WINDOW_SIZE} requests are outstanding at a time, further sends block the caller until a response
+ *   comes back, so the callers are slowed down to the pace of the service instead of piling up requests in the
+ *   connection pool. The pool is sized to the window by default, so every in flight request has a persistent
+ *   connection.
+ * </p>
+ *
+ * <p>
+ *   A 429 or 503 response pauses all sends to its endpoint (scheme, host and port) for the delay of its Retry-After
+ *   header, or an exponential delay starting at one second without it, and the request is sent again after the
+ *   pause, up to {@link #MAX_RETRIES} times. Requests with a non repeatable entity are not retried.
+ * </p>
+ *
+ * <p>
+ *   The latency of the requests is recorded per endpoint in a {@link Timer} of the {@link #getMetricContext()},
+ *   named gobblin.http.latency.[endpoint].
+ * </p>
+ */
+@Slf4j
+public class WindowedHttpAsyncClient extends ApacheHttpAsyncClient {
+  public static final String WINDOW_SIZE = "window.size";
+  public static final String MAX_RETRIES = "window.maxRetries";
+  public static final String MAX_RETRY_AFTER_MS = "window.maxRetryAfterMs";
+  public static final String LATENCY_METRIC_PREFIX = "gobblin.http.latency";
+
+  private static final int SC_TOO_MANY_REQUESTS = 429;
+  private static final long INITIAL_RETRY_DELAY_MS = TimeUnit.SECONDS.toMillis(1L);
+  private static final int DEFAULT_WINDOW_SIZE = 16;
+
+  private static final Config FALLBACK =
+      ConfigFactory.parseMap(ImmutableMap.<String, Object>builder()
+          .put(WINDOW_SIZE, DEFAULT_WINDOW_SIZE)
+          .put(MAX_RETRIES, 3)
+          .put(MAX_RETRY_AFTER_MS, TimeUnit.MINUTES.toMillis(1L))
+          .build());
+
+  private final Semaphore window;
+  private final int maxRetries;
+  private final long maxRetryAfterMs;
+  private final ConcurrentMap<String, Long> pausedUntil = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+      ExecutorsUtils.newDaemonThreadFactory(Optional.of(log), Optional.of("WindowedHttpAsyncClient-%d")));
+
+  public WindowedHttpAsyncClient(HttpAsyncClientBuilder builder, Config config,
+      SharedResourcesBroker<GobblinScopeTypes> broker) {
+    super(builder, withPoolSizedToWindow(config.withFallback(FALLBACK)), broker);
+    config = config.withFallback(FALLBACK);
+    int windowSize = config.getInt(WINDOW_SIZE);
+    if (windowSize < 1) {
+      throw new IllegalArgumentException(WINDOW_SIZE + " should be a positive number");
+    }
+    this.window = new Semaphore(windowSize);
+    this.maxRetries = config.getInt(MAX_RETRIES);
+    this.maxRetryAfterMs = config.getLong(MAX_RETRY_AFTER_MS);
+    log.info("Sending at most {} requests concurrently", windowSize);
+  }
+
+  private static Config withPoolSizedToWindow(Config config) {
+    int windowSize = config.getInt(WINDOW_SIZE);
+    return config.withFallback(ConfigFactory.parseMap(ImmutableMap.<String, Object>of(
+        POOLING_CONN_MANAGER_MAX_TOTAL_CONN, windowSize,
+        POOLING_CONN_MANAGER_MAX_PER_CONN, windowSize)));
+  }
+
+  @Override
+  public HttpResponse sendRequestImpl(HttpUriRequest request) throws IOException {
+    final SettableFuture<HttpResponse> future = SettableFuture.create();
+    sendAsyncRequestImpl(request, new Callback<HttpResponse>() {
+      @Override
+      public void onSuccess(HttpResponse result) {
+        future.set(result);
+      }
+
+      @Override
+      public void onFailure(Throwable throwable) {
+        future.setException(throwable);
+      }
+    });
+
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * Send the request once a slot of the window is free, blocking until then
+   */
+  @Override
+  public void sendAsyncRequestImpl(HttpUriRequest request, Callback<HttpResponse> callback) throws IOException {
+    try {
+      this.window.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for a free slot of the window", e);
+    }
+    send(request, getEndpoint(request), 0, callback);
+  }
+
+  private void send(final HttpUriRequest request, final String endpoint, final int attempt,
+      final Callback<HttpResponse> callback) {
+    Long until = this.pausedUntil.get(endpoint);
+    long delayMs = until == null ? 0 : until - System.currentTimeMillis();
+    if (delayMs > 0) {
+      schedule(request, endpoint, attempt, callback, delayMs);
+      return;
+    }
+
+    final Timer.Context latency =
+        getMetricContext().timer(MetricRegistry.name(LATENCY_METRIC_PREFIX, endpoint)).time();
+    try {
+      executeAsync(request, new Callback<HttpResponse>() {
+        @Override
+        public void onSuccess(HttpResponse result) {
+          latency.stop();
+          int statusCode = result.getStatusLine().getStatusCode();
+          if ((statusCode == SC_TOO_MANY_REQUESTS || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE)
+              && attempt < maxRetries && isRepeatable(request)) {
+            long pauseMs = pause(endpoint, result, attempt);
+            log.info("Endpoint {} responded {}, retrying {} in {} ms", endpoint, statusCode, request, pauseMs);
+            EntityUtils.consumeQuietly(result.getEntity());
+            schedule(request, endpoint, attempt + 1, callback, pauseMs);
+            return;
+          }
+          window.release();
+          callback.onSuccess(result);
+        }
+
+        @Override
+        public void onFailure(Throwable throwable) {
+          latency.stop();
+          window.release();
+          callback.onFailure(throwable);
+        }
+      });
+    } catch (IOException | RuntimeException e) {
+      latency.stop();
+      this.window.release();
+      callback.onFailure(e);
+    }
+  }
+
+  private void schedule(final HttpUriRequest request, final String endpoint, final int attempt,
+      final Callback<HttpResponse> callback, long delayMs) {
+    this.scheduler.schedule(new Runnable() {
+      @Override
+      public void run() {
+        send(request, endpoint, attempt, callback);
+      }
+    }, delayMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Pause the sends to the endpoint according to the Retry-After header of a throttled response
+   *
+   * @return the pause in milliseconds
+   */
+  private long pause(String endpoint, HttpResponse response, int attempt) {
+    long pauseMs = Math.min(getRetryAfterMs(response, INITIAL_RETRY_DELAY_MS << Math.min(attempt, 16)),
+        this.maxRetryAfterMs);
+    final long until = System.currentTimeMillis() + pauseMs;
+    Long previous;
+    do {
+      previous = this.pausedUntil.putIfAbsent(endpoint, until);
+    } while (previous != null && previous < until && !this.pausedUntil.replace(endpoint, previous, until));
+    return pauseMs;
+  }
+
+  /**
+   * The delay of the Retry-After header of the response, either in seconds or as a date
+   */
+  static long getRetryAfterMs(HttpResponse response, long defaultMs) {
+    Header header = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+    if (header == null || header.getValue() == null) {
+      return defaultMs;
+    }
+
+    String value = header.getValue().trim();
+    try {
+      return Math.max(0L, TimeUnit.SECONDS.toMillis(Long.parseLong(value)));
+    } catch (NumberFormatException e) {
+      Date date = DateUtils.parseDate(value);
+      return date == null ? defaultMs : Math.max(0L, date.getTime() - System.currentTimeMillis());
+    }
+  }
+
+  private static boolean isRepeatable(HttpUriRequest request) {
+    return !(request instanceof HttpEntityEnclosingRequest)
+        || ((HttpEntityEnclosingRequest) request).getEntity() == null
+        || ((HttpEntityEnclosingRequest) request).getEntity().isRepeatable();
+  }
+
+  private static String getEndpoint(HttpUriRequest request) {
+    return URIUtils.extractHost(request.getURI()).toURI();
+  }
+
+  /**
+   * Execute the request on the underlying async client
+   */
+  protected void executeAsync(HttpUriRequest request, Callback<HttpResponse> callback) throws IOException {
+    super.sendAsyncRequestImpl(request, callback);
+  }
+
+  @Override
+  public void close() throws IOException {
+    ExecutorsUtils.shutdownExecutorService(this.scheduler, Optional.of(log));
+    super.close();
+  }
+}
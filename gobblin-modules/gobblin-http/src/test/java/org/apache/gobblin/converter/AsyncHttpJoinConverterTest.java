@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gobblin.converter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.typesafe.config.Config;
+
+import org.apache.gobblin.async.AsyncRequestBuilder;
+import org.apache.gobblin.async.Callback;
+import org.apache.gobblin.broker.gobblin_scopes.GobblinScopeTypes;
+import org.apache.gobblin.broker.iface.SharedResourcesBroker;
+import org.apache.gobblin.configuration.State;
+import org.apache.gobblin.configuration.WorkUnitState;
+import org.apache.gobblin.http.ApacheHttpRequestBuilder;
+import org.apache.gobblin.http.ApacheHttpResponseHandler;
+import org.apache.gobblin.http.HttpClient;
+import org.apache.gobblin.http.HttpRequestResponseRecord;
+import org.apache.gobblin.http.ResponseHandler;
+import org.apache.gobblin.http.ResponseStatus;
+import org.apache.gobblin.source.workunit.WorkUnit;
+import org.apache.gobblin.utils.HttpConstants;
+
+import static org.mockito.Mockito.mock;
+
+
+@Test
+public class AsyncHttpJoinConverterTest {
+  private static final Schema INPUT_SCHEMA = SchemaBuilder.record("input").fields()
+      .requiredString("id").requiredInt("value").endRecord();
+
+  public void testCachedAndCoalescedLookups() throws Exception {
+    MockHttpClient client = new MockHttpClient();
+    MockJoinConverter converter = new MockJoinConverter(client);
+    WorkUnitState workUnitState = createWorkUnitState(true);
+    converter.init(workUnitState);
+    Schema outputSchema = converter.convertSchema(INPUT_SCHEMA, workUnitState);
+
+    // Concurrent lookups of the same key share one request
+    CompletableFuture<GenericRecord> first =
+        converter.convertRecordAsync(outputSchema, createRecord("a", 1), workUnitState);
+    CompletableFuture<GenericRecord> second =
+        converter.convertRecordAsync(outputSchema, createRecord("a", 2), workUnitState);
+    CompletableFuture<GenericRecord> other =
+        converter.convertRecordAsync(outputSchema, createRecord("b", 3), workUnitState);
+    Assert.assertEquals(client.requests.size(), 2);
+    Assert.assertFalse(first.isDone());
+
+    client.callbacks.get(0).onSuccess(createResponse(200));
+    client.callbacks.get(1).onSuccess(createResponse(404));
+    Assert.assertEquals(first.get().get("value"), 1);
+    Assert.assertEquals(second.get().get("value"), 2);
+    Assert.assertEquals(getStatusCode(second.get()), 200);
+    Assert.assertEquals(getStatusCode(other.get()), 404);
+
+    // Completed lookups are served from the cache
+    CompletableFuture<GenericRecord> cached =
+        converter.convertRecordAsync(outputSchema, createRecord("b", 4), workUnitState);
+    Assert.assertTrue(cached.isDone());
+    Assert.assertEquals(cached.get().get("value"), 4);
+    Assert.assertEquals(getStatusCode(cached.get()), 404);
+    Assert.assertEquals(client.requests.size(), 2);
+    Assert.assertEquals(converter.responseCache.size(), 2);
+    converter.close();
+  }
+
+  public void testFailedLookupsAreNotCached() throws Exception {
+    MockHttpClient client = new MockHttpClient();
+    MockJoinConverter converter = new MockJoinConverter(client);
+    WorkUnitState workUnitState = createWorkUnitState(true);
+    converter.init(workUnitState);
+    Schema outputSchema = converter.convertSchema(INPUT_SCHEMA, workUnitState);
+
+    CompletableFuture<GenericRecord> failed =
+        converter.convertRecordAsync(outputSchema, createRecord("a", 1), workUnitState);
+    client.callbacks.get(0).onFailure(new IOException("Connection reset"));
+    Assert.assertTrue(failed.isCompletedExceptionally());
+
+    CompletableFuture<GenericRecord> serverError =
+        converter.convertRecordAsync(outputSchema, createRecord("a", 2), workUnitState);
+    client.callbacks.get(1).onSuccess(createResponse(500));
+    Assert.assertTrue(serverError.isCompletedExceptionally());
+
+    CompletableFuture<GenericRecord> retried =
+        converter.convertRecordAsync(outputSchema, createRecord("a", 3), workUnitState);
+    client.callbacks.get(2).onSuccess(createResponse(200));
+    Assert.assertEquals(retried.get().get("value"), 3);
+    Assert.assertEquals(client.requests.size(), 3);
+    converter.close();
+  }
+
+  public void testCacheDisabled() throws Exception {
+    MockHttpClient client = new MockHttpClient();
+    MockJoinConverter converter = new MockJoinConverter(client);
+    WorkUnitState workUnitState = createWorkUnitState(false);
+    converter.init(workUnitState);
+    Schema outputSchema = converter.convertSchema(INPUT_SCHEMA, workUnitState);
+
+    converter.convertRecordAsync(outputSchema, createRecord("a", 1), workUnitState);
+    converter.convertRecordAsync(outputSchema, createRecord("a", 2), workUnitState);
+    Assert.assertEquals(client.requests.size(), 2);
+    Assert.assertNull(converter.responseCache);
+    converter.close();
+  }
+
+  private static WorkUnitState createWorkUnitState(boolean cacheEnabled) {
+    WorkUnitState workUnitState =
+        new WorkUnitState(WorkUnit.createEmpty(), new State(), mock(SharedResourcesBroker.class));
+    workUnitState.setProp(AsyncHttpJoinConverter.CONF_PREFIX + HttpConstants.URL_TEMPLATE,
+        "http://localhost:8080/join/${id}");
+    workUnitState.setProp(AsyncHttpJoinConverter.CONF_PREFIX + "keys", "id");
+    workUnitState.setProp(AsyncHttpJoinConverter.CONF_PREFIX + AsyncHttpJoinConverter.CACHE_ENABLED, cacheEnabled);
+    return workUnitState;
+  }
+
+  private static GenericRecord createRecord(String id, int value) {
+    GenericRecord record = new GenericData.Record(INPUT_SCHEMA);
+    record.put("id", id);
+    record.put("value", value);
+    return record;
+  }
+
+  private static HttpResponse createResponse(int statusCode) {
+    HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, statusCode, "");
+    response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+    return response;
+  }
+
+  private static int getStatusCode(GenericRecord record) {
+    return ((HttpRequestResponseRecord) record.get(AvroHttpJoinConverter.HTTP_REQUEST_RESPONSE_FIELD)).getStatusCode();
+  }
+
+  private static class MockHttpClient implements HttpClient<HttpUriRequest, HttpResponse> {
+    private final List<HttpUriRequest> requests = new CopyOnWriteArrayList<>();
+    private final List<Callback<HttpResponse>> callbacks = new CopyOnWriteArrayList<>();
+
+    @Override
+    public HttpResponse sendRequest(HttpUriRequest request) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void sendAsyncRequest(HttpUriRequest request, Callback<HttpResponse> callback) {
+      this.requests.add(request);
+      this.callbacks.add(callback);
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  private static class MockJoinConverter extends AvroHttpJoinConverter<HttpUriRequest, HttpResponse> {
+    private final MockHttpClient client;
+    private final AvroApacheHttpJoinConverter apacheConverter = new AvroApacheHttpJoinConverter();
+
+    MockJoinConverter(MockHttpClient client) {
+      this.client = client;
+    }
+
+    @Override
+    protected HttpClient<HttpUriRequest, HttpResponse> createHttpClient(Config config,
+        SharedResourcesBroker<GobblinScopeTypes> broker) {
+      return this.client;
+    }
+
+    @Override
+    protected ResponseHandler<HttpUriRequest, HttpResponse> createResponseHandler(Config config) {
+      return new ApacheHttpResponseHandler<>();
+    }
+
+    @Override
+    protected AsyncRequestBuilder<GenericRecord, HttpUriRequest> createRequestBuilder(Config config) {
+      return new ApacheHttpRequestBuilder(config.getString(HttpConstants.URL_TEMPLATE),
+          config.getString(HttpConstants.VERB), config.getString(HttpConstants.CONTENT_TYPE));
+    }
+
+    @Override
+    protected void fillHttpOutputData(Schema httpOutputSchema, GenericRecord outputRecord, HttpUriRequest rawRequest,
+        ResponseStatus status) throws IOException {
+      this.apacheConverter.fillHttpOutputData(httpOutputSchema, outputRecord, rawRequest, status);
+    }
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.http;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.message.BasicHttpResponse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import org.apache.gobblin.async.Callback;
+import org.apache.gobblin.broker.SharedResourcesBrokerFactory;
+import org.apache.gobblin.broker.SimpleScopeType;
+import org.apache.gobblin.broker.iface.SharedResourcesBroker;
+import org.apache.gobblin.utils.HttpConstants;
+
+
+@Test
+public class WindowedHttpAsyncClientTest {
+  private static final String URL = "http://localhost:8080/join";
+
+  public void testWindow() throws Exception {
+    final MockWindowedHttpAsyncClient client = createClient(2, 0);
+    client.sendAsyncRequest(new HttpGet(URL), new MockCallback());
+    client.sendAsyncRequest(new HttpGet(URL), new MockCallback());
+
+    // The window is full, so the third send blocks until a response comes back
+    final CountDownLatch sent = new CountDownLatch(1);
+    new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          client.sendAsyncRequest(new HttpGet(URL), new MockCallback());
+          sent.countDown();
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    }).start();
+    Assert.assertFalse(sent.await(500, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(client.pending.size(), 2);
+
+    client.pending.get(0).onSuccess(createResponse(200));
+    Assert.assertTrue(sent.await(10, TimeUnit.SECONDS));
+    Assert.assertEquals(client.pending.size(), 3);
+    client.close();
+  }
+
+  public void testRetryOnThrottledResponse() throws Exception {
+    MockWindowedHttpAsyncClient client = createClient(1, 3);
+    MockCallback callback = new MockCallback();
+    client.sendAsyncRequest(new HttpGet(URL), callback);
+
+    HttpResponse throttled = createResponse(429);
+    throttled.setHeader("Retry-After", "0");
+    client.pending.get(0).onSuccess(throttled);
+    client.awaitPending(2);
+    client.pending.get(1).onSuccess(createResponse(503));
+    client.awaitPending(3);
+    client.pending.get(2).onSuccess(createResponse(200));
+
+    Assert.assertEquals(callback.response.get().getStatusLine().getStatusCode(), 200);
+    Assert.assertEquals(client.getMetricContext().getTimers()
+        .get(WindowedHttpAsyncClient.LATENCY_METRIC_PREFIX + ".http://localhost:8080").getCount(), 3);
+    client.close();
+  }
+
+  public void testRetriesExhausted() throws Exception {
+    MockWindowedHttpAsyncClient client = createClient(1, 1);
+    MockCallback callback = new MockCallback();
+    client.sendAsyncRequest(new HttpGet(URL), callback);
+
+    HttpResponse throttled = createResponse(503);
+    throttled.setHeader("Retry-After", "0");
+    client.pending.get(0).onSuccess(throttled);
+    client.awaitPending(2);
+    client.pending.get(1).onSuccess(throttled);
+
+    Assert.assertEquals(callback.response.get().getStatusLine().getStatusCode(), 503);
+    // The window slot is released once the throttled response is handed over
+    client.sendAsyncRequest(new HttpGet(URL), new MockCallback());
+    Assert.assertEquals(client.pending.size(), 3);
+    client.close();
+  }
+
+  public void testGetRetryAfterMs() {
+    HttpResponse response = createResponse(429);
+    Assert.assertEquals(WindowedHttpAsyncClient.getRetryAfterMs(response, 100L), 100L);
+
+    response.setHeader("Retry-After", "3");
+    Assert.assertEquals(WindowedHttpAsyncClient.getRetryAfterMs(response, 100L), 3000L);
+
+    response.setHeader("Retry-After", DateUtils.formatDate(new Date(System.currentTimeMillis() + 60000L)));
+    long retryAfterMs = WindowedHttpAsyncClient.getRetryAfterMs(response, 100L);
+    Assert.assertTrue(retryAfterMs > 50000L && retryAfterMs <= 60000L);
+
+    response.setHeader("Retry-After", "soon");
+    Assert.assertEquals(WindowedHttpAsyncClient.getRetryAfterMs(response, 100L), 100L);
+  }
+
+  private static HttpResponse createResponse(int statusCode) {
+    return new BasicHttpResponse(HttpVersion.HTTP_1_1, statusCode, "");
+  }
+
+  private static MockWindowedHttpAsyncClient createClient(int windowSize, int maxRetries) {
+    Config config = ConfigFactory.parseMap(ImmutableMap.<String, Object>of(
+        HttpConstants.URL_TEMPLATE, URL,
+        WindowedHttpAsyncClient.WINDOW_SIZE, windowSize,
+        WindowedHttpAsyncClient.MAX_RETRIES, maxRetries));
+    SharedResourcesBroker broker = SharedResourcesBrokerFactory.<SimpleScopeType>createDefaultTopLevelBroker(
+        ConfigFactory.empty(), SimpleScopeType.GLOBAL.defaultScopeInstance());
+    return new MockWindowedHttpAsyncClient(config, broker);
+  }
+
+  /**
+   * A {@link WindowedHttpAsyncClient} holding on to the callbacks of the executed requests
+   */
+  private static class MockWindowedHttpAsyncClient extends WindowedHttpAsyncClient {
+    private final List<Callback<HttpResponse>> pending = new CopyOnWriteArrayList<>();
+
+    MockWindowedHttpAsyncClient(Config config, SharedResourcesBroker broker) {
+      super(HttpAsyncClientBuilder.create(), config, broker);
+    }
+
+    @Override
+    protected void executeAsync(HttpUriRequest request, Callback<HttpResponse> callback) {
+      this.pending.add(callback);
+    }
+
+    void awaitPending(int count) throws InterruptedException {
+      long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+      while (this.pending.size() < count && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      Assert.assertEquals(this.pending.size(), count);
+    }
+  }
+
+  private static class MockCallback implements Callback<HttpResponse> {
+    private final AtomicReference<HttpResponse> response = new AtomicReference<>();
+
+    @Override
+    public void onSuccess(HttpResponse result) {
+      this.response.set(result);
+    }
+
+    @Override
+    public void onFailure(Throwable throwable) {
+    }
+  }
+}
@@ -19,6 +19,7 @@ package org.apache.gobblin.kafka.client;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -35,6 +36,7 @@ import com.typesafe.config.Config;
 
 import kafka.api.PartitionFetchInfo;
 import kafka.api.PartitionOffsetRequestInfo;
+import kafka.common.ErrorMapping;
 import kafka.common.TopicAndPartition;
 import kafka.javaapi.FetchRequest;
 import kafka.javaapi.FetchResponse;
@@ -200,6 +202,57 @@ public class Kafka08ConsumerClient extends AbstractBaseKafkaConsumerClient {
     return getOffset(partition, offsetRequestInfo);
   }
 
+  /**
+   * Gets the earliest offsets of all partitions with one offset request per partition leader. Partitions whose offset
+   * could not be fetched are left out of the returned map.
+   */
+  @Override
+  public Map<KafkaPartition, Long> getEarliestOffsets(Collection<KafkaPartition> partitions) {
+    return getOffsets(partitions, kafka.api.OffsetRequest.EarliestTime());
+  }
+
+  /**
+   * Gets the latest offsets of all partitions with one offset request per partition leader. Partitions whose offset
+   * could not be fetched are left out of the returned map.
+   */
+  @Override
+  public Map<KafkaPartition, Long> getLatestOffsets(Collection<KafkaPartition> partitions) {
+    return getOffsets(partitions, kafka.api.OffsetRequest.LatestTime());
+  }
+
+  private Map<KafkaPartition, Long> getOffsets(Collection<KafkaPartition> partitions, long time) {
+    Map<HostAndPort, List<KafkaPartition>> partitionsByLeader = Maps.newHashMap();
+    for (KafkaPartition partition : partitions) {
+      HostAndPort leader = partition.getLeader().getHostAndPort();
+      if (!partitionsByLeader.containsKey(leader)) {
+        partitionsByLeader.put(leader, Lists.<KafkaPartition>newArrayList());
+      }
+      partitionsByLeader.get(leader).add(partition);
+    }
+
+    Map<KafkaPartition, Long> offsets = Maps.newHashMap();
+    for (Map.Entry<HostAndPort, List<KafkaPartition>> entry : partitionsByLeader.entrySet()) {
+      Map<TopicAndPartition, PartitionOffsetRequestInfo> offsetRequestInfo = Maps.newHashMap();
+      for (KafkaPartition partition : entry.getValue()) {
+        offsetRequestInfo.put(new TopicAndPartition(partition.getTopicName(), partition.getId()),
+            new PartitionOffsetRequestInfo(time, 1));
+      }
+      try {
+        OffsetResponse offsetResponse = getSimpleConsumer(entry.getKey()).getOffsetsBefore(
+            new OffsetRequest(offsetRequestInfo, kafka.api.OffsetRequest.CurrentVersion(), this.clientName));
+        for (KafkaPartition partition : entry.getValue()) {
+          if (offsetResponse.errorCode(partition.getTopicName(), partition.getId()) == ErrorMapping.NoError()) {
+            offsets.put(partition, offsetResponse.offsets(partition.getTopicName(), partition.getId())[0]);
+          }
+        }
+      } catch (Exception e) {
+        log.warn(String.format("Fetching offsets of %d partitions from leader %s has failed. Reason: %s",
+            entry.getValue().size(), entry.getKey(), e));
+      }
+    }
+    return offsets;
+  }
+
   private long getOffset(KafkaPartition partition, Map<TopicAndPartition, PartitionOffsetRequestInfo> offsetRequestInfo)
       throws KafkaOffsetRetrievalFailureException {
     SimpleConsumer consumer = this.getSimpleConsumer(partition.getLeader().getHostAndPort());
@@ -146,6 +146,41 @@ public class Kafka1ConsumerClient<K, V> extends AbstractBaseKafkaConsumerClient
     return this.consumer.position(topicPartition);
   }
 
+  /**
+   * Gets the earliest offsets of all partitions with a single {@link Consumer#beginningOffsets(Collection)} call, which
+   * sends one request per partition leader.
+   */
+  @Override
+  public Map<KafkaPartition, Long> getEarliestOffsets(Collection<KafkaPartition> partitions) {
+    return toKafkaPartitionOffsets(partitions, this.consumer.beginningOffsets(toTopicPartitions(partitions)));
+  }
+
+  /**
+   * Gets the latest offsets of all partitions with a single {@link Consumer#endOffsets(Collection)} call, which sends
+   * one request per partition leader.
+   */
+  @Override
+  public Map<KafkaPartition, Long> getLatestOffsets(Collection<KafkaPartition> partitions) {
+    return toKafkaPartitionOffsets(partitions, this.consumer.endOffsets(toTopicPartitions(partitions)));
+  }
+
+  private static List<TopicPartition> toTopicPartitions(Collection<KafkaPartition> partitions) {
+    return partitions.stream().map(partition -> new TopicPartition(partition.getTopicName(), partition.getId()))
+        .collect(Collectors.toList());
+  }
+
+  private static Map<KafkaPartition, Long> toKafkaPartitionOffsets(Collection<KafkaPartition> partitions,
+      Map<TopicPartition, Long> topicPartitionOffsets) {
+    Map<KafkaPartition, Long> offsets = new HashMap<>();
+    for (KafkaPartition partition : partitions) {
+      Long offset = topicPartitionOffsets.get(new TopicPartition(partition.getTopicName(), partition.getId()));
+      if (offset != null) {
+        offsets.put(partition, offset);
+      }
+    }
+    return offsets;
+  }
+
   @Override
   public Iterator<KafkaConsumerRecord> consume(KafkaPartition partition, long nextOffset, long maxOffset) {
 
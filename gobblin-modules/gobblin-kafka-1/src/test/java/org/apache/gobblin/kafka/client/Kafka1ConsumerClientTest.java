@@ -76,4 +76,29 @@ public class Kafka1ConsumerClientTest {
     }
 
   }
+
+  @Test
+  public void testGetOffsets() throws Exception {
+    Config testConfig = ConfigFactory.parseMap(ImmutableMap.of(ConfigurationKeys.KAFKA_BROKERS, "test"));
+    MockConsumer<String, String> consumer = new MockConsumer<String, String>(OffsetResetStrategy.NONE);
+
+    HashMap<TopicPartition, Long> beginningOffsets = new HashMap<>();
+    beginningOffsets.put(new TopicPartition("test_topic", 0), 5L);
+    beginningOffsets.put(new TopicPartition("test_topic", 1), 7L);
+    consumer.updateBeginningOffsets(beginningOffsets);
+    HashMap<TopicPartition, Long> endOffsets = new HashMap<>();
+    endOffsets.put(new TopicPartition("test_topic", 0), 10L);
+    endOffsets.put(new TopicPartition("test_topic", 1), 20L);
+    consumer.updateEndOffsets(endOffsets);
+
+    KafkaPartition partition0 = new KafkaPartition.Builder().withId(0).withTopicName("test_topic").build();
+    KafkaPartition partition1 = new KafkaPartition.Builder().withId(1).withTopicName("test_topic").build();
+
+    try (Kafka1ConsumerClient<String, String> kafka1Client = new Kafka1ConsumerClient<>(testConfig, consumer)) {
+      Assert.assertEquals(kafka1Client.getEarliestOffsets(Arrays.asList(partition0, partition1)),
+          ImmutableMap.of(partition0, 5L, partition1, 7L));
+      Assert.assertEquals(kafka1Client.getLatestOffsets(Arrays.asList(partition0, partition1)),
+          ImmutableMap.of(partition0, 10L, partition1, 20L));
+    }
+  }
 }
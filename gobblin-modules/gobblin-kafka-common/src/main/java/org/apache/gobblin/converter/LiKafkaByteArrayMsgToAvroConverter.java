@@ -18,13 +18,20 @@
 package org.apache.gobblin.converter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Set;
 
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericRecord;
 
+import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 import org.apache.gobblin.configuration.WorkUnitState;
+import org.apache.gobblin.converter.filter.AvroSchemaFieldRemover;
 import org.apache.gobblin.kafka.schemareg.KafkaSchemaRegistry;
 import org.apache.gobblin.kafka.schemareg.KafkaSchemaRegistryFactory;
 import org.apache.gobblin.kafka.schemareg.SchemaRegistryException;
@@ -38,16 +45,32 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Converts LiKafka byte array messages into avro.
+ *
+ * If {@link #PROJECTED_FIELDS} is set, the output schema only has the listed top-level fields of the latest schema
+ * of the topic, and the other fields are skipped when decoding.
+ *
+ * If {@link #REUSE_RECORDS} is set, each message is decoded into the record instance returned for the previous
+ * message. This is only safe if the record is written out before the next one is converted and nothing downstream
+ * keeps a reference to it or to its strings, arrays and maps.
  */
 @Slf4j
 public class LiKafkaByteArrayMsgToAvroConverter<S> extends ToAvroConverterBase<S, byte[]> {
+  public static final String PROJECTED_FIELDS = "converter.liKafka.projectedFields";
+  public static final String REUSE_RECORDS = "converter.liKafka.reuseRecords";
+  public static final boolean DEFAULT_REUSE_RECORDS = false;
+
+  private static final Splitter SPLITTER_ON_COMMA = Splitter.on(',').trimResults().omitEmptyStrings();
+
   KafkaSchemaRegistry schemaRegistry;
   LiAvroDeserializerBase deserializer;
+  private boolean reuseRecords;
+  private GenericRecord lastRecord;
 
   @Override
   public Converter<S, Schema, byte[], GenericRecord> init(WorkUnitState workUnit) {
     this.schemaRegistry = KafkaSchemaRegistryFactory.getSchemaRegistry(workUnit.getProperties());
     this.deserializer = new LiAvroDeserializerBase(this.schemaRegistry);
+    this.reuseRecords = workUnit.getPropAsBoolean(REUSE_RECORDS, DEFAULT_REUSE_RECORDS);
     return this;
   }
 
@@ -57,18 +80,45 @@ public class LiKafkaByteArrayMsgToAvroConverter<S> extends ToAvroConverterBase<S
     Preconditions.checkArgument(workUnit.contains(KafkaSource.TOPIC_NAME), "Must specify topic name.");
     String topic = workUnit.getProp(KafkaSource.TOPIC_NAME);
     try {
-      return (Schema) this.schemaRegistry.getLatestSchema(topic);
+      Schema schema = (Schema) this.schemaRegistry.getLatestSchema(topic);
+      if (workUnit.contains(PROJECTED_FIELDS)) {
+        schema = projectSchema(schema, SPLITTER_ON_COMMA.splitToList(workUnit.getProp(PROJECTED_FIELDS)));
+      }
+      return schema;
     } catch (IOException | SchemaRegistryException e) {
       throw new SchemaConversionException(e);
     }
   }
 
+  /**
+   * Keep only the given top-level fields of a record schema.
+   */
+  static Schema projectSchema(Schema schema, List<String> projectedFields) throws SchemaConversionException {
+    Set<String> fieldsToKeep = Sets.newHashSet(projectedFields);
+    List<String> fieldsToRemove = Lists.newArrayList();
+    for (Schema.Field field : schema.getFields()) {
+      if (!fieldsToKeep.remove(field.name())) {
+        fieldsToRemove.add(field.name());
+      }
+    }
+    if (!fieldsToKeep.isEmpty()) {
+      throw new SchemaConversionException(
+          String.format("Projected fields %s are not in schema %s", fieldsToKeep, schema.getFullName()));
+    }
+    log.info("Projecting schema {} to fields {}", schema.getFullName(), projectedFields);
+    return new AvroSchemaFieldRemover(Joiner.on(',').join(fieldsToRemove)).removeFields(schema);
+  }
+
   @Override
   public Iterable<GenericRecord> convertRecord(Schema outputSchema, byte[] inputRecord, WorkUnitState workUnit)
       throws DataConversionException {
     try {
       String topic = workUnit.getProp(KafkaSource.TOPIC_NAME);
-      GenericRecord record = this.deserializer.deserialize(topic, inputRecord, outputSchema);
+      GenericRecord record =
+          this.deserializer.deserialize(topic, inputRecord, outputSchema, this.reuseRecords ? this.lastRecord : null);
+      if (this.reuseRecords) {
+        this.lastRecord = record;
+      }
       return new SingleRecordIterable<>(record);
     } catch (SerializationException e) {
       log.error("Cannot decode one record.", e);
@@ -18,26 +18,52 @@
 package org.apache.gobblin.kafka.schemareg;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.IdentityHashMap;
-import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 import lombok.extern.slf4j.Slf4j;
 
 
 /**
  * An implementation that wraps a passed in schema registry and caches interactions with it
+ *
+ * <p>
+ *   The caches are thread safe and bounded: ids resolved by {@link #getById(Object)} are kept in a cache of at most
+ *   {@link KafkaSchemaRegistryConfigurationKeys#KAFKA_SCHEMA_REGISTRY_CACHE_MAX_SIZE} entries, optionally expiring
+ *   {@link KafkaSchemaRegistryConfigurationKeys#KAFKA_SCHEMA_REGISTRY_CACHE_EXPIRE_AFTER_WRITE_MIN} minutes after
+ *   being loaded, and the least recently used schema objects registered under a name are evicted once there are more
+ *   than maxSchemaReferences of them. Concurrent misses for the same id (or the same schema object) are coalesced into
+ *   a single call to the wrapped registry, the other callers wait for its result. Ids the wrapped registry does not
+ *   have, i.e. for which it throws a {@link SchemaNotFoundException}, are remembered for
+ *   {@link KafkaSchemaRegistryConfigurationKeys#KAFKA_SCHEMA_REGISTRY_CACHE_NEGATIVE_EXPIRE_AFTER_WRITE_SEC} seconds, so
+ *   a bad id does not hit the registry on every record. Other failures, e.g. {@link IOException}s or errors of an
+ *   unavailable registry, are not cached.
+ * </p>
  * {@inheritDoc}
  * */
 @Slf4j
 public class CachingKafkaSchemaRegistry<K,S> implements KafkaSchemaRegistry<K,S> {
 
-  private static final int DEFAULT_MAX_SCHEMA_REFERENCES = 10;
+  private static final int DEFAULT_MAX_SCHEMA_REFERENCES =
+      Integer.parseInt(KafkaSchemaRegistryConfigurationKeys.KAFKA_SCHEMA_REGISTRY_CACHE_MAX_SCHEMA_REFERENCES_DEFAULT);
   private final KafkaSchemaRegistry<K,S> _kafkaSchemaRegistry;
-  private final HashMap<String, Map<S, K>> _namedSchemaCache;
-  private final HashMap<K, S> _idBasedCache;
+  private final ConcurrentMap<String, Cache<S, K>> _namedSchemaCache;
+  private final Cache<K, S> _idBasedCache;
+  private final Cache<K, SchemaNotFoundException> _unknownIdCache;
+  private final AtomicLong _unknownIdHitCount = new AtomicLong();
   private final int _maxSchemaReferences;
 
 
@@ -49,62 +75,152 @@ public class CachingKafkaSchemaRegistry<K,S> implements KafkaSchemaRegistry<K,S>
   /**
    * Create a caching schema registry.
    * @param kafkaSchemaRegistry: a schema registry that needs caching
-   * @param maxSchemaReferences: the maximum number of unique references that can exist for a given schema.
+   * @param maxSchemaReferences: the maximum number of unique references that are cached for a given schema name.
    */
   public CachingKafkaSchemaRegistry(KafkaSchemaRegistry kafkaSchemaRegistry, int maxSchemaReferences)
+  {
+    this(kafkaSchemaRegistry, maxSchemaReferences,
+        Long.parseLong(KafkaSchemaRegistryConfigurationKeys.KAFKA_SCHEMA_REGISTRY_CACHE_MAX_SIZE_DEFAULT),
+        Long.parseLong(KafkaSchemaRegistryConfigurationKeys.KAFKA_SCHEMA_REGISTRY_CACHE_EXPIRE_AFTER_WRITE_MIN_DEFAULT),
+        Long.parseLong(KafkaSchemaRegistryConfigurationKeys.KAFKA_SCHEMA_REGISTRY_CACHE_NEGATIVE_EXPIRE_AFTER_WRITE_SEC_DEFAULT));
+  }
+
+  /**
+   * Create a caching schema registry configured by the kafka.schemaRegistry.cache.* properties in
+   * {@link KafkaSchemaRegistryConfigurationKeys}.
+   */
+  public CachingKafkaSchemaRegistry(KafkaSchemaRegistry kafkaSchemaRegistry, Properties props)
+  {
+    this(kafkaSchemaRegistry,
+        Integer.parseInt(props.getProperty(KafkaSchemaRegistryConfigurationKeys.KAFKA_SCHEMA_REGISTRY_CACHE_MAX_SCHEMA_REFERENCES,
+            KafkaSchemaRegistryConfigurationKeys.KAFKA_SCHEMA_REGISTRY_CACHE_MAX_SCHEMA_REFERENCES_DEFAULT)),
+        Long.parseLong(props.getProperty(KafkaSchemaRegistryConfigurationKeys.KAFKA_SCHEMA_REGISTRY_CACHE_MAX_SIZE,
+            KafkaSchemaRegistryConfigurationKeys.KAFKA_SCHEMA_REGISTRY_CACHE_MAX_SIZE_DEFAULT)),
+        Long.parseLong(props.getProperty(KafkaSchemaRegistryConfigurationKeys.KAFKA_SCHEMA_REGISTRY_CACHE_EXPIRE_AFTER_WRITE_MIN,
+            KafkaSchemaRegistryConfigurationKeys.KAFKA_SCHEMA_REGISTRY_CACHE_EXPIRE_AFTER_WRITE_MIN_DEFAULT)),
+        Long.parseLong(props.getProperty(KafkaSchemaRegistryConfigurationKeys.KAFKA_SCHEMA_REGISTRY_CACHE_NEGATIVE_EXPIRE_AFTER_WRITE_SEC,
+            KafkaSchemaRegistryConfigurationKeys.KAFKA_SCHEMA_REGISTRY_CACHE_NEGATIVE_EXPIRE_AFTER_WRITE_SEC_DEFAULT)));
+  }
+
+  /**
+   * Create a caching schema registry.
+   * @param kafkaSchemaRegistry: a schema registry that needs caching
+   * @param maxSchemaReferences: the maximum number of unique references that are cached for a given schema name.
+   * @param maxSize: the maximum number of ids that are cached.
+   * @param expireAfterWriteMin: minutes after which a cached id expires, or 0 if cached ids never expire.
+   * @param negativeExpireAfterWriteSec: seconds for which an id that was not found is remembered, or 0 to disable.
+   */
+  public CachingKafkaSchemaRegistry(KafkaSchemaRegistry kafkaSchemaRegistry, int maxSchemaReferences, long maxSize,
+      long expireAfterWriteMin, long negativeExpireAfterWriteSec)
   {
     Preconditions.checkArgument(kafkaSchemaRegistry!=null, "KafkaSchemaRegistry cannot be null");
     Preconditions.checkArgument(!kafkaSchemaRegistry.hasInternalCache(), "SchemaRegistry already has a cache.");
+    Preconditions.checkArgument(maxSchemaReferences > 0, "maxSchemaReferences must be greater than 0");
     _kafkaSchemaRegistry = kafkaSchemaRegistry;
-    _namedSchemaCache = new HashMap<>();
-    _idBasedCache = new HashMap<>();
+    _namedSchemaCache = new ConcurrentHashMap<>();
+    CacheBuilder<Object, Object> idCacheBuilder = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats();
+    if (expireAfterWriteMin > 0) {
+      idCacheBuilder.expireAfterWrite(expireAfterWriteMin, TimeUnit.MINUTES);
+    }
+    _idBasedCache = idCacheBuilder.build();
+    _unknownIdCache = CacheBuilder.newBuilder().maximumSize(negativeExpireAfterWriteSec > 0 ? maxSize : 0)
+        .expireAfterWrite(Math.max(negativeExpireAfterWriteSec, 1), TimeUnit.SECONDS).build();
     _maxSchemaReferences = maxSchemaReferences;
   }
 
   @Override
-  synchronized public K register(String name, S schema)
+  public K register(final String name, final S schema)
       throws IOException, SchemaRegistryException {
-
-    Map<S, K> schemaIdMap;
-    if (_namedSchemaCache.containsKey(name))
-    {
-      schemaIdMap = _namedSchemaCache.get(name);
-    }
-    else {
-      // we really care about reference equality to de-dup using cache
-      // when it comes to registering schemas, so use an IdentityHashMap here
-      schemaIdMap = new IdentityHashMap<>();
-      _namedSchemaCache.put(name, schemaIdMap);
+    Cache<S, K> schemaIdCache = _namedSchemaCache.get(name);
+    if (schemaIdCache == null) {
+      // we really care about reference equality to de-dup using cache when it comes to registering schemas,
+      // weak keys are compared by identity. A single segment makes the eviction strictly least recently used.
+      Cache<S, K> newCache = CacheBuilder.newBuilder().weakKeys().concurrencyLevel(1)
+          .maximumSize(_maxSchemaReferences).<S, K>build();
+      schemaIdCache = _namedSchemaCache.putIfAbsent(name, newCache);
+      if (schemaIdCache == null) {
+        schemaIdCache = newCache;
+      }
     }
 
-    if (schemaIdMap.containsKey(schema))
-    {
-      return schemaIdMap.get(schema);
-    }
-    else
-    {
-      // check if schemaIdMap is getting too full
-      Preconditions.checkState(schemaIdMap.size() < _maxSchemaReferences, "Too many schema objects for " + name +". Cache is overfull.");
-    }
-    K id = _kafkaSchemaRegistry.register(name, schema);
-    schemaIdMap.put(schema, id);
-    _idBasedCache.put(id, schema);
-    return id;
+    return load(schemaIdCache, schema, new Callable<K>() {
+      @Override
+      public K call() throws Exception {
+        K id = _kafkaSchemaRegistry.register(name, schema);
+        _idBasedCache.put(id, schema);
+        _unknownIdCache.invalidate(id);
+        return id;
+      }
+    });
   }
 
   @Override
-  synchronized public S getById(K id)
+  public S getById(final K id)
       throws IOException, SchemaRegistryException {
-    if (_idBasedCache.containsKey(id))
-    {
-      return _idBasedCache.get(id);
-    }
-    else
-    {
-      S schema = _kafkaSchemaRegistry.getById(id);
-      _idBasedCache.put(id, schema);
+    S schema = _idBasedCache.getIfPresent(id);
+    if (schema != null) {
       return schema;
     }
+    SchemaNotFoundException unknownId = _unknownIdCache.getIfPresent(id);
+    if (unknownId != null) {
+      _unknownIdHitCount.incrementAndGet();
+      throw new SchemaNotFoundException("Schema with id " + id + " was recently not found", unknownId);
+    }
+
+    return load(_idBasedCache, id, new Callable<S>() {
+      @Override
+      public S call() throws Exception {
+        try {
+          return _kafkaSchemaRegistry.getById(id);
+        } catch (SchemaNotFoundException e) {
+          _unknownIdCache.put(id, e);
+          throw e;
+        }
+      }
+    });
+  }
+
+  /**
+   * Get the value of key from the cache, calling the loader if it is missing. Concurrent calls for the same key wait
+   * for a single call of the loader.
+   */
+  private static <KEY, VALUE> VALUE load(Cache<KEY, VALUE> cache, KEY key, Callable<VALUE> loader)
+      throws IOException, SchemaRegistryException {
+    try {
+      return cache.get(key, loader);
+    } catch (CacheLoader.InvalidCacheLoadException e) {
+      throw new SchemaRegistryException("Schema registry returned null for " + key, e);
+    } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SchemaRegistryException) {
+        throw (SchemaRegistryException) cause;
+      }
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new SchemaRegistryException(cause);
+    }
+  }
+
+  /**
+   * Hit, miss and load time statistics of the cache of schemas by id. The load time is the latency of the wrapped
+   * schema registry for the ids that were missing.
+   */
+  public CacheStats getIdCacheStats() {
+    return _idBasedCache.stats();
+  }
+
+  /**
+   * Number of {@link #getById(Object)} calls that failed because the id was recently not found.
+   */
+  public long getUnknownIdHitCount() {
+    return _unknownIdHitCount.get();
   }
 
   /**
@@ -24,6 +24,15 @@ public class KafkaSchemaRegistryConfigurationKeys {
   public final static String KAFKA_SCHEMA_REGISTRY_CLASS = "kafka.schemaRegistry.class";
   public final static String KAFKA_SCHEMA_REGISTRY_URL = "kafka.schemaRegistry.url";
   public final static String KAFKA_SCHEMA_REGISTRY_CACHE = "kafka.schemaRegistry.cache";
+  public final static String KAFKA_SCHEMA_REGISTRY_CACHE_MAX_SIZE = "kafka.schemaRegistry.cache.maxSize";
+  public final static String KAFKA_SCHEMA_REGISTRY_CACHE_MAX_SIZE_DEFAULT = "1000";
+  public final static String KAFKA_SCHEMA_REGISTRY_CACHE_EXPIRE_AFTER_WRITE_MIN = "kafka.schemaRegistry.cache.expireAfterWriteMin";
+  /** Schemas are immutable once registered, so cached entries do not expire by default */
+  public final static String KAFKA_SCHEMA_REGISTRY_CACHE_EXPIRE_AFTER_WRITE_MIN_DEFAULT = "0";
+  public final static String KAFKA_SCHEMA_REGISTRY_CACHE_NEGATIVE_EXPIRE_AFTER_WRITE_SEC = "kafka.schemaRegistry.cache.negativeExpireAfterWriteSec";
+  public final static String KAFKA_SCHEMA_REGISTRY_CACHE_NEGATIVE_EXPIRE_AFTER_WRITE_SEC_DEFAULT = "60";
+  public final static String KAFKA_SCHEMA_REGISTRY_CACHE_MAX_SCHEMA_REFERENCES = "kafka.schemaRegistry.cache.maxSchemaReferences";
+  public final static String KAFKA_SCHEMA_REGISTRY_CACHE_MAX_SCHEMA_REFERENCES_DEFAULT = "10";
   public final static String KAFKA_SCHEMA_REGISTRY_SWITCH_NAME = "kafka.schemaRegistry.switchName";
   public final static String KAFKA_SCHEMA_REGISTRY_SWITCH_NAME_DEFAULT = "true";
   public final static String KAFKA_SCHEMA_REGISTRY_OVERRIDE_NAMESPACE = "kafka.schemaRegistry.overrideNamespace";
@@ -51,7 +51,7 @@ public class KafkaSchemaRegistryFactory {
       KafkaSchemaRegistry schemaRegistry = (KafkaSchemaRegistry) ConstructorUtils.invokeConstructor(clazz, props);
       if (tryCache && !schemaRegistry.hasInternalCache())
       {
-        schemaRegistry = new CachingKafkaSchemaRegistry(schemaRegistry);
+        schemaRegistry = new CachingKafkaSchemaRegistry(schemaRegistry, props);
       }
       return schemaRegistry;
     } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InvocationTargetException
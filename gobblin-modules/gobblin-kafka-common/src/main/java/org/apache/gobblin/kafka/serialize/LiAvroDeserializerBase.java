@@ -20,16 +20,18 @@ package org.apache.gobblin.kafka.serialize;
 import java.io.IOException;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
-import org.apache.avro.io.Decoder;
+import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.DecoderFactory;
 
 import com.google.common.base.Preconditions;
 
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.gobblin.kafka.schemareg.KafkaSchemaRegistry;
@@ -39,12 +41,17 @@ import org.apache.gobblin.kafka.schemareg.SchemaRegistryException;
 
 /**
  * The LinkedIn Avro Deserializer (works with records serialized by the {@link LiAvroSerializerBase})
+ *
+ * A datum reader resolving the writer schema to the output schema is kept per (schema id, output schema) pair, so
+ * the schema registry is only looked up and the schemas only resolved the first time a schema id is seen. The binary
+ * decoder is reused across messages, so an instance must not be shared by multiple threads.
  */
 @Slf4j
 public class LiAvroDeserializerBase {
 
   private KafkaSchemaRegistry<MD5Digest, Schema> _schemaRegistry;
-  private GenericDatumReader<GenericData.Record> _datumReader;
+  private final Map<ReaderKey, GenericDatumReader<GenericRecord>> _datumReaders = new ConcurrentHashMap<>();
+  private BinaryDecoder _decoder;
 
   public LiAvroDeserializerBase()
   {}
@@ -52,9 +59,7 @@ public class LiAvroDeserializerBase {
   public LiAvroDeserializerBase(KafkaSchemaRegistry<MD5Digest, Schema> schemaRegistry)
   {
     _schemaRegistry = schemaRegistry;
-    _datumReader = new GenericDatumReader<>();
     Preconditions.checkState(_schemaRegistry!=null, "Schema Registry is not initialized");
-    Preconditions.checkState(_datumReader!=null, "Datum Reader is not initialized");
   }
   /**
    * Configure this class.
@@ -63,7 +68,7 @@ public class LiAvroDeserializerBase {
    */
   public void configure(Map<String, ?> configs, boolean isKey) {
     Preconditions.checkArgument(isKey==false, "LiAvroDeserializer only works for value fields");
-    _datumReader = new GenericDatumReader<>();
+    _datumReaders.clear();
     Properties props = new Properties();
     for (Map.Entry<String, ?> entry: configs.entrySet())
     {
@@ -83,6 +88,20 @@ public class LiAvroDeserializerBase {
    */
   public GenericRecord deserialize(String topic, byte[] data, Schema outputSchema)
       throws SerializationException {
+    return deserialize(topic, data, outputSchema, null);
+  }
+
+  /**
+   *
+   * @param topic topic associated with the data
+   * @param data serialized bytes
+   * @param outputSchema the schema to deserialize to. If null then the record schema is used.
+   * @param reuse a previously deserialized record whose instance can be filled in with the new record, or null. It is
+   *              only reused if it has the schema the new record is deserialized to.
+   * @return deserialized object
+   */
+  public GenericRecord deserialize(String topic, byte[] data, Schema outputSchema, GenericRecord reuse)
+      throws SerializationException {
     try {
       // MAGIC_BYTE | schemaId-bytes | avro_payload
 
@@ -90,13 +109,14 @@ public class LiAvroDeserializerBase {
         throw new SerializationException(String.format("Unknown magic byte for topic: %s ", topic));
       }
       MD5Digest schemaId = MD5Digest.fromBytes(data, 1  ); // read start after the first byte (magic byte)
-      Schema schema = _schemaRegistry.getById(schemaId);
-      Decoder decoder = DecoderFactory.get().binaryDecoder(data, 1 + MD5Digest.MD5_BYTES_LENGTH,
-          data.length - MD5Digest.MD5_BYTES_LENGTH - 1, null);
-      _datumReader.setExpected(outputSchema);
-      _datumReader.setSchema(schema);
+      GenericDatumReader<GenericRecord> datumReader = getDatumReader(schemaId, outputSchema);
+      _decoder = DecoderFactory.get().binaryDecoder(data, 1 + MD5Digest.MD5_BYTES_LENGTH,
+          data.length - MD5Digest.MD5_BYTES_LENGTH - 1, _decoder);
       try {
-        GenericRecord record = _datumReader.read(null, decoder);
+        if (reuse != null && reuse.getSchema() != datumReader.getExpected()) {
+          reuse = null;
+        }
+        GenericRecord record = datumReader.read(reuse, _decoder);
         return record;
       } catch (IOException e) {
         log.error(String.format("Error during decoding record for topic %s: ", topic));
@@ -118,7 +138,26 @@ public class LiAvroDeserializerBase {
     return deserialize(topic, data, null);
   }
 
+  private GenericDatumReader<GenericRecord> getDatumReader(MD5Digest schemaId, Schema outputSchema)
+      throws SchemaRegistryException {
+    ReaderKey key = new ReaderKey(schemaId, outputSchema);
+    GenericDatumReader<GenericRecord> datumReader = _datumReaders.get(key);
+    if (datumReader == null) {
+      Schema schema = _schemaRegistry.getById(schemaId);
+      datumReader = new GenericDatumReader<>(schema, outputSchema == null ? schema : outputSchema);
+      _datumReaders.put(key, datumReader);
+    }
+    return datumReader;
+  }
+
   public void close() {
   }
 
+  @AllArgsConstructor
+  @EqualsAndHashCode
+  private static class ReaderKey {
+    private final MD5Digest schemaId;
+    private final Schema outputSchema;
+  }
+
 }
@@ -18,6 +18,7 @@
 package org.apache.gobblin.source.extractor.extract.kafka;
 
 import java.io.IOException;
+import java.util.Map;
 
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaBuilder;
@@ -28,6 +29,7 @@ import org.apache.avro.io.Decoder;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -59,6 +61,8 @@ public abstract class KafkaAvroExtractor<K> extends KafkaExtractor<Schema, Gener
   protected final Optional<KafkaSchemaRegistry<K, Schema>> schemaRegistry;
   protected final Optional<Schema> schema;
   protected final Optional<GenericDatumReader<Record>> reader;
+  // Readers resolving each record schema seen so far to the extractor schema
+  private final Map<Schema, GenericDatumReader<Record>> readersByRecordSchema = Maps.newHashMap();
 
   public KafkaAvroExtractor(WorkUnitState state) {
     super(state);
@@ -110,9 +114,8 @@ public abstract class KafkaAvroExtractor<K> extends KafkaExtractor<Schema, Gener
     byte[] payload = messageAndOffset.getMessageBytes();
     Schema recordSchema = getRecordSchema(payload);
     Decoder decoder = getDecoder(payload);
-    this.reader.get().setSchema(recordSchema);
     try {
-      GenericRecord record = this.reader.get().read(null, decoder);
+      GenericRecord record = getReader(recordSchema).read(null, decoder);
       record = convertRecord(record);
       return record;
     } catch (IOException e) {
@@ -121,6 +124,19 @@ public abstract class KafkaAvroExtractor<K> extends KafkaExtractor<Schema, Gener
     }
   }
 
+  /**
+   * Get a reader from the given record schema to the extractor schema. Readers are cached, so that the schemas are
+   * only resolved once instead of for every record.
+   */
+  private GenericDatumReader<Record> getReader(Schema recordSchema) {
+    GenericDatumReader<Record> recordReader = this.readersByRecordSchema.get(recordSchema);
+    if (recordReader == null) {
+      recordReader = new GenericDatumReader<>(recordSchema, this.schema.get());
+      this.readersByRecordSchema.put(recordSchema, recordReader);
+    }
+    return recordReader;
+  }
+
   /**
    * Convert the record to the output schema of this extractor
    * @param record the input record
@@ -45,6 +45,7 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.typesafe.config.Config;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -133,6 +134,18 @@ public abstract class KafkaSource<S, D> extends EventBasedSource<S, D> {
   public static final Boolean DEFAULT_OBSERVED_LATENCY_MEASUREMENT_ENABLED = false;
   public static final String RECORD_CREATION_TIMESTAMP_FIELD = "gobblin.kafka.recordCreationTimestampField";
   public static final String RECORD_CREATION_TIMESTAMP_UNIT = "gobblin.kafka.recordCreationTimestampUnit";
+  /** Whether the earliest and latest offsets of the partitions of a topic are fetched with one request each */
+  public static final String BATCHED_OFFSET_FETCH_ENABLED = "gobblin.kafka.batchedOffsetFetchEnabled";
+  public static final boolean DEFAULT_BATCHED_OFFSET_FETCH_ENABLED = true;
+  /**
+   * Seconds for which the discovered topics and their partitions are reused by later runs in the same JVM, 0 (the
+   * default) to discover topics on every run. Offsets are always fetched.
+   */
+  public static final String TOPIC_METADATA_CACHE_TTL_SECONDS = "gobblin.kafka.topicMetadataCacheTtlSeconds";
+  public static final long DEFAULT_TOPIC_METADATA_CACHE_TTL_SECONDS = 0L;
+
+  /** Topics discovered by previous runs, keyed by brokers, consumer client and topic filters */
+  private static final Map<String, CachedTopics> TOPIC_METADATA_CACHE = Maps.newConcurrentMap();
 
   private final Set<String> moveToLatestTopics = Sets.newTreeSet(String.CASE_INSENSITIVE_ORDER);
   private final Map<KafkaPartition, Long> previousOffsets = Maps.newConcurrentMap();
@@ -162,6 +175,7 @@ public abstract class KafkaSource<S, D> extends EventBasedSource<S, D> {
   private boolean isFullExtract;
   private String kafkaBrokers;
   private boolean shouldEnableDatasetStateStore;
+  private boolean batchedOffsetFetchEnabled;
   private AtomicBoolean isDatasetStateEnabled = new AtomicBoolean(false);
   private Set<String> topicsToProcess;
 
@@ -207,6 +221,8 @@ public abstract class KafkaSource<S, D> extends EventBasedSource<S, D> {
     kafkaBrokers = state.getProp(ConfigurationKeys.KAFKA_BROKERS, "");
     this.shouldEnableDatasetStateStore = state.getPropAsBoolean(GOBBLIN_KAFKA_SHOULD_ENABLE_DATASET_STATESTORE,
         DEFAULT_GOBBLIN_KAFKA_SHOULD_ENABLE_DATASET_STATESTORE);
+    this.batchedOffsetFetchEnabled =
+        state.getPropAsBoolean(BATCHED_OFFSET_FETCH_ENABLED, DEFAULT_BATCHED_OFFSET_FETCH_ENABLED);
 
     try {
       Config config = ConfigUtils.propertiesToConfig(state.getProperties());
@@ -385,8 +401,10 @@ public abstract class KafkaSource<S, D> extends EventBasedSource<S, D> {
 
     List<WorkUnit> workUnits = Lists.newArrayList();
     List<KafkaPartition> topicPartitions = topic.getPartitions();
+    Map<KafkaPartition, Offsets> fetchedOffsets = fetchOffsets(topic);
     for (KafkaPartition partition : topicPartitions) {
-      WorkUnit workUnit = getWorkUnitForTopicPartition(partition, state, topicSpecificState);
+      WorkUnit workUnit =
+          getWorkUnitForTopicPartition(partition, fetchedOffsets.get(partition), state, topicSpecificState);
       if (workUnit != null) {
         // For disqualified topics, for each of its workunits set the high watermark to be the same
         // as the low watermark, so that it will be skipped.
@@ -401,6 +419,42 @@ public abstract class KafkaSource<S, D> extends EventBasedSource<S, D> {
     return workUnits;
   }
 
+  /**
+   * Fetch the earliest and latest offsets of all partitions of a topic with a single
+   * {@link GobblinKafkaConsumerClient#getEarliestOffsets(java.util.Collection)} and
+   * {@link GobblinKafkaConsumerClient#getLatestOffsets(java.util.Collection)} call. Partitions missing from the returned
+   * map, or all partitions if the batched fetch fails, have their offsets fetched one by one.
+   */
+  private Map<KafkaPartition, Offsets> fetchOffsets(KafkaTopic topic) {
+    Map<KafkaPartition, Offsets> fetchedOffsets = Maps.newHashMap();
+    List<KafkaPartition> partitions = topic.getPartitions();
+    if (!this.batchedOffsetFetchEnabled || partitions.size() <= 1) {
+      return fetchedOffsets;
+    }
+
+    try (Timer.Context context = this.metricContext.timer(OFFSET_FETCH_TIMER).time()) {
+      long offsetFetchEpochTime = System.currentTimeMillis();
+      Map<KafkaPartition, Long> earliestOffsets = this.kafkaConsumerClient.get().getEarliestOffsets(partitions);
+      Map<KafkaPartition, Long> latestOffsets = this.kafkaConsumerClient.get().getLatestOffsets(partitions);
+      for (KafkaPartition partition : partitions) {
+        Long earliestOffset = earliestOffsets.get(partition);
+        Long latestOffset = latestOffsets.get(partition);
+        if (earliestOffset != null && latestOffset != null) {
+          Offsets offsets = new Offsets();
+          offsets.setOffsetFetchEpochTime(offsetFetchEpochTime);
+          offsets.setEarliestOffset(earliestOffset);
+          offsets.setLatestOffset(latestOffset);
+          fetchedOffsets.put(partition, offsets);
+        }
+      }
+    } catch (Throwable t) {
+      LOG.warn(String.format("Failed to fetch the offsets of topic %s in a batch, fetching them per partition",
+          topic.getName()), t);
+      fetchedOffsets.clear();
+    }
+    return fetchedOffsets;
+  }
+
   /**
    * Whether a {@link KafkaTopic} is qualified to be pulled.
    *
@@ -416,19 +470,24 @@ public abstract class KafkaSource<S, D> extends EventBasedSource<S, D> {
     workUnit.setProp(ConfigurationKeys.WORK_UNIT_HIGH_WATER_MARK_KEY, workUnit.getLowWaterMark());
   }
 
-  private WorkUnit getWorkUnitForTopicPartition(KafkaPartition partition, SourceState state,
+  /**
+   * @param fetchedOffsets the earliest and latest offsets of the partition if they were already fetched, or null
+   */
+  private WorkUnit getWorkUnitForTopicPartition(KafkaPartition partition, Offsets fetchedOffsets, SourceState state,
       Optional<State> topicSpecificState) {
-    Offsets offsets = new Offsets();
+    Offsets offsets = fetchedOffsets == null ? new Offsets() : fetchedOffsets;
 
     boolean failedToGetKafkaOffsets = false;
 
-    try (Timer.Context context = this.metricContext.timer(OFFSET_FETCH_TIMER).time()) {
-      offsets.setOffsetFetchEpochTime(System.currentTimeMillis());
-      offsets.setEarliestOffset(this.kafkaConsumerClient.get().getEarliestOffset(partition));
-      offsets.setLatestOffset(this.kafkaConsumerClient.get().getLatestOffset(partition));
-    } catch (Throwable t) {
-      failedToGetKafkaOffsets = true;
-      LOG.error("Caught error in creating work unit for {}", partition, t);
+    if (fetchedOffsets == null) {
+      try (Timer.Context context = this.metricContext.timer(OFFSET_FETCH_TIMER).time()) {
+        offsets.setOffsetFetchEpochTime(System.currentTimeMillis());
+        offsets.setEarliestOffset(this.kafkaConsumerClient.get().getEarliestOffset(partition));
+        offsets.setLatestOffset(this.kafkaConsumerClient.get().getLatestOffset(partition));
+      } catch (Throwable t) {
+        failedToGetKafkaOffsets = true;
+        LOG.error("Caught error in creating work unit for {}", partition, t);
+      }
     }
 
     long previousOffset = 0;
@@ -795,7 +854,26 @@ public abstract class KafkaSource<S, D> extends EventBasedSource<S, D> {
   private List<KafkaTopic> getFilteredTopics(SourceState state) {
     List<Pattern> blacklist = DatasetFilterUtils.getPatternList(state, TOPIC_BLACKLIST);
     List<Pattern> whitelist = DatasetFilterUtils.getPatternList(state, TOPIC_WHITELIST);
-    return this.kafkaConsumerClient.get().getFilteredTopics(blacklist, whitelist);
+    long ttlMillis = TimeUnit.SECONDS.toMillis(
+        state.getPropAsLong(TOPIC_METADATA_CACHE_TTL_SECONDS, DEFAULT_TOPIC_METADATA_CACHE_TTL_SECONDS));
+    if (ttlMillis <= 0) {
+      return this.kafkaConsumerClient.get().getFilteredTopics(blacklist, whitelist);
+    }
+
+    String cacheKey = Joiner.on('|').join(this.kafkaBrokers,
+        state.getProp(GOBBLIN_KAFKA_CONSUMER_CLIENT_FACTORY_CLASS, DEFAULT_GOBBLIN_KAFKA_CONSUMER_CLIENT_FACTORY_CLASS),
+        blacklist, whitelist);
+    CachedTopics cachedTopics = TOPIC_METADATA_CACHE.get(cacheKey);
+    long now = System.currentTimeMillis();
+    if (cachedTopics != null && now - cachedTopics.getDiscoveryEpochTime() < ttlMillis) {
+      LOG.info(String.format("Reusing %d topics discovered %d ms ago", cachedTopics.getTopics().size(),
+          now - cachedTopics.getDiscoveryEpochTime()));
+      return cachedTopics.getTopics();
+    }
+
+    List<KafkaTopic> topics = this.kafkaConsumerClient.get().getFilteredTopics(blacklist, whitelist);
+    TOPIC_METADATA_CACHE.put(cacheKey, new CachedTopics(now, topics));
+    return topics;
   }
 
   @Override
@@ -805,6 +883,16 @@ public abstract class KafkaSource<S, D> extends EventBasedSource<S, D> {
     state.setProp(ConfigurationKeys.FAIL_TO_GET_OFFSET_COUNT, this.failToGetOffsetCount);
   }
 
+  /**
+   * Topics discovered by a run, with the time they were discovered at.
+   */
+  @Getter
+  @AllArgsConstructor
+  private static class CachedTopics {
+    private final long discoveryEpochTime;
+    private final List<KafkaTopic> topics;
+  }
+
   /**
    * This class contains startOffset, earliestOffset and latestOffset for a Kafka partition.
    */
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.source.extractor.extract.kafka.workunit.packer;
+
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.gobblin.source.workunit.WorkUnit;
+
+
+/**
+ * Incrementally rebalances the partitions of a topic across the containers they were assigned to in a previous
+ * packing cycle, instead of packing them from scratch.
+ *
+ * <p>
+ *   New partitions are placed into the least loaded container with room for them. Then, while the most loaded
+ *   container is more than imbalanceThreshold above the average load, the partition that best evens out the most and
+ *   the least loaded containers is moved between them. The load of a partition is its estimated work unit size, e.g.
+ *   the produce rate and lag of the partition with {@link ProduceRateAndLagBasedWorkUnitSizeEstimator}. At most
+ *   maxMovesPerCycle partitions are moved per instance, so a single cycle only disturbs a few containers.
+ * </p>
+ */
+@Slf4j
+public class KafkaPartitionRebalancer {
+
+  private final double imbalanceThreshold;
+  private int remainingMoves;
+
+  public KafkaPartitionRebalancer(int maxMovesPerCycle, double imbalanceThreshold) {
+    Preconditions.checkArgument(maxMovesPerCycle >= 0, "maxMovesPerCycle must not be negative");
+    Preconditions.checkArgument(imbalanceThreshold >= 0, "imbalanceThreshold must not be negative");
+    this.remainingMoves = maxMovesPerCycle;
+    this.imbalanceThreshold = imbalanceThreshold;
+  }
+
+  /**
+   * Add each of the unassigned {@link WorkUnit}s, largest first, to the least loaded container that can hold it
+   * without exceeding the container capacity, or to a new container if none can.
+   * @param containers the {@link WorkUnit}s of each container, modified in place
+   */
+  public void place(List<List<WorkUnit>> containers, List<WorkUnit> unassigned, double containerCapacity) {
+    List<WorkUnit> sortedUnassigned = Lists.newArrayList(unassigned);
+    sortedUnassigned.sort(KafkaWorkUnitPacker.LOAD_DESC_COMPARATOR);
+    for (WorkUnit workUnit : sortedUnassigned) {
+      List<WorkUnit> leastLoaded = null;
+      double leastLoad = Double.MAX_VALUE;
+      for (List<WorkUnit> container : containers) {
+        double load = getLoad(container);
+        if (load < leastLoad) {
+          leastLoaded = container;
+          leastLoad = load;
+        }
+      }
+      if (leastLoaded == null
+          || (!leastLoaded.isEmpty() && leastLoad + KafkaWorkUnitPacker.getWorkUnitEstSize(workUnit) > containerCapacity)) {
+        leastLoaded = Lists.newArrayList();
+        containers.add(leastLoaded);
+      }
+      leastLoaded.add(workUnit);
+    }
+  }
+
+  /**
+   * Move {@link WorkUnit}s from the most to the least loaded container until the containers are balanced within
+   * the imbalance threshold, no move lowers the load of the most loaded container, or the moves of this cycle are used
+   * up.
+   * @param containers the {@link WorkUnit}s of each container, modified in place
+   * @return the number of moved {@link WorkUnit}s
+   */
+  public int rebalance(List<List<WorkUnit>> containers) {
+    int numMoves = 0;
+    while (this.remainingMoves > 0 && containers.size() > 1) {
+      int hottest = 0;
+      int coldest = 0;
+      double totalLoad = 0;
+      double[] loads = new double[containers.size()];
+      for (int i = 0; i < containers.size(); i++) {
+        loads[i] = getLoad(containers.get(i));
+        totalLoad += loads[i];
+        hottest = loads[i] > loads[hottest] ? i : hottest;
+        coldest = loads[i] < loads[coldest] ? i : coldest;
+      }
+      double avgLoad = totalLoad / containers.size();
+      if (loads[hottest] <= (1 + this.imbalanceThreshold) * avgLoad) {
+        break;
+      }
+
+      // Moving a work unit smaller than the gap lowers the larger of the two loads, half the gap evens them out
+      double gap = loads[hottest] - loads[coldest];
+      WorkUnit candidate = null;
+      double bestDistance = Double.MAX_VALUE;
+      for (WorkUnit workUnit : containers.get(hottest)) {
+        double size = KafkaWorkUnitPacker.getWorkUnitEstSize(workUnit);
+        double distance = Math.abs(gap / 2 - size);
+        if (size > 0 && size < gap && distance < bestDistance) {
+          candidate = workUnit;
+          bestDistance = distance;
+        }
+      }
+      if (candidate == null) {
+        break;
+      }
+
+      containers.get(hottest).remove(candidate);
+      containers.get(coldest).add(candidate);
+      this.remainingMoves--;
+      numMoves++;
+    }
+    if (numMoves > 0) {
+      log.info("Moved {} partitions between {} containers", numMoves, containers.size());
+    }
+    return numMoves;
+  }
+
+  private static double getLoad(List<WorkUnit> container) {
+    double load = 0;
+    for (WorkUnit workUnit : container) {
+      load += KafkaWorkUnitPacker.getWorkUnitEstSize(workUnit);
+    }
+    return load;
+  }
+}
@@ -97,6 +97,18 @@ public class KafkaTopicGroupingWorkUnitPacker extends KafkaWorkUnitPacker {
       GOBBLIN_KAFKA_PREFIX + "streaming.containerCapacityComputationStrategy";
   public static final String DEFAULT_CONTAINER_CAPACITY_COMPUTATION_STRATEGY = ContainerCapacityComputationStrategy.MEDIAN.name();
 
+  //A boolean flag to start each packing cycle of a streaming job from the assignment of the previous cycle in the same
+  // JVM, and only move a bounded number of hot partitions between the containers of a topic instead of repacking all
+  // of them. Partition loads come from the configured size estimator, e.g. the produce rate and lag based estimator.
+  public static final String IS_REBALANCING_ENABLED_KEY = GOBBLIN_KAFKA_PREFIX + "streaming.isRebalancingEnabled";
+  public static final boolean DEFAULT_IS_REBALANCING_ENABLED = false;
+  public static final String MAX_PARTITION_MOVES_PER_CYCLE_KEY = GOBBLIN_KAFKA_PREFIX + "streaming.maxPartitionMovesPerCycle";
+  public static final int DEFAULT_MAX_PARTITION_MOVES_PER_CYCLE = 10;
+  //The fraction by which the load of a container may exceed the average load of the containers of its topic before
+  // partitions are moved off it.
+  public static final String REBALANCING_IMBALANCE_THRESHOLD_KEY = GOBBLIN_KAFKA_PREFIX + "streaming.rebalancingImbalanceThreshold";
+  public static final double DEFAULT_REBALANCING_IMBALANCE_THRESHOLD = 0.2;
+
   public enum ContainerCapacityComputationStrategy {
     MIN, MAX, MEAN, MEDIAN
   }
@@ -124,6 +136,9 @@ public class KafkaTopicGroupingWorkUnitPacker extends KafkaWorkUnitPacker {
 
   private static final String NUM_CONTAINERS_EVENT_NAME = "NumContainers";
 
+  //Container index of each topic partition in the previous packing cycle, keyed by job name and topic.
+  private static final Map<String, Map<String, Integer>> PREVIOUS_ASSIGNMENTS = Maps.newConcurrentMap();
+
   private final long packingStartTimeMillis;
   private final Optional<StateStoreBasedWatermarkStorage> watermarkStorage;
   private final Optional<MetricContext> metricContext;
@@ -177,6 +192,13 @@ public class KafkaTopicGroupingWorkUnitPacker extends KafkaWorkUnitPacker {
 
     setWorkUnitEstSizes(workUnitsByTopic);
 
+    Optional<KafkaPartitionRebalancer> rebalancer = Optional.absent();
+    if (this.state.getPropAsBoolean(IS_REBALANCING_ENABLED_KEY, DEFAULT_IS_REBALANCING_ENABLED)) {
+      rebalancer = Optional.of(new KafkaPartitionRebalancer(
+          this.state.getPropAsInt(MAX_PARTITION_MOVES_PER_CYCLE_KEY, DEFAULT_MAX_PARTITION_MOVES_PER_CYCLE),
+          this.state.getPropAsDouble(REBALANCING_IMBALANCE_THRESHOLD_KEY, DEFAULT_REBALANCING_IMBALANCE_THRESHOLD)));
+    }
+
     List<MultiWorkUnit> mwuGroups = Lists.newArrayList();
 
     for (Map.Entry<String, List<WorkUnit>> entry : workUnitsByTopic.entrySet()) {
@@ -191,18 +213,28 @@ public class KafkaTopicGroupingWorkUnitPacker extends KafkaWorkUnitPacker {
         workUnit.setProp(CONTAINER_CAPACITY_KEY, containerCapacity);
       }
       double estimatedDataSizeForTopic = calcTotalEstSizeForTopic(workUnitsForTopic);
-      int previousSize = mwuGroups.size();
-      if (estimatedDataSizeForTopic < containerCapacity) {
+      String assignmentKey = this.state.getProp(ConfigurationKeys.JOB_NAME_KEY, "") + "/" + topic;
+      Map<String, Integer> previousAssignment = PREVIOUS_ASSIGNMENTS.get(assignmentKey);
+      List<MultiWorkUnit> mwuGroupsForTopic;
+      if (rebalancer.isPresent() && previousAssignment != null) {
+        // Keep partitions in the containers of the previous cycle and only move the hottest ones.
+        mwuGroupsForTopic =
+            rebalance(workUnitsForTopic, previousAssignment, containerCapacity, rebalancer.get());
+      } else if (estimatedDataSizeForTopic < containerCapacity) {
         // If the total estimated size of a topic is then the container capacity then put all partitions of this
         // topic in a single group.
         MultiWorkUnit mwuGroup = MultiWorkUnit.createEmpty();
         addWorkUnitsToMultiWorkUnit(workUnitsForTopic, mwuGroup);
-        mwuGroups.add(mwuGroup);
+        mwuGroupsForTopic = Lists.newArrayList(mwuGroup);
       } else {
         // Use best-fit-decreasing to group workunits for a topic into multiple groups.
-        mwuGroups.addAll(bestFitDecreasingBinPacking(workUnitsForTopic, containerCapacity));
+        mwuGroupsForTopic = bestFitDecreasingBinPacking(workUnitsForTopic, containerCapacity);
+      }
+      if (rebalancer.isPresent()) {
+        PREVIOUS_ASSIGNMENTS.put(assignmentKey, getAssignment(mwuGroupsForTopic));
       }
-      int numContainersForTopic = mwuGroups.size() - previousSize;
+      mwuGroups.addAll(mwuGroupsForTopic);
+      int numContainersForTopic = mwuGroupsForTopic.size();
       log.info("Packed partitions for topic {} into {} containers", topic, Integer.toString(numContainersForTopic));
       if (this.metricContext.isPresent()) {
         //Report the number of containers used for each topic.
@@ -224,6 +256,60 @@ public class KafkaTopicGroupingWorkUnitPacker extends KafkaWorkUnitPacker {
   }
 
 
+  /**
+   * Assign the work units of a topic to the containers they were assigned to in the previous cycle, place new
+   * partitions into the least loaded containers, adding containers as the estimated size of the topic requires, and
+   * move a bounded number of partitions off overloaded containers.
+   */
+  private static List<MultiWorkUnit> rebalance(List<WorkUnit> workUnitsForTopic, Map<String, Integer> previousAssignment,
+      double containerCapacity, KafkaPartitionRebalancer rebalancer) {
+    int numContainers = (int) Math.ceil(calcTotalEstSizeForTopic(workUnitsForTopic) / containerCapacity);
+    for (int containerIndex : previousAssignment.values()) {
+      numContainers = Math.max(numContainers, containerIndex + 1);
+    }
+    List<List<WorkUnit>> containers = Lists.newArrayList();
+    for (int i = 0; i < numContainers; i++) {
+      containers.add(Lists.newArrayList());
+    }
+
+    List<WorkUnit> unassigned = Lists.newArrayList();
+    for (WorkUnit workUnit : workUnitsForTopic) {
+      Integer containerIndex = previousAssignment.get(getTopicPartition(workUnit));
+      if (containerIndex != null) {
+        containers.get(containerIndex).add(workUnit);
+      } else {
+        unassigned.add(workUnit);
+      }
+    }
+    rebalancer.place(containers, unassigned, containerCapacity);
+    rebalancer.rebalance(containers);
+
+    List<MultiWorkUnit> mwuGroups = Lists.newArrayList();
+    for (List<WorkUnit> container : containers) {
+      if (!container.isEmpty()) {
+        MultiWorkUnit mwuGroup = MultiWorkUnit.createEmpty();
+        addWorkUnitsToMultiWorkUnit(container, mwuGroup);
+        mwuGroups.add(mwuGroup);
+      }
+    }
+    return mwuGroups;
+  }
+
+  private static Map<String, Integer> getAssignment(List<MultiWorkUnit> mwuGroups) {
+    Map<String, Integer> assignment = Maps.newHashMap();
+    for (int i = 0; i < mwuGroups.size(); i++) {
+      for (WorkUnit workUnit : mwuGroups.get(i).getWorkUnits()) {
+        assignment.put(getTopicPartition(workUnit), i);
+      }
+    }
+    return assignment;
+  }
+
+  private static String getTopicPartition(WorkUnit workUnit) {
+    return new KafkaPartition.Builder().withTopicName(workUnit.getProp(KafkaSource.TOPIC_NAME))
+        .withId(workUnit.getPropAsInt(KafkaSource.PARTITION_ID)).build().toString();
+  }
+
   /**
    * TODO: This method should be moved into {@link KafkaSource}, which requires moving classes such
    * as {@link KafkaStreamingExtractor.KafkaWatermark} to the open source. A side-effect of this method is to
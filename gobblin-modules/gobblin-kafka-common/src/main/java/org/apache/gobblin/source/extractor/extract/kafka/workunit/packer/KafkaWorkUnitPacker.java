@@ -92,7 +92,7 @@ public abstract class KafkaWorkUnitPacker {
 
   public static final String MIN_MULTIWORKUNIT_LOAD = "min.multiworkunit.load";
   public static final String MAX_MULTIWORKUNIT_LOAD = "max.multiworkunit.load";
-  private static final String ESTIMATED_WORKUNIT_SIZE = "estimated.workunit.size";
+  static final String ESTIMATED_WORKUNIT_SIZE = "estimated.workunit.size";
 
   protected final AbstractSource<?, ?> source;
   protected final SourceState state;
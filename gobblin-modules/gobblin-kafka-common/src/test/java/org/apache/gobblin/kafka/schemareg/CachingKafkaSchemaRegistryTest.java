@@ -18,9 +18,17 @@
 package org.apache.gobblin.kafka.schemareg;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.mockito.Mockito.*;
 
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -52,17 +60,17 @@ public class CachingKafkaSchemaRegistryTest {
     when(baseRegistry.register(name, schema2)).thenReturn(id2);
     Assert.assertEquals(cachingReg.register(name, schema2), id2);
 
+    // the least recently used schema1 is evicted instead of failing
     when(baseRegistry.register(name, schema3)).thenReturn(id3);
+    Assert.assertEquals(cachingReg.register(name, schema3), id3);
+    verify(baseRegistry, times(3)).register(anyString(), anyString());
 
-    try {
-      cachingReg.register(name, schema3);
-      Assert.fail("Should have thrown an exception");
-    }
-    catch (Exception e)
-    {
-      log.info(e.getMessage());
-    }
+    Assert.assertEquals(cachingReg.register(name, schema2), id2);
+    verify(baseRegistry, times(3)).register(anyString(), anyString());
 
+    when(baseRegistry.register(name, schema1)).thenReturn(id1);
+    Assert.assertEquals(cachingReg.register(name, schema1), id1);
+    verify(baseRegistry, times(4)).register(anyString(), anyString());
   }
 
 
@@ -130,4 +138,92 @@ public class CachingKafkaSchemaRegistryTest {
     verify(baseRegistry, times(0)).getById(anyInt());
   }
 
+  @Test
+  public void testConcurrentGetByIdIsCoalesced()
+      throws Exception {
+    KafkaSchemaRegistry<Integer, String> baseRegistry = mock(KafkaSchemaRegistry.class);
+    final CachingKafkaSchemaRegistry<Integer, String> cachingReg = new CachingKafkaSchemaRegistry<>(baseRegistry, 2);
+    final Integer id1 = 1;
+
+    when(baseRegistry.getById(id1)).thenAnswer(new Answer<String>() {
+      @Override
+      public String answer(InvocationOnMock invocation)
+          throws Throwable {
+        Thread.sleep(200);
+        return "schema";
+      }
+    });
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(executor.submit(new Callable<String>() {
+          @Override
+          public String call()
+              throws Exception {
+            return cachingReg.getById(id1);
+          }
+        }));
+      }
+      for (Future<String> future : futures) {
+        Assert.assertEquals(future.get(), "schema");
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    verify(baseRegistry, times(1)).getById(anyInt());
+    Assert.assertEquals(cachingReg.getIdCacheStats().loadCount(), 1);
+  }
+
+  @Test
+  public void testUnknownIdCaching()
+      throws IOException, SchemaRegistryException {
+    KafkaSchemaRegistry<Integer, String> baseRegistry = mock(KafkaSchemaRegistry.class);
+    CachingKafkaSchemaRegistry<Integer, String> cachingReg =
+        new CachingKafkaSchemaRegistry<>(baseRegistry, 2, 100, 0, 3600);
+    Integer id1 = 1;
+
+    when(baseRegistry.getById(id1)).thenThrow(new SchemaNotFoundException("Unknown id"));
+    for (int i = 0; i < 2; i++) {
+      try {
+        cachingReg.getById(id1);
+        Assert.fail("Should have thrown an exception");
+      } catch (SchemaRegistryException e) {
+        log.info(e.getMessage());
+      }
+    }
+    verify(baseRegistry, times(1)).getById(anyInt());
+    Assert.assertEquals(cachingReg.getUnknownIdHitCount(), 1);
+
+    // registering the schema makes the id known
+    when(baseRegistry.register("test", "schema")).thenReturn(id1);
+    cachingReg.register("test", "schema");
+    Assert.assertEquals(cachingReg.getById(id1), "schema");
+    verify(baseRegistry, times(1)).getById(anyInt());
+  }
+
+  @Test
+  public void testRegistryFailuresNotCached()
+      throws IOException, SchemaRegistryException {
+    KafkaSchemaRegistry<Integer, String> baseRegistry = mock(KafkaSchemaRegistry.class);
+    CachingKafkaSchemaRegistry<Integer, String> cachingReg =
+        new CachingKafkaSchemaRegistry<>(baseRegistry, 2, 100, 0, 3600);
+    Integer id1 = 1;
+
+    // e.g. the registry is unavailable
+    when(baseRegistry.getById(id1)).thenThrow(new SchemaRegistryException("Status code = 503"))
+        .thenThrow(new IOException("Connection refused")).thenReturn("schema");
+    for (int i = 0; i < 2; i++) {
+      try {
+        cachingReg.getById(id1);
+        Assert.fail("Should have thrown an exception");
+      } catch (SchemaRegistryException | IOException e) {
+        log.info(e.getMessage());
+      }
+    }
+    Assert.assertEquals(cachingReg.getById(id1), "schema");
+    verify(baseRegistry, times(3)).getById(anyInt());
+    Assert.assertEquals(cachingReg.getUnknownIdHitCount(), 0);
+  }
 }
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.kafka.serialize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import org.apache.gobblin.kafka.schemareg.ConfigDrivenMd5SchemaRegistry;
+import org.apache.gobblin.kafka.schemareg.KafkaSchemaRegistry;
+
+
+public class LiAvroDeserializerBaseTest {
+
+  private static final String TOPIC = "testTopic";
+
+  private final Schema schema = SchemaBuilder.record("TestRecord").namespace("org.apache.gobblin.test").fields()
+      .requiredString("name").requiredInt("count").endRecord();
+
+  @Test
+  public void testDeserialize() throws Exception {
+    KafkaSchemaRegistry<MD5Digest, Schema> registry = Mockito.spy(new ConfigDrivenMd5SchemaRegistry(TOPIC, schema));
+    MD5Digest schemaId = registry.register(TOPIC, schema);
+    LiAvroDeserializerBase deserializer = new LiAvroDeserializerBase(registry);
+
+    GenericRecord first = deserializer.deserialize(TOPIC, serialize(schemaId, createRecord("a", 1)));
+    Assert.assertEquals(first.get("name").toString(), "a");
+    Assert.assertEquals(first.get("count"), 1);
+
+    GenericRecord second = deserializer.deserialize(TOPIC, serialize(schemaId, createRecord("b", 2)), null, first);
+    Assert.assertSame(second, first, "The record should be reused");
+    Assert.assertEquals(second.get("name").toString(), "b");
+    Assert.assertEquals(second.get("count"), 2);
+
+    // the schema is only looked up the first time its id is seen
+    Mockito.verify(registry, Mockito.times(1)).getById(schemaId);
+  }
+
+  @Test
+  public void testDeserializeToOutputSchema() throws Exception {
+    KafkaSchemaRegistry<MD5Digest, Schema> registry = new ConfigDrivenMd5SchemaRegistry(TOPIC, schema);
+    MD5Digest schemaId = registry.register(TOPIC, schema);
+    LiAvroDeserializerBase deserializer = new LiAvroDeserializerBase(registry);
+    Schema outputSchema = SchemaBuilder.record("TestRecord").namespace("org.apache.gobblin.test").fields()
+        .requiredString("name").endRecord();
+
+    GenericRecord writerRecord = deserializer.deserialize(TOPIC, serialize(schemaId, createRecord("a", 1)));
+    GenericRecord record =
+        deserializer.deserialize(TOPIC, serialize(schemaId, createRecord("b", 2)), outputSchema, writerRecord);
+    Assert.assertNotSame(record, writerRecord, "A record of another schema should not be reused");
+    Assert.assertEquals(record.getSchema(), outputSchema);
+    Assert.assertEquals(record.get("name").toString(), "b");
+    Assert.assertNull(record.get("count"));
+  }
+
+  private GenericRecord createRecord(String name, int count) {
+    GenericRecord record = new GenericData.Record(schema);
+    record.put("name", name);
+    record.put("count", count);
+    return record;
+  }
+
+  private static byte[] serialize(MD5Digest schemaId, GenericRecord record) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(LiAvroSerDeHelper.MAGIC_BYTE);
+    out.write(schemaId.asBytes());
+    BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+    new GenericDatumWriter<GenericRecord>(record.getSchema()).write(record, encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+}
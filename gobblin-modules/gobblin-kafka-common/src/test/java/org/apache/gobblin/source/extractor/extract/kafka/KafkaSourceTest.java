@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.source.extractor.extract.kafka;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.typesafe.config.Config;
+
+import org.apache.gobblin.configuration.ConfigurationKeys;
+import org.apache.gobblin.configuration.SourceState;
+import org.apache.gobblin.kafka.client.GobblinKafkaConsumerClient;
+import org.apache.gobblin.source.workunit.WorkUnit;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+public class KafkaSourceTest {
+  private static final String TOPIC = "topic";
+
+  private final KafkaPartition partition0 = new KafkaPartition.Builder().withTopicName(TOPIC).withId(0).build();
+  private final KafkaPartition partition1 = new KafkaPartition.Builder().withTopicName(TOPIC).withId(1).build();
+  private final KafkaPartition partition2 = new KafkaPartition.Builder().withTopicName(TOPIC).withId(2).build();
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    GobblinKafkaConsumerClient client = Mockito.mock(GobblinKafkaConsumerClient.class);
+    when(client.getFilteredTopics(anyListOf(Pattern.class), anyListOf(Pattern.class)))
+        .thenReturn(ImmutableList.of(new KafkaTopic(TOPIC, ImmutableList.of(partition0, partition1, partition2))));
+    MockConsumerClientFactory.client = client;
+  }
+
+  @Test
+  public void testBatchedOffsetFetch() throws Exception {
+    GobblinKafkaConsumerClient client = MockConsumerClientFactory.client;
+    when(client.getEarliestOffsets(anyCollectionOf(KafkaPartition.class)))
+        .thenReturn(ImmutableMap.of(partition0, 0L, partition1, 10L, partition2, 20L));
+    // The batched fetch misses the latest offset of a partition, which is fetched on its own
+    when(client.getLatestOffsets(anyCollectionOf(KafkaPartition.class)))
+        .thenReturn(ImmutableMap.of(partition0, 100L, partition1, 110L));
+    when(client.getEarliestOffset(partition2)).thenReturn(20L);
+    when(client.getLatestOffset(partition2)).thenReturn(120L);
+
+    List<WorkUnit> workUnits = new UniversalKafkaSource<>().getWorkunits(createSourceState("testBatchedOffsetFetch"));
+    Assert.assertFalse(workUnits.isEmpty());
+
+    verify(client, times(1)).getEarliestOffsets(anyCollectionOf(KafkaPartition.class));
+    verify(client, times(1)).getLatestOffsets(anyCollectionOf(KafkaPartition.class));
+    verify(client, never()).getEarliestOffset(partition0);
+    verify(client, never()).getLatestOffset(partition0);
+    verify(client, never()).getEarliestOffset(partition1);
+    verify(client, never()).getLatestOffset(partition1);
+    verify(client, times(1)).getEarliestOffset(partition2);
+    verify(client, times(1)).getLatestOffset(partition2);
+  }
+
+  @Test
+  public void testFailedBatchedOffsetFetch() throws Exception {
+    GobblinKafkaConsumerClient client = MockConsumerClientFactory.client;
+    when(client.getEarliestOffsets(anyCollectionOf(KafkaPartition.class)))
+        .thenThrow(new KafkaOffsetRetrievalFailureException("Test exception"));
+    when(client.getEarliestOffset(any(KafkaPartition.class))).thenReturn(0L);
+    when(client.getLatestOffset(any(KafkaPartition.class))).thenReturn(100L);
+
+    new UniversalKafkaSource<>().getWorkunits(createSourceState("testFailedBatchedOffsetFetch"));
+
+    // All the partitions fall back to the per partition fetch
+    verify(client, times(3)).getEarliestOffset(any(KafkaPartition.class));
+    verify(client, times(3)).getLatestOffset(any(KafkaPartition.class));
+  }
+
+  @Test
+  public void testTopicMetadataCache() throws Exception {
+    GobblinKafkaConsumerClient client = MockConsumerClientFactory.client;
+    when(client.getEarliestOffset(any(KafkaPartition.class))).thenReturn(0L);
+    when(client.getLatestOffset(any(KafkaPartition.class))).thenReturn(100L);
+
+    // The topics are discovered on every run by default
+    SourceState state = createSourceState("testTopicMetadataCache-disabled");
+    new UniversalKafkaSource<>().getWorkunits(state);
+    new UniversalKafkaSource<>().getWorkunits(state);
+    verify(client, times(2)).getFilteredTopics(anyListOf(Pattern.class), anyListOf(Pattern.class));
+
+    // Later runs reuse the discovered topics while they are cached, but still fetch the offsets
+    state = createSourceState("testTopicMetadataCache-enabled");
+    state.setProp(KafkaSource.TOPIC_METADATA_CACHE_TTL_SECONDS, 3600);
+    new UniversalKafkaSource<>().getWorkunits(state);
+    new UniversalKafkaSource<>().getWorkunits(state);
+    verify(client, times(3)).getFilteredTopics(anyListOf(Pattern.class), anyListOf(Pattern.class));
+    verify(client, times(4)).getEarliestOffsets(anyCollectionOf(KafkaPartition.class));
+  }
+
+  /**
+   * The topics are cached per brokers, so each test uses its own brokers.
+   */
+  private static SourceState createSourceState(String brokers) {
+    SourceState state = new SourceState();
+    state.setProp(ConfigurationKeys.KAFKA_BROKERS, brokers);
+    state.setProp(KafkaSource.GOBBLIN_KAFKA_CONSUMER_CLIENT_FACTORY_CLASS, MockConsumerClientFactory.class.getName());
+    state.setProp(KafkaSource.BOOTSTRAP_WITH_OFFSET, KafkaSource.EARLIEST_OFFSET);
+    return state;
+  }
+
+  public static class MockConsumerClientFactory
+      implements GobblinKafkaConsumerClient.GobblinKafkaConsumerClientFactory {
+    static GobblinKafkaConsumerClient client;
+
+    @Override
+    public GobblinKafkaConsumerClient create(Config config) {
+      return client;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gobblin.source.extractor.extract.kafka.workunit.packer;
+
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+
+import org.apache.gobblin.source.workunit.WorkUnit;
+
+
+public class KafkaPartitionRebalancerTest {
+
+  @Test
+  public void testRebalance() {
+    WorkUnit hot1 = getWorkUnitWithSize(2);
+    WorkUnit hot2 = getWorkUnitWithSize(2);
+    WorkUnit hot3 = getWorkUnitWithSize(2);
+    List<List<WorkUnit>> containers =
+        Lists.newArrayList(Lists.newArrayList(hot1, hot2, hot3), Lists.<WorkUnit>newArrayList());
+
+    // 6 vs. 0: one move evens the loads out to 4 vs. 2, a second move would not lower the maximum load
+    Assert.assertEquals(new KafkaPartitionRebalancer(10, 0.2).rebalance(containers), 1);
+    Assert.assertEquals(containers.get(0).size(), 2);
+    Assert.assertEquals(containers.get(1).size(), 1);
+
+    // balanced within the threshold
+    Assert.assertEquals(new KafkaPartitionRebalancer(10, 0.5).rebalance(containers), 0);
+  }
+
+  @Test
+  public void testMaxMovesPerCycle() {
+    List<WorkUnit> hotContainer = Lists.newArrayList();
+    for (int i = 0; i < 8; i++) {
+      hotContainer.add(getWorkUnitWithSize(1));
+    }
+    List<List<WorkUnit>> containers = Lists.newArrayList(hotContainer, Lists.<WorkUnit>newArrayList(),
+        Lists.<WorkUnit>newArrayList(), Lists.<WorkUnit>newArrayList());
+
+    KafkaPartitionRebalancer rebalancer = new KafkaPartitionRebalancer(3, 0);
+    Assert.assertEquals(rebalancer.rebalance(containers), 3);
+    Assert.assertEquals(containers.get(0).size(), 5);
+    // the moves of the cycle are used up
+    Assert.assertEquals(rebalancer.rebalance(containers), 0);
+    Assert.assertEquals(new KafkaPartitionRebalancer(0, 0).rebalance(containers), 0);
+  }
+
+  @Test
+  public void testPlace() {
+    WorkUnit existing = getWorkUnitWithSize(1.5);
+    List<List<WorkUnit>> containers =
+        Lists.newArrayList(Lists.newArrayList(existing), Lists.<WorkUnit>newArrayList());
+    WorkUnit large = getWorkUnitWithSize(1);
+    WorkUnit small = getWorkUnitWithSize(0.5);
+
+    new KafkaPartitionRebalancer(10, 0.2).place(containers, Lists.newArrayList(small, large), 2);
+    Assert.assertEquals(containers.size(), 2);
+    Assert.assertEquals(containers.get(0), Lists.newArrayList(existing));
+    Assert.assertEquals(containers.get(1), Lists.newArrayList(large, small));
+
+    // no container has room left
+    WorkUnit another = getWorkUnitWithSize(1);
+    new KafkaPartitionRebalancer(10, 0.2).place(containers, Lists.newArrayList(another), 2);
+    Assert.assertEquals(containers.size(), 3);
+    Assert.assertEquals(containers.get(2), Lists.newArrayList(another));
+  }
+
+  private static WorkUnit getWorkUnitWithSize(double size) {
+    WorkUnit workUnit = WorkUnit.createEmpty();
+    workUnit.setProp(KafkaWorkUnitPacker.ESTIMATED_WORKUNIT_SIZE, size);
+    return workUnit;
+  }
+}
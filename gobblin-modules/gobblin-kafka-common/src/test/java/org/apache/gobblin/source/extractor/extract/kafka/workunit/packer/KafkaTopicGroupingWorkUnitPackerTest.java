@@ -114,6 +114,36 @@ public class KafkaTopicGroupingWorkUnitPackerTest {
   }
 
 
+  /**
+   * Check that partitions stay in the containers of the previous cycle when rebalancing is enabled.
+   */
+  @Test
+  public void testRebalancing() {
+    KafkaSource source = new UniversalKafkaSource();
+    SourceState state = new SourceState(new State(props));
+    state.setProp("gobblin.kafka.streaming.enableIndexing", false);
+    state.setProp(ConfigurationKeys.WRITER_OUTPUT_DIR, Files.createTempDir().getAbsolutePath());
+    state.setProp(ConfigurationKeys.JOB_NAME_KEY, "testRebalancing");
+    state.setProp(KafkaTopicGroupingWorkUnitPacker.IS_REBALANCING_ENABLED_KEY, true);
+
+    Map<String, List<WorkUnit>> workUnitsByTopic = ImmutableMap.of("topic1", Lists
+        .newArrayList(getWorkUnitWithTopicPartition("topic1", 1), getWorkUnitWithTopicPartition("topic1", 2),
+            getWorkUnitWithTopicPartition("topic1", 3)));
+    List<WorkUnit> workUnits = new KafkaTopicGroupingWorkUnitPacker(source, state, Optional.absent()).pack(workUnitsByTopic, 10);
+    Assert.assertEquals(workUnits.size(), 2);
+
+    // partition 1 is gone, partitions 4 and 5 are new: 2 and 3 keep their containers
+    workUnitsByTopic = ImmutableMap.of("topic1", Lists
+        .newArrayList(getWorkUnitWithTopicPartition("topic1", 2), getWorkUnitWithTopicPartition("topic1", 3),
+            getWorkUnitWithTopicPartition("topic1", 4), getWorkUnitWithTopicPartition("topic1", 5)));
+    workUnits = new KafkaTopicGroupingWorkUnitPacker(source, state, Optional.absent()).pack(workUnitsByTopic, 10);
+    Assert.assertEquals(workUnits.size(), 2);
+    Assert.assertEquals(workUnits.get(0).getPropAsInt(KafkaUtils.getPartitionPropName(KafkaSource.PARTITION_ID, 0)), 2);
+    Assert.assertEquals(workUnits.get(0).getPropAsInt(KafkaUtils.getPartitionPropName(KafkaSource.PARTITION_ID, 1)), 4);
+    Assert.assertEquals(workUnits.get(1).getPropAsInt(KafkaUtils.getPartitionPropName(KafkaSource.PARTITION_ID, 0)), 3);
+    Assert.assertEquals(workUnits.get(1).getPropAsInt(KafkaUtils.getPartitionPropName(KafkaSource.PARTITION_ID, 1)), 5);
+  }
+
   public WorkUnit getWorkUnitWithTopicPartition(String topic, int partition) {
     WorkUnit workUnit = new WorkUnit(new Extract(Extract.TableType.APPEND_ONLY, "kafka", topic));
     workUnit.setProp(KafkaSource.TOPIC_NAME, topic);
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -60,9 +61,16 @@ public class GenericRecordToOrcValueWriter implements OrcValueWriter<GenericReco
   private static final boolean DEFAULT_ENABLE_SMART_ARRAY_ENLARGE = false;
   private static final String ENLARGE_FACTOR_KEY = GobblinOrcWriter.ORC_WRITER_PREFIX + "enlargeFactor";
   private static final int DEFAULT_ENLARGE_FACTOR = 3;
+  /**
+   * Measure the time spent converting each top-level column, see {@link #getColumnEncodingTimeNanos()}. This adds two
+   * calls to {@link System#nanoTime()} per column and record, so it is meant for profiling.
+   */
+  static final String COLUMN_TIMING_ENABLED = GobblinOrcWriter.ORC_WRITER_PREFIX + "columnTimingEnabled";
+  private static final boolean DEFAULT_COLUMN_TIMING_ENABLED = false;
 
   private boolean enabledSmartSizing;
   private int enlargeFactor;
+  private boolean columnTimingEnabled;
 
   // A rough measure of how many times resize is triggered, helping on debugging and testing.
   @VisibleForTesting
@@ -82,18 +90,25 @@ public class GenericRecordToOrcValueWriter implements OrcValueWriter<GenericReco
     void addValue(int rowId, int column, Object data, ColumnVector output);
   }
 
+  // The converters are built once per schema, so that writing a record does not dispatch on types
   private final Converter[] converters;
+  private final List<String> columnNames;
+  private final long[] columnEncodingNanos;
 
   public GenericRecordToOrcValueWriter(TypeDescription typeDescription, Schema avroSchema) {
     converters = buildConverters(typeDescription, avroSchema);
+    this.columnNames = typeDescription.getFieldNames();
+    this.columnEncodingNanos = new long[converters.length];
     this.enabledSmartSizing = DEFAULT_ENABLE_SMART_ARRAY_ENLARGE;
     this.enlargeFactor = DEFAULT_ENLARGE_FACTOR;
+    this.columnTimingEnabled = DEFAULT_COLUMN_TIMING_ENABLED;
   }
 
   public GenericRecordToOrcValueWriter(TypeDescription typeDescription, Schema avroSchema, State state) {
     this(typeDescription, avroSchema);
     this.enabledSmartSizing = state.getPropAsBoolean(ENABLE_SMART_ARRAY_ENLARGE, DEFAULT_ENABLE_SMART_ARRAY_ENLARGE);
     this.enlargeFactor = state.getPropAsInt(ENLARGE_FACTOR_KEY, DEFAULT_ENLARGE_FACTOR);
+    this.columnTimingEnabled = state.getPropAsBoolean(COLUMN_TIMING_ENABLED, DEFAULT_COLUMN_TIMING_ENABLED);
   }
 
   @Override
@@ -103,14 +118,34 @@ public class GenericRecordToOrcValueWriter implements OrcValueWriter<GenericReco
     int row = output.size++;
     for (int c = 0; c < converters.length; ++c) {
       ColumnVector col = output.cols[c];
-      if (value.get(c) == null) {
+      Object data = value.get(c);
+      if (data == null) {
         col.noNulls = false;
         col.isNull[row] = true;
+      } else if (this.columnTimingEnabled) {
+        long startNanos = System.nanoTime();
+        col.isNull[row] = false;
+        converters[c].addValue(row, c, data, col);
+        this.columnEncodingNanos[c] += System.nanoTime() - startNanos;
       } else {
         col.isNull[row] = false;
-        converters[c].addValue(row, c, value.get(c), col);
+        converters[c].addValue(row, c, data, col);
+      }
+    }
+  }
+
+  /**
+   * @return the time spent converting each top-level column so far, by column name, if
+   * {@link #COLUMN_TIMING_ENABLED} is set, or else an empty map.
+   */
+  public Map<String, Long> getColumnEncodingTimeNanos() {
+    Map<String, Long> result = new LinkedHashMap<>();
+    if (this.columnTimingEnabled) {
+      for (int c = 0; c < this.converters.length; ++c) {
+        result.put(this.columnNames.get(c), this.columnEncodingNanos[c]);
       }
     }
+    return result;
   }
 
   static class BooleanConverter implements Converter {
@@ -158,12 +193,16 @@ public class GenericRecordToOrcValueWriter implements OrcValueWriter<GenericReco
   static class StringConverter implements Converter {
     public void addValue(int rowId, int column, Object data, ColumnVector output) {
       final byte[] value;
-      if (data instanceof GenericEnumSymbol) {
+      if (data instanceof Utf8) {
+        // The backing array of a Utf8 can be longer than the string and is reused by decoders, so copy the bytes into
+        // the shared buffer of the column vector rather than keeping a reference to it.
+        Utf8 utf8 = (Utf8) data;
+        ((BytesColumnVector) output).setVal(rowId, utf8.getBytes(), 0, utf8.getByteLength());
+        return;
+      } else if (data instanceof GenericEnumSymbol) {
         value = data.toString().getBytes(StandardCharsets.UTF_8);
       } else if (data instanceof Enum) {
         value = ((Enum) data).name().getBytes(StandardCharsets.UTF_8);
-      } else if (data instanceof Utf8) {
-        value = ((Utf8) data).getBytes();
       } else {
         value = ((String) data).getBytes(StandardCharsets.UTF_8);
       }
@@ -177,7 +216,17 @@ public class GenericRecordToOrcValueWriter implements OrcValueWriter<GenericReco
       if (data instanceof GenericFixed) {
         value = ((GenericFixed) data).bytes();
       } else if (data instanceof ByteBuffer) {
-        value = ((ByteBuffer) data).array();
+        // The backing array of a ByteBuffer is reused by decoders as well, so copy it into the shared buffer
+        ByteBuffer buffer = (ByteBuffer) data;
+        if (buffer.hasArray()) {
+          ((BytesColumnVector) output).setVal(rowId, buffer.array(), buffer.arrayOffset() + buffer.position(),
+              buffer.remaining());
+        } else {
+          value = new byte[buffer.remaining()];
+          buffer.duplicate().get(value);
+          ((BytesColumnVector) output).setRef(rowId, value, 0, value.length);
+        }
+        return;
       } else {
         value = (byte[]) data;
       }
@@ -88,7 +88,12 @@ public abstract class GobblinBaseOrcWriter<S, D> extends FsDataWriter<D> {
    */
   private static final String ORC_WRITER_DEEP_CLEAN_EVERY_BATCH = ORC_WRITER_PREFIX + "deepCleanBatch";
 
-  private final OrcValueWriter<D> valueWriter;
+  /**
+   * Lower bound of the batch size when it is tuned from the observed size of the buffered rows.
+   */
+  private static final int MIN_AUTO_TUNED_BATCH_SIZE = 10;
+
+  protected final OrcValueWriter<D> valueWriter;
   @VisibleForTesting
   final VectorizedRowBatch rowBatch;
   private final Writer orcFileWriter;
@@ -97,7 +102,12 @@ public abstract class GobblinBaseOrcWriter<S, D> extends FsDataWriter<D> {
   private volatile boolean closed = false;
   private final boolean deepCleanBatch;
 
-  private final int batchSize;
+  // The number of rows buffered before they are added to the file writer, at most the capacity of the row batch. It is
+  // tuned after every batch from the observed in-memory size of the rows when auto-tuning is enabled.
+  @VisibleForTesting
+  int batchSize;
+  private final boolean autoTuneBatchSize;
+  private final long batchMemoryBudgetInBytes;
   protected final S inputSchema;
 
   /**
@@ -124,6 +134,15 @@ public abstract class GobblinBaseOrcWriter<S, D> extends FsDataWriter<D> {
         + ORC_WRITER_BATCH_SIZE + " to be:" + batchSize);
   }
 
+  /**
+   * The heap in bytes a single row batch may take, which is the same share of the heap per writer that
+   * {@link #autoTunedOrcWriterParams(State)} gives to a batch.
+   */
+  protected long batchMemoryBudgetInBytes(State properties) {
+    double writerRatio = properties.getPropAsDouble(OrcConf.MEMORY_POOL.name(), (double) OrcConf.MEMORY_POOL.getDefaultValue());
+    return Math.round(availableHeapSize(properties) * 1024 * 1024 * writerRatio / ESTIMATED_PARALLELISM_WRITERS / 4);
+  }
+
   /**
    * Calculate the heap size in MB available for ORC writers.
    */
@@ -147,9 +166,11 @@ public abstract class GobblinBaseOrcWriter<S, D> extends FsDataWriter<D> {
   public GobblinBaseOrcWriter(FsDataWriterBuilder<S, D> builder, State properties)
       throws IOException {
     super(builder, properties);
-    if (properties.getPropAsBoolean(ORC_WRITER_AUTO_TUNE_ENABLED, ORC_WRITER_AUTO_TUNE_DEFAULT)) {
+    this.autoTuneBatchSize = properties.getPropAsBoolean(ORC_WRITER_AUTO_TUNE_ENABLED, ORC_WRITER_AUTO_TUNE_DEFAULT);
+    if (this.autoTuneBatchSize) {
       autoTunedOrcWriterParams(properties);
     }
+    this.batchMemoryBudgetInBytes = batchMemoryBudgetInBytes(properties);
 
     // Create value-writer which is essentially a record-by-record-converter with buffering in batch.
     this.inputSchema = builder.getSchema();
@@ -157,6 +178,7 @@ public abstract class GobblinBaseOrcWriter<S, D> extends FsDataWriter<D> {
     this.valueWriter = getOrcValueWriter(typeDescription, this.inputSchema, properties);
     this.batchSize = properties.getPropAsInt(ORC_WRITER_BATCH_SIZE, DEFAULT_ORC_WRITER_BATCH_SIZE);
     this.rowBatch = typeDescription.createRowBatch(this.batchSize);
+    initBuffers(this.rowBatch);
     this.deepCleanBatch = properties.getPropAsBoolean(ORC_WRITER_DEEP_CLEAN_EVERY_BATCH, false);
 
     log.info("Start to construct a ORC-Native Writer, with batchSize:" + batchSize + ", enable batchDeepClean:"
@@ -222,6 +244,7 @@ public abstract class GobblinBaseOrcWriter<S, D> extends FsDataWriter<D> {
     if (rowBatch.size > 0) {
       orcFileWriter.addRowBatch(rowBatch);
       rowBatch.reset();
+      initBuffers(rowBatch);
       if (deepCleanBatch) {
         deepCleanRowBatch(rowBatch);
       }
@@ -269,9 +292,13 @@ public abstract class GobblinBaseOrcWriter<S, D> extends FsDataWriter<D> {
   public void write(D record)
       throws IOException {
     valueWriter.write(record, rowBatch);
-    if (rowBatch.size == this.batchSize) {
+    if (rowBatch.size >= this.batchSize) {
+      if (this.autoTuneBatchSize) {
+        tuneBatchSize(rowBatch);
+      }
       orcFileWriter.addRowBatch(rowBatch);
       rowBatch.reset();
+      initBuffers(rowBatch);
       if (deepCleanBatch) {
         log.info("A reset of rowBatch is triggered - releasing holding memory for large object");
         deepCleanRowBatch(rowBatch);
@@ -279,6 +306,109 @@ public abstract class GobblinBaseOrcWriter<S, D> extends FsDataWriter<D> {
     }
   }
 
+  /**
+   * Size the next batches so that they fit {@link #batchMemoryBudgetInBytes(State)}, based on the average in-memory
+   * size of the rows in the full batch. The batch size never exceeds the capacity of the row batch, which is the
+   * configured {@link #ORC_WRITER_BATCH_SIZE}.
+   */
+  @VisibleForTesting
+  void tuneBatchSize(VectorizedRowBatch rowBatch) {
+    long bytesPerRow = Math.max(1, estimateSizeInBytes(rowBatch) / rowBatch.size);
+    int tunedBatchSize = (int) Math.max(MIN_AUTO_TUNED_BATCH_SIZE,
+        Math.min(rowBatch.getMaxSize(), this.batchMemoryBudgetInBytes / bytesPerRow));
+    if (tunedBatchSize != this.batchSize) {
+      log.info("Tuned the batch size from " + this.batchSize + " to " + tunedBatchSize + " for rows of about "
+          + bytesPerRow + " bytes");
+      this.batchSize = tunedBatchSize;
+    }
+  }
+
+  /**
+   * Estimate the in-memory size of the values buffered in a {@link VectorizedRowBatch}.
+   */
+  @VisibleForTesting
+  static long estimateSizeInBytes(VectorizedRowBatch rowBatch) {
+    long size = 0;
+    for (ColumnVector cv : rowBatch.cols) {
+      if (cv != null) {
+        size += estimateSizeInBytes(cv, 0, rowBatch.size);
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Estimate the in-memory size of the values of the rows in [offset, offset + length) of a {@link ColumnVector}.
+   */
+  private static long estimateSizeInBytes(ColumnVector cv, int offset, int length) {
+    // one byte for the null flag of each row
+    long size = length;
+    if (cv instanceof StructColumnVector) {
+      for (ColumnVector childCv : ((StructColumnVector) cv).fields) {
+        size += estimateSizeInBytes(childCv, offset, length);
+      }
+    } else if (cv instanceof UnionColumnVector) {
+      size += 4L * length;
+      for (ColumnVector childCv : ((UnionColumnVector) cv).fields) {
+        size += estimateSizeInBytes(childCv, offset, length);
+      }
+    } else if (cv instanceof ListColumnVector) {
+      ListColumnVector listCv = (ListColumnVector) cv;
+      size += 16L * length + estimateSizeInBytes(listCv.child, 0, (int) listCv.childCount);
+    } else if (cv instanceof MapColumnVector) {
+      MapColumnVector mapCv = (MapColumnVector) cv;
+      size += 16L * length + estimateSizeInBytes(mapCv.keys, 0, (int) mapCv.childCount)
+          + estimateSizeInBytes(mapCv.values, 0, (int) mapCv.childCount);
+    } else if (cv instanceof BytesColumnVector) {
+      BytesColumnVector bytesCv = (BytesColumnVector) cv;
+      // start and length of each row
+      size += 8L * length;
+      for (int i = offset; i < offset + length; i++) {
+        if (bytesCv.noNulls || !bytesCv.isNull[i]) {
+          size += bytesCv.length[i];
+        }
+      }
+    } else if (cv instanceof DecimalColumnVector) {
+      size += 32L * length;
+    } else {
+      // long, double and timestamp vectors
+      size += 8L * length;
+    }
+    return size;
+  }
+
+  /**
+   * Initialize the shared buffers of all the {@link BytesColumnVector}s of a {@link VectorizedRowBatch}, including the
+   * nested ones, so that {@link BytesColumnVector#setVal} can copy values into them. The buffers are neither allocated
+   * by {@link org.apache.orc.TypeDescription#createRowBatch} nor rewound by {@link VectorizedRowBatch#reset()}.
+   */
+  private static void initBuffers(VectorizedRowBatch rowBatch) {
+    for (ColumnVector cv : rowBatch.cols) {
+      if (cv != null) {
+        initBuffers(cv);
+      }
+    }
+  }
+
+  private static void initBuffers(ColumnVector cv) {
+    if (cv instanceof StructColumnVector) {
+      for (ColumnVector childCv : ((StructColumnVector) cv).fields) {
+        initBuffers(childCv);
+      }
+    } else if (cv instanceof UnionColumnVector) {
+      for (ColumnVector childCv : ((UnionColumnVector) cv).fields) {
+        initBuffers(childCv);
+      }
+    } else if (cv instanceof ListColumnVector) {
+      initBuffers(((ListColumnVector) cv).child);
+    } else if (cv instanceof MapColumnVector) {
+      initBuffers(((MapColumnVector) cv).keys);
+      initBuffers(((MapColumnVector) cv).values);
+    } else if (cv instanceof BytesColumnVector) {
+      ((BytesColumnVector) cv).initBuffer();
+    }
+  }
+
   /**
    * The reset call of {@link VectorizedRowBatch} doesn't release the memory occupied by each {@link ColumnVector}'s child,
    * which is usually an array of objects, while it only set those value to null.
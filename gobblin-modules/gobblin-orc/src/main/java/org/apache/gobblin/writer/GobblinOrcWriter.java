@@ -18,7 +18,9 @@
 package org.apache.gobblin.writer;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericRecord;
@@ -37,6 +39,8 @@ import org.apache.gobblin.configuration.State;
  */
 @Slf4j
 public class GobblinOrcWriter extends GobblinBaseOrcWriter<Schema, GenericRecord> {
+  static final String COLUMN_ENCODING_MILLIS = ORC_WRITER_PREFIX + "columnEncodingMillis";
+
   public GobblinOrcWriter(FsDataWriterBuilder<Schema, GenericRecord> builder, State properties) throws IOException {
     super(builder, properties);
   }
@@ -52,6 +56,33 @@ public class GobblinOrcWriter extends GobblinBaseOrcWriter<Schema, GenericRecord
     return new GenericRecordToOrcValueWriter(typeDescription, this.inputSchema, this.properties);
   }
 
+  /**
+   * Also reports the time spent converting each top-level column as {@link #COLUMN_ENCODING_MILLIS}, a comma separated
+   * list of column:millis, if {@link GenericRecordToOrcValueWriter#COLUMN_TIMING_ENABLED} is set.
+   */
+  @Override
+  public State getFinalState() {
+    State state = super.getFinalState();
+    if (!(this.valueWriter instanceof GenericRecordToOrcValueWriter)) {
+      return state;
+    }
+    Map<String, Long> columnEncodingTimeNanos =
+        ((GenericRecordToOrcValueWriter) this.valueWriter).getColumnEncodingTimeNanos();
+    if (!columnEncodingTimeNanos.isEmpty()) {
+      StringBuilder columnEncodingMillis = new StringBuilder();
+      for (Map.Entry<String, Long> entry : columnEncodingTimeNanos.entrySet()) {
+        if (columnEncodingMillis.length() > 0) {
+          columnEncodingMillis.append(',');
+        }
+        columnEncodingMillis.append(entry.getKey()).append(':')
+            .append(TimeUnit.NANOSECONDS.toMillis(entry.getValue()));
+      }
+      log.info("Time spent converting each column to ORC in milliseconds: " + columnEncodingMillis);
+      state.setProp(COLUMN_ENCODING_MILLIS, columnEncodingMillis.toString());
+    }
+    return state;
+  }
+
   @Override
   protected Properties getPropsWithOrcSchema() throws SerDeException {
     Properties properties = new Properties();
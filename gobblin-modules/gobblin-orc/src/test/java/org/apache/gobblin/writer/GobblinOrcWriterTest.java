@@ -19,19 +19,27 @@ package org.apache.gobblin.writer;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.Decoder;
 import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.util.Utf8;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.Writable;
 import org.apache.orc.OrcConf;
+import org.apache.orc.mapred.OrcStruct;
 import org.apache.orc.storage.ql.exec.vector.BytesColumnVector;
 import org.apache.orc.storage.ql.exec.vector.ListColumnVector;
 import org.mockito.Mockito;
@@ -47,6 +55,7 @@ import org.apache.gobblin.source.workunit.WorkUnit;
 
 import static org.apache.gobblin.configuration.ConfigurationKeys.AVG_RECORD_SIZE;
 import static org.apache.gobblin.writer.GenericRecordToOrcValueWriterTest.deserializeOrcRecords;
+import static org.apache.gobblin.writer.GobblinBaseOrcWriter.ORC_WRITER_BATCH_SIZE;
 import static org.apache.gobblin.writer.GobblinOrcWriter.CONTAINER_JVM_MEMORY_OVERHEAD_MBS;
 import static org.apache.gobblin.writer.GobblinOrcWriter.DEFAULT_RECORD_SIZE_SCALE_FACTOR;
 import static org.apache.gobblin.writer.GobblinOrcWriter.ORC_WRITER_AUTO_TUNE_ENABLED;
@@ -144,6 +153,37 @@ public class GobblinOrcWriterTest {
     Assert.assertNull(((BytesColumnVector) orcWriter.rowBatch.cols[1]).vector);
   }
 
+  @Test
+  public void testTuneBatchSize() throws Exception {
+    Schema schema = new Schema.Parser().parse(
+        this.getClass().getClassLoader().getResourceAsStream("orc_writer_list_test/schema.avsc"));
+    List<GenericRecord> recordList = deserializeAvroRecords(this.getClass(), schema, "orc_writer_list_test/data.json");
+    FsDataWriterBuilder<Schema, GenericRecord> mockBuilder =
+        (FsDataWriterBuilder<Schema, GenericRecord>) Mockito.mock(FsDataWriterBuilder.class);
+    when(mockBuilder.getSchema()).thenReturn(schema);
+    State dummyState = new WorkUnit();
+    dummyState.setProp(ConfigurationKeys.WRITER_STAGING_DIR, Files.createTempDir().getAbsolutePath());
+    dummyState.setProp(ConfigurationKeys.WRITER_FILE_PATH, "simple");
+    dummyState.setProp(ConfigurationKeys.WRITER_OUTPUT_DIR, Files.createTempDir().getAbsolutePath());
+    // A memory budget of about 350 bytes per batch
+    dummyState.setProp(OrcConf.MEMORY_POOL.name(), 0.000001);
+    when(mockBuilder.getFileName(dummyState)).thenReturn("file");
+
+    Closer closer = Closer.create();
+    GobblinOrcWriter orcWriter = closer.register(new GobblinOrcWriter(mockBuilder, dummyState));
+    Assert.assertEquals(orcWriter.batchSize, GobblinOrcWriter.DEFAULT_ORC_WRITER_BATCH_SIZE);
+    for (GenericRecord genericRecord : recordList) {
+      orcWriter.write(genericRecord);
+    }
+
+    long bytesPerRow = GobblinOrcWriter.estimateSizeInBytes(orcWriter.rowBatch) / orcWriter.rowBatch.size;
+    Assert.assertTrue(bytesPerRow > 0);
+    orcWriter.tuneBatchSize(orcWriter.rowBatch);
+    Assert.assertEquals(orcWriter.batchSize, Math.max(10, 358 / bytesPerRow), 1);
+    Assert.assertTrue(orcWriter.batchSize < GobblinOrcWriter.DEFAULT_ORC_WRITER_BATCH_SIZE);
+    closer.close();
+  }
+
   /**
    * A basic unit for trivial writer correctness.
    * TODO: A detailed test suite of ORC-writer for different sorts of schema:
@@ -210,4 +250,53 @@ public class GobblinOrcWriterTest {
       Assert.fail();
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Utf8 and bytes values are copied into the row batch, so that decoders can reuse their backing arrays, and the
+   * copies are kept across several rows of a batch and across batches.
+   */
+  @Test
+  public void testWriteReusedUtf8AndBytes() throws Exception {
+    Schema schema = SchemaBuilder.record("ReusedValues").namespace("com.linkedin.orc").fields()
+        .requiredString("name").requiredBytes("data").endRecord();
+    FsDataWriterBuilder<Schema, GenericRecord> mockBuilder =
+        (FsDataWriterBuilder<Schema, GenericRecord>) Mockito.mock(FsDataWriterBuilder.class);
+    when(mockBuilder.getSchema()).thenReturn(schema);
+    State dummyState = new WorkUnit();
+    String outputDir = Files.createTempDir().getAbsolutePath();
+    dummyState.setProp(ConfigurationKeys.WRITER_STAGING_DIR, Files.createTempDir().getAbsolutePath());
+    dummyState.setProp(ConfigurationKeys.WRITER_FILE_PATH, "simple");
+    dummyState.setProp(ConfigurationKeys.WRITER_OUTPUT_DIR, outputDir);
+    dummyState.setProp(ORC_WRITER_BATCH_SIZE, 3);
+    when(mockBuilder.getFileName(dummyState)).thenReturn("file");
+
+    Closer closer = Closer.create();
+    GobblinOrcWriter orcWriter = closer.register(new GobblinOrcWriter(mockBuilder, dummyState));
+    // Like a decoder, reuse the same Utf8 and backing array of the bytes for all the records
+    Utf8 name = new Utf8();
+    byte[] data = new byte[16];
+    int numRecords = 7;
+    for (int i = 0; i < numRecords; i++) {
+      name.set("name" + i);
+      byte[] value = ("data" + i).getBytes(StandardCharsets.UTF_8);
+      System.arraycopy(value, 0, data, 1, value.length);
+      GenericRecord record = new GenericData.Record(schema);
+      record.put("name", name);
+      record.put("data", ByteBuffer.wrap(data, 1, value.length).slice());
+      orcWriter.write(record);
+    }
+    orcWriter.commit();
+    Assert.assertEquals(orcWriter.recordsWritten(), numRecords);
+
+    FileSystem fs = FileSystem.getLocal(new Configuration());
+    List<Writable> orcRecords = deserializeOrcRecords(new Path(outputDir, "simple/file"), fs);
+    Assert.assertEquals(orcRecords.size(), numRecords);
+    for (int i = 0; i < numRecords; i++) {
+      OrcStruct orcRecord = (OrcStruct) orcRecords.get(i);
+      Assert.assertEquals(orcRecord.getFieldValue("name"), new Text("name" + i));
+      Assert.assertEquals(((BytesWritable) orcRecord.getFieldValue("data")).copyBytes(),
+          ("data" + i).getBytes(StandardCharsets.UTF_8));
+    }
+    closer.close();
+  }
+}
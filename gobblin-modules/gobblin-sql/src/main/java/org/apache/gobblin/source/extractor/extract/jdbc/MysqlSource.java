@@ -21,6 +21,7 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import java.io.IOException;
 import java.net.URI;
+import java.util.List;
 import org.apache.gobblin.configuration.ConfigurationKeys;
 import org.apache.gobblin.configuration.SourceState;
 import org.apache.gobblin.configuration.WorkUnitState;
@@ -29,6 +30,8 @@ import org.apache.gobblin.dataset.DatasetDescriptor;
 import org.apache.gobblin.source.extractor.Extractor;
 import org.apache.gobblin.source.extractor.exception.ExtractPrepareException;
 import org.apache.gobblin.source.extractor.extract.QueryBasedSource;
+import org.apache.gobblin.source.extractor.partition.Partition;
+import org.apache.gobblin.source.jdbc.KeyRangePartitioner;
 import org.apache.gobblin.source.jdbc.MysqlExtractor;
 import org.apache.gobblin.source.workunit.WorkUnit;
 import org.slf4j.Logger;
@@ -55,7 +58,21 @@ public class MysqlSource extends QueryBasedSource<JsonArray, JsonElement> {
     return extractor;
   }
 
+  @Override
+  protected List<Partition> getPartitionList(SourceEntity sourceEntity, SourceState state, long previousWatermark) {
+    if (KeyRangePartitioner.isEnabled(state)) {
+      return new KeyRangePartitioner(state, sourceEntity, MysqlExtractor::new).getPartitionList(previousWatermark);
+    }
+    return super.getPartitionList(sourceEntity, state, previousWatermark);
+  }
+
   protected void addLineageSourceInfo(SourceState sourceState, SourceEntity entity, WorkUnit workUnit) {
+    if (lineageInfo.isPresent()) {
+      lineageInfo.get().setSource(getLineageSource(sourceState, entity), workUnit);
+    }
+  }
+
+  static DatasetDescriptor getLineageSource(SourceState sourceState, SourceEntity entity) {
     String host = sourceState.getProp(ConfigurationKeys.SOURCE_CONN_HOST_NAME);
     String port = sourceState.getProp(ConfigurationKeys.SOURCE_CONN_PORT);
     String database = sourceState.getProp(ConfigurationKeys.SOURCE_QUERYBASED_SCHEMA);
@@ -64,8 +81,6 @@ public class MysqlSource extends QueryBasedSource<JsonArray, JsonElement> {
     DatasetDescriptor source = new DatasetDescriptor(DatasetConstants.PLATFORM_MYSQL, URI.create(serverUrl),
         database + "." + entity.getSourceEntityName());
     source.addMetadata(DatasetConstants.CONNECTION_URL, connectionUrl);
-    if (lineageInfo.isPresent()) {
-      lineageInfo.get().setSource(source, workUnit);
-    }
+    return source;
   }
 }
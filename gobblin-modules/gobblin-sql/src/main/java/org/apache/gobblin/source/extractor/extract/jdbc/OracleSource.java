@@ -20,14 +20,18 @@ package org.apache.gobblin.source.extractor.extract.jdbc;
 import org.apache.gobblin.source.extractor.Extractor;
 import org.apache.gobblin.source.extractor.exception.ExtractPrepareException;
 import java.io.IOException;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import org.apache.gobblin.configuration.SourceState;
 import org.apache.gobblin.configuration.WorkUnitState;
 import org.apache.gobblin.source.extractor.extract.QueryBasedSource;
+import org.apache.gobblin.source.extractor.partition.Partition;
+import org.apache.gobblin.source.jdbc.KeyRangePartitioner;
 import org.apache.gobblin.source.jdbc.OracleExtractor;
 
 
@@ -50,4 +54,12 @@ public class OracleSource extends QueryBasedSource<JsonArray, JsonElement> {
     }
     return extractor;
   }
+
+  @Override
+  protected List<Partition> getPartitionList(SourceEntity sourceEntity, SourceState state, long previousWatermark) {
+    if (KeyRangePartitioner.isEnabled(state)) {
+      return new KeyRangePartitioner(state, sourceEntity, OracleExtractor::new).getPartitionList(previousWatermark);
+    }
+    return super.getPartitionList(sourceEntity, state, previousWatermark);
+  }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.source.jdbc;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.gobblin.configuration.ConfigurationKeys;
+import org.apache.gobblin.configuration.WorkUnitState;
+import org.apache.gobblin.source.extractor.DataRecordException;
+import org.apache.gobblin.source.extractor.Extractor;
+
+
+/**
+ * An {@link Extractor} reading the rows of the data query of a built {@link JdbcExtractor} directly into Avro
+ * {@link GenericRecord}s, without the intermediate {@link com.google.gson.JsonObject} per row and the string
+ * formatting and parsing of every value.
+ *
+ * <p>
+ *   The schema is derived from the {@link java.sql.ResultSetMetaData} of the data query by {@link ResultSetAvroMapper},
+ *   so the data query is executed when the schema is requested, even if the source record count is 0. Rows are
+ *   streamed from the {@link ResultSet} with the fetch size of the extractor, the reuse record passed to
+ *   {@link #readRecord(GenericRecord)} is filled in place if it has the same schema.
+ * </p>
+ *
+ * <p>
+ *   Unlike the JSON path, zero datetime values of MySQL are not returned as strings, so tables having them need the
+ *   zeroDateTimeBehavior connection property.
+ * </p>
+ */
+public class JdbcAvroExtractor implements Extractor<Schema, GenericRecord> {
+  private static final Logger LOG = LoggerFactory.getLogger(JdbcAvroExtractor.class);
+
+  private final WorkUnitState workUnitState;
+  private final JdbcExtractor extractor;
+  private ResultSet resultSet;
+  private ResultSetAvroMapper mapper;
+  private long recordCount = 0;
+
+  /**
+   * @param extractor a {@link JdbcExtractor} of the work unit on which {@link JdbcExtractor#build()} was called
+   */
+  public JdbcAvroExtractor(WorkUnitState workUnitState, JdbcExtractor extractor) {
+    this.workUnitState = workUnitState;
+    this.extractor = extractor;
+  }
+
+  @Override
+  public Schema getSchema() throws IOException {
+    return getMapper().getSchema();
+  }
+
+  @Override
+  public GenericRecord readRecord(@Deprecated GenericRecord reuse) throws DataRecordException, IOException {
+    if (!this.extractor.getFetchStatus()) {
+      return null;
+    }
+
+    ResultSetAvroMapper mapper = getMapper();
+    try {
+      if (!this.resultSet.next()) {
+        LOG.info("Total number of records processed: " + this.recordCount);
+        this.extractor.setFetchStatus(false);
+        return null;
+      }
+      this.recordCount++;
+      return mapper.map(this.resultSet,
+          reuse != null && mapper.getSchema().equals(reuse.getSchema()) ? reuse : null);
+    } catch (SQLException e) {
+      throw new DataRecordException("Failed to get records from database; error - " + e.getMessage(), e);
+    }
+  }
+
+  private ResultSetAvroMapper getMapper() throws IOException {
+    if (this.mapper == null) {
+      try {
+        this.resultSet = this.extractor.getDataResultSet();
+        this.mapper = new ResultSetAvroMapper(this.resultSet.getMetaData(), this.extractor.getHeaderRecord(),
+            this.workUnitState.getProp(ConfigurationKeys.SOURCE_ENTITY, "record"),
+            this.extractor.convertBitToBoolean());
+      } catch (DataRecordException | SQLException e) {
+        throw new IOException("Failed to get schema from data resultset", e);
+      }
+    }
+    return this.mapper;
+  }
+
+  @Override
+  public long getExpectedRecordCount() {
+    return this.extractor.getExpectedRecordCount();
+  }
+
+  @Override
+  public long getHighWatermark() {
+    return this.extractor.getHighWatermark();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.extractor.close();
+  }
+}
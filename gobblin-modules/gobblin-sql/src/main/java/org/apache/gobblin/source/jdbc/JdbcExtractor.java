@@ -73,6 +73,7 @@ import org.apache.gobblin.source.extractor.schema.ColumnNameCase;
 import org.apache.gobblin.source.extractor.schema.Schema;
 import org.apache.gobblin.source.extractor.utils.Utils;
 import org.apache.gobblin.source.extractor.watermark.Predicate;
+import org.apache.gobblin.source.extractor.watermark.WatermarkPredicate;
 import org.apache.gobblin.source.extractor.watermark.WatermarkType;
 import org.apache.gobblin.source.workunit.WorkUnit;
 
@@ -661,7 +662,7 @@ public abstract class JdbcExtractor extends QueryBasedExtractor<JsonArray, JsonE
       }
       Statement statement = this.dataConnection.createStatement();
 
-      if (fetchSize != 0 && this.getExpectedRecordCount() > 2000) {
+      if (fetchSize != 0) {
         statement.setFetchSize(fetchSize);
       }
       final boolean status = statement.execute(query);
@@ -824,6 +825,102 @@ public abstract class JdbcExtractor extends QueryBasedExtractor<JsonArray, JsonE
     }
   }
 
+  /**
+   * Get the minimum key, the maximum key and the number of rows with a key between low and high (inclusive) of the
+   * extract query, after {@link #extractMetadata(String, String, WorkUnit)}. A bound equal to
+   * {@link ConfigurationKeys#DEFAULT_WATERMARK_VALUE} is ignored.
+   *
+   * @return an array of the minimum key, the maximum key and the row count, or null if there are no rows
+   */
+  public long[] getKeyRangeStatistics(String keyColumn, long low, long high) throws DataRecordException {
+    String key = Utils.getCoalesceColumnNames(keyColumn);
+    String query = getKeyRangeQuery("min(" + key + "), max(" + key + "), count(1)", keyColumn, low, high);
+    try {
+      ResultSet resultset = executeKeyRangeQuery(query);
+      if (!resultset.next() || resultset.getLong(3) == 0) {
+        return null;
+      }
+      return new long[] { resultset.getLong(1), resultset.getLong(2), resultset.getLong(3) };
+    } catch (SQLException e) {
+      throw new DataRecordException("Failed to get key range statistics; error - " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Get the number of rows by bucket of the keys between low and high (inclusive) of the extract query, after
+   * {@link #extractMetadata(String, String, WorkUnit)}. Bucket i holds the keys in
+   * [low + i * bucketWidth, low + (i + 1) * bucketWidth), empty buckets are omitted.
+   */
+  public Map<Long, Long> getKeyHistogram(String keyColumn, long low, long high, long bucketWidth)
+      throws DataRecordException {
+    String bucket = "floor((keyrange_key - (" + low + ")) / " + bucketWidth + ")";
+    String query = "select " + bucket + ", count(1) from ("
+        + getKeyRangeQuery(Utils.getCoalesceColumnNames(keyColumn) + " as keyrange_key", keyColumn, low, high)
+        + ") keyrange group by " + bucket;
+    try {
+      ResultSet resultset = executeKeyRangeQuery(query);
+      Map<Long, Long> histogram = new HashMap<>();
+      while (resultset.next()) {
+        histogram.put(resultset.getLong(1), resultset.getLong(2));
+      }
+      return histogram;
+    } catch (SQLException e) {
+      throw new DataRecordException("Failed to get key histogram; error - " + e.getMessage(), e);
+    }
+  }
+
+  private String getKeyRangeQuery(String columnProjection, String keyColumn, long low, long high) {
+    WatermarkPredicate watermark = new WatermarkPredicate(keyColumn, WatermarkType.SIMPLE);
+    List<Predicate> predicates = new ArrayList<>();
+    if (low != ConfigurationKeys.DEFAULT_WATERMARK_VALUE) {
+      predicates.add(watermark.getPredicate(this, low, ">=", Predicate.PredicateType.LWM));
+    }
+    if (high != ConfigurationKeys.DEFAULT_WATERMARK_VALUE) {
+      predicates.add(watermark.getPredicate(this, high, "<=", Predicate.PredicateType.HWM));
+    }
+    String watermarkFilter = StringUtils.defaultIfBlank(this.concatPredicates(predicates), "1=1");
+    return this.getExtractSql().replace(this.getOutputColumnProjection(), columnProjection)
+        .replace(ConfigurationKeys.DEFAULT_SOURCE_QUERYBASED_WATERMARK_PREDICATE_SYMBOL, watermarkFilter);
+  }
+
+  private ResultSet executeKeyRangeQuery(String query) throws DataRecordException {
+    List<Command> cmds = new ArrayList<>();
+    cmds.add(getCommand(query, JdbcCommandType.QUERY));
+    Iterator<ResultSet> itr = (Iterator<ResultSet>) this.executeSql(cmds).getResults().values().iterator();
+    ResultSet resultset = itr.hasNext() ? itr.next() : null;
+    if (resultset == null) {
+      throw new DataRecordException("Failed to execute key range query:" + query);
+    }
+    return resultset;
+  }
+
+  /**
+   * Execute the data query on the first call and return its {@link ResultSet}, for readers that consume the rows
+   * directly instead of through {@link #getData(CommandOutput)}, like {@link JdbcAvroExtractor}.
+   */
+  public ResultSet getDataResultSet() throws DataRecordException {
+    try {
+      if (isFirstPull()) {
+        this.log.info("Get data resultset using JDBC");
+        this.prepareInitialPull();
+        String schema = this.workUnitState.getProp(ConfigurationKeys.SOURCE_QUERYBASED_SCHEMA);
+        String entity = this.workUnitState.getProp(ConfigurationKeys.SOURCE_ENTITY);
+        List<Command> cmds = this.getDataMetadata(schema, entity, this.workUnit, this.predicateList);
+        this.dataResponse = this.executePreparedSql(cmds);
+        this.setFirstPull(false);
+      }
+    } catch (Exception e) {
+      throw new DataRecordException("Failed to get data resultset using JDBC; error - " + e.getMessage(), e);
+    }
+
+    Iterator<ResultSet> itr = (Iterator<ResultSet>) this.dataResponse.getResults().values().iterator();
+    ResultSet resultset = itr.hasNext() ? itr.next() : null;
+    if (resultset == null) {
+      throw new DataRecordException("Failed to get data resultset from database");
+    }
+    return resultset;
+  }
+
   @Override
   public JsonArray getSchema(CommandOutput<?, ?> response) throws SchemaException, IOException {
     this.log.debug("Extract schema from resultset");
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.source.jdbc;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import com.google.common.math.LongMath;
+
+import lombok.AllArgsConstructor;
+
+import org.apache.gobblin.configuration.ConfigurationKeys;
+import org.apache.gobblin.configuration.SourceState;
+import org.apache.gobblin.configuration.State;
+import org.apache.gobblin.configuration.WorkUnitState;
+import org.apache.gobblin.source.extractor.DataRecordException;
+import org.apache.gobblin.source.extractor.extract.QueryBasedSource.SourceEntity;
+import org.apache.gobblin.source.extractor.partition.Partition;
+import org.apache.gobblin.source.extractor.partition.Partitioner;
+import org.apache.gobblin.source.extractor.watermark.WatermarkType;
+import org.apache.gobblin.source.workunit.WorkUnit;
+
+
+/**
+ * A partitioner splitting the range of a {@link WatermarkType#SIMPLE} watermark column, typically the primary key, into
+ * key ranges holding about the same number of rows.
+ *
+ * <p>
+ *   {@link Partitioner} splits the watermark range into intervals of the same width, so a skewed key distribution
+ *   becomes a few large partitions. This partitioner queries the minimum and maximum key and the row count of the
+ *   table, then a histogram of the keys with {@link #BUCKETS_PER_PARTITION} buckets per partition. Buckets holding more
+ *   rows than a partition are sampled again with a finer histogram, up to {@link #MAX_REFINEMENTS} times, before
+ *   consecutive buckets are merged into partitions of about {@link #TARGET_ROWS_PER_PARTITION} rows. The number of
+ *   partitions is still bounded by {@link ConfigurationKeys#SOURCE_MAX_NUMBER_OF_PARTITIONS}.
+ * </p>
+ *
+ * <p>
+ *   If the table has no rows in the watermark range or sampling fails, the partitions of {@link Partitioner} are used.
+ * </p>
+ */
+public class KeyRangePartitioner {
+  private static final Logger LOG = LoggerFactory.getLogger(KeyRangePartitioner.class);
+
+  public static final String KEY_RANGE_PARTITIONING_ENABLED = "source.querybased.keyRangePartitioning.enabled";
+  public static final String TARGET_ROWS_PER_PARTITION =
+      "source.querybased.keyRangePartitioning.targetRowsPerPartition";
+  public static final long DEFAULT_TARGET_ROWS_PER_PARTITION = 1000000;
+  public static final String BUCKETS_PER_PARTITION = "source.querybased.keyRangePartitioning.bucketsPerPartition";
+  public static final int DEFAULT_BUCKETS_PER_PARTITION = 10;
+  public static final String MAX_REFINEMENTS = "source.querybased.keyRangePartitioning.maxRefinements";
+  public static final int DEFAULT_MAX_REFINEMENTS = 10;
+
+  private static final int MAX_BUCKETS_PER_QUERY = 10000;
+
+  private final SourceState state;
+  private final WorkUnitState workUnitState;
+  private final JdbcExtractor extractor;
+
+  /**
+   * @param extractorFactory creates the {@link JdbcExtractor} used to sample the keys of the source entity
+   */
+  public KeyRangePartitioner(SourceState state, SourceEntity sourceEntity,
+      Function<WorkUnitState, ? extends JdbcExtractor> extractorFactory) {
+    this.state = state;
+    WorkUnit workUnit = WorkUnit.createEmpty();
+    workUnit.addAll(state);
+    workUnit.setProp(ConfigurationKeys.SOURCE_ENTITY, sourceEntity.getSourceEntityName());
+    this.workUnitState = new WorkUnitState(workUnit);
+    this.workUnitState.setId(sourceEntity.getSourceEntityName() + "_keyrange");
+    this.extractor = extractorFactory.apply(this.workUnitState);
+  }
+
+  /**
+   * Whether key range partitioning is enabled, which requires a {@link WatermarkType#SIMPLE} watermark
+   */
+  public static boolean isEnabled(State state) {
+    return state.getPropAsBoolean(KEY_RANGE_PARTITIONING_ENABLED, false) && WatermarkType.SIMPLE.name()
+        .equalsIgnoreCase(state.getProp(ConfigurationKeys.SOURCE_QUERYBASED_WATERMARK_TYPE,
+            ConfigurationKeys.DEFAULT_WATERMARK_TYPE));
+  }
+
+  /**
+   * Get an unordered list of key range partitions
+   *
+   * @param previousWatermark previous water mark from metadata
+   */
+  public List<Partition> getPartitionList(long previousWatermark) {
+    try {
+      Partition globalPartition = new Partitioner(this.state).getGlobalPartition(previousWatermark);
+      List<Partition> partitions = getKeyRangePartitions(globalPartition);
+      if (partitions != null) {
+        return partitions;
+      }
+      LOG.info("No rows in the watermark range, using watermark partitions");
+    } catch (Exception e) {
+      LOG.warn("Failed to sample key ranges, using watermark partitions", e);
+    } finally {
+      try {
+        this.extractor.closeConnection();
+      } catch (Exception e) {
+        LOG.error("Failed to close the connection", e);
+      }
+    }
+    return new Partitioner(this.state).getPartitionList(previousWatermark);
+  }
+
+  private List<Partition> getKeyRangePartitions(Partition globalPartition) throws Exception {
+    this.extractor.extractMetadata(this.workUnitState.getProp(ConfigurationKeys.SOURCE_QUERYBASED_SCHEMA),
+        this.workUnitState.getProp(ConfigurationKeys.SOURCE_ENTITY), this.workUnitState.getWorkunit());
+    String keyColumn = this.state.getProp(ConfigurationKeys.EXTRACT_DELTA_FIELDS_KEY);
+    long[] statistics = this.extractor.getKeyRangeStatistics(keyColumn, globalPartition.getLowWatermark(),
+        globalPartition.getHighWatermark());
+    if (statistics == null) {
+      return null;
+    }
+    long minKey = statistics[0];
+    long maxKey = statistics[1];
+    long rowCount = statistics[2];
+
+    int sourceMaxAllowedPartitions = this.state.getPropAsInt(ConfigurationKeys.SOURCE_MAX_NUMBER_OF_PARTITIONS, 0);
+    int maxPartitions = (sourceMaxAllowedPartitions != 0 ? sourceMaxAllowedPartitions
+        : ConfigurationKeys.DEFAULT_MAX_NUMBER_OF_PARTITIONS);
+    long rowsPerPartition = Math.max(
+        this.state.getPropAsLong(TARGET_ROWS_PER_PARTITION, DEFAULT_TARGET_ROWS_PER_PARTITION),
+        LongMath.divide(rowCount, maxPartitions, RoundingMode.CEILING));
+    int bucketsPerPartition = this.state.getPropAsInt(BUCKETS_PER_PARTITION, DEFAULT_BUCKETS_PER_PARTITION);
+    int maxRefinements = this.state.getPropAsInt(MAX_REFINEMENTS, DEFAULT_MAX_REFINEMENTS);
+    LOG.info(String.format("Sampling %d rows with keys in [%d, %d] into partitions of %d rows", rowCount, minKey,
+        maxKey, rowsPerPartition));
+
+    List<KeyRange> ranges = getHistogram(keyColumn, new KeyRange(minKey, maxKey, rowCount), rowsPerPartition,
+        bucketsPerPartition);
+    int refinements = 0;
+    for (int i = 0; i < ranges.size() && refinements < maxRefinements; i++) {
+      KeyRange range = ranges.get(i);
+      if (range.rowCount > rowsPerPartition && range.high > range.low) {
+        ranges.remove(i);
+        ranges.addAll(i, getHistogram(keyColumn, range, rowsPerPartition, bucketsPerPartition));
+        refinements++;
+        i--;
+      }
+    }
+
+    List<Partition> partitions = new ArrayList<>();
+    long lowWatermark = globalPartition.getLowWatermark() == ConfigurationKeys.DEFAULT_WATERMARK_VALUE ? minKey
+        : globalPartition.getLowWatermark();
+    for (long splitPoint : getSplitPoints(ranges, rowsPerPartition)) {
+      partitions.add(new Partition(lowWatermark, splitPoint, false));
+      lowWatermark = splitPoint;
+    }
+    // The upper bound of the last partition can be removed, unless the user specified it
+    boolean hasUserSpecifiedHighWatermark = globalPartition.getHasUserSpecifiedHighWatermark();
+    long highWatermark = hasUserSpecifiedHighWatermark ? globalPartition.getHighWatermark() : maxKey;
+    partitions.add(new Partition(lowWatermark, highWatermark, true, hasUserSpecifiedHighWatermark));
+    LOG.info("Created " + partitions.size() + " key range partitions with " + refinements + " refinements");
+    return partitions;
+  }
+
+  /**
+   * Split a key range into buckets of the same width, about bucketsPerPartition per partition of its rows
+   */
+  private List<KeyRange> getHistogram(String keyColumn, KeyRange range, long rowsPerPartition,
+      int bucketsPerPartition) throws DataRecordException {
+    long numBuckets = Math.min(MAX_BUCKETS_PER_QUERY,
+        LongMath.divide(range.rowCount, rowsPerPartition, RoundingMode.CEILING) * bucketsPerPartition);
+    long width = Math.max(1, (long) Math.ceil(((double) range.high - range.low + 1) / numBuckets));
+
+    List<KeyRange> buckets = new ArrayList<>();
+    Map<Long, Long> histogram = new TreeMap<>(this.extractor.getKeyHistogram(keyColumn, range.low, range.high, width));
+    for (Map.Entry<Long, Long> bucket : histogram.entrySet()) {
+      long low = range.low + bucket.getKey() * width;
+      buckets.add(new KeyRange(low, Math.min(range.high, low + width - 1), bucket.getValue()));
+    }
+    return buckets;
+  }
+
+  /**
+   * Merge consecutive key ranges until they hold at least rowsPerPartition rows
+   *
+   * @return the exclusive upper bounds of all partitions but the last one
+   */
+  @VisibleForTesting
+  static List<Long> getSplitPoints(List<KeyRange> ranges, long rowsPerPartition) {
+    List<Long> splitPoints = new ArrayList<>();
+    long rowCount = 0;
+    for (int i = 0; i < ranges.size() - 1; i++) {
+      rowCount += ranges.get(i).rowCount;
+      if (rowCount >= rowsPerPartition) {
+        splitPoints.add(ranges.get(i).high + 1);
+        rowCount = 0;
+      }
+    }
+    return splitPoints;
+  }
+
+  /**
+   * The rows with a key in [low, high]
+   */
+  @AllArgsConstructor
+  @VisibleForTesting
+  static class KeyRange {
+    private final long low;
+    private final long high;
+    private final long rowCount;
+  }
+}
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.source.jdbc;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.sql.Blob;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Conversions;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import com.google.common.collect.ImmutableList;
+
+
+/**
+ * Maps the rows of a JDBC {@link ResultSet} to Avro {@link GenericRecord}s, with a schema derived from the
+ * {@link ResultSetMetaData}.
+ *
+ * <p>
+ *   Every field is a union of null and the Avro type of the column: BIT and BOOLEAN columns map to boolean (or int if
+ *   bits are not converted to booleans), integral columns to int or long (unsigned columns are promoted to the next
+ *   wider type), REAL to float, FLOAT and DOUBLE to double, DECIMAL and NUMERIC to the decimal logical type (or string
+ *   if the driver reports no usable precision), DATE, TIME and TIMESTAMP to the date, time-millis and timestamp-millis
+ *   logical types, binary columns to bytes and all other columns to string.
+ * </p>
+ */
+public class ResultSetAvroMapper {
+
+  private static final Conversions.DecimalConversion DECIMAL_CONVERSION = new Conversions.DecimalConversion();
+
+  private enum ColumnKind {
+    BOOLEAN, BIT_AS_INT, INT, LONG, FLOAT, DOUBLE, DECIMAL, DATE, TIME, TIMESTAMP, BYTES, BLOB, STRING
+  }
+
+  private final Schema schema;
+  private final ColumnKind[] kinds;
+  private final Schema[] fieldSchemas;
+
+  /**
+   * @param metadata metadata of the result set to map
+   * @param fieldNames field names of the columns in column order, or null to use the column labels
+   * @param recordName name of the Avro record
+   * @param convertBitToBoolean whether BIT columns are mapped to boolean, see {@link JdbcExtractor#convertBitToBoolean()}
+   */
+  public ResultSetAvroMapper(ResultSetMetaData metadata, List<String> fieldNames, String recordName,
+      boolean convertBitToBoolean) throws SQLException {
+    int numColumns = metadata.getColumnCount();
+    if (fieldNames != null && fieldNames.size() != numColumns) {
+      fieldNames = null;
+    }
+
+    this.kinds = new ColumnKind[numColumns];
+    this.fieldSchemas = new Schema[numColumns];
+    List<Schema.Field> fields = new ArrayList<>(numColumns);
+    for (int i = 0; i < numColumns; i++) {
+      int column = i + 1;
+      this.kinds[i] = getColumnKind(metadata, column, convertBitToBoolean);
+      this.fieldSchemas[i] = getFieldSchema(this.kinds[i], metadata, column);
+      String fieldName = fieldNames == null ? metadata.getColumnLabel(column) : fieldNames.get(i);
+      Schema nullable = Schema.createUnion(ImmutableList.of(Schema.create(Schema.Type.NULL), this.fieldSchemas[i]));
+      fields.add(new Schema.Field(toAvroName(fieldName), nullable, null, Schema.Field.NULL_VALUE));
+    }
+    this.schema = Schema.createRecord(toAvroName(recordName), null, null, false);
+    this.schema.setFields(fields);
+  }
+
+  public Schema getSchema() {
+    return this.schema;
+  }
+
+  /**
+   * Map the current row of the result set.
+   * @param reuse a record of {@link #getSchema()} to fill, or null to create a new one
+   */
+  public GenericRecord map(ResultSet resultSet, GenericRecord reuse) throws SQLException {
+    GenericRecord record = reuse == null ? new GenericData.Record(this.schema) : reuse;
+    for (int i = 0; i < this.kinds.length; i++) {
+      record.put(i, getValue(resultSet, i));
+    }
+    return record;
+  }
+
+  private Object getValue(ResultSet resultSet, int i) throws SQLException {
+    int column = i + 1;
+    switch (this.kinds[i]) {
+      case BOOLEAN: {
+        boolean value = resultSet.getBoolean(column);
+        return resultSet.wasNull() ? null : value;
+      }
+      case BIT_AS_INT:
+      case INT: {
+        int value = resultSet.getInt(column);
+        return resultSet.wasNull() ? null : value;
+      }
+      case LONG: {
+        long value = resultSet.getLong(column);
+        return resultSet.wasNull() ? null : value;
+      }
+      case FLOAT: {
+        float value = resultSet.getFloat(column);
+        return resultSet.wasNull() ? null : value;
+      }
+      case DOUBLE: {
+        double value = resultSet.getDouble(column);
+        return resultSet.wasNull() ? null : value;
+      }
+      case DECIMAL: {
+        BigDecimal value = resultSet.getBigDecimal(column);
+        if (value == null) {
+          return null;
+        }
+        LogicalTypes.Decimal decimal = (LogicalTypes.Decimal) this.fieldSchemas[i].getLogicalType();
+        return DECIMAL_CONVERSION.toBytes(value.setScale(decimal.getScale(), RoundingMode.HALF_UP),
+            this.fieldSchemas[i], decimal);
+      }
+      case DATE: {
+        Date value = resultSet.getDate(column);
+        return value == null ? null : (int) value.toLocalDate().toEpochDay();
+      }
+      case TIME: {
+        Time value = resultSet.getTime(column);
+        return value == null ? null : (int) TimeUnit.NANOSECONDS.toMillis(value.toLocalTime().toNanoOfDay());
+      }
+      case TIMESTAMP: {
+        Timestamp value = resultSet.getTimestamp(column);
+        return value == null ? null : value.getTime();
+      }
+      case BYTES: {
+        byte[] value = resultSet.getBytes(column);
+        return value == null ? null : ByteBuffer.wrap(value);
+      }
+      case BLOB: {
+        Blob value = resultSet.getBlob(column);
+        return value == null ? null : ByteBuffer.wrap(value.getBytes(1L, (int) value.length()));
+      }
+      default:
+        return resultSet.getString(column);
+    }
+  }
+
+  private static ColumnKind getColumnKind(ResultSetMetaData metadata, int column, boolean convertBitToBoolean)
+      throws SQLException {
+    switch (metadata.getColumnType(column)) {
+      case Types.BIT:
+      case Types.BOOLEAN:
+        return convertBitToBoolean ? ColumnKind.BOOLEAN : ColumnKind.BIT_AS_INT;
+      case Types.TINYINT:
+      case Types.SMALLINT:
+        return ColumnKind.INT;
+      case Types.INTEGER:
+        return metadata.isSigned(column) ? ColumnKind.INT : ColumnKind.LONG;
+      case Types.BIGINT:
+        return metadata.isSigned(column) ? ColumnKind.LONG : ColumnKind.DECIMAL;
+      case Types.REAL:
+        return ColumnKind.FLOAT;
+      case Types.FLOAT:
+      case Types.DOUBLE:
+        return ColumnKind.DOUBLE;
+      case Types.DECIMAL:
+      case Types.NUMERIC:
+        int precision = metadata.getPrecision(column);
+        int scale = metadata.getScale(column);
+        return precision > 0 && scale >= 0 && scale <= precision ? ColumnKind.DECIMAL : ColumnKind.STRING;
+      case Types.DATE:
+        return ColumnKind.DATE;
+      case Types.TIME:
+        return ColumnKind.TIME;
+      case Types.TIMESTAMP:
+        return ColumnKind.TIMESTAMP;
+      case Types.BINARY:
+      case Types.VARBINARY:
+      case Types.LONGVARBINARY:
+        return ColumnKind.BYTES;
+      case Types.BLOB:
+        return ColumnKind.BLOB;
+      default:
+        return ColumnKind.STRING;
+    }
+  }
+
+  private static Schema getFieldSchema(ColumnKind kind, ResultSetMetaData metadata, int column) throws SQLException {
+    switch (kind) {
+      case BOOLEAN:
+        return Schema.create(Schema.Type.BOOLEAN);
+      case BIT_AS_INT:
+      case INT:
+        return Schema.create(Schema.Type.INT);
+      case LONG:
+        return Schema.create(Schema.Type.LONG);
+      case FLOAT:
+        return Schema.create(Schema.Type.FLOAT);
+      case DOUBLE:
+        return Schema.create(Schema.Type.DOUBLE);
+      case DECIMAL:
+        // unsigned BIGINT columns have up to 20 digits
+        int precision = metadata.getColumnType(column) == Types.BIGINT ? 20 : metadata.getPrecision(column);
+        int scale = metadata.getColumnType(column) == Types.BIGINT ? 0 : metadata.getScale(column);
+        return LogicalTypes.decimal(precision, scale).addToSchema(Schema.create(Schema.Type.BYTES));
+      case DATE:
+        return LogicalTypes.date().addToSchema(Schema.create(Schema.Type.INT));
+      case TIME:
+        return LogicalTypes.timeMillis().addToSchema(Schema.create(Schema.Type.INT));
+      case TIMESTAMP:
+        return LogicalTypes.timestampMillis().addToSchema(Schema.create(Schema.Type.LONG));
+      case BYTES:
+      case BLOB:
+        return Schema.create(Schema.Type.BYTES);
+      default:
+        return Schema.create(Schema.Type.STRING);
+    }
+  }
+
+  /**
+   * Replace the characters not allowed in Avro names with underscores
+   */
+  private static String toAvroName(String name) {
+    StringBuilder sb = new StringBuilder(name.length());
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      boolean valid = Character.isLetter(c) || c == '_' || (i > 0 && Character.isDigit(c));
+      sb.append(valid && c < 128 ? c : '_');
+    }
+    return sb.toString();
+  }
+}
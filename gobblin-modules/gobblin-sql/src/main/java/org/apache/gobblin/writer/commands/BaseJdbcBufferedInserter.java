@@ -72,12 +72,20 @@ public abstract class BaseJdbcBufferedInserter implements JdbcBufferedInserter {
       throw new IllegalArgumentException(WRITER_JDBC_INSERT_BATCH_SIZE + " should be a positive number");
     }
 
+    this.retryer = createRetryer(state);
+  }
+
+  /**
+   * Creates the {@link Retryer} of the inserts according to {@link #WRITER_JDBC_INSERT_RETRY_TIMEOUT} and
+   * {@link #WRITER_JDBC_INSERT_RETRY_MAX_ATTEMPT}.
+   */
+  static Retryer<Boolean> createRetryer(State state) {
     int maxWait = state.getPropAsInt(WRITER_JDBC_INSERT_RETRY_TIMEOUT, DEFAULT_WRITER_JDBC_INSERT_RETRY_TIMEOUT);
     int maxAttempts =
         state.getPropAsInt(WRITER_JDBC_INSERT_RETRY_MAX_ATTEMPT, DEFAULT_WRITER_JDBC_INSERT_RETRY_MAX_ATTEMPT);
 
     //retry after 2, 4, 8, 16... sec, allow at most maxWait sec delay
-    this.retryer = RetryerBuilder.<Boolean> newBuilder().retryIfException()
+    return RetryerBuilder.<Boolean> newBuilder().retryIfException()
         .withWaitStrategy(WaitStrategies.exponentialWait(1000, maxWait, TimeUnit.SECONDS))
         .withStopStrategy(StopStrategies.stopAfterAttempt(maxAttempts)).build();
   }
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer.commands;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.rholder.retry.Retryer;
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+
+import org.apache.gobblin.configuration.State;
+import org.apache.gobblin.converter.jdbc.JdbcEntryData;
+import org.apache.gobblin.converter.jdbc.JdbcEntryDatum;
+
+
+/**
+ * Base implementation of a {@link JdbcBufferedInserter} using the native bulk load path of the database instead of
+ * multi-row INSERT statements.
+ * <p>
+ *   Rows are encoded into an in-memory buffer in the text format shared by PostgreSQL COPY and MySQL LOAD DATA: columns
+ *   separated by tabs, rows terminated by newlines, \N for null and backslash escapes for backslash, tab, newline and
+ *   carriage return. Once the buffer reaches {@link #WRITER_JDBC_BULK_LOAD_FLUSH_SIZE} bytes, or on {@link #flush()},
+ *   it is streamed to the database by one load statement, retried according to
+ *   {@link #WRITER_JDBC_INSERT_RETRY_TIMEOUT} and {@link #WRITER_JDBC_INSERT_RETRY_MAX_ATTEMPT}. The buffer is reused
+ *   across loads and handed to the driver without copying.
+ * </p>
+ * Concrete DB specific implementations are expected to subclass this class.
+ */
+public abstract class BaseJdbcBulkLoadInserter implements JdbcBufferedInserter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BaseJdbcBulkLoadInserter.class);
+
+  protected static final Joiner JOINER_ON_COMMA = Joiner.on(',');
+  protected static final String NULL_VALUE = "\\N";
+
+  protected final Connection conn;
+  protected final List<String> columnNames = Lists.newArrayList();
+
+  private final int flushSize;
+  private final Retryer<Boolean> retryer;
+  private final LoadBuffer buffer;
+  private final StringBuilder row = new StringBuilder();
+  private String loadStmt;
+  private int pendingRows;
+
+  private long rowsLoaded;
+  private long bytesLoaded;
+  private long loadNanos;
+
+  public BaseJdbcBulkLoadInserter(State state, Connection conn) {
+    this.conn = conn;
+    this.flushSize = state.getPropAsInt(WRITER_JDBC_BULK_LOAD_FLUSH_SIZE, DEFAULT_WRITER_JDBC_BULK_LOAD_FLUSH_SIZE);
+    if (this.flushSize < 1) {
+      throw new IllegalArgumentException(WRITER_JDBC_BULK_LOAD_FLUSH_SIZE + " should be a positive number");
+    }
+    this.retryer = BaseJdbcBufferedInserter.createRetryer(state);
+    // a row may overflow the flush size, leave some room to avoid growing the buffer
+    this.buffer = new LoadBuffer(this.flushSize + this.flushSize / 8);
+  }
+
+  /**
+   * Constructs the load statement reading the rows of {@link #columnNames} from the stream.
+   *
+   * @param databaseName name of the database
+   * @param table name of the table
+   */
+  protected abstract String createLoadStatementStr(String databaseName, String table);
+
+  /**
+   * Executes the load statement with the buffered rows as input.
+   *
+   * @param loadStmt statement created by {@link #createLoadStatementStr(String, String)}
+   * @param rows the encoded rows
+   * @return number of rows loaded as reported by the database
+   */
+  protected abstract long load(String loadStmt, InputStream rows) throws SQLException;
+
+  /**
+   * Formats a non null value, before it gets escaped.
+   */
+  protected String formatValue(Object value) {
+    return value.toString();
+  }
+
+  @Override
+  public void insert(String databaseName, String table, JdbcEntryData jdbcEntryData) throws SQLException {
+    if (this.columnNames.isEmpty()) {
+      for (JdbcEntryDatum datum : jdbcEntryData) {
+        this.columnNames.add(datum.getColumnName());
+      }
+      this.loadStmt = createLoadStatementStr(databaseName, table);
+      LOG.info(String.format("Initialized bulk load with flush size %d bytes: %s", this.flushSize, this.loadStmt));
+    }
+
+    encode(jdbcEntryData);
+    this.pendingRows++;
+    if (this.buffer.size() >= this.flushSize) {
+      executeLoad();
+    }
+  }
+
+  private void encode(JdbcEntryData jdbcEntryData) {
+    StringBuilder sb = this.row;
+    sb.setLength(0);
+    boolean first = true;
+    for (JdbcEntryDatum datum : jdbcEntryData) {
+      if (!first) {
+        sb.append('\t');
+      }
+      first = false;
+      Object value = datum.getVal();
+      if (value == null) {
+        sb.append(NULL_VALUE);
+      } else {
+        escape(formatValue(value), sb);
+      }
+    }
+    sb.append('\n');
+    byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+    this.buffer.write(bytes, 0, bytes.length);
+  }
+
+  static void escape(String value, StringBuilder sb) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\':
+          sb.append("\\\\");
+          break;
+        case '\t':
+          sb.append("\\t");
+          break;
+        case '\n':
+          sb.append("\\n");
+          break;
+        case '\r':
+          sb.append("\\r");
+          break;
+        default:
+          sb.append(c);
+      }
+    }
+  }
+
+  /**
+   * Submits the buffered rows to {@link #load(String, InputStream)} through the {@link Retryer}, every attempt reads
+   * the buffer from the start.
+   */
+  private void executeLoad() {
+    if (this.pendingRows == 0) {
+      return;
+    }
+
+    long startNanos = System.nanoTime();
+    try {
+      this.retryer.wrap(new Callable<Boolean>() {
+        @Override
+        public Boolean call() throws Exception {
+          long loaded = load(loadStmt, buffer.toInputStream());
+          if (loaded >= 0 && loaded != pendingRows) {
+            LOG.warn(String.format("Loaded %d rows out of %d", loaded, pendingRows));
+          }
+          return true;
+        }
+      }).call();
+    } catch (Exception e) {
+      throw new RuntimeException("Failed to load.", e);
+    }
+
+    this.loadNanos += System.nanoTime() - startNanos;
+    this.rowsLoaded += this.pendingRows;
+    this.bytesLoaded += this.buffer.size();
+    LOG.info(String.format("Loaded %d rows (%d bytes), total %d rows at %.0f rows/sec, %.0f bytes/sec",
+        this.pendingRows, this.buffer.size(), this.rowsLoaded, getRowsPerSecond(), getBytesPerSecond()));
+    this.buffer.reset();
+    this.pendingRows = 0;
+  }
+
+  @Override
+  public void flush() throws SQLException {
+    executeLoad();
+  }
+
+  public long getRowsLoaded() {
+    return this.rowsLoaded;
+  }
+
+  public long getBytesLoaded() {
+    return this.bytesLoaded;
+  }
+
+  /**
+   * Rows loaded per second spent in load statements
+   */
+  public double getRowsPerSecond() {
+    return perSecond(this.rowsLoaded);
+  }
+
+  /**
+   * Bytes loaded per second spent in load statements
+   */
+  public double getBytesPerSecond() {
+    return perSecond(this.bytesLoaded);
+  }
+
+  private double perSecond(long count) {
+    return this.loadNanos == 0 ? 0 : count * (double) TimeUnit.SECONDS.toNanos(1) / this.loadNanos;
+  }
+
+  /**
+   * A {@link ByteArrayOutputStream} which can be read without copying its content
+   */
+  private static class LoadBuffer extends ByteArrayOutputStream {
+    LoadBuffer(int size) {
+      super(size);
+    }
+
+    InputStream toInputStream() {
+      return new ByteArrayInputStream(this.buf, 0, this.count);
+    }
+  }
+}
@@ -35,6 +35,10 @@ public interface JdbcBufferedInserter {
   public static final int DEFAULT_WRITER_JDBC_INSERT_RETRY_TIMEOUT = 30; // in seconds
   public static final String WRITER_JDBC_INSERT_RETRY_MAX_ATTEMPT = WRITER_PREFIX + ".jdbc.insert_retry_max_attempt";
   public static final int DEFAULT_WRITER_JDBC_INSERT_RETRY_MAX_ATTEMPT = 5;
+  public static final String WRITER_JDBC_BULK_LOAD = WRITER_PREFIX + ".jdbc.bulk_load";
+  public static final boolean DEFAULT_WRITER_JDBC_BULK_LOAD = false;
+  public static final String WRITER_JDBC_BULK_LOAD_FLUSH_SIZE = WRITER_PREFIX + ".jdbc.bulk_load_flush_size";
+  public static final int DEFAULT_WRITER_JDBC_BULK_LOAD_FLUSH_SIZE = 16 * 1024 * 1024; //16 MBytes
 
   /**
    * Inserts entry. Depends on the current batch size, buffer size, param size, it can either put into buffer
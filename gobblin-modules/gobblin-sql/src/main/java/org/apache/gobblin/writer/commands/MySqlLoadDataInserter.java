@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer.commands;
+
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.gobblin.configuration.State;
+
+
+/**
+ * A {@link JdbcBufferedInserter} for MySQL streaming the rows to LOAD DATA LOCAL INFILE.
+ * <p>
+ *   The rows are passed to the statement by the setLocalInfileInputStream method of MySQL Connector/J, so the
+ *   connection needs allowLoadLocalInfile=true. Unlike INSERT, LOAD DATA reports invalid values as warnings unless the
+ *   session runs with a strict SQL mode.
+ * </p>
+ */
+public class MySqlLoadDataInserter extends BaseJdbcBulkLoadInserter {
+
+  private static final String LOAD_DATA_STATEMENT_FORMAT = "LOAD DATA LOCAL INFILE 'stream' INTO TABLE %s.%s "
+      + "CHARACTER SET utf8mb4 FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (%s)";
+  private static final String SET_LOCAL_INFILE_INPUT_STREAM = "setLocalInfileInputStream";
+  private static final String[] MYSQL_STATEMENT_CLASSES =
+      {"com.mysql.cj.jdbc.JdbcStatement", "com.mysql.jdbc.Statement"};
+
+  public MySqlLoadDataInserter(State state, Connection conn) {
+    super(state, conn);
+  }
+
+  @Override
+  protected String createLoadStatementStr(String databaseName, String table) {
+    return String.format(LOAD_DATA_STATEMENT_FORMAT, databaseName, table, JOINER_ON_COMMA.join(this.columnNames));
+  }
+
+  @Override
+  protected String formatValue(Object value) {
+    if (value instanceof Boolean) {
+      return (Boolean) value ? "1" : "0";
+    }
+    return super.formatValue(value);
+  }
+
+  @Override
+  protected long load(String loadStmt, InputStream rows) throws SQLException {
+    try (Statement stmt = this.conn.createStatement()) {
+      setLocalInfileInputStream(stmt, rows);
+      return stmt.executeUpdate(loadStmt);
+    }
+  }
+
+  /**
+   * Sets the input stream of LOAD DATA LOCAL INFILE, through reflection as the MySQL driver is only on the runtime
+   * classpath.
+   */
+  static void setLocalInfileInputStream(Statement stmt, InputStream rows) throws SQLException {
+    Object target = stmt;
+    for (String className : MYSQL_STATEMENT_CLASSES) {
+      try {
+        Class<?> clazz = Class.forName(className, false, stmt.getClass().getClassLoader());
+        if (stmt.isWrapperFor(clazz)) {
+          target = stmt.unwrap(clazz);
+          break;
+        }
+      } catch (ClassNotFoundException e) {
+        // Try the next driver version
+      }
+    }
+
+    try {
+      Method method = target.getClass().getMethod(SET_LOCAL_INFILE_INPUT_STREAM, InputStream.class);
+      method.setAccessible(true);
+      method.invoke(target, rows);
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new SQLException("Statement " + target.getClass().getName() + " does not support LOAD DATA LOCAL INFILE "
+          + "from a stream", e);
+    } catch (InvocationTargetException e) {
+      throw new SQLException("Failed to set the LOAD DATA LOCAL INFILE stream", e.getCause());
+    }
+  }
+}
@@ -54,7 +54,12 @@ public class MySqlWriterCommands implements JdbcWriterCommands {
 
   public MySqlWriterCommands(State state, Connection conn) {
     this.conn = conn;
-    this.jdbcBufferedWriter = new MySqlBufferedInserter(state, conn);
+    if (state.getPropAsBoolean(JdbcBufferedInserter.WRITER_JDBC_BULK_LOAD,
+        JdbcBufferedInserter.DEFAULT_WRITER_JDBC_BULK_LOAD)) {
+      this.jdbcBufferedWriter = new MySqlLoadDataInserter(state, conn);
+    } else {
+      this.jdbcBufferedWriter = new MySqlBufferedInserter(state, conn);
+    }
   }
 
   @Override
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer.commands;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.postgresql.PGConnection;
+
+import org.apache.gobblin.configuration.State;
+
+
+/**
+ * A {@link JdbcBufferedInserter} for Postgres streaming the rows to COPY FROM STDIN through the
+ * {@link org.postgresql.copy.CopyManager} of the connection.
+ */
+public class PostgresCopyInserter extends BaseJdbcBulkLoadInserter {
+
+  private static final String COPY_STATEMENT_FORMAT = "COPY %s.%s (%s) FROM STDIN";
+
+  public PostgresCopyInserter(State state, Connection conn) {
+    super(state, conn);
+  }
+
+  @Override
+  protected String createLoadStatementStr(String databaseName, String table) {
+    return String.format(COPY_STATEMENT_FORMAT, databaseName, table, JOINER_ON_COMMA.join(this.columnNames));
+  }
+
+  @Override
+  protected long load(String loadStmt, InputStream rows) throws SQLException {
+    try {
+      return this.conn.unwrap(PGConnection.class).getCopyAPI().copyIn(loadStmt, rows);
+    } catch (IOException e) {
+      throw new SQLException("Failed to stream rows to " + loadStmt, e);
+    }
+  }
+}
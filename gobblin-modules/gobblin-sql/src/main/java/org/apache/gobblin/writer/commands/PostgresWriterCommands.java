@@ -53,7 +53,12 @@ public class PostgresWriterCommands implements JdbcWriterCommands {
 
   public PostgresWriterCommands(State state, Connection conn) {
     this.conn = conn;
-    this.jdbcBufferedWriter = new PostgresBufferedInserter(state, conn);
+    if (state.getPropAsBoolean(JdbcBufferedInserter.WRITER_JDBC_BULK_LOAD,
+        JdbcBufferedInserter.DEFAULT_WRITER_JDBC_BULK_LOAD)) {
+      this.jdbcBufferedWriter = new PostgresCopyInserter(state, conn);
+    } else {
+      this.jdbcBufferedWriter = new PostgresBufferedInserter(state, conn);
+    }
   }
 
   @Override
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.source.jdbc;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import org.apache.gobblin.configuration.ConfigurationKeys;
+import org.apache.gobblin.configuration.SourceState;
+import org.apache.gobblin.source.extractor.extract.QueryBasedSource.SourceEntity;
+import org.apache.gobblin.source.extractor.partition.Partition;
+import org.apache.gobblin.source.extractor.partition.Partitioner;
+
+
+@Test(groups = { "gobblin.source.jdbc" })
+public class KeyRangePartitionerTest {
+
+  public void testGetSplitPoints() {
+    List<KeyRangePartitioner.KeyRange> ranges = ImmutableList.of(new KeyRangePartitioner.KeyRange(0, 9, 60),
+        new KeyRangePartitioner.KeyRange(10, 19, 60), new KeyRangePartitioner.KeyRange(20, 29, 150),
+        new KeyRangePartitioner.KeyRange(50, 59, 10), new KeyRangePartitioner.KeyRange(60, 69, 90));
+    // the last range always belongs to the last partition
+    Assert.assertEquals(KeyRangePartitioner.getSplitPoints(ranges, 100), ImmutableList.of(20L, 30L));
+    Assert.assertEquals(KeyRangePartitioner.getSplitPoints(ranges, 1000), Collections.emptyList());
+  }
+
+  public void testSkewedKeys() throws Exception {
+    SourceState state = getState();
+    JdbcExtractor extractor = Mockito.mock(JdbcExtractor.class);
+    Mockito.when(extractor.getKeyRangeStatistics("id", -1, -1)).thenReturn(new long[] { 0, 999, 300 });
+    // 250 of the 300 rows have a key below 167
+    Mockito.when(extractor.getKeyHistogram("id", 0, 999, 167))
+        .thenReturn(ImmutableMap.of(0L, 250L, 5L, 50L));
+    Mockito.when(extractor.getKeyHistogram("id", 0, 166, 28))
+        .thenReturn(ImmutableMap.of(0L, 100L, 1L, 100L, 2L, 50L));
+
+    List<Partition> partitions =
+        new KeyRangePartitioner(state, SourceEntity.fromSourceEntityName("table"), s -> extractor)
+            .getPartitionList(ConfigurationKeys.DEFAULT_WATERMARK_VALUE);
+    Collections.sort(partitions, Partitioner.ascendingComparator);
+
+    Assert.assertEquals(partitions.size(), 3);
+    assertPartition(partitions.get(0), 0, 28, false);
+    assertPartition(partitions.get(1), 28, 56, false);
+    assertPartition(partitions.get(2), 56, 999, true);
+    Assert.assertFalse(partitions.get(2).getHasUserSpecifiedHighWatermark());
+    Mockito.verify(extractor).closeConnection();
+  }
+
+  public void testNoRows() throws Exception {
+    JdbcExtractor extractor = Mockito.mock(JdbcExtractor.class);
+    Mockito.when(extractor.getKeyRangeStatistics("id", -1, -1)).thenReturn(null);
+
+    List<Partition> partitions =
+        new KeyRangePartitioner(getState(), SourceEntity.fromSourceEntityName("table"), s -> extractor)
+            .getPartitionList(ConfigurationKeys.DEFAULT_WATERMARK_VALUE);
+    Assert.assertEquals(partitions.size(), 1);
+    Assert.assertEquals(partitions.get(0).getLowWatermark(), ConfigurationKeys.DEFAULT_WATERMARK_VALUE);
+  }
+
+  public void testIsEnabled() {
+    SourceState state = getState();
+    Assert.assertTrue(KeyRangePartitioner.isEnabled(state));
+    state.setProp(ConfigurationKeys.SOURCE_QUERYBASED_WATERMARK_TYPE, "timestamp");
+    Assert.assertFalse(KeyRangePartitioner.isEnabled(state));
+  }
+
+  private static SourceState getState() {
+    SourceState state = new SourceState();
+    state.setProp(KeyRangePartitioner.KEY_RANGE_PARTITIONING_ENABLED, true);
+    state.setProp(KeyRangePartitioner.TARGET_ROWS_PER_PARTITION, 100);
+    state.setProp(KeyRangePartitioner.BUCKETS_PER_PARTITION, 2);
+    state.setProp(ConfigurationKeys.SOURCE_QUERYBASED_EXTRACT_TYPE, "SNAPSHOT");
+    state.setProp(ConfigurationKeys.SOURCE_QUERYBASED_WATERMARK_TYPE, "simple");
+    state.setProp(ConfigurationKeys.EXTRACT_DELTA_FIELDS_KEY, "id");
+    return state;
+  }
+
+  private static void assertPartition(Partition partition, long lowWatermark, long highWatermark,
+      boolean isLastPartition) {
+    Assert.assertEquals(partition.getLowWatermark(), lowWatermark);
+    Assert.assertEquals(partition.getHighWatermark(), highWatermark);
+    Assert.assertEquals(partition.isLastPartition(), isLastPartition);
+  }
+}
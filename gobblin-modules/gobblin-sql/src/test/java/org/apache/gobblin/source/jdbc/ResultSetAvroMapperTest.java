@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.source.jdbc;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+
+import org.apache.avro.Conversions;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.commons.lang.StringUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.mockrunner.mock.jdbc.MockResultSet;
+import com.mockrunner.mock.jdbc.MockResultSetMetaData;
+
+
+@Test(groups = { "gobblin.source.jdbc" })
+public class ResultSetAvroMapperTest {
+
+  private static final Timestamp CREATED = Timestamp.valueOf("2000-01-01 12:34:56.789");
+
+  public void testMap() throws Exception {
+    MockResultSetMetaData metadata = new MockResultSetMetaData();
+    metadata.setColumnCount(5);
+    addColumn(metadata, 1, "id", Types.INTEGER);
+    addColumn(metadata, 2, "name", Types.VARCHAR);
+    addColumn(metadata, 3, "price", Types.DECIMAL);
+    metadata.setPrecision(3, 10);
+    metadata.setScale(3, 2);
+    addColumn(metadata, 4, "created", Types.TIMESTAMP);
+    addColumn(metadata, 5, "active", Types.BIT);
+
+    MockResultSet resultSet = new MockResultSet(StringUtils.EMPTY);
+    resultSet.setResultSetMetaData(metadata);
+    resultSet.addColumn("id", Arrays.asList(1, null));
+    resultSet.addColumn("name", Arrays.asList("name_1", null));
+    resultSet.addColumn("price", Arrays.asList(new BigDecimal("12.50"), null));
+    resultSet.addColumn("created", Arrays.asList(CREATED, null));
+    resultSet.addColumn("active", Arrays.asList(true, null));
+
+    ResultSetAvroMapper mapper = new ResultSetAvroMapper(metadata,
+        ImmutableList.of("id", "name", "price", "created", "active"), "db.table", true);
+
+    Schema schema = mapper.getSchema();
+    Assert.assertEquals(schema.getName(), "db_table");
+    Assert.assertEquals(getType(schema, "id"), Schema.create(Schema.Type.INT));
+    Assert.assertEquals(getType(schema, "name"), Schema.create(Schema.Type.STRING));
+    Assert.assertEquals(getType(schema, "price").getLogicalType(), LogicalTypes.decimal(10, 2));
+    Assert.assertEquals(getType(schema, "created").getLogicalType(), LogicalTypes.timestampMillis());
+    Assert.assertEquals(getType(schema, "active"), Schema.create(Schema.Type.BOOLEAN));
+
+    Assert.assertTrue(resultSet.next());
+    GenericRecord record = mapper.map(resultSet, null);
+    Assert.assertEquals(record.get("id"), 1);
+    Assert.assertEquals(record.get("name"), "name_1");
+    Schema priceSchema = getType(schema, "price");
+    Assert.assertEquals(new Conversions.DecimalConversion().fromBytes((ByteBuffer) record.get("price"), priceSchema,
+        priceSchema.getLogicalType()), new BigDecimal("12.50"));
+    Assert.assertEquals(record.get("created"), CREATED.getTime());
+    Assert.assertEquals(record.get("active"), true);
+
+    // the record is filled in place, null values included
+    Assert.assertTrue(resultSet.next());
+    Assert.assertSame(mapper.map(resultSet, record), record);
+    for (Schema.Field field : schema.getFields()) {
+      Assert.assertNull(record.get(field.pos()), field.name());
+    }
+    Assert.assertFalse(resultSet.next());
+  }
+
+  public void testUnsignedAndBitColumns() throws Exception {
+    MockResultSetMetaData metadata = new MockResultSetMetaData();
+    metadata.setColumnCount(3);
+    addColumn(metadata, 1, "count", Types.INTEGER);
+    metadata.setSigned(1, false);
+    addColumn(metadata, 2, "total", Types.BIGINT);
+    metadata.setSigned(2, false);
+    addColumn(metadata, 3, "flag", Types.BIT);
+
+    ResultSetAvroMapper mapper = new ResultSetAvroMapper(metadata, null, "table", false);
+    Schema schema = mapper.getSchema();
+    Assert.assertEquals(getType(schema, "count"), Schema.create(Schema.Type.LONG));
+    Assert.assertEquals(getType(schema, "total").getLogicalType(), LogicalTypes.decimal(20, 0));
+    Assert.assertEquals(getType(schema, "flag"), Schema.create(Schema.Type.INT));
+  }
+
+  private static void addColumn(MockResultSetMetaData metadata, int column, String name, int type) {
+    metadata.setColumnName(column, name);
+    metadata.setColumnLabel(column, name);
+    metadata.setColumnType(column, type);
+    metadata.setSigned(column, true);
+  }
+
+  /**
+   * Get the non null branch of the nullable field
+   */
+  private static Schema getType(Schema schema, String field) {
+    return schema.getField(field).schema().getTypes().get(1);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer;
+
+import static org.apache.gobblin.writer.commands.JdbcBufferedInserter.WRITER_JDBC_BULK_LOAD_FLUSH_SIZE;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+
+import org.mockito.ArgumentCaptor;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+
+import org.apache.gobblin.configuration.State;
+import org.apache.gobblin.converter.jdbc.JdbcEntryData;
+import org.apache.gobblin.converter.jdbc.JdbcEntryDatum;
+import org.apache.gobblin.writer.commands.JdbcBufferedInserter;
+import org.apache.gobblin.writer.commands.MySqlLoadDataInserter;
+
+@Test(groups = {"gobblin.writer"}, singleThreaded=true)
+public class MySqlLoadDataInserterTest extends JdbcBufferedInserterTestBase {
+
+  /**
+   * The stream setter of the MySQL driver statements
+   */
+  public interface LocalInfileStatement {
+    void setLocalInfileInputStream(InputStream stream);
+  }
+
+  public void testMySqlLoadData() throws Exception {
+    final int colNums = 20;
+    final int entryCount = 107;
+    final int colSize = 7;
+    final int rowSize = colNums * colSize + colNums;
+
+    State state = new State();
+    state.setProp(WRITER_JDBC_BULK_LOAD_FLUSH_SIZE, Integer.toString(rowSize * 10));
+
+    Statement stmt = mock(Statement.class, withSettings().extraInterfaces(LocalInfileStatement.class));
+    when(conn.createStatement()).thenReturn(stmt);
+    when(stmt.executeUpdate(anyString())).thenReturn(10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 7);
+
+    JdbcBufferedInserter inserter = getJdbcBufferedInserter(state, conn);
+    List<JdbcEntryData> jdbcEntries = createJdbcEntries(colNums, colSize, entryCount);
+    for (JdbcEntryData entry : jdbcEntries) {
+      inserter.insert(db, table, entry);
+    }
+    inserter.flush();
+
+    verify(conn, times(11)).createStatement();
+    verify(stmt, times(11)).executeUpdate(anyString());
+    verify((LocalInfileStatement) stmt, times(11)).setLocalInfileInputStream(any(InputStream.class));
+    verify(stmt, times(11)).close();
+  }
+
+  public void testMySqlLoadDataEncoding() throws Exception {
+    Statement stmt = mock(Statement.class, withSettings().extraInterfaces(LocalInfileStatement.class));
+    when(conn.createStatement()).thenReturn(stmt);
+    when(stmt.executeUpdate(anyString())).thenReturn(1);
+
+    JdbcBufferedInserter inserter = getJdbcBufferedInserter(new State(), conn);
+    inserter.insert(db, table, new JdbcEntryData(ImmutableList.of(new JdbcEntryDatum("id", 1L),
+        new JdbcEntryDatum("name", "a\r\tb"), new JdbcEntryDatum("flag", false), new JdbcEntryDatum("ts", null))));
+    inserter.flush();
+
+    ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+    verify(stmt).executeUpdate(sql.capture());
+    Assert.assertTrue(sql.getValue().startsWith("LOAD DATA LOCAL INFILE 'stream' INTO TABLE db.stg "));
+    Assert.assertTrue(sql.getValue().endsWith(" (id,name,flag,ts)"));
+
+    ArgumentCaptor<InputStream> rows = ArgumentCaptor.forClass(InputStream.class);
+    verify((LocalInfileStatement) stmt).setLocalInfileInputStream(rows.capture());
+    Assert.assertEquals(new String(ByteStreams.toByteArray(rows.getValue()), StandardCharsets.UTF_8),
+        "1\ta\\r\\tb\t0\t\\N\n");
+  }
+
+  @Override
+  protected JdbcBufferedInserter getJdbcBufferedInserter(State state, Connection conn) {
+    return new MySqlLoadDataInserter(state, conn);
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer;
+
+import static org.apache.gobblin.writer.commands.JdbcBufferedInserter.WRITER_JDBC_BULK_LOAD_FLUSH_SIZE;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+
+import org.apache.gobblin.configuration.State;
+import org.apache.gobblin.converter.jdbc.JdbcEntryData;
+import org.apache.gobblin.converter.jdbc.JdbcEntryDatum;
+import org.apache.gobblin.writer.commands.JdbcBufferedInserter;
+import org.apache.gobblin.writer.commands.PostgresCopyInserter;
+
+@Test(groups = {"gobblin.writer"}, singleThreaded=true)
+public class PostgresCopyInserterTest extends JdbcBufferedInserterTestBase {
+
+  public void testPostgresCopy() throws Exception {
+    final int colNums = 20;
+    final int entryCount = 107;
+    final int colSize = 7;
+    // every row has 20 * 7 characters, 19 tabs and a newline
+    final int rowSize = colNums * colSize + colNums;
+
+    State state = new State();
+    state.setProp(WRITER_JDBC_BULK_LOAD_FLUSH_SIZE, Integer.toString(rowSize * 10));
+
+    CopyManager copyManager = mockCopyManager();
+    final List<String> loads = captureLoads(copyManager);
+
+    JdbcBufferedInserter inserter = getJdbcBufferedInserter(state, conn);
+    List<JdbcEntryData> jdbcEntries = createJdbcEntries(colNums, colSize, entryCount);
+    for (JdbcEntryData entry : jdbcEntries) {
+      inserter.insert(db, table, entry);
+    }
+    inserter.flush();
+
+    verify(copyManager, times(11)).copyIn(anyString(), any(InputStream.class));
+    Assert.assertEquals(loads.get(0).split("\n").length, 10);
+    Assert.assertEquals(loads.get(10).split("\n").length, 7);
+    Assert.assertEquals(((PostgresCopyInserter) inserter).getRowsLoaded(), entryCount);
+    Assert.assertEquals(((PostgresCopyInserter) inserter).getBytesLoaded(), (long) rowSize * entryCount);
+  }
+
+  public void testPostgresCopyEncoding() throws Exception {
+    CopyManager copyManager = mockCopyManager();
+    List<String> loads = captureLoads(copyManager);
+
+    JdbcBufferedInserter inserter = getJdbcBufferedInserter(new State(), conn);
+    inserter.insert(db, table, new JdbcEntryData(ImmutableList.of(new JdbcEntryDatum("id", 1),
+        new JdbcEntryDatum("name", "a\tb\\c\nd"), new JdbcEntryDatum("flag", true), new JdbcEntryDatum("ts", null))));
+    inserter.flush();
+    inserter.flush();
+
+    verify(copyManager, times(1)).copyIn(eq("COPY db.stg (id,name,flag,ts) FROM STDIN"), any(InputStream.class));
+    Assert.assertEquals(loads, ImmutableList.of("1\ta\\tb\\\\c\\nd\ttrue\t\\N\n"));
+  }
+
+  private CopyManager mockCopyManager() throws SQLException {
+    PGConnection pgConn = mock(PGConnection.class);
+    CopyManager copyManager = mock(CopyManager.class);
+    when(conn.unwrap(PGConnection.class)).thenReturn(pgConn);
+    when(pgConn.getCopyAPI()).thenReturn(copyManager);
+    return copyManager;
+  }
+
+  private List<String> captureLoads(CopyManager copyManager) throws Exception {
+    final List<String> loads = new ArrayList<>();
+    when(copyManager.copyIn(anyString(), any(InputStream.class))).thenAnswer(new Answer<Long>() {
+      @Override
+      public Long answer(InvocationOnMock invocation) throws Throwable {
+        String rows = new String(ByteStreams.toByteArray((InputStream) invocation.getArguments()[1]),
+            StandardCharsets.UTF_8);
+        loads.add(rows);
+        return (long) rows.split("\n").length;
+      }
+    });
+    return loads;
+  }
+
+  @Override
+  protected JdbcBufferedInserter getJdbcBufferedInserter(State state, Connection conn) {
+    return new PostgresCopyInserter(state, conn);
+  }
+}
@@ -25,5 +25,10 @@ public enum ThrottlingProtocolVersion {
 	/** Base version of throttling server. */
 	BASE,
 	/** Clients at this level know to wait before distributing permits allocated to them. */
-	WAIT_ON_CLIENT
+	WAIT_ON_CLIENT,
+	/**
+	 * Clients at this level honor the expiration of allocations. Policies at this level accept unused permits returned
+	 * by clients, which clients only return to policies whose allocations are at this level.
+	 */
+	LEASES
 }
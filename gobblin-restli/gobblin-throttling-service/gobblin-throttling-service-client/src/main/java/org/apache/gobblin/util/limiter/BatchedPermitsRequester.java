@@ -26,6 +26,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
@@ -69,6 +70,13 @@ import lombok.extern.slf4j.Slf4j;
  * An object that requests batches of permits from an external throttling server. It tries to hide the latency of doing
  * external permit requests by requesting them in batches and preemptively requesting permits before the current ones
  * are exhausted.
+ *
+ * Batches are leases: the server may set an expiration on them. The unused permits of expired batches are returned to
+ * the server with the next permit request, and all unused permits are returned by {@link #returnAllPermits()}. Permits
+ * are only returned once the server announced it accepts them, see {@link ThrottlingProtocolVersion#LEASES}, since
+ * older servers would treat a return as a request for more permits. Once
+ * the last batch runs low, a refill is requested in the background, sized from the rate at which the batch was used,
+ * so that callers of {@link #getPermits(long)} do not wait for the round trip to the server.
  */
 @Slf4j
 class BatchedPermitsRequester {
@@ -115,6 +123,10 @@ class BatchedPermitsRequester {
   private long knownUnsatisfiablePermits;
 
   private volatile AllocationCallback currentCallback;
+  /** Whether the server accepts returned permits, as announced by the version of its allocations. */
+  private volatile boolean permitReturnsSupported = false;
+  /** Whether a background refill is already scheduled. */
+  private final AtomicBoolean refillScheduled = new AtomicBoolean(false);
 
   @Builder
   private BatchedPermitsRequester(String resourceId, String requestorIdentifier,
@@ -172,6 +184,7 @@ class BatchedPermitsRequester {
         }
         if (this.permitBatchContainer.tryTake(permits)) {
           this.permitsOutstanding.removeEntryWithWeight(permits);
+          maybeScheduleRefill();
           return true;
         }
         if (this.retryStatus.canRetryWithinMillis(remainingTime(startTimeNanos, this.maxTimeout))) {
@@ -194,6 +207,53 @@ class BatchedPermitsRequester {
     return false;
   }
 
+  /**
+   * If the last batch is running low, request new permits in the background instead of waiting for it to be exhausted.
+   */
+  private void maybeScheduleRefill() {
+    if (!this.permitBatchContainer.isRunningLow() || !this.refillScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    SCHEDULE_EXECUTOR_SERVICE.execute(new Runnable() {
+      @Override
+      public void run() {
+        BatchedPermitsRequester.this.refillScheduled.set(false);
+        maybeSendNewPermitRequest();
+      }
+    });
+  }
+
+  /**
+   * Return all permits held by this requester to the server, e.g. when the requester is no longer used.
+   */
+  public void returnAllPermits() {
+    long permitsToReturn = this.permitBatchContainer.purgeAll() + this.permitBatchContainer.takeReturnablePermits();
+    if (permitsToReturn <= 0 || !this.permitReturnsSupported) {
+      return;
+    }
+    try {
+      PermitRequest permitRequest = this.basePermitRequest.copy();
+      permitRequest.setPermits(0);
+      permitRequest.setReturnedPermits(permitsToReturn);
+      permitRequest.setVersion(ThrottlingProtocolVersion.LEASES.ordinal());
+      log.debug("Returning permits " + permitRequest);
+      this.requestSender.sendRequest(permitRequest, new Callback<Response<PermitAllocation>>() {
+        @Override
+        public void onError(Throwable e) {
+          log.warn("Failed to return unused permits to the server.", e);
+        }
+
+        @Override
+        public void onSuccess(Response<PermitAllocation> result) {
+          // Nothing to do
+        }
+      });
+    } catch (CloneNotSupportedException cnse) {
+      // This should never happen.
+      throw new RuntimeException(cnse);
+    }
+  }
+
   private long remainingTime(long startTimeNanos, long timeout) {
     return Math.max(timeout - elapsedMillis(startTimeNanos), 0);
   }
@@ -234,7 +294,14 @@ class BatchedPermitsRequester {
       PermitRequest permitRequest = this.basePermitRequest.copy();
       permitRequest.setPermits(permits);
       permitRequest.setMinPermits((long) this.permitsOutstanding.getAverageWeightOrZero());
-      permitRequest.setVersion(ThrottlingProtocolVersion.WAIT_ON_CLIENT.ordinal());
+      permitRequest.setVersion(ThrottlingProtocolVersion.LEASES.ordinal());
+      long returnedPermits = this.permitBatchContainer.takeReturnablePermits();
+      if (!this.permitReturnsSupported) {
+        // The server would not take them back, drop them
+        returnedPermits = 0;
+      } else if (returnedPermits > 0) {
+        permitRequest.setReturnedPermits(returnedPermits);
+      }
       if (BatchedPermitsRequester.this.restRequestHistogram != null) {
         BatchedPermitsRequester.this.restRequestHistogram.update(permits);
       }
@@ -243,7 +310,7 @@ class BatchedPermitsRequester {
 
       this.currentCallback = new AllocationCallback(
           BatchedPermitsRequester.this.restRequestTimer == null ? NoopCloseable.INSTANCE :
-              BatchedPermitsRequester.this.restRequestTimer.time(), new Sleeper());
+              BatchedPermitsRequester.this.restRequestTimer.time(), new Sleeper(), returnedPermits);
       this.requestSender.sendRequest(permitRequest, currentCallback);
     } catch (CloneNotSupportedException cnse) {
       // This should never happen.
@@ -301,7 +368,7 @@ class BatchedPermitsRequester {
 
   @VisibleForTesting
   AllocationCallback createAllocationCallback(Sleeper sleeper) {
-    return new AllocationCallback(new NoopCloseable(), sleeper);
+    return new AllocationCallback(new NoopCloseable(), sleeper, 0);
   }
 
   /**
@@ -311,13 +378,16 @@ class BatchedPermitsRequester {
   class AllocationCallback implements Callback<Response<PermitAllocation>> {
     private final Closeable timerContext;
     private final Sleeper sleeper;
+    /** Permits returned to the server by the request, to be returned again if the request fails. */
+    private final long returnedPermits;
     private final long startTime = System.currentTimeMillis();
 
     private volatile boolean callbackCleared = false;
 
-    public AllocationCallback(Closeable timerContext, Sleeper sleeper) {
+    public AllocationCallback(Closeable timerContext, Sleeper sleeper, long returnedPermits) {
       this.timerContext = timerContext;
       this.sleeper = sleeper;
+      this.returnedPermits = returnedPermits;
     }
 
     @Override
@@ -325,6 +395,7 @@ class BatchedPermitsRequester {
       BatchedPermitsRequester.this.lock.lock();
 
       try {
+        BatchedPermitsRequester.this.permitBatchContainer.addReturnablePermits(this.returnedPermits);
         if (exc instanceof RequestSender.NonRetriableException) {
           nonRetriableFail(exc, "Encountered non retriable error. ");
         }
@@ -366,6 +437,9 @@ class BatchedPermitsRequester {
 
         log.debug("Received permit allocation " + allocation);
 
+        BatchedPermitsRequester.this.permitReturnsSupported =
+            allocation.getVersion(GetMode.DEFAULT) >= ThrottlingProtocolVersion.LEASES.ordinal();
+
         Long retryDelay = allocation.getMinRetryDelayMillis(GetMode.NULL);
         if (retryDelay != null) {
           BatchedPermitsRequester.this.retryStatus.blockRetries(retryDelay, null);
@@ -490,6 +564,8 @@ class BatchedPermitsRequester {
     });
     @Getter
     private volatile long totalAvailablePermits = 0;
+    /** Unused permits of expired batches, not yet returned to the server. */
+    private long returnablePermits = 0;
 
     private synchronized boolean tryTake(long permits) {
       purgeExpiredBatches();
@@ -526,22 +602,58 @@ class BatchedPermitsRequester {
 
     private synchronized void purgeExpiredBatches() {
       long now = System.currentTimeMillis();
-      purgeBatches(this.batches.asMap().subMap(Long.MIN_VALUE, now).values().iterator());
+      this.returnablePermits += purgeBatches(this.batches.asMap().subMap(Long.MIN_VALUE, now).values().iterator());
     }
 
-    private synchronized void purgeAll() {
-      purgeBatches(this.batches.asMap().values().iterator());
+    /**
+     * Remove all batches.
+     * @return the number of unused permits removed.
+     */
+    private synchronized long purgeAll() {
+      return purgeBatches(this.batches.asMap().values().iterator());
     }
 
-    private void purgeBatches(Iterator<Collection<PermitBatch>> iterator) {
+    private long purgeBatches(Iterator<Collection<PermitBatch>> iterator) {
+      long purgedPermits = 0;
       while (iterator.hasNext()) {
         Collection<PermitBatch> batches = iterator.next();
         for (PermitBatch batch : batches) {
           Long permitsExpired = batch.getPermits();
           this.totalAvailablePermits -= permitsExpired;
+          purgedPermits += permitsExpired;
         }
         iterator.remove();
       }
+      return purgedPermits;
+    }
+
+    /**
+     * @return the unused permits of expired batches, which are no longer considered returnable by this container.
+     */
+    private synchronized long takeReturnablePermits() {
+      long permits = this.returnablePermits;
+      this.returnablePermits = 0;
+      return permits;
+    }
+
+    @VisibleForTesting
+    synchronized long getReturnablePermits() {
+      return this.returnablePermits;
+    }
+
+    private synchronized void addReturnablePermits(long permits) {
+      this.returnablePermits += permits;
+    }
+
+    /**
+     * @return true if only one batch is left and more than 80% of its permits were used.
+     */
+    private synchronized boolean isRunningLow() {
+      if (this.batches.size() != 1) {
+        return false;
+      }
+      PermitBatch batch = Iterables.getOnlyElement(this.batches.values());
+      return (double) batch.getPermits() / batch.getInitialPermits() <= 0.2;
     }
 
     private synchronized void addPermitAllocation(PermitAllocation allocation) {
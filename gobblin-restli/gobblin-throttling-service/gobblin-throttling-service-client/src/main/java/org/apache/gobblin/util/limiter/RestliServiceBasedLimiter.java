@@ -84,7 +84,7 @@ public class RestliServiceBasedLimiter implements Limiter {
 
   @Override
   public void stop() {
-    // Do nothing
+    this.bachedPermitsContainer.returnAllPermits();
   }
 
   /**
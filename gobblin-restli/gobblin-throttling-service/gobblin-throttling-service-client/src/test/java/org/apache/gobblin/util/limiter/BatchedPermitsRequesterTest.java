@@ -41,6 +41,7 @@ import com.linkedin.restli.common.HttpStatus;
 
 import org.apache.gobblin.restli.throttling.PermitAllocation;
 import org.apache.gobblin.restli.throttling.PermitRequest;
+import org.apache.gobblin.restli.throttling.ThrottlingProtocolVersion;
 import org.apache.gobblin.util.ExecutorsUtils;
 
 import lombok.AllArgsConstructor;
@@ -194,6 +195,124 @@ public class BatchedPermitsRequesterTest {
     Assert.assertEquals(container.getPermitBatchContainer().getTotalAvailablePermits(), 20);
   }
 
+  @Test
+  public void testExpiredPermitsAreReturned() throws Exception {
+    Queue<RequestAndCallback> queue = Queues.newConcurrentLinkedQueue();
+
+    BatchedPermitsRequester container = BatchedPermitsRequester.builder().resourceId("resource")
+        .requestorIdentifier("requestor").requestSender(new TestRequestSender(queue, false)).build();
+
+    PermitAllocation allocation = new PermitAllocation();
+    allocation.setPermits(10);
+    allocation.setExpiration(System.currentTimeMillis() + 100);
+    allocation.setVersion(ThrottlingProtocolVersion.LEASES.ordinal());
+    Response<PermitAllocation> response = Mockito.mock(Response.class);
+    Mockito.when(response.getEntity()).thenReturn(allocation);
+
+    Assert.assertTrue(container.reserveSemaphore());
+    container.createAllocationCallback(new Sleeper.MockSleeper()).onSuccess(response);
+    Assert.assertEquals(container.getPermitBatchContainer().getTotalAvailablePermits(), 10);
+
+    Thread.sleep(200);
+
+    try (ParallelRequester requester = new ParallelRequester(container)) {
+      Future<Boolean> future = requester.request(5);
+
+      // the unused permits of the expired lease are returned with the next request
+      await(new QueueSize(queue, 1), 1000);
+      RequestAndCallback requestAndCallback = queue.poll();
+      Assert.assertEquals((long) requestAndCallback.getRequest().getReturnedPermits(), 10);
+      Assert.assertEquals(container.getPermitBatchContainer().getReturnablePermits(), 0);
+      satisfyRequestBuilder().requestAndCallback(requestAndCallback).satisfy();
+
+      Assert.assertTrue(future.get(1, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testReturnAllPermits() throws Exception {
+    Queue<RequestAndCallback> queue = Queues.newConcurrentLinkedQueue();
+
+    BatchedPermitsRequester container = BatchedPermitsRequester.builder().resourceId("resource")
+        .requestorIdentifier("requestor").requestSender(new TestRequestSender(queue, false)).build();
+
+    PermitAllocation allocation = new PermitAllocation();
+    allocation.setPermits(10);
+    allocation.setExpiration(Long.MAX_VALUE);
+    allocation.setVersion(ThrottlingProtocolVersion.LEASES.ordinal());
+    Response<PermitAllocation> response = Mockito.mock(Response.class);
+    Mockito.when(response.getEntity()).thenReturn(allocation);
+
+    Assert.assertTrue(container.reserveSemaphore());
+    container.createAllocationCallback(new Sleeper.MockSleeper()).onSuccess(response);
+
+    container.returnAllPermits();
+    Assert.assertEquals(container.getPermitBatchContainer().getTotalAvailablePermits(), 0);
+    Assert.assertEquals(queue.size(), 1);
+    PermitRequest request = queue.poll().getRequest();
+    Assert.assertEquals(request.getPermits().longValue(), 0);
+    Assert.assertEquals(request.getReturnedPermits().longValue(), 10);
+
+    // nothing left to return
+    container.returnAllPermits();
+    Assert.assertEquals(queue.size(), 0);
+  }
+
+  @Test
+  public void testPermitsNotReturnedToOlderServers() throws Exception {
+    Queue<RequestAndCallback> queue = Queues.newConcurrentLinkedQueue();
+
+    BatchedPermitsRequester container = BatchedPermitsRequester.builder().resourceId("resource")
+        .requestorIdentifier("requestor").requestSender(new TestRequestSender(queue, false)).build();
+
+    // An allocation without version comes from a server that does not accept returned permits
+    PermitAllocation allocation = new PermitAllocation();
+    allocation.setPermits(10);
+    allocation.setExpiration(System.currentTimeMillis() + 100);
+    Response<PermitAllocation> response = Mockito.mock(Response.class);
+    Mockito.when(response.getEntity()).thenReturn(allocation);
+
+    Assert.assertTrue(container.reserveSemaphore());
+    container.createAllocationCallback(new Sleeper.MockSleeper()).onSuccess(response);
+
+    Thread.sleep(200);
+
+    try (ParallelRequester requester = new ParallelRequester(container)) {
+      Future<Boolean> future = requester.request(5);
+
+      // the unused permits of the expired batch are dropped rather than sent to the server
+      await(new QueueSize(queue, 1), 1000);
+      RequestAndCallback requestAndCallback = queue.poll();
+      Assert.assertEquals((long) requestAndCallback.getRequest().getReturnedPermits(), 0);
+      satisfyRequestBuilder().requestAndCallback(requestAndCallback).satisfy();
+
+      Assert.assertTrue(future.get(1, TimeUnit.SECONDS));
+    }
+
+    // a return only request would be served as a request for more permits
+    container.returnAllPermits();
+    Assert.assertEquals(queue.size(), 0);
+  }
+
+  @Test
+  public void testBackgroundRefill() throws Exception {
+    Queue<RequestAndCallback> queue = Queues.newConcurrentLinkedQueue();
+
+    BatchedPermitsRequester container = BatchedPermitsRequester.builder().resourceId("resource")
+        .requestorIdentifier("requestor").requestSender(new TestRequestSender(queue, false)).build();
+    try (ParallelRequester requester = new ParallelRequester(container)) {
+
+      Future<Boolean> future = requester.request(10);
+      await(new QueueSize(queue, 1), 1000);
+      satisfyRequestBuilder().requestAndCallback(queue.poll()).satisfy();
+      Assert.assertTrue(future.get(1, TimeUnit.SECONDS));
+
+      // the only batch is depleted, so new permits are requested before anybody asks for them
+      await(new QueueSize(queue, 1), 1000);
+      Assert.assertTrue(queue.poll().getRequest().getPermits() > 0);
+    }
+  }
+
   public static class TestRequestSender implements RequestSender {
     private final Queue<RequestAndCallback> requestAndCallbacks;
     private final boolean autoSatisfyRequests;
@@ -32,8 +32,8 @@ import lombok.extern.slf4j.Slf4j;
  * The heuristic is as follows:
  * * The calling process specifies an ideal and minimum number of token it requires, as well as a timeout.
  * * If there is a large number of tokens stored (i.e. underutilization), this class may return more than the requested
- *   ideal number of tokens (up to 1/2 of the stored tokens). This reduces unnecessary slowdown when there is no
- *   contention.
+ *   ideal number of tokens (up to 1/2 of the stored tokens, or a fair share of them if the caller knows how many
+ *   requestors are active). This reduces unnecessary slowdown when there is no contention.
  * * The object computes a target timeout equal to the minimum time needed to fulfill the minimum requested permits
  *   (according to the configured qps) plus a {@link #baseTimeout}.
  * * The object will return as many permits as it can using that timeout, bounded by minimum and desired number of permits.
@@ -77,10 +77,21 @@ public class DynamicTokenBucket {
    * @return a {@link PermitsAndDelay} for the allocated permits.
    */
   public PermitsAndDelay getPermitsAndDelay(long requestedPermits, long minPermits, long timeoutMillis) {
+    return getPermitsAndDelay(requestedPermits, minPermits, timeoutMillis, 1);
+  }
+
+  /**
+   * Request tokens. Like {@link #getPermitsAndDelay(long, long, long)}, but the eager allocation during
+   * underutilization is limited to 1 / (1 + activeRequestors) of the stored tokens, so that a single requestor cannot
+   * drain the bucket while others are competing for it.
+   * @param activeRequestors the number of requestors recently competing for these tokens, including the caller.
+   */
+  public PermitsAndDelay getPermitsAndDelay(long requestedPermits, long minPermits, long timeoutMillis,
+      int activeRequestors) {
     try {
       long storedTokens = this.tokenBucket.getStoredTokens();
 
-      long eagerTokens = storedTokens / 2;
+      long eagerTokens = storedTokens / (1 + Math.max(1, activeRequestors));
       if (eagerTokens > requestedPermits && this.tokenBucket.getTokens(eagerTokens, 0, TimeUnit.MILLISECONDS)) {
         return new PermitsAndDelay(eagerTokens, 0, true);
       }
@@ -111,6 +122,13 @@ public class DynamicTokenBucket {
     return new PermitsAndDelay(0, 0, true);
   }
 
+  /**
+   * Return unused tokens to the underlying {@link TokenBucket}, see {@link TokenBucket#returnTokens(long)}.
+   */
+  public void returnPermits(long permits) {
+    this.tokenBucket.returnTokens(permits);
+  }
+
   /**
    * Request tokens. Like {@link #getPermitsAndDelay(long, long, long)} but block until the wait time passes.
    */
@@ -17,7 +17,10 @@
 
 package org.apache.gobblin.restli.throttling;
 
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
@@ -36,6 +39,13 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * A {@link ThrottlingPolicy} based on a QPS (queries per second). It internally uses a {@link DynamicTokenBucket}.
+ *
+ * The policy keeps track of the requestors that recently asked for permits, and limits the eager allocation of stored
+ * tokens to a fair share among them. Permits returned by clients (see {@link PermitRequest#getReturnedPermits()}) are
+ * added back to the bucket, which the allocations announce with {@link PermitAllocation#getVersion()}. If
+ * {@link #LEASE_DURATION_MILLIS} is set, allocations to clients supporting {@link ThrottlingProtocolVersion#LEASES}
+ * expire after that duration, so that permits hoarded by a client that stopped using them are eventually returned
+ * instead of being held forever.
  */
 @Alpha
 @Slf4j
@@ -61,12 +71,28 @@ public class QPSPolicy implements ThrottlingPolicy {
    */
   public static final String MAX_BUCKET_SIZE_MILLIS = "maxBucketSizeMillis";
   public static final long DEFAULT_MAX_BUCKET_SIZE = 10000;
+  /**
+   * Duration of the allocations to clients supporting leases. By default, allocations never expire.
+   */
+  public static final String LEASE_DURATION_MILLIS = "leaseDurationMillis";
+  /**
+   * A requestor is considered active if it requested permits in this many milliseconds.
+   */
+  public static final String ACTIVE_REQUESTOR_WINDOW_MILLIS = "activeRequestorWindowMillis";
+  public static final long DEFAULT_ACTIVE_REQUESTOR_WINDOW = 30000;
+
+  private static final long PURGE_REQUESTORS_INTERVAL_MILLIS = 1000;
 
   @Getter
   private final long qps;
   @VisibleForTesting
   @Getter
   private final DynamicTokenBucket tokenBucket;
+  private final long leaseDurationMillis;
+  private final long activeRequestorWindowMillis;
+  /** Last time each requestor asked for permits. */
+  private final ConcurrentMap<String, Long> lastRequestMillis = new ConcurrentHashMap<>();
+  private volatile long lastPurgeMillis = 0;
 
   @Alias(FACTORY_ALIAS)
   public static class Factory implements ThrottlingPolicyFactory.SpecificPolicyFactory {
@@ -85,22 +111,46 @@ public class QPSPolicy implements ThrottlingPolicy {
     long maxBucketSizeMillis = config.hasPath(MAX_BUCKET_SIZE_MILLIS)
         ? config.getLong(MAX_BUCKET_SIZE_MILLIS) : DEFAULT_MAX_BUCKET_SIZE;
     this.tokenBucket = new DynamicTokenBucket(qps, fullRequestTimeoutMillis, maxBucketSizeMillis);
+    this.leaseDurationMillis = config.hasPath(LEASE_DURATION_MILLIS) ? config.getLong(LEASE_DURATION_MILLIS) : 0;
+    this.activeRequestorWindowMillis = config.hasPath(ACTIVE_REQUESTOR_WINDOW_MILLIS)
+        ? config.getLong(ACTIVE_REQUESTOR_WINDOW_MILLIS) : DEFAULT_ACTIVE_REQUESTOR_WINDOW;
   }
 
   @Override
   public PermitAllocation computePermitAllocation(PermitRequest request) {
+    this.tokenBucket.returnPermits(request.getReturnedPermits(GetMode.DEFAULT));
+
     long permitsRequested = request.getPermits();
+    if (permitsRequested <= 0) {
+      // The requestor only returned permits, it is no longer competing for this resource
+      this.lastRequestMillis.remove(request.getRequestorIdentifier());
+      PermitAllocation allocation = new PermitAllocation();
+      allocation.setPermits(0);
+      allocation.setExpiration(Long.MAX_VALUE);
+      allocation.setVersion(ThrottlingProtocolVersion.LEASES.ordinal());
+      return allocation;
+    }
+
     Long minPermits = request.getMinPermits(GetMode.NULL);
     if (minPermits == null) {
       minPermits = permitsRequested;
     }
 
-    DynamicTokenBucket.PermitsAndDelay permitsGranted =
-        this.tokenBucket.getPermitsAndDelay(permitsRequested, minPermits, LimiterServerResource.TIMEOUT_MILLIS);
+    long now = System.currentTimeMillis();
+    int activeRequestors = recordRequest(request.getRequestorIdentifier(), now);
+    DynamicTokenBucket.PermitsAndDelay permitsGranted = this.tokenBucket.getPermitsAndDelay(permitsRequested,
+        minPermits, LimiterServerResource.TIMEOUT_MILLIS, activeRequestors);
 
     PermitAllocation allocation = new PermitAllocation();
     allocation.setPermits(permitsGranted.getPermits());
-    allocation.setExpiration(Long.MAX_VALUE);
+    // Let the client know it can return unused permits
+    allocation.setVersion(ThrottlingProtocolVersion.LEASES.ordinal());
+    if (this.leaseDurationMillis > 0
+        && request.getVersion(GetMode.DEFAULT) >= ThrottlingProtocolVersion.LEASES.ordinal()) {
+      allocation.setExpiration(now + permitsGranted.getDelay() + this.leaseDurationMillis);
+    } else {
+      allocation.setExpiration(Long.MAX_VALUE);
+    }
     allocation.setWaitForPermitUseMillis(permitsGranted.getDelay());
     if (!permitsGranted.isPossibleToSatisfy()) {
       allocation.setUnsatisfiablePermits(request.getMinPermits(GetMode.DEFAULT));
@@ -115,6 +165,29 @@ public class QPSPolicy implements ThrottlingPolicy {
     return allocation;
   }
 
+  /**
+   * Record a permit request of the requestor.
+   * @return the number of active requestors, including this one.
+   */
+  private int recordRequest(String requestor, long now) {
+    this.lastRequestMillis.put(requestor, now);
+    if (now - this.lastPurgeMillis > PURGE_REQUESTORS_INTERVAL_MILLIS) {
+      this.lastPurgeMillis = now;
+      Iterator<Long> iterator = this.lastRequestMillis.values().iterator();
+      while (iterator.hasNext()) {
+        if (iterator.next() < now - this.activeRequestorWindowMillis) {
+          iterator.remove();
+        }
+      }
+    }
+    return Math.max(1, this.lastRequestMillis.size());
+  }
+
+  @VisibleForTesting
+  int getActiveRequestors() {
+    return this.lastRequestMillis.size();
+  }
+
   @Override
   public Map<String, String> getParameters() {
     return ImmutableMap.of("qps", Long.toString(this.qps));
@@ -120,6 +120,18 @@ public class TokenBucket {
     return totalWait;
   }
 
+  /**
+   * Return tokens that were reserved but not used, e.g. the unused part of an expired lease. The returned tokens are
+   * added to the stored tokens, without exceeding the max bucket size.
+   */
+  public synchronized void returnTokens(long tokens) {
+    if (tokens <= 0) {
+      return;
+    }
+    updateTokensStored(System.currentTimeMillis());
+    this.tokensStored = Math.min(this.tokensStored + tokens, Math.max(this.tokensStored, this.maxBucketSizeInTokens));
+  }
+
   /**
    * Note: this method should only be called while holding the class lock. For performance, the lock is not explicitly
    * acquired.
@@ -66,4 +66,16 @@ public class DynamicTokenBucketTest {
     Assert.assertTrue(limiter.getPermits(1, 0, 100) > 4);
   }
 
+  @Test
+  public void testEagerGrantingSharedByActiveRequestors() throws Exception {
+    int qps = 100;
+    DynamicTokenBucket limiter = new DynamicTokenBucket(qps, 10, 1000);
+
+    limiter.returnPermits(qps); // fill bucket
+    // With 4 active requestors, only 1/5 of the stored permits are granted eagerly
+    Assert.assertEquals(limiter.getPermitsAndDelay(1, 0, 100, 4).getPermits(), qps / 5);
+    // With a single requestor, 1/2 of the remaining stored permits are granted eagerly
+    Assert.assertEquals(limiter.getPermitsAndDelay(1, 0, 100).getPermits(), 2 * qps / 5);
+  }
+
 }
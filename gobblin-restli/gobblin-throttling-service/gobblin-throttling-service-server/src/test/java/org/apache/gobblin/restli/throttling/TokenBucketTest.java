@@ -60,6 +60,20 @@ public class TokenBucketTest {
     Assert.assertTrue(tokenBucket.getTokens(20, 101, TimeUnit.MILLISECONDS));
   }
 
+  @Test
+  public void testReturnTokens() throws Exception {
+    TokenBucket tokenBucket = new TokenBucket(100, 1000);
+
+    // Returned tokens can be used right away
+    tokenBucket.returnTokens(50);
+    Assert.assertTrue(tokenBucket.getStoredTokens() >= 50);
+    Assert.assertTrue(tokenBucket.getTokens(50, 0, TimeUnit.MILLISECONDS));
+
+    // Returned tokens do not exceed the max bucket size
+    tokenBucket.returnTokens(1000);
+    Assert.assertEquals(tokenBucket.getStoredTokens(), 100);
+  }
+
   private void testForQps(long qps) throws Exception {
     ExecutorService executorService = Executors.newFixedThreadPool(10);
 
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.converter.avro;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.apache.gobblin.configuration.WorkUnitState;
+import org.apache.gobblin.converter.DataConversionException;
+import org.apache.gobblin.source.workunit.Extract;
+import org.apache.gobblin.source.workunit.WorkUnit;
+
+
+/**
+ * Benchmarks {@link JsonIntermediateToAvroConverter#convertRecord(Schema, JsonObject, WorkUnitState)} on a flat
+ * record with the common primitive types.
+ */
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 3)
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonIntermediateToAvroConverterBenchmark {
+
+  private static final String SCHEMA = "["
+      + "{\"columnName\": \"id\", \"dataType\": {\"type\": \"string\"}},"
+      + "{\"columnName\": \"count\", \"dataType\": {\"type\": \"long\"}},"
+      + "{\"columnName\": \"score\", \"dataType\": {\"type\": \"double\"}},"
+      + "{\"columnName\": \"active\", \"dataType\": {\"type\": \"boolean\"}},"
+      + "{\"columnName\": \"name\", \"dataType\": {\"type\": \"string\"}, \"isNullable\": true}"
+      + "]";
+
+  private static final String RECORD = "{\"id\": \"0012345678\", \"count\": 1234567, \"score\": 0.75, "
+      + "\"active\": true, \"name\": \"benchmark\"}";
+
+  @State(value = Scope.Thread)
+  public static class ConverterState {
+    private JsonIntermediateToAvroConverter converter;
+    private WorkUnitState workUnitState;
+    private Schema outputSchema;
+    private JsonObject record;
+
+    @Setup
+    public void setup() throws Exception {
+      this.workUnitState = new WorkUnitState(
+          WorkUnit.create(new Extract(Extract.TableType.SNAPSHOT_ONLY, "org.apache.gobblin.benchmark", "table")));
+      this.converter = new JsonIntermediateToAvroConverter();
+      JsonParser parser = new JsonParser();
+      this.outputSchema = this.converter.convertSchema((JsonArray) parser.parse(SCHEMA), this.workUnitState);
+      this.record = (JsonObject) parser.parse(RECORD);
+    }
+  }
+
+  @Benchmark
+  public GenericRecord convertRecord(ConverterState state) throws DataConversionException {
+    return state.converter.convertRecord(state.outputSchema, state.record, state.workUnitState).iterator().next();
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.fork;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks the overhead of {@link CopyHelper#copy(Object)}, which a {@link org.apache.gobblin.runtime.fork.Fork}
+ * pays for every record when a task has more than one branch.
+ */
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 3)
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CopyHelperBenchmark {
+
+  @State(value = Scope.Benchmark)
+  public static class CopyHelperState {
+    @Param({"100", "10000"})
+    public int recordSize;
+
+    private byte[] bytes;
+    private String string;
+    private CopyableBytes copyable;
+
+    @Setup
+    public void setup() {
+      this.bytes = new byte[this.recordSize];
+      new Random().nextBytes(this.bytes);
+      this.string = new String(this.bytes);
+      this.copyable = new CopyableBytes(this.bytes);
+    }
+  }
+
+  @Benchmark
+  public Object copyBytes(CopyHelperState state) throws CopyNotSupportedException {
+    return CopyHelper.copy(state.bytes);
+  }
+
+  @Benchmark
+  public Object copyImmutable(CopyHelperState state) throws CopyNotSupportedException {
+    return CopyHelper.copy(state.string);
+  }
+
+  @Benchmark
+  public Object copyCopyable(CopyHelperState state) throws CopyNotSupportedException {
+    return CopyHelper.copy(state.copyable);
+  }
+
+  private static class CopyableBytes implements Copyable<CopyableBytes> {
+    private final byte[] bytes;
+
+    CopyableBytes(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    public CopyableBytes copy() {
+      return new CopyableBytes(this.bytes.clone());
+    }
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.runtime;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+
+import org.apache.gobblin.configuration.ConfigurationKeys;
+import org.apache.gobblin.configuration.WorkUnitState;
+import org.apache.gobblin.qualitychecker.row.RowLevelPolicy;
+import org.apache.gobblin.source.extractor.Extractor;
+import org.apache.gobblin.source.workunit.Extract;
+import org.apache.gobblin.source.workunit.WorkUnit;
+import org.apache.gobblin.writer.DataWriter;
+import org.apache.gobblin.writer.DataWriterBuilder;
+
+import static org.mockito.Mockito.mock;
+
+
+/**
+ * Benchmarks the end-to-end record path of a {@link Task}: extractor, row-level policies, fork operator,
+ * {@link org.apache.gobblin.runtime.fork.Fork}s (which copy records with {@link org.apache.gobblin.fork.CopyHelper}
+ * when there is more than one branch) and writers, with an in-memory extractor and writers that discard records.
+ *
+ * Each invocation runs a task over {@link #NUM_RECORDS} records, so the score is in records per second. Run with
+ * {@code -prof gc} to also get the allocation per record (gc.alloc.rate.norm).
+ */
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 3)
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TaskBenchmark {
+
+  private static final int NUM_RECORDS = 100000;
+
+  @State(value = Scope.Benchmark)
+  public static class TaskBenchmarkState {
+    @Param({"1", "2", "4"})
+    public int numForks;
+
+    @Param({"false", "true"})
+    public boolean synchronousExecutionModel;
+
+    @Param({"0", "3"})
+    public int numRowLevelPolicies;
+
+    @Param({"100"})
+    public int recordSize;
+
+    private TaskExecutor taskExecutor;
+    private TaskStateTracker taskStateTracker;
+
+    @Setup
+    public void setup() throws Exception {
+      this.taskExecutor = new TaskExecutor(new Properties());
+      this.taskStateTracker = mock(TaskStateTracker.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+      this.taskExecutor.stopAsync().awaitTerminated();
+    }
+
+    WorkUnitState newWorkUnitState() {
+      WorkUnit workUnit = WorkUnit.create(
+          new Extract(Extract.TableType.SNAPSHOT_ONLY, TaskBenchmark.class.getName(), "benchmark"));
+      workUnit.setProp(ConfigurationKeys.TASK_KEY_KEY, "taskKey");
+      workUnit.setProp(ConfigurationKeys.JOB_ID_KEY, "benchmarkJob");
+      workUnit.setProp(ConfigurationKeys.TASK_ID_KEY, "benchmarkTask");
+      WorkUnitState workUnitState = new WorkUnitState(workUnit);
+      workUnitState.setProp(ConfigurationKeys.METRICS_ENABLED_KEY, Boolean.toString(false));
+      workUnitState.setProp(ConfigurationKeys.TASK_SYNCHRONOUS_EXECUTION_MODEL_KEY, this.synchronousExecutionModel);
+      workUnitState.setProp(ConfigurationKeys.FORK_BRANCHES_KEY, this.numForks);
+      if (this.numRowLevelPolicies > 0) {
+        List<String> policies = Lists.newArrayList();
+        List<String> types = Lists.newArrayList();
+        for (int i = 0; i < this.numRowLevelPolicies; i++) {
+          policies.add(NonEmptyRecordPolicy.class.getName());
+          types.add(RowLevelPolicy.Type.FAIL.name());
+        }
+        workUnitState.setProp(ConfigurationKeys.ROW_LEVEL_POLICY_LIST, Joiner.on(",").join(policies));
+        workUnitState.setProp(ConfigurationKeys.ROW_LEVEL_POLICY_LIST_TYPE, Joiner.on(",").join(types));
+      }
+      return workUnitState;
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_RECORDS)
+  public TaskState runTask(TaskBenchmarkState state) throws Exception {
+    TaskContext taskContext = new InMemoryTaskContext(state.newWorkUnitState(), NUM_RECORDS, state.recordSize);
+    Task task = new Task(taskContext, state.taskStateTracker, state.taskExecutor, Optional.<CountDownLatch>absent());
+    task.run();
+    task.commit();
+    if (task.getTaskState().getWorkingState() != WorkUnitState.WorkingState.SUCCESSFUL) {
+      throw new IllegalStateException("Benchmark task failed: " + task.getTaskState().getWorkingState());
+    }
+    return task.getTaskState();
+  }
+
+  /**
+   * A {@link TaskContext} with an in-memory {@link Extractor} and writers that discard the records they get.
+   */
+  private static class InMemoryTaskContext extends TaskContext {
+    private final int numRecords;
+    private final int recordSize;
+    private Extractor extractor;
+
+    InMemoryTaskContext(WorkUnitState workUnitState, int numRecords, int recordSize) {
+      super(workUnitState);
+      this.numRecords = numRecords;
+      this.recordSize = recordSize;
+    }
+
+    @Override
+    public Extractor getExtractor() {
+      this.extractor = new InMemoryExtractor(this.numRecords, this.recordSize);
+      return this.extractor;
+    }
+
+    @Override
+    public Extractor getRawSourceExtractor() {
+      return this.extractor;
+    }
+
+    @Override
+    public DataWriterBuilder getDataWriterBuilder(int branches, int index) {
+      return new DiscardingDataWriterBuilder();
+    }
+  }
+
+  /**
+   * An {@link Extractor} that returns the same number of fresh byte array records each time it is created.
+   */
+  private static class InMemoryExtractor implements Extractor<String, byte[]> {
+    private final int numRecords;
+    private final byte[] record;
+    private int recordsRead = 0;
+
+    InMemoryExtractor(int numRecords, int recordSize) {
+      this.numRecords = numRecords;
+      this.record = new byte[recordSize];
+    }
+
+    @Override
+    public String getSchema() {
+      return "bytes";
+    }
+
+    @Override
+    public byte[] readRecord(@Deprecated byte[] reuse) {
+      if (this.recordsRead >= this.numRecords) {
+        return null;
+      }
+      this.recordsRead++;
+      return this.record.clone();
+    }
+
+    @Override
+    public long getExpectedRecordCount() {
+      return this.numRecords;
+    }
+
+    @Override
+    public long getHighWatermark() {
+      return -1;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  /**
+   * A row-level policy that passes all non-empty byte array records.
+   */
+  public static class NonEmptyRecordPolicy extends RowLevelPolicy {
+    public NonEmptyRecordPolicy(org.apache.gobblin.configuration.State state, Type type) {
+      super(state, type);
+    }
+
+    @Override
+    public Result executePolicy(Object record) {
+      return record instanceof byte[] && ((byte[]) record).length > 0 ? Result.PASSED : Result.FAILED;
+    }
+  }
+
+  private static class DiscardingDataWriterBuilder extends DataWriterBuilder<String, byte[]> {
+    @Override
+    public DataWriter<byte[]> build() throws IOException {
+      return new DataWriter<byte[]>() {
+        private long recordsWritten = 0;
+        private long bytesWritten = 0;
+
+        @Override
+        public void write(byte[] record) throws IOException {
+          this.recordsWritten++;
+          this.bytesWritten += record.length;
+        }
+
+        @Override
+        public void commit() throws IOException {
+        }
+
+        @Override
+        public void cleanup() throws IOException {
+        }
+
+        @Override
+        public long recordsWritten() {
+          return this.recordsWritten;
+        }
+
+        @Override
+        public long bytesWritten() throws IOException {
+          return this.bytesWritten;
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+      };
+    }
+  }
+}
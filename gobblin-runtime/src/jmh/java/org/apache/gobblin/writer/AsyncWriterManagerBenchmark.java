@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+import com.typesafe.config.ConfigFactory;
+
+import org.apache.gobblin.util.ExecutorsUtils;
+
+
+/**
+ * Benchmarks the overhead of {@link AsyncWriterManager#write(Object)} with an in-memory {@link AsyncDataWriter} that
+ * completes writes either in the calling thread or in a separate thread. A new {@link AsyncWriterManager} is
+ * created and committed for each iteration.
+ */
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 3)
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AsyncWriterManagerBenchmark {
+
+  @State(value = Scope.Thread)
+  public static class AsyncWriterManagerState {
+    @Param({"true", "false"})
+    public boolean completeInCallerThread;
+
+    @Param({"1000"})
+    public int maxOutstandingWrites;
+
+    private final byte[] record = new byte[100];
+    private ExecutorService executorService;
+    private AsyncWriterManager<byte[]> asyncWriterManager;
+
+    @Setup
+    public void setup() {
+      this.executorService = Executors.newSingleThreadExecutor(ExecutorsUtils.newDaemonThreadFactory(
+          Optional.of(LoggerFactory.getLogger(AsyncWriterManagerBenchmark.class)), Optional.of("InMemoryAsyncWriter")));
+    }
+
+    @Setup(Level.Iteration)
+    public void createWriter() {
+      this.asyncWriterManager = AsyncWriterManager.builder().config(ConfigFactory.empty())
+          .maxOutstandingWrites(this.maxOutstandingWrites)
+          .asyncDataWriter(new InMemoryAsyncDataWriter(this.completeInCallerThread ? null : this.executorService))
+          .build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void commitWriter() throws IOException {
+      this.asyncWriterManager.commit();
+      this.asyncWriterManager.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+      this.executorService.shutdownNow();
+    }
+  }
+
+  @Benchmark
+  public void write(AsyncWriterManagerState state) throws IOException {
+    state.asyncWriterManager.write(state.record);
+  }
+
+  /**
+   * An {@link AsyncDataWriter} that discards records and completes writes immediately, or on the given executor if
+   * there is one.
+   */
+  private static class InMemoryAsyncDataWriter implements AsyncDataWriter<byte[]> {
+    private final ExecutorService executorService;
+
+    InMemoryAsyncDataWriter(ExecutorService executorService) {
+      this.executorService = executorService;
+    }
+
+    @Override
+    public Future<WriteResponse> write(final byte[] record, WriteCallback callback) {
+      final FutureWrappedWriteCallback futureCallback = new FutureWrappedWriteCallback(callback);
+      if (this.executorService == null) {
+        futureCallback.onSuccess(new GenericWriteResponse<>(record));
+      } else {
+        this.executorService.execute(new Runnable() {
+          @Override
+          public void run() {
+            futureCallback.onSuccess(new GenericWriteResponse<>(record));
+          }
+        });
+      }
+      return futureCallback;
+    }
+
+    @Override
+    public void flush() throws IOException {
+    }
+
+    @Override
+    public void close() throws IOException {
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.io.Files;
+
+import org.apache.gobblin.configuration.ConfigurationKeys;
+
+
+/**
+ * Benchmarks {@link AvroHdfsDataWriter#write(GenericRecord)} to the local file system. A new writer and output
+ * file are created for each iteration.
+ */
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 3)
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AvroHdfsDataWriterBenchmark {
+
+  static final String SCHEMA = "{\"type\": \"record\", \"name\": \"BenchmarkRecord\", "
+      + "\"namespace\": \"org.apache.gobblin.benchmark\", \"fields\": ["
+      + "{\"name\": \"id\", \"type\": \"string\"},"
+      + "{\"name\": \"count\", \"type\": \"long\"},"
+      + "{\"name\": \"score\", \"type\": \"double\"},"
+      + "{\"name\": \"active\", \"type\": \"boolean\"},"
+      + "{\"name\": \"name\", \"type\": [\"null\", \"string\"]}"
+      + "]}";
+
+  @State(value = Scope.Thread)
+  public static class WriterState {
+    @Param({"deflate", "snappy"})
+    public String codec;
+
+    private Schema schema;
+    private GenericRecord record;
+    private File tmpDir;
+    private DataWriter<GenericRecord> writer;
+
+    @Setup
+    public void setup() {
+      this.schema = new Schema.Parser().parse(SCHEMA);
+      this.record = new GenericData.Record(this.schema);
+      this.record.put("id", "0012345678");
+      this.record.put("count", 1234567L);
+      this.record.put("score", 0.75);
+      this.record.put("active", true);
+      this.record.put("name", "benchmark");
+    }
+
+    @Setup(Level.Iteration)
+    public void createWriter() throws IOException {
+      this.tmpDir = Files.createTempDir();
+      org.apache.gobblin.configuration.State properties = new org.apache.gobblin.configuration.State();
+      properties.setProp(ConfigurationKeys.WRITER_FILE_SYSTEM_URI, ConfigurationKeys.LOCAL_FS_URI);
+      properties.setProp(ConfigurationKeys.WRITER_STAGING_DIR, new File(this.tmpDir, "staging").getAbsolutePath());
+      properties.setProp(ConfigurationKeys.WRITER_OUTPUT_DIR, new File(this.tmpDir, "output").getAbsolutePath());
+      properties.setProp(ConfigurationKeys.WRITER_FILE_PATH, "benchmark");
+      properties.setProp(ConfigurationKeys.WRITER_FILE_NAME, "benchmark.avro");
+      properties.setProp(ConfigurationKeys.WRITER_CODEC_TYPE, this.codec);
+      this.writer = new AvroDataWriterBuilder().writeTo(Destination.of(Destination.DestinationType.HDFS, properties))
+          .writeInFormat(WriterOutputFormat.AVRO).withWriterId("benchmarkWriter").withSchema(this.schema)
+          .withBranches(1).forBranch(0).build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeWriter() throws IOException {
+      this.writer.close();
+      FileUtils.deleteDirectory(this.tmpDir);
+    }
+  }
+
+  @Benchmark
+  public void write(WriterState state) throws IOException {
+    state.writer.write(state.record);
+  }
+}
@@ -120,6 +120,9 @@ public abstract class AbstractJobLauncher implements JobLauncher {
 
   public static final String TASK_STATE_STORE_TABLE_SUFFIX = ".tst";
 
+  // Suffix of task state store tables holding the task states of all tasks of a multi-task attempt
+  public static final String TASK_STATE_STORE_SEGMENT_TABLE_SUFFIX = ".tsts";
+
   public static final String JOB_STATE_FILE_NAME = "job.state";
 
   public static final String WORK_UNIT_FILE_EXTENSION = ".wu";
@@ -17,6 +17,7 @@
 
 package org.apache.gobblin.runtime;
 
+import java.util.Collection;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
@@ -47,6 +48,12 @@ import org.apache.gobblin.configuration.ConfigurationKeys;
  *   </ul>
  * </p>
  *
+ * <p>
+ *   By default the queue is backed by an {@link java.util.concurrent.ArrayBlockingQueue}. When there is exactly one
+ *   producer thread and one consumer thread, {@link Builder#useSingleProducerSingleConsumer(SpscRingBufferQueue.WaitStrategy)}
+ *   backs it by a lock-free {@link SpscRingBufferQueue} instead.
+ * </p>
+ *
  * @author Yinan Li
  */
 public class BoundedBlockingRecordQueue<T> {
@@ -65,7 +72,9 @@ public class BoundedBlockingRecordQueue<T> {
     this.capacity = builder.capacity;
     this.timeout = builder.timeout;
     this.timeoutTimeUnit = builder.timeoutTimeUnit;
-    this.blockingQueue = Queues.newArrayBlockingQueue(builder.capacity);
+    this.blockingQueue = builder.spscWaitStrategy.isPresent()
+        ? new SpscRingBufferQueue<T>(builder.capacity, builder.spscWaitStrategy.get())
+        : Queues.<T>newArrayBlockingQueue(builder.capacity);
 
     this.queueStats = builder.ifCollectStats ? Optional.of(new QueueStats()) : Optional.<QueueStats> absent();
   }
@@ -101,6 +110,28 @@ public class BoundedBlockingRecordQueue<T> {
     return record;
   }
 
+  /**
+   * Get a batch of records from the head of the queue, waiting (up to the configured timeout time)
+   * for at least one record to become available.
+   *
+   * @param records the collection to add the records to
+   * @param maxRecords the maximum number of records to get
+   * @return the number of records added to the collection, which is 0 if no record is available
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public int getBatch(Collection<? super T> records, int maxRecords) throws InterruptedException {
+    int count = 0;
+    T first = this.blockingQueue.poll(this.timeout, this.timeoutTimeUnit);
+    if (first != null) {
+      records.add(first);
+      count = 1 + this.blockingQueue.drainTo(records, maxRecords - 1);
+    }
+    if (this.queueStats.isPresent()) {
+      this.queueStats.get().getsRateMeter.mark();
+    }
+    return count;
+  }
+
   /**
    * Get a {@link QueueStats} object representing queue statistics of this {@link BoundedBlockingRecordQueue}.
    *
@@ -139,6 +170,7 @@ public class BoundedBlockingRecordQueue<T> {
     private long timeout = ConfigurationKeys.DEFAULT_FORK_RECORD_QUEUE_TIMEOUT;
     private TimeUnit timeoutTimeUnit = TimeUnit.MILLISECONDS;
     private boolean ifCollectStats = false;
+    private Optional<SpscRingBufferQueue.WaitStrategy> spscWaitStrategy = Optional.absent();
 
     /**
      * Configure the capacity of the queue.
@@ -173,6 +205,18 @@ public class BoundedBlockingRecordQueue<T> {
       return this;
     }
 
+    /**
+     * Configure the queue to be backed by a lock-free {@link SpscRingBufferQueue}. The queue must then only be
+     * written by one thread and only be read by one thread.
+     *
+     * @param waitStrategy how a blocked producer or consumer waits
+     * @return this {@link Builder} instance
+     */
+    public Builder<T> useSingleProducerSingleConsumer(SpscRingBufferQueue.WaitStrategy waitStrategy) {
+      this.spscWaitStrategy = Optional.of(waitStrategy);
+      return this;
+    }
+
     /**
      * Configure whether to collect queue statistics.
      *
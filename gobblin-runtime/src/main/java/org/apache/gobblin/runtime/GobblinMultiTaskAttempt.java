@@ -316,7 +316,13 @@ public class GobblinMultiTaskAttempt {
     this.stopped.set(true);
   }
 
-  private void persistTaskStateStore()
+  @VisibleForTesting
+  void setTasks(List<Task> tasks) {
+    this.tasks = tasks;
+  }
+
+  @VisibleForTesting
+  void persistTaskStateStore()
       throws IOException {
     if (!this.taskStateStoreOptional.isPresent()) {
       log.info("Task state store does not exist.");
@@ -324,26 +330,47 @@ public class GobblinMultiTaskAttempt {
     }
 
     StateStore<TaskState> taskStateStore = this.taskStateStoreOptional.get();
-    for (Task task : this.tasks) {
-      String taskId = task.getTaskId();
-      // Delete the task state file for the task if it already exists.
-      // This usually happens if the task is retried upon failure.
-      if (taskStateStore.exists(jobId, taskId + AbstractJobLauncher.TASK_STATE_STORE_TABLE_SUFFIX)) {
-        taskStateStore.delete(jobId, taskId + AbstractJobLauncher.TASK_STATE_STORE_TABLE_SUFFIX);
+    boolean writeSegment = this.jobState.getPropAsBoolean(ConfigurationKeys.TASK_STATE_STORE_SEGMENT_ENABLED,
+        ConfigurationKeys.DEFAULT_TASK_STATE_STORE_SEGMENT_ENABLED) && !this.tasks.isEmpty();
+
+    if (!writeSegment) {
+      for (Task task : this.tasks) {
+        String taskId = task.getTaskId();
+        // Delete the task state file for the task if it already exists.
+        // This usually happens if the task is retried upon failure.
+        if (taskStateStore.exists(jobId, taskId + AbstractJobLauncher.TASK_STATE_STORE_TABLE_SUFFIX)) {
+          taskStateStore.delete(jobId, taskId + AbstractJobLauncher.TASK_STATE_STORE_TABLE_SUFFIX);
+        }
       }
     }
 
     boolean hasTaskFailure = false;
+    List<TaskState> taskStates = Lists.newArrayListWithCapacity(this.tasks.size());
     for (Task task : tasks) {
-      log.info("Writing task state for task " + task.getTaskId());
-      taskStateStore.put(task.getJobId(), task.getTaskId() + AbstractJobLauncher.TASK_STATE_STORE_TABLE_SUFFIX,
-          task.getTaskState());
+      if (writeSegment) {
+        taskStates.add(task.getTaskState());
+      } else {
+        log.info("Writing task state for task " + task.getTaskId());
+        taskStateStore.put(task.getJobId(), task.getTaskId() + AbstractJobLauncher.TASK_STATE_STORE_TABLE_SUFFIX,
+            task.getTaskState());
+      }
 
       if (task.getTaskState().getWorkingState() == WorkUnitState.WorkingState.FAILED) {
         hasTaskFailure = true;
       }
     }
 
+    if (writeSegment) {
+      // Name the segment after the first task so that a retried attempt replaces the segment of the previous one.
+      // The state store does not overwrite an existing table, so delete it first like the per task tables above.
+      String segmentName = this.tasks.get(0).getTaskId() + AbstractJobLauncher.TASK_STATE_STORE_SEGMENT_TABLE_SUFFIX;
+      if (taskStateStore.exists(this.jobId, segmentName)) {
+        taskStateStore.delete(this.jobId, segmentName);
+      }
+      log.info("Writing task states of {} tasks to segment {}", taskStates.size(), segmentName);
+      taskStateStore.putAll(this.jobId, segmentName, taskStates);
+    }
+
     if (hasTaskFailure) {
       String errorMsg = String.format("Tasks in container %s failed", containerIdOptional.or(""));
       for (Task task : tasks) {
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.runtime;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.google.common.base.Preconditions;
+
+
+/**
+ * A bounded, lock-free {@link BlockingQueue} backed by a ring buffer that supports exactly one producer thread and
+ * exactly one consumer thread.
+ *
+ * <p>
+ *   Producer and consumer only coordinate through two monotonically increasing indexes published with ordered
+ *   writes, so neither side ever takes a lock. When the queue is full (for the producer) or empty (for the consumer),
+ *   the blocking operations wait according to the configured {@link WaitStrategy}.
+ * </p>
+ *
+ * <p>
+ *   Calling {@link #offer(Object)}, {@link #put(Object)} and their variants from more than one thread, or
+ *   {@link #poll()}, {@link #take()}, {@link #drainTo(Collection)}, {@link #clear()} and their variants from more
+ *   than one thread, is not supported. {@link #iterator()} is not supported.
+ * </p>
+ *
+ * @param <T> element type
+ */
+public class SpscRingBufferQueue<T> extends AbstractQueue<T> implements BlockingQueue<T> {
+
+  /**
+   * How a blocked producer or consumer waits for the other side.
+   */
+  public enum WaitStrategy {
+    /** Spin on the CPU. Lowest latency, burns a core while waiting. */
+    BUSY_SPIN,
+    /** Yield the CPU to other threads between checks. */
+    YIELD,
+    /** Park the thread for a short period between checks. Lowest CPU usage. */
+    PARK
+  }
+
+  private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+  private final Object[] buffer;
+  private final int mask;
+  private final int capacity;
+  private final WaitStrategy waitStrategy;
+
+  // Index of the next element to be consumed, only written by the consumer
+  private final AtomicLong head = new AtomicLong();
+  // Index of the next element to be produced, only written by the producer
+  private final AtomicLong tail = new AtomicLong();
+
+  // Last observed value of head, only accessed by the producer
+  private long headCache;
+  // Last observed value of tail, only accessed by the consumer
+  private long tailCache;
+
+  public SpscRingBufferQueue(int capacity, WaitStrategy waitStrategy) {
+    Preconditions.checkArgument(capacity > 0, "Invalid queue capacity");
+    Preconditions.checkArgument(capacity <= 1 << 30, "Queue capacity too large");
+    this.capacity = capacity;
+    this.buffer = new Object[nextPowerOfTwo(capacity)];
+    this.mask = this.buffer.length - 1;
+    this.waitStrategy = Preconditions.checkNotNull(waitStrategy);
+  }
+
+  private static int nextPowerOfTwo(int value) {
+    return value == 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+  }
+
+  @Override
+  public boolean offer(T element) {
+    Preconditions.checkNotNull(element);
+    long currentTail = this.tail.get();
+    if (currentTail - this.headCache >= this.capacity) {
+      this.headCache = this.head.get();
+      if (currentTail - this.headCache >= this.capacity) {
+        return false;
+      }
+    }
+    this.buffer[(int) currentTail & this.mask] = element;
+    // Ordered write publishes the element to the consumer
+    this.tail.lazySet(currentTail + 1);
+    return true;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T poll() {
+    long currentHead = this.head.get();
+    if (currentHead >= this.tailCache) {
+      this.tailCache = this.tail.get();
+      if (currentHead >= this.tailCache) {
+        return null;
+      }
+    }
+    int index = (int) currentHead & this.mask;
+    T element = (T) this.buffer[index];
+    this.buffer[index] = null;
+    // Ordered write releases the slot to the producer
+    this.head.lazySet(currentHead + 1);
+    return element;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T peek() {
+    long currentHead = this.head.get();
+    if (currentHead >= this.tail.get()) {
+      return null;
+    }
+    return (T) this.buffer[(int) currentHead & this.mask];
+  }
+
+  @Override
+  public boolean offer(T element, long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (!offer(element)) {
+      if (!awaitUntil(deadline)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    T element;
+    while ((element = poll()) == null) {
+      if (!awaitUntil(deadline)) {
+        return null;
+      }
+    }
+    return element;
+  }
+
+  @Override
+  public void put(T element) throws InterruptedException {
+    while (!offer(element)) {
+      idle();
+    }
+  }
+
+  @Override
+  public T take() throws InterruptedException {
+    T element;
+    while ((element = poll()) == null) {
+      idle();
+    }
+    return element;
+  }
+
+  @Override
+  public int drainTo(Collection<? super T> collection) {
+    return drainTo(collection, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(Collection<? super T> collection, int maxElements) {
+    Preconditions.checkArgument(collection != this, "Cannot drain a queue into itself");
+    int drained = 0;
+    T element;
+    while (drained < maxElements && (element = poll()) != null) {
+      collection.add(element);
+      drained++;
+    }
+    return drained;
+  }
+
+  @Override
+  public int size() {
+    // Read head first so that the difference is never negative
+    long currentHead = this.head.get();
+    long currentTail = this.tail.get();
+    return (int) Math.min(this.capacity, Math.max(0, currentTail - currentHead));
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return this.capacity - size();
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    throw new UnsupportedOperationException(SpscRingBufferQueue.class.getSimpleName() + " does not support iteration");
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[size=%d, capacity=%d, waitStrategy=%s]", SpscRingBufferQueue.class.getSimpleName(),
+        size(), this.capacity, this.waitStrategy);
+  }
+
+  /**
+   * Wait once according to the {@link WaitStrategy}.
+   *
+   * @return false if the deadline has passed
+   */
+  private boolean awaitUntil(long deadlineNanos) throws InterruptedException {
+    if (System.nanoTime() - deadlineNanos >= 0) {
+      return false;
+    }
+    idle();
+    return true;
+  }
+
+  private void idle() throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+    switch (this.waitStrategy) {
+      case BUSY_SPIN:
+        break;
+      case YIELD:
+        Thread.yield();
+        break;
+      case PARK:
+      default:
+        LockSupport.parkNanos(this, PARK_NANOS);
+        break;
+    }
+  }
+}
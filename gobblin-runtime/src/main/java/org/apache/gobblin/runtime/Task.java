@@ -492,29 +492,27 @@ public class Task implements TaskIFace {
         }
       }
     } else {
-      RecordEnvelope record;
-      // Extract, convert, and fork one source record at a time.
-      long errRecords = 0;
-      while ((record = extractor.readRecordEnvelope()) != null) {
-        onRecordExtract();
-        try {
-          for (Object convertedRecord : converter.convertRecord(schema, record.getRecord(), this.taskState)) {
-            processRecord(convertedRecord, forkOperator, rowChecker, rowResults, branches, null);
-          }
-        } catch (Exception e) {
-          if (!(e instanceof DataConversionException) && !(e.getCause() instanceof DataConversionException)) {
-            LOG.error("Processing record incurs an unexpected exception: ", e);
-            throw new RuntimeException(e.getCause());
+      int recordBatchSize = this.taskState.getPropAsInt(TaskConfigurationKeys.TASK_RECORD_BATCH_SIZE,
+          TaskConfigurationKeys.DEFAULT_TASK_RECORD_BATCH_SIZE);
+      if (recordBatchSize > 1) {
+        processRecordBatches(schema, forkOperator, rowResults, branches, recordBatchSize);
+      } else {
+        RecordEnvelope record;
+        // Extract, convert, and fork one source record at a time.
+        long errRecords = 0;
+        while ((record = extractor.readRecordEnvelope()) != null) {
+          onRecordExtract();
+          try {
+            for (Object convertedRecord : converter.convertRecord(schema, record.getRecord(), this.taskState)) {
+              processRecord(convertedRecord, forkOperator, rowChecker, rowResults, branches, null);
+            }
+          } catch (Exception e) {
+            errRecords = onRecordProcessingError(e, errRecords);
           }
-          errRecords++;
-          if (errRecords > this.taskState.getPropAsLong(TaskConfigurationKeys.TASK_SKIP_ERROR_RECORDS,
-              TaskConfigurationKeys.DEFAULT_TASK_SKIP_ERROR_RECORDS)) {
-            throw new RuntimeException(e);
+          if (shutdownRequested()) {
+            extractor.shutdown();
           }
         }
-        if (shutdownRequested()) {
-          extractor.shutdown();
-        }
       }
     }
 
@@ -565,6 +563,11 @@ public class Task implements TaskIFace {
     this.lastRecordPulledTimestampMillis = System.currentTimeMillis();
   }
 
+  protected void onRecordsExtract(int count) {
+    this.recordsPulled.addAndGet(count);
+    this.lastRecordPulledTimestampMillis = System.currentTimeMillis();
+  }
+
   protected void failTask(Throwable t) {
     Throwable cleanedException = ExceptionCleanupUtils.removeEmptyWrappers(t);
 
@@ -789,14 +792,50 @@ public class Task implements TaskIFace {
   private void processRecord(Object convertedRecord, ForkOperator forkOperator, RowLevelPolicyChecker rowChecker,
       RowLevelPolicyCheckResults rowResults, int branches, AcknowledgableWatermark watermark)
       throws Exception {
+    List<Object> recordsForForks = forkRecord(convertedRecord, forkOperator, rowChecker, rowResults, branches);
     // Skip the record if quality checking fails
-    if (!rowChecker.executePolicies(convertedRecord, rowResults)) {
+    if (recordsForForks == null) {
       if (watermark != null) {
         watermark.ack();
       }
       return;
     }
 
+    int branch = 0;
+    for (Optional<Fork> fork : this.forks.keySet()) {
+      Object recordForFork = recordsForForks.get(branch);
+      if (recordForFork != null) {
+        if (isStreamingTask()) {
+          // Send the record, watermark pair down the fork
+          ((RecordEnvelope) recordForFork).addCallBack(watermark.incrementAck());
+        }
+        // Put the record into the record queue of each fork. A put may timeout and return a false, in which
+        // case the put is retried until it is successful.
+        boolean succeeded = false;
+        while (!succeeded) {
+          succeeded = fork.get().putRecord(recordForFork);
+        }
+      }
+      branch++;
+    }
+    if (watermark != null) {
+      watermark.ack();
+    }
+  }
+
+  /**
+   * Quality check a (possibly converted) record and select the branches it goes to.
+   *
+   * @return the record to put into the {@link Fork} of each branch, copied if it goes into multiple branches, with a
+   *         null element for the branches which do not get the record, or null if the record fails quality checking
+   */
+  @SuppressWarnings("unchecked")
+  private List<Object> forkRecord(Object convertedRecord, ForkOperator forkOperator, RowLevelPolicyChecker rowChecker,
+      RowLevelPolicyCheckResults rowResults, int branches) throws Exception {
+    if (!rowChecker.executePolicies(convertedRecord, rowResults)) {
+      return null;
+    }
+
     List<Boolean> forkedRecords = forkOperator.forkDataRecord(this.taskState, convertedRecord);
     if (forkedRecords.size() != branches) {
       throw new ForkBranchMismatchException(String
@@ -810,28 +849,86 @@ public class Task implements TaskIFace {
       throw new CopyNotSupportedException(convertedRecord.getClass().getName() + " is not copyable");
     }
 
+    List<Object> recordsForForks = new ArrayList<>(branches);
     int branch = 0;
-    int copyInstance = 0;
     for (Optional<Fork> fork : this.forks.keySet()) {
       if (fork.isPresent() && forkedRecords.get(branch)) {
-        Object recordForFork = needToCopy ? CopyHelper.copy(convertedRecord) : convertedRecord;
-        copyInstance++;
-        if (isStreamingTask()) {
-          // Send the record, watermark pair down the fork
-          ((RecordEnvelope) recordForFork).addCallBack(watermark.incrementAck());
+        recordsForForks.add(needToCopy ? CopyHelper.copy(convertedRecord) : convertedRecord);
+      } else {
+        recordsForForks.add(null);
+      }
+      branch++;
+    }
+    return recordsForForks;
+  }
+
+  /**
+   * Extract, convert, and fork source records in batches of up to {@code batchSize} records. Each fork receives
+   * the records of a batch destined for it with a single queue hand-off.
+   */
+  @SuppressWarnings("unchecked")
+  private void processRecordBatches(Object schema, ForkOperator forkOperator, RowLevelPolicyCheckResults rowResults,
+      int branches, int batchSize) throws Exception {
+    long errRecords = 0;
+    List<RecordEnvelope> batch;
+    while (!(batch = extractor.readRecordBatch(batchSize)).isEmpty()) {
+      onRecordsExtract(batch.size());
+      List<List<Object>> forkBatches = new ArrayList<>(branches);
+      for (int i = 0; i < branches; i++) {
+        forkBatches.add(new ArrayList<>(batch.size()));
+      }
+      for (RecordEnvelope record : batch) {
+        try {
+          for (Object convertedRecord : converter.convertRecord(schema, record.getRecord(), this.taskState)) {
+            List<Object> recordsForForks =
+                forkRecord(convertedRecord, forkOperator, this.rowChecker, rowResults, branches);
+            for (int branch = 0; recordsForForks != null && branch < branches; branch++) {
+              if (recordsForForks.get(branch) != null) {
+                forkBatches.get(branch).add(recordsForForks.get(branch));
+              }
+            }
+          }
+        } catch (Exception e) {
+          errRecords = onRecordProcessingError(e, errRecords);
         }
-        // Put the record into the record queue of each fork. A put may timeout and return a false, in which
-        // case the put is retried until it is successful.
-        boolean succeeded = false;
-        while (!succeeded) {
-          succeeded = fork.get().putRecord(recordForFork);
+      }
+
+      int branch = 0;
+      for (Optional<Fork> fork : this.forks.keySet()) {
+        List<Object> forkBatch = forkBatches.get(branch);
+        if (fork.isPresent() && !forkBatch.isEmpty()) {
+          // A put may timeout and return a false, in which case the put is retried until it is successful.
+          boolean succeeded = false;
+          while (!succeeded) {
+            succeeded = fork.get().putRecords(forkBatch);
+          }
         }
+        branch++;
+      }
+
+      if (shutdownRequested()) {
+        extractor.shutdown();
       }
-      branch++;
     }
-    if (watermark != null) {
-      watermark.ack();
+  }
+
+  /**
+   * Handle an exception thrown while converting or forking a record. Data conversion errors are skipped up to
+   * {@link TaskConfigurationKeys#TASK_SKIP_ERROR_RECORDS}, any other exception fails the task.
+   *
+   * @return the updated number of skipped error records
+   */
+  private long onRecordProcessingError(Exception e, long errRecords) {
+    if (!(e instanceof DataConversionException) && !(e.getCause() instanceof DataConversionException)) {
+      LOG.error("Processing record incurs an unexpected exception: ", e);
+      throw new RuntimeException(e.getCause());
+    }
+    long skippedRecords = errRecords + 1;
+    if (skippedRecords > this.taskState.getPropAsLong(TaskConfigurationKeys.TASK_SKIP_ERROR_RECORDS,
+        TaskConfigurationKeys.DEFAULT_TASK_SKIP_ERROR_RECORDS)) {
+      throw new RuntimeException(e);
     }
+    return skippedRecords;
   }
 
   /**
@@ -38,4 +38,14 @@ public class TaskConfigurationKeys {
 
   public static final String TASK_SKIP_ERROR_RECORDS = "task.skip.error.records";
   public static final long DEFAULT_TASK_SKIP_ERROR_RECORDS = 0;
+
+  /**
+   * Configuration properties related to batched record processing. When the batch size is greater than 1, the
+   * synchronous execution model reads records from the extractor in batches and hands them off to each fork as a
+   * single queue element. The fork record queue then holds up to
+   * {@link org.apache.gobblin.configuration.ConfigurationKeys#FORK_RECORD_QUEUE_CAPACITY_KEY} divided by the batch size
+   * batches, so that its capacity is still counted in source records.
+   */
+  public static final String TASK_RECORD_BATCH_SIZE = "task.record.batch.size";
+  public static final int DEFAULT_TASK_RECORD_BATCH_SIZE = 1;
 }
@@ -170,13 +170,20 @@ public class TaskStateCollectorService extends AbstractScheduledService {
    *   file gets deleted after the {@link TaskState} it stores is successfully collected.
    * </p>
    *
+   * <p>
+   *   When {@link ConfigurationKeys#TASK_STATE_STORE_SEGMENT_ENABLED} is set, each multi-task attempt writes
+   *   the {@link TaskState}s of all its tasks into a single segment file, so a collection round only opens and
+   *   deletes one file per attempt instead of one per task.
+   * </p>
+   *
    * @throws IOException if it fails to collect the output {@link TaskState}s
    */
   private void collectOutputTaskStates() throws IOException {
     List<String> taskStateNames = taskStateStore.getTableNames(outputTaskStateDir.getName(), new Predicate<String>() {
       @Override
       public boolean apply(String input) {
-        return input.endsWith(AbstractJobLauncher.TASK_STATE_STORE_TABLE_SUFFIX)
+        return (input.endsWith(AbstractJobLauncher.TASK_STATE_STORE_TABLE_SUFFIX)
+            || input.endsWith(AbstractJobLauncher.TASK_STATE_STORE_SEGMENT_TABLE_SUFFIX))
         && !input.startsWith(FsStateStore.TMP_FILE_PREFIX);
       }});
 
@@ -193,8 +200,8 @@ public class TaskStateCollectorService extends AbstractScheduledService {
         stateSerDeRunner.submitCallable(new Callable<Void>() {
           @Override
           public Void call() throws Exception {
-            TaskState taskState = taskStateStore.getAll(outputTaskStateDir.getName(), taskStateName).get(0);
-            taskStateQueue.add(taskState);
+            // A segment table holds the task states of all tasks of a multi-task attempt
+            taskStateQueue.addAll(taskStateStore.getAll(outputTaskStateDir.getName(), taskStateName));
             taskStateStore.delete(outputTaskStateDir.getName(), taskStateName);
             return null;
           }
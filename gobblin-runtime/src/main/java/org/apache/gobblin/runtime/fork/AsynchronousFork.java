@@ -18,13 +18,17 @@
 package org.apache.gobblin.runtime.fork;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.gobblin.runtime.BoundedBlockingRecordQueue;
 import org.apache.gobblin.runtime.ExecutionModel;
+import org.apache.gobblin.runtime.SpscRingBufferQueue;
 import org.apache.gobblin.runtime.Task;
 import org.apache.gobblin.runtime.TaskContext;
 import org.apache.gobblin.runtime.TaskExecutor;
+import org.apache.gobblin.runtime.TaskConfigurationKeys;
 import org.apache.gobblin.runtime.TaskState;
 import lombok.extern.slf4j.Slf4j;
 
@@ -56,24 +60,44 @@ import org.apache.gobblin.converter.DataConversionException;
 @SuppressWarnings("unchecked")
 public class AsynchronousFork extends Fork {
   private final BoundedBlockingRecordQueue<Object> recordQueue;
+  private final int drainBatchSize;
+  private final List<Object> drainedRecords;
 
   public AsynchronousFork(TaskContext taskContext, Object schema, int branches, int index, ExecutionModel executionModel)
       throws Exception {
     super(taskContext, schema, branches, index, executionModel);
     TaskState taskState = taskContext.getTaskState();
 
-    this.recordQueue = BoundedBlockingRecordQueue.newBuilder()
-            .hasCapacity(taskState.getPropAsInt(
-                    ConfigurationKeys.FORK_RECORD_QUEUE_CAPACITY_KEY,
-                    ConfigurationKeys.DEFAULT_FORK_RECORD_QUEUE_CAPACITY))
+    int capacity = taskState.getPropAsInt(ConfigurationKeys.FORK_RECORD_QUEUE_CAPACITY_KEY,
+        ConfigurationKeys.DEFAULT_FORK_RECORD_QUEUE_CAPACITY);
+    int recordBatchSize = taskState.getPropAsInt(TaskConfigurationKeys.TASK_RECORD_BATCH_SIZE,
+        TaskConfigurationKeys.DEFAULT_TASK_RECORD_BATCH_SIZE);
+    if (executionModel != ExecutionModel.STREAMING && recordBatchSize > 1) {
+      // Each queue element is a batch of up to recordBatchSize source records, keep the capacity counted in records
+      capacity = Math.max(1, capacity / recordBatchSize);
+    }
+
+    BoundedBlockingRecordQueue.Builder<Object> queueBuilder = BoundedBlockingRecordQueue.newBuilder()
+            .hasCapacity(capacity)
             .useTimeout(taskState.getPropAsLong(
                     ConfigurationKeys.FORK_RECORD_QUEUE_TIMEOUT_KEY,
                     ConfigurationKeys.DEFAULT_FORK_RECORD_QUEUE_TIMEOUT))
             .useTimeoutTimeUnit(TimeUnit.valueOf(taskState.getProp(
                     ConfigurationKeys.FORK_RECORD_QUEUE_TIMEOUT_UNIT_KEY,
                     ConfigurationKeys.DEFAULT_FORK_RECORD_QUEUE_TIMEOUT_UNIT)))
-            .collectStats()
-            .build();
+            .collectStats();
+    // The parent task thread is the only producer and this fork's thread is the only consumer
+    if (taskState.getPropAsBoolean(ConfigurationKeys.FORK_RECORD_QUEUE_SPSC_ENABLED_KEY,
+        ConfigurationKeys.DEFAULT_FORK_RECORD_QUEUE_SPSC_ENABLED)) {
+      queueBuilder.useSingleProducerSingleConsumer(SpscRingBufferQueue.WaitStrategy.valueOf(taskState.getProp(
+          ConfigurationKeys.FORK_RECORD_QUEUE_SPSC_WAIT_STRATEGY_KEY,
+          ConfigurationKeys.DEFAULT_FORK_RECORD_QUEUE_SPSC_WAIT_STRATEGY).toUpperCase()));
+    }
+    this.recordQueue = queueBuilder.build();
+
+    this.drainBatchSize = Math.max(1, taskState.getPropAsInt(ConfigurationKeys.FORK_RECORD_QUEUE_DRAIN_BATCH_SIZE_KEY,
+        ConfigurationKeys.DEFAULT_FORK_RECORD_QUEUE_DRAIN_BATCH_SIZE));
+    this.drainedRecords = new ArrayList<>(this.drainBatchSize);
   }
 
   @Override
@@ -92,6 +116,9 @@ public class AsynchronousFork extends Fork {
   }
 
   boolean processRecord() throws IOException, DataConversionException {
+    if (this.drainBatchSize > 1) {
+      return processRecordBatch();
+    }
     try {
       Object record = this.recordQueue.get();
       if (record == null || record == Fork.SHUTDOWN_RECORD) {
@@ -108,4 +135,31 @@ public class AsynchronousFork extends Fork {
     }
     return true;
   }
+
+  /**
+   * Drain up to {@link ConfigurationKeys#FORK_RECORD_QUEUE_DRAIN_BATCH_SIZE_KEY} records off the queue with a
+   * single queue operation and process them in order.
+   */
+  private boolean processRecordBatch() throws IOException, DataConversionException {
+    try {
+      this.drainedRecords.clear();
+      if (this.recordQueue.getBatch(this.drainedRecords, this.drainBatchSize) == 0) {
+        // The parent task has already done pulling records so no new record means this fork is done
+        return !this.isParentTaskDone();
+      }
+      for (Object record : this.drainedRecords) {
+        if (record == Fork.SHUTDOWN_RECORD) {
+          if (this.isParentTaskDone()) {
+            return false;
+          }
+        } else {
+          this.processRecord(record);
+        }
+      }
+    } catch (InterruptedException ie) {
+      log.warn("Interrupted while trying to get a batch of records off the queue", ie);
+      Throwables.propagate(ie);
+    }
+    return true;
+  }
 }
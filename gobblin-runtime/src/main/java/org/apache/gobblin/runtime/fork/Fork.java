@@ -19,6 +19,7 @@ package org.apache.gobblin.runtime.fork;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.slf4j.Logger;
@@ -134,6 +135,18 @@ public class Fork<S, D> implements Closeable, FinalState, RecordStreamConsumer<S
   private final AtomicReference<ForkState> forkState;
 
   protected static final Object SHUTDOWN_RECORD = new Object();
+
+  /**
+   * A group of records handed off to this {@link Fork} with a single queue operation.
+   */
+  protected static final class RecordBatch {
+    private final List<Object> records;
+
+    private RecordBatch(List<Object> records) {
+      this.records = records;
+    }
+  }
+
   private SharedResourcesBroker<GobblinScopeTypes> broker;
 
   public Fork(TaskContext taskContext, Object schema, int branches, int index, ExecutionModel executionModel)
@@ -313,6 +326,31 @@ public class Fork<S, D> implements Closeable, FinalState, RecordStreamConsumer<S
    */
   public boolean putRecord(Object record)
       throws InterruptedException {
+    checkForkNotFailed();
+    return this.putRecordImpl(record);
+  }
+
+  /**
+   * Put a batch of new records into the record queue for this {@link Fork} to process.
+   *
+   * <p>
+   *   The batch is handed off to this {@link Fork} as a single unit, so the caller must not modify the list
+   *   after this method returns successfully. This method is used by the {@link Task} that creates this
+   *   {@link Fork} when running with {@link org.apache.gobblin.runtime.TaskConfigurationKeys#TASK_RECORD_BATCH_SIZE}
+   *   greater than 1.
+   * </p>
+   *
+   * @param records the new records
+   * @return whether the batch has been successfully put into the queue
+   * @throws InterruptedException
+   */
+  public boolean putRecords(List<Object> records)
+      throws InterruptedException {
+    checkForkNotFailed();
+    return this.putRecordImpl(new RecordBatch(records));
+  }
+
+  private void checkForkNotFailed() {
     if (this.forkState.compareAndSet(ForkState.FAILED, ForkState.FAILED)) {
       ForkThrowableHolder holder = Task.getForkThrowableHolder(this.broker);
       Optional<Throwable> forkThrowable = holder.getThrowable(this.index);
@@ -324,7 +362,6 @@ public class Fork<S, D> implements Closeable, FinalState, RecordStreamConsumer<S
             String.format("Fork %d of task %s has failed and is no longer running", this.index, this.taskId));
       }
     }
-    return this.putRecordImpl(record);
   }
 
   /**
@@ -509,6 +546,10 @@ public class Fork<S, D> implements Closeable, FinalState, RecordStreamConsumer<S
       if (this.parentTaskDone) {
         return;
       }
+    } else if (record instanceof RecordBatch) {
+      for (Object batchedRecord : ((RecordBatch) record).records) {
+        processRecord(batchedRecord);
+      }
     } else {
       if (isStreamingMode()) {
         // Unpack the record from its container
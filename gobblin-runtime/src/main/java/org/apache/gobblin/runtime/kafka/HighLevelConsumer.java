@@ -129,6 +129,7 @@ public abstract class HighLevelConsumer<K,V> extends AbstractIdleService {
       public void onPartitionsRevoked(Collection<KafkaPartition> partitions) {
         copyAndCommit();
         partitionOffsetsToCommit.clear();
+        afterPartitionsRevoked(partitions);
       }
 
       @Override
@@ -268,9 +269,32 @@ public abstract class HighLevelConsumer<K,V> extends AbstractIdleService {
     Map<KafkaPartition, Long> copy = new HashMap<>(partitionOffsetsToCommit);
     recordsProcessed.set(0);
     lastCommitTime = System.currentTimeMillis();
+    try {
+      // The copied offsets are of messages which were processed before this call
+      beforeCommitOffsets();
+    } catch (IOException e) {
+      log.warn("Failed to persist processed messages, offsets are not committed", e);
+      return;
+    }
     commitOffsets(copy);
   }
 
+  /**
+   * Called before the offsets of the processed messages are committed. The offsets are not committed if it throws.
+   * Subclasses which do not persist the result of {@link #processMessage(DecodeableKafkaRecord)} right away should
+   * persist it here, so that messages are not skipped after a restart or a partition rebalance.
+   */
+  protected void beforeCommitOffsets() throws IOException {
+  }
+
+  /**
+   * Called when partitions are revoked from this consumer, e.g. on a rebalance, after the offsets of the processed
+   * messages are committed. The partitions may be assigned to another consumer, so subclasses which cache state built
+   * from the messages should drop it here.
+   */
+  protected void afterPartitionsRevoked(Collection<KafkaPartition> partitions) {
+  }
+
   private boolean shouldCommitOffsets() {
     return recordsProcessed.intValue() >= offsetsCommitNumRecordsThreshold || ((System.currentTimeMillis() - lastCommitTime) / 1000 >= offsetsCommitTimeThresholdSecs);
   }
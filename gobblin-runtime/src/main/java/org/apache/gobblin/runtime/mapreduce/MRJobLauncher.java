@@ -639,6 +639,10 @@ public class MRJobLauncher extends AbstractJobLauncher {
     try {
       ParallelRunner parallelRunner = closer.register(new ParallelRunner(this.parallelRunnerThreads, this.fs));
 
+      boolean compactSerialization = this.jobContext.getJobState().getPropAsBoolean(
+          ConfigurationKeys.STATE_COMPACT_SERIALIZATION_ENABLED_KEY,
+          ConfigurationKeys.DEFAULT_STATE_COMPACT_SERIALIZATION_ENABLED);
+
       int multiTaskIdSequence = 0;
       // Serialize each work unit into a file named after the task ID
       for (WorkUnit workUnit : workUnits) {
@@ -647,6 +651,10 @@ public class MRJobLauncher extends AbstractJobLauncher {
         if (workUnit instanceof MultiWorkUnit) {
           workUnitFileName = JobLauncherUtils.newMultiTaskId(this.jobContext.getJobId(), multiTaskIdSequence++)
               + MULTI_WORK_UNIT_FILE_EXTENSION;
+          if (compactSerialization) {
+            ((MultiWorkUnit) workUnit).setPropExcludeInnerWorkUnits(
+                ConfigurationKeys.STATE_COMPACT_SERIALIZATION_ENABLED_KEY, true);
+          }
         } else {
           workUnitFileName = workUnit.getProp(ConfigurationKeys.TASK_ID_KEY) + WORK_UNIT_FILE_EXTENSION;
         }
@@ -87,6 +87,24 @@ public abstract class JobStatusRetriever implements LatestFlowExecutionIdTracker
    * @return deserialize {@link State} into a {@link JobStatus}.
    */
   protected JobStatus getJobStatus(State jobState) {
+    List<Issue> issues;
+    try {
+      String contextId = TroubleshooterUtils.getContextIdForJob(jobState.getProperties());
+      issues = issueRepository.getAll(contextId);
+    } catch (TroubleshooterException e) {
+      log.warn("Cannot retrieve job issues", e);
+      issues = Collections.emptyList();
+    }
+
+    return createJobStatusBuilder(jobState).issues(issues).build();
+  }
+
+  /**
+   * @param jobState instance of {@link State}
+   * @return a {@link JobStatus.JobStatusBuilder} with all the fields of the {@link JobStatus} deserialized from the
+   * {@link State}, except the issues.
+   */
+  public static JobStatus.JobStatusBuilder createJobStatusBuilder(State jobState) {
     String flowGroup = jobState.getProp(TimingEvent.FlowEventConstants.FLOW_GROUP_FIELD);
     String flowName = jobState.getProp(TimingEvent.FlowEventConstants.FLOW_NAME_FIELD);
     long flowExecutionId = Long.parseLong(jobState.getProp(TimingEvent.FlowEventConstants.FLOW_EXECUTION_ID_FIELD));
@@ -106,21 +124,11 @@ public abstract class JobStatusRetriever implements LatestFlowExecutionIdTracker
     int currentAttempts = Integer.parseInt(jobState.getProp(TimingEvent.FlowEventConstants.CURRENT_ATTEMPTS_FIELD, "1"));
     boolean shouldRetry = Boolean.parseBoolean(jobState.getProp(TimingEvent.FlowEventConstants.SHOULD_RETRY_FIELD, "false"));
 
-
-    List<Issue> issues;
-    try {
-      String contextId = TroubleshooterUtils.getContextIdForJob(jobState.getProperties());
-      issues = issueRepository.getAll(contextId);
-    } catch (TroubleshooterException e) {
-      log.warn("Cannot retrieve job issues", e);
-      issues = Collections.emptyList();
-    }
-
     return JobStatus.builder().flowName(flowName).flowGroup(flowGroup).flowExecutionId(flowExecutionId).
         jobName(jobName).jobGroup(jobGroup).jobTag(jobTag).jobExecutionId(jobExecutionId).eventName(eventName).
         lowWatermark(lowWatermark).highWatermark(highWatermark).orchestratedTime(orchestratedTime).startTime(startTime).endTime(endTime).
         message(message).processedCount(processedCount).maxAttempts(maxAttempts).currentAttempts(currentAttempts).
-        shouldRetry(shouldRetry).issues(issues).build();
+        shouldRetry(shouldRetry);
   }
 
   public abstract StateStore<State> getStateStore();
@@ -20,6 +20,9 @@ package org.apache.gobblin.runtime;
 import java.util.List;
 import java.util.Properties;
 
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
 import org.junit.Assert;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
@@ -28,6 +31,7 @@ import org.testng.annotations.Test;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 
@@ -38,6 +42,8 @@ import org.apache.gobblin.broker.SharedResourcesBrokerImpl;
 import org.apache.gobblin.broker.gobblin_scopes.GobblinScopeTypes;
 import org.apache.gobblin.broker.gobblin_scopes.JobScopeInstance;
 import org.apache.gobblin.configuration.ConfigurationKeys;
+import org.apache.gobblin.configuration.WorkUnitState;
+import org.apache.gobblin.metastore.FsStateStore;
 import org.apache.gobblin.source.workunit.WorkUnit;
 
 import static org.apache.gobblin.util.retry.RetryerFactory.RETRY_TIME_OUT_MS;
@@ -145,6 +151,38 @@ public class GobblinMultiTaskAttemptTest {
     Assert.assertTrue(taskAttempt.getStopped().get());
   }
 
+  @Test
+  public void testPersistTaskStateSegmentOfRetriedAttempt() throws Exception {
+    Path taskStateStoreDir = new Path(Files.createTempDir().getAbsolutePath());
+    FsStateStore<TaskState> taskStateStore = new FsStateStore<>(FileSystem.getLocal(new Configuration()),
+        taskStateStoreDir.toString(), TaskState.class);
+    JobState jobState = new JobState();
+    jobState.setProp(ConfigurationKeys.TASK_STATE_STORE_SEGMENT_ENABLED, true);
+
+    taskAttempt = new GobblinMultiTaskAttempt(ImmutableList.<WorkUnit>of().iterator(), "testJob2", jobState,
+        Mockito.mock(TaskStateTracker.class), taskExecutorMock, Optional.absent(), Optional.of(taskStateStore),
+        jobBroker);
+    taskAttempt.setTasks(ImmutableList.of(createTaskMock("testJob2", "task_0"), createTaskMock("testJob2", "task_1")));
+
+    // A retried attempt writes the segment of the same tasks again
+    String segmentName = "task_0" + AbstractJobLauncher.TASK_STATE_STORE_SEGMENT_TABLE_SUFFIX;
+    taskAttempt.persistTaskStateStore();
+    Assert.assertEquals(taskStateStore.getAll("testJob2", segmentName).size(), 2);
+    taskAttempt.persistTaskStateStore();
+    Assert.assertEquals(taskStateStore.getAll("testJob2", segmentName).size(), 2);
+  }
+
+  private static Task createTaskMock(String jobId, String taskId) {
+    TaskState taskState = new TaskState();
+    taskState.setJobId(jobId);
+    taskState.setTaskId(taskId);
+    taskState.setWorkingState(WorkUnitState.WorkingState.SUCCESSFUL);
+    Task task = Mockito.mock(Task.class);
+    Mockito.when(task.getJobId()).thenReturn(jobId);
+    Mockito.when(task.getTaskId()).thenReturn(taskId);
+    Mockito.when(task.getTaskState()).thenReturn(taskState);
+    return task;
+  }
 
   public static class DummyTestStateTracker extends AbstractTaskStateTracker {
     public DummyTestStateTracker(Properties properties, Logger logger) {
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.runtime;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+
+
+/**
+ * Unit tests for {@link SpscRingBufferQueue}.
+ */
+@Test(groups = { "gobblin.runtime" })
+public class SpscRingBufferQueueTest {
+
+  @DataProvider(name = "waitStrategies")
+  public Object[][] waitStrategies() {
+    return new Object[][] {
+        { SpscRingBufferQueue.WaitStrategy.BUSY_SPIN },
+        { SpscRingBufferQueue.WaitStrategy.YIELD },
+        { SpscRingBufferQueue.WaitStrategy.PARK }
+    };
+  }
+
+  @Test
+  public void testCapacity() throws InterruptedException {
+    SpscRingBufferQueue<Integer> queue = new SpscRingBufferQueue<>(3, SpscRingBufferQueue.WaitStrategy.PARK);
+    Assert.assertTrue(queue.offer(0));
+    Assert.assertTrue(queue.offer(1));
+    Assert.assertTrue(queue.offer(2));
+    Assert.assertFalse(queue.offer(3));
+    Assert.assertFalse(queue.offer(3, 10, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(queue.size(), 3);
+    Assert.assertEquals(queue.remainingCapacity(), 0);
+
+    Assert.assertEquals(queue.peek(), Integer.valueOf(0));
+    Assert.assertEquals(queue.poll(), Integer.valueOf(0));
+    Assert.assertTrue(queue.offer(3));
+    Assert.assertEquals(queue.size(), 3);
+
+    List<Integer> drained = Lists.newArrayList();
+    Assert.assertEquals(queue.drainTo(drained, 2), 2);
+    Assert.assertEquals(drained, Lists.newArrayList(1, 2));
+    Assert.assertEquals(queue.drainTo(drained), 1);
+    Assert.assertEquals(drained, Lists.newArrayList(1, 2, 3));
+    Assert.assertNull(queue.poll());
+    Assert.assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    Assert.assertTrue(queue.isEmpty());
+  }
+
+  @Test(dataProvider = "waitStrategies")
+  public void testPutAndTake(SpscRingBufferQueue.WaitStrategy waitStrategy) throws InterruptedException {
+    final int numRecords = 1000;
+    final SpscRingBufferQueue<Integer> queue = new SpscRingBufferQueue<>(16, waitStrategy);
+
+    Thread producer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          for (int i = 0; i < numRecords; i++) {
+            queue.put(i);
+          }
+        } catch (InterruptedException ie) {
+          throw new RuntimeException(ie);
+        }
+      }
+    });
+
+    final List<Integer> consumed = Lists.newArrayList();
+    Thread consumer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          for (int i = 0; i < numRecords; i++) {
+            consumed.add(queue.take());
+          }
+        } catch (InterruptedException ie) {
+          throw new RuntimeException(ie);
+        }
+      }
+    });
+
+    producer.start();
+    consumer.start();
+
+    producer.join();
+    consumer.join();
+
+    Assert.assertEquals(consumed.size(), numRecords);
+    for (int i = 0; i < numRecords; i++) {
+      Assert.assertEquals(consumed.get(i).intValue(), i);
+    }
+    Assert.assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testBoundedBlockingRecordQueueGetBatch() throws InterruptedException {
+    BoundedBlockingRecordQueue<Integer> queue = BoundedBlockingRecordQueue.<Integer>newBuilder().hasCapacity(4)
+        .useTimeout(10).useTimeoutTimeUnit(TimeUnit.MILLISECONDS)
+        .useSingleProducerSingleConsumer(SpscRingBufferQueue.WaitStrategy.YIELD).collectStats().build();
+
+    for (int i = 0; i < 4; i++) {
+      Assert.assertTrue(queue.put(i));
+    }
+    Assert.assertFalse(queue.put(4));
+    Assert.assertEquals(queue.stats().get().fillRatio(), 1d);
+
+    List<Integer> records = Lists.newArrayList();
+    Assert.assertEquals(queue.getBatch(records, 3), 3);
+    Assert.assertEquals(queue.getBatch(records, 3), 1);
+    Assert.assertEquals(queue.getBatch(records, 3), 0);
+    Assert.assertEquals(records, Lists.newArrayList(0, 1, 2, 3));
+
+    Assert.assertEquals(queue.stats().get().putAttemptCount(), 5);
+    Assert.assertEquals(queue.stats().get().getAttemptCount(), 3);
+    Assert.assertEquals(queue.stats().get().queueSize(), 0);
+  }
+}
@@ -29,6 +29,7 @@ import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
@@ -51,6 +52,8 @@ public class TaskStateCollectorServiceTest {
   private static final String JOB_ID = JobLauncherUtils.newJobId(JOB_NAME);
   private static final String TASK_ID_0 = JobLauncherUtils.newTaskId(JOB_ID, 0);
   private static final String TASK_ID_1 = JobLauncherUtils.newTaskId(JOB_ID, 1);
+  private static final String TASK_ID_2 = JobLauncherUtils.newTaskId(JOB_ID, 2);
+  private static final String TASK_ID_3 = JobLauncherUtils.newTaskId(JOB_ID, 3);
 
   private final Path outputTaskStateDir = new Path(TaskStateCollectorServiceTest.class.getSimpleName());
 
@@ -104,6 +107,26 @@ public class TaskStateCollectorServiceTest {
     Assert.assertEquals(this.taskStateMap.get(TASK_ID_1).getTaskId(), TASK_ID_1);
   }
 
+  @Test(dependsOnMethods = "testCollectOutputTaskStates")
+  public void testCollectTaskStateSegment() throws Exception {
+    TaskState taskState2 = new TaskState();
+    taskState2.setJobId(JOB_ID);
+    taskState2.setTaskId(TASK_ID_2);
+    TaskState taskState3 = new TaskState();
+    taskState3.setJobId(JOB_ID);
+    taskState3.setTaskId(TASK_ID_3);
+    this.taskStateStore.putAll(JOB_ID, TASK_ID_2 + AbstractJobLauncher.TASK_STATE_STORE_SEGMENT_TABLE_SUFFIX,
+        Lists.newArrayList(taskState2, taskState3));
+
+    this.taskStateCollectorService.runOneIteration();
+    Assert.assertEquals(this.jobState.getTaskStates().size(), 4);
+    Assert.assertEquals(this.taskStateMap.size(), 4);
+    Assert.assertEquals(this.taskStateMap.get(TASK_ID_2).getTaskId(), TASK_ID_2);
+    Assert.assertEquals(this.taskStateMap.get(TASK_ID_3).getTaskId(), TASK_ID_3);
+    Assert.assertFalse(this.taskStateStore.exists(JOB_ID,
+        TASK_ID_2 + AbstractJobLauncher.TASK_STATE_STORE_SEGMENT_TABLE_SUFFIX));
+  }
+
   @Test
   public void testHandlerResolution() throws Exception{
     Properties props = new Properties();
@@ -290,7 +290,7 @@ public class GobblinServiceManager implements ApplicationLauncher, StandardMetri
         this.gitConfigMonitor.setActive(true);
       }
 
-      if (configuration.isDagManagerEnabled()) {
+      if (configuration.isDagManagerEnabled() && !this.dagManager.isShardingEnabled()) {
         //Activate DagManager only if TopologyCatalog is initialized. If not; skip activation.
         if (this.topologyCatalog.getInitComplete().getCount() == 0) {
           this.dagManager.setActive(true);
@@ -314,13 +314,17 @@ public class GobblinServiceManager implements ApplicationLauncher, StandardMetri
         this.gitConfigMonitor.setActive(false);
       }
 
-      if (configuration.isDagManagerEnabled()) {
+      if (configuration.isDagManagerEnabled() && !this.dagManager.isShardingEnabled()) {
         this.dagManager.setActive(false);
         this.eventBus.unregister(this.dagManager);
       }
     }
   }
 
+  private boolean isDagManagerSharded() {
+    return configuration.isDagManagerEnabled() && this.dagManager.isShardingEnabled();
+  }
+
   private void registerServicesInLauncher(){
     if (configuration.isTopologyCatalogEnabled()) {
       this.serviceLauncher.addService(topologyCatalog);
@@ -459,8 +463,9 @@ public class GobblinServiceManager implements ApplicationLauncher, StandardMetri
     //Activate the SpecCompiler, after the topologyCatalog has been initialized.
     this.orchestrator.getSpecCompiler().setActive(true);
 
-    //Activate the DagManager service, after the topologyCatalog has been initialized.
-    if (!this.helixManager.isPresent() || this.helixManager.get().isLeader()){
+    //Activate the DagManager service, after the topologyCatalog has been initialized. A sharded DagManager is active
+    // on every instance.
+    if (!this.helixManager.isPresent() || this.helixManager.get().isLeader() || isDagManagerSharded()){
       if (configuration.isDagManagerEnabled()) {
         this.dagManager.setActive(true);
         this.eventBus.register(this.dagManager);
@@ -17,6 +17,9 @@
 
 package org.apache.gobblin.service.modules.flowgraph;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -24,12 +27,18 @@ import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.gobblin.annotation.Alpha;
 import org.apache.gobblin.runtime.api.FlowSpec;
 import org.apache.gobblin.service.modules.flow.FlowGraphPath;
+import org.apache.gobblin.service.modules.flowgraph.pathfinder.AbstractPathFinder;
 import org.apache.gobblin.service.modules.flowgraph.pathfinder.PathFinder;
+import org.apache.gobblin.service.modules.flowgraph.pathfinder.PathIndex;
 import org.apache.gobblin.util.ConfigUtils;
 import org.apache.gobblin.util.reflection.GobblinConstructorUtils;
 
@@ -41,6 +50,10 @@ import org.apache.gobblin.util.reflection.GobblinConstructorUtils;
  *   <p>flowEdgeMap - the mapping from a edge label to the {@link FlowEdge} instance</p>
  *
  *   Read/Write Access to the {@link FlowGraph} is synchronized via a {@link ReentrantReadWriteLock}.
+ *
+ *   If {@link FlowGraphConfigurationKeys#FLOW_GRAPH_PATH_INDEX_ENABLED} is set, the paths found by
+ *   {@link AbstractPathFinder}s are indexed in a {@link PathIndex}, from which the paths affected by a change of
+ *   the graph are invalidated.
  */
 @Alpha
 @Slf4j
@@ -51,6 +64,23 @@ public class BaseFlowGraph implements FlowGraph {
   private Map<String, DataNode> dataNodeMap = new HashMap<>();
   private Map<String, FlowEdge> flowEdgeMap = new HashMap<>();
 
+  // Null if paths are not indexed
+  @Getter
+  private final PathIndex pathIndex;
+
+  public BaseFlowGraph() {
+    this(ConfigFactory.empty());
+  }
+
+  public BaseFlowGraph(Config config) {
+    if (ConfigUtils.getBoolean(config, FlowGraphConfigurationKeys.FLOW_GRAPH_PATH_INDEX_ENABLED, false)) {
+      this.pathIndex = new PathIndex(ConfigUtils.getLong(config, FlowGraphConfigurationKeys.FLOW_GRAPH_PATH_INDEX_MAX_SIZE,
+          FlowGraphConfigurationKeys.DEFAULT_FLOW_GRAPH_PATH_INDEX_MAX_SIZE));
+    } else {
+      this.pathIndex = null;
+    }
+  }
+
   /**
    * Lookup a node by its identifier.
    *
@@ -72,6 +102,11 @@ public class BaseFlowGraph implements FlowGraph {
   public boolean addDataNode(DataNode node) {
     try {
       rwLock.writeLock().lock();
+      if (this.pathIndex != null && this.dataNodeMap.containsKey(node.getId())) {
+        //The paths through the replaced node may not be valid anymore, and the node may shorten the paths through the
+        // nodes which can reach it, e.g. if it was inactive.
+        this.pathIndex.invalidateNodes(getNodesReaching(node.getId()));
+      }
       //Get edges adjacent to the node if it already exists
       Set<FlowEdge> edges = this.nodesToEdges.getOrDefault(node, new HashSet<>());
       this.nodesToEdges.put(node, edges);
@@ -110,12 +145,38 @@ public class BaseFlowGraph implements FlowGraph {
       this.nodesToEdges.put(dataNode, adjacentEdges);
       String edgeId = edge.getId();
       this.flowEdgeMap.put(edgeId, edge);
+      if (this.pathIndex != null) {
+        //The paths through a replaced edge may not be valid anymore, and the edge may shorten the paths through the
+        // nodes which can reach its source.
+        this.pathIndex.invalidateEdge(edgeId);
+        this.pathIndex.invalidateNodes(getNodesReaching(srcNode));
+      }
       return true;
     } finally {
       rwLock.writeLock().unlock();
     }
   }
 
+  /**
+   * @return the identifiers of the nodes from which a node is reachable, including the node itself.
+   */
+  private Set<String> getNodesReaching(String nodeId) {
+    Map<String, Set<String>> predecessors = new HashMap<>();
+    for (FlowEdge edge : this.flowEdgeMap.values()) {
+      predecessors.computeIfAbsent(edge.getDest(), k -> new HashSet<>()).add(edge.getSrc());
+    }
+    Set<String> nodesReaching = new HashSet<>();
+    Deque<String> nodesToVisit = new ArrayDeque<>();
+    nodesToVisit.add(nodeId);
+    while (!nodesToVisit.isEmpty()) {
+      String currentNodeId = nodesToVisit.poll();
+      if (nodesReaching.add(currentNodeId)) {
+        nodesToVisit.addAll(predecessors.getOrDefault(currentNodeId, Collections.emptySet()));
+      }
+    }
+    return nodesReaching;
+  }
+
   /**
    * Delete a {@link DataNode} by its identifier
    * @param nodeId identifier of the {@link DataNode} to be deleted.
@@ -144,6 +205,9 @@ public class BaseFlowGraph implements FlowGraph {
       }
       //Delete node from dataNodeMap
       dataNodeMap.remove(node.getId());
+      if (this.pathIndex != null) {
+        this.pathIndex.invalidateNodes(Collections.singleton(node.getId()));
+      }
 
       //Delete all the edges adjacent to the node. First, delete edges from flowEdgeMap and next, remove the edges
       // from nodesToEdges
@@ -191,6 +255,9 @@ public class BaseFlowGraph implements FlowGraph {
       }
       this.nodesToEdges.get(node).remove(edge);
       this.flowEdgeMap.remove(edge.getId());
+      if (this.pathIndex != null) {
+        this.pathIndex.invalidateEdge(edge.getId());
+      }
       return true;
     } finally {
       rwLock.writeLock().unlock();
@@ -239,6 +306,9 @@ public class BaseFlowGraph implements FlowGraph {
               FlowGraphConfigurationKeys.DEFAULT_FLOW_GRAPH_PATH_FINDER_CLASS));
       PathFinder pathFinder =
           (PathFinder) GobblinConstructorUtils.invokeLongestConstructor(pathFinderClass, this, flowSpec);
+      if (this.pathIndex != null && pathFinder instanceof AbstractPathFinder) {
+        ((AbstractPathFinder) pathFinder).setPathIndex(this.pathIndex);
+      }
       return pathFinder.findPath();
     } finally {
       rwLock.readLock().unlock();
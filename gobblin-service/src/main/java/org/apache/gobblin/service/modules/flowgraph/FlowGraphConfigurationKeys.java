@@ -54,4 +54,7 @@ public class FlowGraphConfigurationKeys {
    */
   public static final String FLOW_GRAPH_PATH_FINDER_CLASS = FLOW_GRAPH_PREFIX + "pathfinder.class";
   public static final String DEFAULT_FLOW_GRAPH_PATH_FINDER_CLASS = "org.apache.gobblin.service.modules.flowgraph.pathfinder.BFSPathFinder";
+  public static final String FLOW_GRAPH_PATH_INDEX_ENABLED = FLOW_GRAPH_PREFIX + "pathIndex.enabled";
+  public static final String FLOW_GRAPH_PATH_INDEX_MAX_SIZE = FLOW_GRAPH_PREFIX + "pathIndex.maxSize";
+  public static final long DEFAULT_FLOW_GRAPH_PATH_INDEX_MAX_SIZE = 10000L;
 }
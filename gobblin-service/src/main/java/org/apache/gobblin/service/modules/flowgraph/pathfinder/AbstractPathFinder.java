@@ -26,6 +26,7 @@ import com.typesafe.config.ConfigValue;
 import com.typesafe.config.ConfigValueFactory;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -78,6 +79,8 @@ public abstract class AbstractPathFinder implements PathFinder {
   protected FlowSpec flowSpec;
   protected Config flowConfig;
 
+  private PathIndex pathIndex;
+
   AbstractPathFinder(FlowGraph flowGraph, FlowSpec flowSpec)
       throws ReflectiveOperationException {
     this.flowGraph = flowGraph;
@@ -169,6 +172,13 @@ public abstract class AbstractPathFinder implements PathFinder {
     return defaultConfig;
   }
 
+  /**
+   * Use a {@link PathIndex} of the {@link FlowGraph} to look up and index the paths found by {@link #findPath()}.
+   */
+  public void setPathIndex(PathIndex pathIndex) {
+    this.pathIndex = pathIndex;
+  }
+
   boolean isPathFound(DataNode currentNode, DataNode destNode, DatasetDescriptor currentDatasetDescriptor,
       DatasetDescriptor destDatasetDescriptor) {
     return (currentNode.equals(destNode)) && (currentDatasetDescriptor.equals(destDatasetDescriptor));
@@ -190,60 +200,69 @@ public abstract class AbstractPathFinder implements PathFinder {
       if (!edgeIds.isEmpty() && !edgeIds.contains(flowEdge.getId())) {
         continue;
       }
-      try {
-        DataNode edgeDestination = this.flowGraph.getNode(flowEdge.getDest());
-        //Base condition: Skip this FLowEdge, if it is inactive or if the destination of this edge is inactive.
-        if (!edgeDestination.isActive() || !flowEdge.isActive()) {
-          continue;
-        }
+      addEdgeContexts(flowEdge, currentDatasetDescriptor, destDatasetDescriptor, prioritizedEdgeList);
+    }
+    return prioritizedEdgeList;
+  }
 
-        boolean foundExecutor = false;
-        //Iterate over all executors for this edge. Find the first one that resolves the underlying flow template.
-        for (SpecExecutor specExecutor : flowEdge.getExecutors()) {
-          Config mergedConfig = getMergedConfig(flowEdge);
-          List<Pair<DatasetDescriptor, DatasetDescriptor>> datasetDescriptorPairs =
-              flowEdge.getFlowTemplate().getDatasetDescriptors(mergedConfig, false);
-          for (Pair<DatasetDescriptor, DatasetDescriptor> datasetDescriptorPair : datasetDescriptorPairs) {
-            DatasetDescriptor inputDatasetDescriptor = datasetDescriptorPair.getLeft();
-            DatasetDescriptor outputDatasetDescriptor = datasetDescriptorPair.getRight();
-
-            try {
-              flowEdge.getFlowTemplate().tryResolving(mergedConfig, datasetDescriptorPair.getLeft(), datasetDescriptorPair.getRight());
-            } catch (JobTemplate.TemplateException | ConfigException | SpecNotFoundException e) {
-              this.flowSpec.getCompilationErrors().add("Error compiling edge " + flowEdge.toString() + ": " + e.toString());
-              continue;
-            }
+  /**
+   * Add the {@link FlowEdgeContext}s of a {@link FlowEdge} which accepts the currentDatasetDescriptor to the
+   * prioritizedEdgeList, see {@link #getNextEdges(DataNode, DatasetDescriptor, DatasetDescriptor)}.
+   */
+  private void addEdgeContexts(FlowEdge flowEdge, DatasetDescriptor currentDatasetDescriptor,
+      DatasetDescriptor destDatasetDescriptor, List<FlowEdgeContext> prioritizedEdgeList) {
+    try {
+      DataNode edgeDestination = this.flowGraph.getNode(flowEdge.getDest());
+      //Base condition: Skip this FLowEdge, if it is inactive or if the destination of this edge is inactive.
+      if (!edgeDestination.isActive() || !flowEdge.isActive()) {
+        return;
+      }
 
-            if (inputDatasetDescriptor.contains(currentDatasetDescriptor)) {
-              DatasetDescriptor edgeOutputDescriptor = makeOutputDescriptorSpecific(currentDatasetDescriptor, outputDatasetDescriptor);
-              FlowEdgeContext flowEdgeContext = new FlowEdgeContext(flowEdge, currentDatasetDescriptor, edgeOutputDescriptor, mergedConfig,
-                  specExecutor);
-
-              if (destDatasetDescriptor.getFormatConfig().contains(outputDatasetDescriptor.getFormatConfig())) {
-                /*
-                Add to the front of the edge list if platform-independent properties of the output descriptor is compatible
-                with those of destination dataset descriptor.
-                In other words, we prioritize edges that perform data transformations as close to the source as possible.
-                */
-                prioritizedEdgeList.add(0, flowEdgeContext);
-              } else {
-                prioritizedEdgeList.add(flowEdgeContext);
-              }
-              foundExecutor = true;
-            }
+      boolean foundExecutor = false;
+      //Iterate over all executors for this edge. Find the first one that resolves the underlying flow template.
+      for (SpecExecutor specExecutor : flowEdge.getExecutors()) {
+        Config mergedConfig = getMergedConfig(flowEdge);
+        List<Pair<DatasetDescriptor, DatasetDescriptor>> datasetDescriptorPairs =
+            flowEdge.getFlowTemplate().getDatasetDescriptors(mergedConfig, false);
+        for (Pair<DatasetDescriptor, DatasetDescriptor> datasetDescriptorPair : datasetDescriptorPairs) {
+          DatasetDescriptor inputDatasetDescriptor = datasetDescriptorPair.getLeft();
+          DatasetDescriptor outputDatasetDescriptor = datasetDescriptorPair.getRight();
+
+          try {
+            flowEdge.getFlowTemplate().tryResolving(mergedConfig, datasetDescriptorPair.getLeft(), datasetDescriptorPair.getRight());
+          } catch (JobTemplate.TemplateException | ConfigException | SpecNotFoundException e) {
+            this.flowSpec.getCompilationErrors().add("Error compiling edge " + flowEdge.toString() + ": " + e.toString());
+            continue;
           }
-          // Found a SpecExecutor. Proceed to the next FlowEdge.
-          // TODO: Choose the min-cost executor for the FlowEdge as opposed to the first one that resolves.
-          if (foundExecutor) {
-            break;
+
+          if (inputDatasetDescriptor.contains(currentDatasetDescriptor)) {
+            DatasetDescriptor edgeOutputDescriptor = makeOutputDescriptorSpecific(currentDatasetDescriptor, outputDatasetDescriptor);
+            FlowEdgeContext flowEdgeContext = new FlowEdgeContext(flowEdge, currentDatasetDescriptor, edgeOutputDescriptor, mergedConfig,
+                specExecutor);
+
+            if (destDatasetDescriptor.getFormatConfig().contains(outputDatasetDescriptor.getFormatConfig())) {
+              /*
+              Add to the front of the edge list if platform-independent properties of the output descriptor is compatible
+              with those of destination dataset descriptor.
+              In other words, we prioritize edges that perform data transformations as close to the source as possible.
+              */
+              prioritizedEdgeList.add(0, flowEdgeContext);
+            } else {
+              prioritizedEdgeList.add(flowEdgeContext);
+            }
+            foundExecutor = true;
           }
         }
-      } catch (IOException | ReflectiveOperationException | SpecNotFoundException | JobTemplate.TemplateException e) {
-        //Skip the edge; and continue
-        log.warn("Skipping edge {} with config {} due to exception: {}", flowEdge.getId(), flowConfig.toString(), e);
+        // Found a SpecExecutor. Proceed to the next FlowEdge.
+        // TODO: Choose the min-cost executor for the FlowEdge as opposed to the first one that resolves.
+        if (foundExecutor) {
+          break;
+        }
       }
+    } catch (IOException | ReflectiveOperationException | SpecNotFoundException | JobTemplate.TemplateException e) {
+      //Skip the edge; and continue
+      log.warn("Skipping edge {} with config {} due to exception: {}", flowEdge.getId(), flowConfig.toString(), e);
     }
-    return prioritizedEdgeList;
   }
 
   /**
@@ -347,7 +366,7 @@ public abstract class AbstractPathFinder implements PathFinder {
     // Path computation must be thread-safe to guarantee read consistency. In other words, we prevent concurrent read/write access to the
     // flow graph.
     for (DataNode destNode : this.destNodes) {
-      List<FlowEdgeContext> path = findPathUnicast(destNode);
+      List<FlowEdgeContext> path = findIndexedPathUnicast(destNode);
       if (path != null) {
         log.info("Path to destination node {} found for flow {}. Path - {}", destNode.getId(), flowSpec.getUri(), path);
         flowGraphPath.addPath(path);
@@ -360,5 +379,67 @@ public abstract class AbstractPathFinder implements PathFinder {
     return flowGraphPath;
   }
 
+  /**
+   * Replay the path of the {@link PathIndex} to the destNode, if any and still valid for the flow, or else find the path
+   * with {@link #findPathUnicast(DataNode)} and index it.
+   */
+  private List<FlowEdgeContext> findIndexedPathUnicast(DataNode destNode) throws PathFinderException {
+    if (this.pathIndex == null) {
+      return findPathUnicast(destNode);
+    }
+
+    PathIndex.Key key = new PathIndex.Key(this.srcNode.getId(), destNode.getId(), this.srcDatasetDescriptor,
+        this.destDatasetDescriptor, this.flowConfig.withoutPath(ConfigurationKeys.FLOW_EXECUTION_ID_KEY));
+    List<PathIndex.Hop> hops = this.pathIndex.get(key);
+    if (hops != null) {
+      List<FlowEdgeContext> path = replayPath(hops, destNode);
+      if (path != null) {
+        this.pathIndex.markReplayed();
+        return path;
+      }
+      log.info("Indexed path to destination node {} is not valid for flow {}", destNode.getId(), flowSpec.getUri());
+    }
+
+    List<FlowEdgeContext> path = findPathUnicast(destNode);
+    if (path != null && !path.isEmpty()) {
+      this.pathIndex.put(key, this.srcNode, path);
+    }
+    return path;
+  }
+
+  /**
+   * Rebuild the {@link FlowEdgeContext}s of an indexed path with the config of the flow.
+   * @return the path, or null if one of its edges does not accept the output of the previous edge anymore.
+   */
+  private List<FlowEdgeContext> replayPath(List<PathIndex.Hop> hops, DataNode destNode) {
+    if (!this.srcNode.isActive() || !destNode.isActive()) {
+      return null;
+    }
+
+    List<FlowEdgeContext> path = new ArrayList<>(hops.size());
+    DataNode currentNode = this.srcNode;
+    DatasetDescriptor currentDatasetDescriptor = this.srcDatasetDescriptor;
+    for (PathIndex.Hop hop : hops) {
+      Collection<FlowEdge> edges = this.flowGraph.getEdges(currentNode);
+      FlowEdge flowEdge = edges == null ? null
+          : edges.stream().filter(edge -> edge.getId().equals(hop.getEdgeId())).findFirst().orElse(null);
+      if (flowEdge == null) {
+        return null;
+      }
+      List<FlowEdgeContext> flowEdgeContexts = new ArrayList<>();
+      addEdgeContexts(flowEdge, currentDatasetDescriptor, this.destDatasetDescriptor, flowEdgeContexts);
+      FlowEdgeContext flowEdgeContext = flowEdgeContexts.stream()
+          .filter(context -> context.getOutputDatasetDescriptor().equals(hop.getOutputDatasetDescriptor()))
+          .findFirst().orElse(null);
+      if (flowEdgeContext == null) {
+        return null;
+      }
+      path.add(flowEdgeContext);
+      currentNode = this.flowGraph.getNode(flowEdge.getDest());
+      currentDatasetDescriptor = flowEdgeContext.getOutputDatasetDescriptor();
+    }
+    return isPathFound(currentNode, destNode, currentDatasetDescriptor, this.destDatasetDescriptor) ? path : null;
+  }
+
   public abstract List<FlowEdgeContext> findPathUnicast(DataNode destNode) throws PathFinderException;
 }
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.service.modules.flowgraph.pathfinder;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.collect.ImmutableList;
+import com.typesafe.config.Config;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.gobblin.annotation.Alpha;
+import org.apache.gobblin.service.modules.dataset.DatasetDescriptor;
+import org.apache.gobblin.service.modules.flow.FlowEdgeContext;
+import org.apache.gobblin.service.modules.flowgraph.DataNode;
+import org.apache.gobblin.service.modules.flowgraph.FlowEdge;
+import org.apache.gobblin.service.modules.flowgraph.FlowGraph;
+
+
+/**
+ * An index of the paths found by {@link AbstractPathFinder}s in a {@link FlowGraph}, keyed by the source and
+ * destination {@link DataNode}s and {@link DatasetDescriptor}s of a flow, and the config of the flow.
+ *
+ * <p> Only the {@link FlowEdge}s of a path and their output {@link DatasetDescriptor}s are indexed. A path finder
+ * replays an indexed path with the config of the flow being compiled, which resolves the flow templates of the edges
+ * of the path only instead of those of every edge explored by a search, and searches the {@link FlowGraph} if the
+ * indexed path is not valid for the flow. </p>
+ *
+ * <p> Whether the flow template of an edge resolves depends on the config of the flow, so a flow can be able to use
+ * an edge which another flow with the same source and destination cannot, e.g. a shorter one. Paths are therefore
+ * only shared by the executions of flows with the same config, and the path found for a flow does not depend on the
+ * paths indexed for other flows. </p>
+ *
+ * <p> The {@link FlowGraph} invalidates the paths affected by its changes: the paths going through a deleted or
+ * replaced edge or a deleted node, and the paths going through a node which can reach a replaced node or the source of
+ * an added edge, since they may shorten them. Paths are indexed while holding the read lock of the {@link FlowGraph}
+ * and invalidated while holding its write lock, so that a path computed before a change is not indexed after it. </p>
+ */
+@Alpha
+@Slf4j
+public class PathIndex {
+  private final Cache<Key, List<Hop>> paths;
+  // The keys of the indexed paths going through a node, used to invalidate them when the flow graph changes
+  private final Map<String, Set<Key>> keysByNode = new ConcurrentHashMap<>();
+  private final Map<String, Set<Key>> keysByEdge = new ConcurrentHashMap<>();
+  private final AtomicLong numReplayedPaths = new AtomicLong();
+
+  public PathIndex(long maxSize) {
+    this.paths = CacheBuilder.newBuilder().maximumSize(maxSize).<Key, List<Hop>>removalListener(notification -> {
+      // A replaced path has the same key, only evicted paths are removed from the node and edge indexes
+      if (notification.getCause() != RemovalCause.REPLACED) {
+        unindex(notification.getKey(), notification.getValue());
+      }
+    }).build();
+  }
+
+  /**
+   * @return the indexed path of the key, or null if there is none
+   */
+  List<Hop> get(Key key) {
+    return this.paths.getIfPresent(key);
+  }
+
+  /**
+   * Record that an indexed path was replayed for a flow instead of searching the {@link FlowGraph}.
+   */
+  void markReplayed() {
+    this.numReplayedPaths.incrementAndGet();
+  }
+
+  void put(Key key, DataNode srcNode, List<FlowEdgeContext> path) {
+    List<Hop> hops = ImmutableList.copyOf(path.stream()
+        .map(flowEdgeContext -> new Hop(flowEdgeContext.getEdge().getId(), flowEdgeContext.getEdge().getDest(),
+            flowEdgeContext.getOutputDatasetDescriptor()))
+        .collect(Collectors.toList()));
+    index(this.keysByNode, srcNode.getId(), key);
+    for (FlowEdgeContext flowEdgeContext : path) {
+      index(this.keysByNode, flowEdgeContext.getEdge().getDest(), key);
+      index(this.keysByEdge, flowEdgeContext.getEdge().getId(), key);
+    }
+    this.paths.put(key, hops);
+  }
+
+  private static void index(Map<String, Set<Key>> keys, String id, Key key) {
+    keys.computeIfAbsent(id, k -> Collections.newSetFromMap(new ConcurrentHashMap<>())).add(key);
+  }
+
+  private void unindex(Key key, List<Hop> hops) {
+    if (key == null || hops == null) {
+      return;
+    }
+    unindex(this.keysByNode, key.getSrcNodeId(), key);
+    for (Hop hop : hops) {
+      unindex(this.keysByNode, hop.getDestNodeId(), key);
+      unindex(this.keysByEdge, hop.getEdgeId(), key);
+    }
+  }
+
+  private static void unindex(Map<String, Set<Key>> keys, String id, Key key) {
+    keys.computeIfPresent(id, (k, indexedKeys) -> {
+      indexedKeys.remove(key);
+      return indexedKeys.isEmpty() ? null : indexedKeys;
+    });
+  }
+
+  /**
+   * Invalidate the indexed paths going through any of the nodes.
+   */
+  public void invalidateNodes(Collection<String> nodeIds) {
+    for (String nodeId : nodeIds) {
+      invalidate(this.keysByNode.remove(nodeId));
+    }
+  }
+
+  /**
+   * Invalidate the indexed paths going through the edge.
+   */
+  public void invalidateEdge(String edgeId) {
+    invalidate(this.keysByEdge.remove(edgeId));
+  }
+
+  private void invalidate(Set<Key> keys) {
+    if (keys != null && !keys.isEmpty()) {
+      log.debug("Invalidating {} indexed paths", keys.size());
+      this.paths.invalidateAll(keys);
+    }
+  }
+
+  public long size() {
+    return this.paths.size();
+  }
+
+  /**
+   * @return the number of times an indexed path was replayed for a flow
+   */
+  public long getNumReplayedPaths() {
+    return this.numReplayedPaths.get();
+  }
+
+  /**
+   * The source and destination of a flow. The {@link DatasetDescriptor}s are those computed by the
+   * {@link AbstractPathFinder}, with the retention configs of the flow and the defaults of the nodes. The flow config
+   * excludes the flow execution id, which differs between the executions of a flow.
+   */
+  @Value
+  static class Key {
+    String srcNodeId;
+    String destNodeId;
+    DatasetDescriptor srcDatasetDescriptor;
+    DatasetDescriptor destDatasetDescriptor;
+    Config flowConfig;
+  }
+
+  /**
+   * An edge of an indexed path, its destination node and its output {@link DatasetDescriptor}.
+   */
+  @Value
+  static class Hop {
+    String edgeId;
+    String destNodeId;
+    DatasetDescriptor outputDatasetDescriptor;
+  }
+}
@@ -24,20 +24,28 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -80,10 +88,12 @@ import org.apache.gobblin.service.modules.flowgraph.Dag;
 import org.apache.gobblin.service.modules.flowgraph.Dag.DagNode;
 import org.apache.gobblin.service.modules.spec.JobExecutionPlan;
 import org.apache.gobblin.service.monitoring.JobStatus;
+import org.apache.gobblin.service.monitoring.JobStatusEvent;
 import org.apache.gobblin.service.monitoring.JobStatusRetriever;
 import org.apache.gobblin.service.monitoring.KillFlowEvent;
 import org.apache.gobblin.service.monitoring.ResumeFlowEvent;
 import org.apache.gobblin.util.ConfigUtils;
+import org.apache.gobblin.util.ExecutorsUtils;
 import org.apache.gobblin.util.reflection.GobblinConstructorUtils;
 
 import static org.apache.gobblin.service.ExecutionStatus.*;
@@ -110,8 +120,28 @@ import static org.apache.gobblin.service.ExecutionStatus.*;
  *
  * The {@link DagManager} is active only in the leader mode. To ensure, each {@link Dag} managed by a {@link DagManager} is
  * checkpointed to a persistent location. On start up or leadership change,
- * the {@link DagManager} loads all the checkpointed {@link Dag}s and adds them to the {@link  BlockingQueue}.
- * Current implementation supports only FileSystem-based checkpointing of the Dag statuses.
+ * the {@link DagManager} lists the checkpointed {@link Dag}s, and loads them in the background and adds them to the
+ * {@link  BlockingQueue}. A {@link Dag} which is killed before being loaded is loaded right away.
+ * If {@link #INCREMENTAL_CHECKPOINTS_ENABLED_KEY} is set, the {@link DagStateStore} writes each {@link Dag} once, and
+ * only the statuses of its jobs on the following checkpoints.
+ *
+ * If {@link #JOB_STATUS_EVENTS_ENABLED_KEY} is set, the {@link DagManager} also receives the {@link JobStatusEvent}s
+ * posted by the {@link org.apache.gobblin.service.monitoring.KafkaJobStatusMonitor}, and forwards the finished and
+ * retried jobs to the {@link DagManagerThread} managing their dag, which runs right away to submit the next jobs. The
+ * {@link DagManagerThread}s then poll the {@link JobStatusRetriever} only every
+ * {@link #JOB_STATUS_RECONCILIATION_INTERVAL_KEY} seconds, to catch up with events that were not received (e.g.
+ * when the events are consumed by another instance of the service).
+ *
+ * If {@link #SHARDING_ENABLED_KEY} is set, the {@link DagManager} is active on every instance of the service instead of
+ * the leader only. The {@link Dag}s are partitioned into {@link #SHARDING_NUM_SHARDS_KEY} shards by flowExecutionId,
+ * and each instance only manages the {@link Dag}s of the shards it leases from a {@link DagShardLeaseStore}, see
+ * {@link DagShardManager}. An instance periodically loads the {@link Dag}s of its shards which were added to the
+ * {@link DagStateStore} by other instances or were managed by the previous owner of a shard. The kill and resume
+ * requests of the {@link Dag}s of other shards are stored in the {@link DagShardLeaseStore}, and handled by the owner
+ * of their shard the next time it renews its leases. {@link JobStatusEvent}s are ignored in sharded mode, since they
+ * are not necessarily received by the instance managing the {@link Dag}. The running jobs counted against the job
+ * quotas are only the ones of the {@link Dag}s managed by an instance, so a sharded {@link DagManager} rejects job
+ * quotas.
  */
 @Alpha
 @Slf4j
@@ -127,7 +157,31 @@ public class DagManager extends AbstractIdleService {
   private static final Integer TERMINATION_TIMEOUT = 30;
   public static final String NUM_THREADS_KEY = DAG_MANAGER_PREFIX + "numThreads";
   public static final String JOB_STATUS_POLLING_INTERVAL_KEY = DAG_MANAGER_PREFIX + "pollingInterval";
+  public static final String JOB_STATUS_EVENTS_ENABLED_KEY = DAG_MANAGER_PREFIX + "jobStatusEvents.enabled";
+  /**
+   * Interval in seconds at which job statuses are polled when {@link #JOB_STATUS_EVENTS_ENABLED_KEY} is set. Defaults to
+   * {@link #JOB_STATUS_POLLING_INTERVAL_KEY}, since the statuses consumed by the other instances of the service only
+   * reach the leader by polling. It can be raised when the leader consumes all the job statuses.
+   */
+  public static final String JOB_STATUS_RECONCILIATION_INTERVAL_KEY =
+      DAG_MANAGER_PREFIX + "jobStatusEvents.reconciliationInterval";
+  /**
+   * Whether the {@link Dag}s are managed by all the instances of the service, see {@link DagShardManager}. Each
+   * instance only counts the running jobs of its own {@link Dag}s, which would turn the cluster-wide
+   * {@link #USER_JOB_QUOTA_KEY} and {@link #PER_USER_QUOTA} into per-instance limits, so they cannot be set along with
+   * this key.
+   */
+  public static final String SHARDING_ENABLED_KEY = DAG_MANAGER_PREFIX + "sharding.enabled";
+  public static final String SHARDING_NUM_SHARDS_KEY = DAG_MANAGER_PREFIX + "sharding.numShards";
+  private static final Integer DEFAULT_SHARDING_NUM_SHARDS = 64;
+  public static final String SHARDING_INSTANCE_ID_KEY = DAG_MANAGER_PREFIX + "sharding.instanceId";
+  public static final String SHARDING_LEASE_STORE_CLASS_KEY = DAG_MANAGER_PREFIX + "sharding.leaseStoreClass";
+  public static final String SHARDING_LEASE_TIME_KEY = DAG_MANAGER_PREFIX + "sharding.leaseTimeSecs";
+  private static final long DEFAULT_SHARDING_LEASE_TIME = 60L;
+  public static final String SHARDING_LEASE_RENEWAL_INTERVAL_KEY = DAG_MANAGER_PREFIX + "sharding.leaseRenewalIntervalSecs";
+  private static final Integer DEFAULT_SHARDING_LEASE_RENEWAL_INTERVAL = 15;
   private static final String DAG_STATESTORE_CLASS_KEY = DAG_MANAGER_PREFIX + "dagStateStoreClass";
+  public static final String INCREMENTAL_CHECKPOINTS_ENABLED_KEY = DAG_MANAGER_PREFIX + "incrementalCheckpoints.enabled";
   private static final String FAILED_DAG_STATESTORE_PREFIX = "failedDagStateStore";
   private static final String FAILED_DAG_RETENTION_TIME_UNIT = FAILED_DAG_STATESTORE_PREFIX + ".retention.timeUnit";
   private static final String DEFAULT_FAILED_DAG_RETENTION_TIME_UNIT = "DAYS";
@@ -169,18 +223,33 @@ public class DagManager extends AbstractIdleService {
   private BlockingQueue<Dag<JobExecutionPlan>>[] queue;
   private BlockingQueue<String>[] cancelQueue;
   private BlockingQueue<String>[] resumeQueue;
+  private BlockingQueue<JobStatus>[] jobStatusQueue;
   DagManagerThread[] dagManagerThreads;
 
   private ScheduledExecutorService scheduledExecutorPool;
   private boolean instrumentationEnabled;
   private DagStateStore dagStateStore;
   private DagStateStore failedDagStateStore;
+  private Set<String> failedDagIds;
   private Map<URI, TopologySpec> topologySpecMap;
+  // Null unless the DagManager is active in sharded mode
+  private volatile DagShardManager dagShardManager;
+  // The dags of the owned shards which were added to the DagManagerThreads, in sharded mode
+  private final Set<String> loadedDagIds = ConcurrentHashMap.newKeySet();
+  // The checkpointed dags which were not loaded from the DagStateStore yet since the DagManager was activated
+  private final Set<String> unloadedDagIds = ConcurrentHashMap.newKeySet();
+  // The loads of checkpointed dags in progress, which the other requests touching the dags wait for
+  private final Map<String, CompletableFuture<Void>> dagLoads = new ConcurrentHashMap<>();
 
   @Getter
   private final Integer numThreads;
   private final Integer pollingInterval;
   private final Integer retentionPollingInterval;
+  private final boolean jobStatusEventsEnabled;
+  private final Integer reconciliationInterval;
+  @Getter
+  private final boolean shardingEnabled;
+  private final Integer leaseRenewalInterval;
   @Getter
   private final JobStatusRetriever jobStatusRetriever;
   private final Config config;
@@ -197,8 +266,20 @@ public class DagManager extends AbstractIdleService {
     this.queue = initializeDagQueue(this.numThreads);
     this.cancelQueue = initializeDagQueue(this.numThreads);
     this.resumeQueue = initializeDagQueue(this.numThreads);
+    this.jobStatusQueue = initializeDagQueue(this.numThreads);
     this.scheduledExecutorPool = Executors.newScheduledThreadPool(numThreads);
     this.pollingInterval = ConfigUtils.getInt(config, JOB_STATUS_POLLING_INTERVAL_KEY, DEFAULT_JOB_STATUS_POLLING_INTERVAL);
+    this.shardingEnabled = ConfigUtils.getBoolean(config, SHARDING_ENABLED_KEY, false);
+    this.leaseRenewalInterval = ConfigUtils.getInt(config, SHARDING_LEASE_RENEWAL_INTERVAL_KEY,
+        DEFAULT_SHARDING_LEASE_RENEWAL_INTERVAL);
+    boolean jobStatusEventsEnabled = ConfigUtils.getBoolean(config, JOB_STATUS_EVENTS_ENABLED_KEY, false);
+    if (this.shardingEnabled && jobStatusEventsEnabled) {
+      log.warn("Job status events are ignored by a sharded DagManager, job statuses are polled every {} seconds instead",
+          this.pollingInterval);
+    }
+    this.jobStatusEventsEnabled = jobStatusEventsEnabled && !this.shardingEnabled;
+    this.reconciliationInterval = ConfigUtils.getInt(config, JOB_STATUS_RECONCILIATION_INTERVAL_KEY,
+        this.pollingInterval);
     this.retentionPollingInterval = ConfigUtils.getInt(config, FAILED_DAG_POLLING_INTERVAL, DEFAULT_FAILED_DAG_POLLING_INTERVAL);
     this.instrumentationEnabled = instrumentationEnabled;
     if (instrumentationEnabled) {
@@ -213,6 +294,10 @@ public class DagManager extends AbstractIdleService {
     for (String userQuota : ConfigUtils.getStringList(config, PER_USER_QUOTA)) {
       this.perUserQuota.put(userQuota.split(QUOTA_SEPERATOR)[0], Integer.parseInt(userQuota.split(QUOTA_SEPERATOR)[1]));
     }
+    if (this.shardingEnabled && (this.defaultQuota != DEFAULT_USER_JOB_QUOTA || !this.perUserQuota.isEmpty())) {
+      throw new IllegalArgumentException(String.format("Job quotas %s and %s are enforced per instance in sharded mode,"
+          + " they cannot be set along with %s", USER_JOB_QUOTA_KEY, PER_USER_QUOTA, SHARDING_ENABLED_KEY));
+    }
 
     this.jobStatusRetriever = jobStatusRetriever;
 
@@ -256,6 +341,8 @@ public class DagManager extends AbstractIdleService {
    * Method to submit a {@link Dag} to the {@link DagManager}. The {@link DagManager} optionally persists the
    * submitted dag to the {@link DagStateStore} and then adds the dag to a {@link BlockingQueue} to be picked up
    * by one of the {@link DagManagerThread}s.
+   * In sharded mode, a dag whose shard is owned by another instance is only persisted, and is loaded from the
+   * {@link DagStateStore} by that instance.
    * @param dag {@link Dag} to be added
    * @param persist whether to persist the dag to the {@link DagStateStore}
    * @param setStatus if true, set all jobs in the dag to pending
@@ -265,6 +352,26 @@ public class DagManager extends AbstractIdleService {
       //Persist the dag
       this.dagStateStore.writeCheckpoint(dag);
     }
+    String dagId = DagManagerUtils.generateDagId(dag);
+    if (this.dagShardManager != null && !this.dagShardManager.isOwned(DagManagerUtils.getFlowExecId(dag))) {
+      log.info("Dag {} belongs to shard {} owned by another instance", dagId,
+          this.dagShardManager.getShardId(DagManagerUtils.getFlowExecId(dag)));
+      if (setStatus) {
+        submitEventsAndSetStatus(dag);
+      }
+      return;
+    }
+    offerDag(dag);
+    if (setStatus) {
+      submitEventsAndSetStatus(dag);
+    }
+  }
+
+  /**
+   * Add a dag to the queue of its {@link DagManagerThread}. Unlike {@link #addDag(Dag, boolean, boolean)}, it does not
+   * lock the {@link DagManager}, so that a request holding the lock can wait for a dag being loaded.
+   */
+  private void offerDag(Dag<JobExecutionPlan> dag) throws IOException {
     int queueId = DagManagerUtils.getDagQueueId(dag, this.numThreads);
     // Add the dag to the specific queue determined by flowExecutionId
     // Flow cancellation request has to be forwarded to the same DagManagerThread where the
@@ -273,8 +380,8 @@ public class DagManager extends AbstractIdleService {
     if (!this.queue[queueId].offer(dag)) {
       throw new IOException("Could not add dag" + DagManagerUtils.generateDagId(dag) + "to queue");
     }
-    if (setStatus) {
-      submitEventsAndSetStatus(dag);
+    if (this.dagShardManager != null) {
+      this.loadedDagIds.add(DagManagerUtils.generateDagId(dag));
     }
   }
 
@@ -297,11 +404,18 @@ public class DagManager extends AbstractIdleService {
     String flowGroup = FlowSpec.Utils.getFlowGroup(uri);
     String flowName = FlowSpec.Utils.getFlowName(uri);
 
-    List<Long> flowExecutionIds = this.jobStatusRetriever.getLatestExecutionIdsForFlow(flowName, flowGroup, 10);
+    Set<Long> flowExecutionIds =
+        new LinkedHashSet<>(this.jobStatusRetriever.getLatestExecutionIdsForFlow(flowName, flowGroup, 10));
+    // Also cancel the running executions of the flow whose status was not reported yet
+    if (this.dagStateStore != null) {
+      for (String dagId : this.dagStateStore.getDagIds(flowGroup, flowName)) {
+        flowExecutionIds.add(DagManagerUtils.getFlowExecId(dagId));
+      }
+    }
     log.info("Found {} flows to cancel.", flowExecutionIds.size());
 
     for (long flowExecutionId : flowExecutionIds) {
-      killFlow(flowGroup, flowName, flowExecutionId);
+      handleKillFlowEvent(new KillFlowEvent(flowGroup, flowName, flowExecutionId));
     }
   }
 
@@ -311,15 +425,33 @@ public class DagManager extends AbstractIdleService {
   private void killFlow(String flowGroup, String flowName, long flowExecutionId) throws IOException {
     int queueId =  DagManagerUtils.getDagQueueId(flowExecutionId, this.numThreads);
     String dagId = DagManagerUtils.generateDagId(flowGroup, flowName, flowExecutionId);
+    // The DagManagerThread initializes the dag before cancelling it
+    loadDagIfUnloaded(dagId);
     if (!this.cancelQueue[queueId].offer(dagId)) {
       throw new IOException("Could not add dag " + dagId + " to cancellation queue.");
     }
   }
 
+  /**
+   * Add the specified flow to {@link DagManager#resumeQueue}
+   */
+  private void resumeFlow(String flowGroup, String flowName, long flowExecutionId) throws IOException {
+    String dagId = DagManagerUtils.generateDagId(flowGroup, flowName, flowExecutionId);
+    int queueId = DagManagerUtils.getDagQueueId(flowExecutionId, this.numThreads);
+    if (!this.resumeQueue[queueId].offer(dagId)) {
+      throw new IOException("Could not add dag " + dagId + " to resume queue");
+    }
+  }
+
   @Subscribe
   public void handleKillFlowEvent(KillFlowEvent killFlowEvent) {
     log.info("Received kill request for flow ({}, {}, {})", killFlowEvent.getFlowGroup(), killFlowEvent.getFlowName(), killFlowEvent.getFlowExecutionId());
     try {
+      if (isOwnedByOtherInstance(killFlowEvent.getFlowExecutionId())) {
+        forward(new DagShardLeaseStore.DagAction(DagShardLeaseStore.DagAction.Type.KILL, killFlowEvent.getFlowGroup(),
+            killFlowEvent.getFlowName(), killFlowEvent.getFlowExecutionId()));
+        return;
+      }
       killFlow(killFlowEvent.getFlowGroup(), killFlowEvent.getFlowName(), killFlowEvent.getFlowExecutionId());
     } catch (IOException e) {
       log.warn("Failed to kill flow", e);
@@ -329,13 +461,69 @@ public class DagManager extends AbstractIdleService {
   @Subscribe
   public void handleResumeFlowEvent(ResumeFlowEvent resumeFlowEvent) {
     log.info("Received resume request for flow ({}, {}, {})", resumeFlowEvent.getFlowGroup(), resumeFlowEvent.getFlowName(), resumeFlowEvent.getFlowExecutionId());
-    String dagId = DagManagerUtils.generateDagId(resumeFlowEvent.getFlowGroup(), resumeFlowEvent.getFlowName(), resumeFlowEvent.getFlowExecutionId());
-    int queueId = DagManagerUtils.getDagQueueId(resumeFlowEvent.getFlowExecutionId(), this.numThreads);
-    if (!this.resumeQueue[queueId].offer(dagId)) {
-      log.warn("Could not add dag " + dagId + " to resume queue");
+    try {
+      if (isOwnedByOtherInstance(resumeFlowEvent.getFlowExecutionId())) {
+        forward(new DagShardLeaseStore.DagAction(DagShardLeaseStore.DagAction.Type.RESUME,
+            resumeFlowEvent.getFlowGroup(), resumeFlowEvent.getFlowName(), resumeFlowEvent.getFlowExecutionId()));
+        return;
+      }
+      resumeFlow(resumeFlowEvent.getFlowGroup(), resumeFlowEvent.getFlowName(), resumeFlowEvent.getFlowExecutionId());
+    } catch (IOException e) {
+      log.warn("Failed to resume flow", e);
     }
   }
 
+  /**
+   * Forward the status of a finished or retried job to the {@link DagManagerThread} managing its dag, and wake up that
+   * thread. Other job statuses are left to the periodic reconciliation.
+   */
+  @Subscribe
+  public void handleJobStatusEvent(JobStatusEvent jobStatusEvent) {
+    JobStatus jobStatus = jobStatusEvent.getJobStatus();
+    if (!this.jobStatusEventsEnabled || !this.isActive || JobStatusRetriever.isFlowStatus(jobStatus)
+        || jobStatus.getEventName() == null) {
+      return;
+    }
+    ExecutionStatus executionStatus = valueOf(jobStatus.getEventName());
+    if (executionStatus != COMPLETE && executionStatus != FAILED && executionStatus != CANCELLED
+        && !jobStatus.isShouldRetry()) {
+      return;
+    }
+
+    int queueId = DagManagerUtils.getDagQueueId(jobStatus.getFlowExecutionId(), this.numThreads);
+    if (!this.jobStatusQueue[queueId].offer(jobStatus)) {
+      log.warn("Could not add status of job {} to job status queue", DagManagerUtils.generateJobId(jobStatus));
+      return;
+    }
+    // The threads may not be created yet while the DagManager is being activated, the next scheduled run will pick it up
+    DagManagerThread[] threads = this.dagManagerThreads;
+    if (threads != null && threads[queueId].requestRun()) {
+      try {
+        this.scheduledExecutorPool.execute(threads[queueId]);
+      } catch (RejectedExecutionException e) {
+        log.debug("DagManager is shutting down, job status will be processed on reconciliation", e);
+      }
+    }
+  }
+
+  /**
+   * @return true if the {@link DagManager} is sharded and the flow execution is managed by another instance.
+   */
+  private boolean isOwnedByOtherInstance(long flowExecutionId) {
+    DagShardManager shardManager = this.dagShardManager;
+    return shardManager != null && !shardManager.isOwned(flowExecutionId);
+  }
+
+  /**
+   * Store a request for the owner of the shard of a flow execution managed by another instance, or by no instance while
+   * its shard is handed off.
+   */
+  private void forward(DagShardLeaseStore.DagAction dagAction) throws IOException {
+    log.info("Forwarding {} to the owner of shard {}", dagAction,
+        this.dagShardManager.getShardId(dagAction.getFlowExecutionId()));
+    this.dagShardManager.addDagAction(dagAction);
+  }
+
   public synchronized void setTopologySpecMap(Map<URI, TopologySpec> topologySpecMap) {
     this.topologySpecMap = topologySpecMap;
   }
@@ -359,7 +547,15 @@ public class DagManager extends AbstractIdleService {
         //Initializing state store for persisting Dags.
         this.dagStateStore = createDagStateStore(config, topologySpecMap);
         this.failedDagStateStore = createDagStateStore(ConfigUtils.getConfigOrEmpty(config, FAILED_DAG_STATESTORE_PREFIX).withFallback(config), topologySpecMap);
-        Set<String> failedDagIds = Collections.synchronizedSet(this.failedDagStateStore.getDagIds());
+        if (this.shardingEnabled) {
+          this.dagShardManager = createDagShardManager(config);
+          log.info("Managing {} dag shards as instance {}", this.dagShardManager.getNumShards(),
+              this.dagShardManager.getInstanceId());
+          // The failed dags of a shard are added once it is acquired
+          this.failedDagIds = Collections.synchronizedSet(new HashSet<>());
+        } else {
+          this.failedDagIds = Collections.synchronizedSet(this.failedDagStateStore.getDagIds());
+        }
 
         ContextAwareMeter allSuccessfulMeter = null;
         ContextAwareMeter allFailedMeter = null;
@@ -376,19 +572,30 @@ public class DagManager extends AbstractIdleService {
         for (int i = 0; i < numThreads; i++) {
           DagManagerThread dagManagerThread = new DagManagerThread(jobStatusRetriever, dagStateStore, failedDagStateStore,
               queue[i], cancelQueue[i], resumeQueue[i], instrumentationEnabled, defaultQuota, perUserQuota, failedDagIds,
-              allSuccessfulMeter, allFailedMeter);
+              allSuccessfulMeter, allFailedMeter, this.jobStatusEventsEnabled ? this.jobStatusQueue[i] : null,
+              TimeUnit.SECONDS.toMillis(this.reconciliationInterval), this.dagShardManager);
           this.dagManagerThreads[i] = dagManagerThread;
           this.scheduledExecutorPool.scheduleAtFixedRate(dagManagerThread, 0, this.pollingInterval, TimeUnit.SECONDS);
         }
         FailedDagRetentionThread failedDagRetentionThread = new FailedDagRetentionThread(failedDagStateStore, failedDagIds, failedDagRetentionTime);
         this.scheduledExecutorPool.scheduleAtFixedRate(failedDagRetentionThread, 0, retentionPollingInterval, TimeUnit.MINUTES);
-        List<Dag<JobExecutionPlan>> dags = dagStateStore.getDags();
-        log.info("Loading " + dags.size() + " dags from dag state store");
-        for (Dag<JobExecutionPlan> dag : dags) {
-          addDag(dag, false, false);
+        if (this.shardingEnabled) {
+          //The dags are loaded shard by shard, as the shards are acquired.
+          this.scheduledExecutorPool.scheduleAtFixedRate(this::updateDagShards, 0, this.leaseRenewalInterval, TimeUnit.SECONDS);
+        } else {
+          //Only the dag IDs are listed on activation. The dags are loaded in the background, or right away when a
+          // request touches them.
+          this.unloadedDagIds.clear();
+          this.unloadedDagIds.addAll(dagStateStore.getDagIds());
+          log.info("Loading " + this.unloadedDagIds.size() + " dags from dag state store");
+          ExecutorService dagLoader = Executors.newSingleThreadExecutor(
+              ExecutorsUtils.newDaemonThreadFactory(Optional.of(log), Optional.of("DagManager-DagLoader")));
+          dagLoader.execute(this::loadUnloadedDags);
+          dagLoader.shutdown();
         }
       } else { //Mark the DagManager inactive.
         log.info("Inactivating the DagManager. Shutting down all DagManager threads");
+        this.unloadedDagIds.clear();
         this.scheduledExecutorPool.shutdown();
         try {
           this.scheduledExecutorPool.awaitTermination(TERMINATION_TIMEOUT, TimeUnit.SECONDS);
@@ -402,12 +609,142 @@ public class DagManager extends AbstractIdleService {
     }
   }
 
+  /**
+   * Load the checkpointed dags which were not loaded yet since the {@link DagManager} was activated.
+   */
+  private void loadUnloadedDags() {
+    long startTimeMillis = System.currentTimeMillis();
+    for (String dagId : new ArrayList<>(this.unloadedDagIds)) {
+      if (!this.isActive) {
+        return;
+      }
+      loadDagIfUnloaded(dagId);
+    }
+    log.info("Loaded the dags from dag state store in {} ms", System.currentTimeMillis() - startTimeMillis);
+  }
+
+  /**
+   * Load a checkpointed dag and add it to its {@link DagManagerThread}, unless it was already loaded since the
+   * {@link DagManager} was activated. If the dag is being loaded by another thread, wait until it is added, so that a
+   * request following this call, e.g. a cancellation, is queued after the dag.
+   */
+  private void loadDagIfUnloaded(String dagId) {
+    if (!this.unloadedDagIds.contains(dagId)) {
+      return;
+    }
+    CompletableFuture<Void> dagLoad = new CompletableFuture<>();
+    CompletableFuture<Void> otherDagLoad = this.dagLoads.putIfAbsent(dagId, dagLoad);
+    if (otherDagLoad != null) {
+      otherDagLoad.join();
+      return;
+    }
+    try {
+      // The dag is only removed from the unloaded dags once it is queued, check it again in case it was just queued
+      if (this.unloadedDagIds.contains(dagId)) {
+        Dag<JobExecutionPlan> dag = this.dagStateStore.getDag(dagId);
+        if (dag != null) {
+          offerDag(dag);
+        }
+        this.unloadedDagIds.remove(dagId);
+      }
+    } catch (IOException e) {
+      log.error("Failed to load dag {} from dag state store", dagId, e);
+    } finally {
+      dagLoad.complete(null);
+      this.dagLoads.remove(dagId, dagLoad);
+    }
+  }
+
+  DagShardManager createDagShardManager(Config config) {
+    try {
+      Class leaseStoreClass = Class.forName(ConfigUtils.getString(config, SHARDING_LEASE_STORE_CLASS_KEY,
+          MysqlDagShardLeaseStore.class.getName()));
+      DagShardLeaseStore leaseStore = (DagShardLeaseStore) GobblinConstructorUtils.invokeLongestConstructor(leaseStoreClass, config);
+      return new DagShardManager(leaseStore, ConfigUtils.getString(config, SHARDING_INSTANCE_ID_KEY, UUID.randomUUID().toString()),
+          ConfigUtils.getInt(config, SHARDING_NUM_SHARDS_KEY, DEFAULT_SHARDING_NUM_SHARDS),
+          ConfigUtils.getLong(config, SHARDING_LEASE_TIME_KEY, DEFAULT_SHARDING_LEASE_TIME));
+    } catch (ReflectiveOperationException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Renew and acquire the dag shard leases of this instance, and load the dags of its shards which are not managed yet:
+   * the dags of the newly acquired shards, and the dags added to the {@link DagStateStore} by other instances. Then
+   * handle the kill and resume requests forwarded by other instances, once the dags they target are loaded.
+   */
+  private void updateDagShards() {
+    try {
+      Set<Integer> acquiredShards = this.dagShardManager.updateLeases();
+      // Failed dags are resumed and retained by the owner of their shard
+      this.failedDagIds.removeIf(dagId -> !this.dagShardManager.isOwned(DagManagerUtils.getFlowExecId(dagId)));
+      if (!acquiredShards.isEmpty()) {
+        for (String dagId : this.failedDagStateStore.getDagIds()) {
+          if (acquiredShards.contains(this.dagShardManager.getShardId(DagManagerUtils.getFlowExecId(dagId)))) {
+            this.failedDagIds.add(dagId);
+          }
+        }
+      }
+      loadOwnedDags();
+      handleForwardedDagActions();
+    } catch (Exception e) {
+      log.error("Failed to update the dag shards of instance {}", this.dagShardManager.getInstanceId(), e);
+    }
+  }
+
+  private void loadOwnedDags() throws IOException {
+    Set<String> dagIds = this.dagStateStore.getDagIds();
+    // Forget the finished dags and the dags of released shards, so that the latter are loaded again if reacquired
+    this.loadedDagIds.removeIf(dagId -> !dagIds.contains(dagId)
+        || !this.dagShardManager.isOwned(DagManagerUtils.getFlowExecId(dagId)));
+    int numLoadedDags = 0;
+    for (String dagId : dagIds) {
+      if (this.loadedDagIds.contains(dagId) || !this.dagShardManager.isOwned(DagManagerUtils.getFlowExecId(dagId))) {
+        continue;
+      }
+      Dag<JobExecutionPlan> dag = this.dagStateStore.getDag(dagId);
+      if (dag != null) {
+        addDag(dag, false, false);
+        numLoadedDags++;
+      }
+    }
+    if (numLoadedDags > 0) {
+      log.info("Loaded {} dags of the shards of instance {}", numLoadedDags, this.dagShardManager.getInstanceId());
+    }
+  }
+
+  /**
+   * Handle the kill and resume requests of the dags of the owned shards received by other instances. A request is
+   * deleted from the {@link DagShardLeaseStore} only once it is queued, and otherwise retried on the next run.
+   */
+  private void handleForwardedDagActions() throws IOException {
+    for (DagShardLeaseStore.DagAction dagAction : this.dagShardManager.getDagActions()) {
+      if (!this.dagShardManager.isOwned(dagAction.getFlowExecutionId())) {
+        continue;
+      }
+      log.info("Handling forwarded {}", dagAction);
+      try {
+        if (dagAction.getType() == DagShardLeaseStore.DagAction.Type.KILL) {
+          killFlow(dagAction.getFlowGroup(), dagAction.getFlowName(), dagAction.getFlowExecutionId());
+        } else {
+          resumeFlow(dagAction.getFlowGroup(), dagAction.getFlowName(), dagAction.getFlowExecutionId());
+        }
+      } catch (IOException e) {
+        log.warn("Failed to handle forwarded {}", dagAction, e);
+        continue;
+      }
+      this.dagShardManager.deleteDagAction(dagAction);
+    }
+  }
+
   /**
    * Each {@link DagManagerThread} performs 2 actions when scheduled:
    * <ol>
    *   <li> Dequeues any newly submitted {@link Dag}s from the Dag queue. All the {@link JobExecutionPlan}s which
    *   are part of the dequed {@link Dag} will be managed this thread. </li>
-   *   <li> Polls the job status store for the current job statuses of all the running jobs it manages.</li>
+   *   <li> Polls the job status store for the current job statuses of all the running jobs it manages. If the thread
+   *   has a job status queue, it only does so every reconciliation interval, and otherwise advances the jobs whose
+   *   statuses were pushed to the queue.</li>
    * </ol>
    */
   public static class DagManagerThread implements Runnable {
@@ -440,6 +777,14 @@ public class DagManager extends AbstractIdleService {
     private BlockingQueue<Dag<JobExecutionPlan>> queue;
     private BlockingQueue<String> cancelQueue;
     private BlockingQueue<String> resumeQueue;
+    // jobStatusQueue holds the pushed statuses of finished jobs, or is null if job statuses are only polled
+    private final BlockingQueue<JobStatus> jobStatusQueue;
+    private final long reconciliationIntervalMillis;
+    private long lastReconciliationMillis = 0;
+    private final AtomicBoolean runRequested = new AtomicBoolean(false);
+    private final Lock runLock = new ReentrantLock();
+    // Null unless the DagManager is sharded
+    private final DagShardManager dagShardManager;
 
     /**
      * Constructor.
@@ -448,7 +793,39 @@ public class DagManager extends AbstractIdleService {
         BlockingQueue<Dag<JobExecutionPlan>> queue, BlockingQueue<String> cancelQueue, BlockingQueue<String> resumeQueue,
         boolean instrumentationEnabled, int defaultQuota, Map<String, Integer> perUserQuota, Set<String> failedDagIds,
         ContextAwareMeter allSuccessfulMeter, ContextAwareMeter allFailedMeter) {
+      this(jobStatusRetriever, dagStateStore, failedDagStateStore, queue, cancelQueue, resumeQueue,
+          instrumentationEnabled, defaultQuota, perUserQuota, failedDagIds, allSuccessfulMeter, allFailedMeter, null, 0);
+    }
+
+    /**
+     * Constructor.
+     * @param jobStatusQueue queue of pushed job statuses, or null to poll the job statuses on every run
+     * @param reconciliationIntervalMillis interval at which the job statuses are polled if there is a job status queue
+     */
+    DagManagerThread(JobStatusRetriever jobStatusRetriever, DagStateStore dagStateStore, DagStateStore failedDagStateStore,
+        BlockingQueue<Dag<JobExecutionPlan>> queue, BlockingQueue<String> cancelQueue, BlockingQueue<String> resumeQueue,
+        boolean instrumentationEnabled, int defaultQuota, Map<String, Integer> perUserQuota, Set<String> failedDagIds,
+        ContextAwareMeter allSuccessfulMeter, ContextAwareMeter allFailedMeter, BlockingQueue<JobStatus> jobStatusQueue,
+        long reconciliationIntervalMillis) {
+      this(jobStatusRetriever, dagStateStore, failedDagStateStore, queue, cancelQueue, resumeQueue,
+          instrumentationEnabled, defaultQuota, perUserQuota, failedDagIds, allSuccessfulMeter, allFailedMeter,
+          jobStatusQueue, reconciliationIntervalMillis, null);
+    }
+
+    /**
+     * Constructor.
+     * @param dagShardManager the shards owned by the instance in sharded mode, or null if the {@link DagManager} is
+     *                        not sharded
+     */
+    DagManagerThread(JobStatusRetriever jobStatusRetriever, DagStateStore dagStateStore, DagStateStore failedDagStateStore,
+        BlockingQueue<Dag<JobExecutionPlan>> queue, BlockingQueue<String> cancelQueue, BlockingQueue<String> resumeQueue,
+        boolean instrumentationEnabled, int defaultQuota, Map<String, Integer> perUserQuota, Set<String> failedDagIds,
+        ContextAwareMeter allSuccessfulMeter, ContextAwareMeter allFailedMeter, BlockingQueue<JobStatus> jobStatusQueue,
+        long reconciliationIntervalMillis, DagShardManager dagShardManager) {
       this.jobStatusRetriever = jobStatusRetriever;
+      this.dagShardManager = dagShardManager;
+      this.jobStatusQueue = jobStatusQueue;
+      this.reconciliationIntervalMillis = reconciliationIntervalMillis;
       this.dagStateStore = dagStateStore;
       this.failedDagStateStore = failedDagStateStore;
       this.failedDagIds = failedDagIds;
@@ -477,16 +854,31 @@ public class DagManager extends AbstractIdleService {
      * Main body of the {@link DagManagerThread}. Deque the next item from the queue and poll job statuses of currently
      * running jobs.
      * Because this thread runs in a regular interval, we should avoid doing repetitive work inside it.
+     * It may additionally run on a pushed job status, so runs are serialized. A run does not wait for the one in
+     * progress, which runs once more instead if a run was requested in the meantime, so that the runs do not hold the
+     * threads of the pool.
      */
     @Override
     public void run() {
-      try {
-        String nextDagToCancel = cancelQueue.poll();
-        //Poll the cancelQueue for a new Dag to cancel.
-        if (nextDagToCancel != null) {
-          cancelDag(nextDagToCancel);
+      while (this.runLock.tryLock()) {
+        try {
+          this.runRequested.set(false);
+          runOnce();
+        } finally {
+          this.runLock.unlock();
         }
+        // A run requested while this one was in progress may have been skipped
+        if (!this.runRequested.get()) {
+          return;
+        }
+      }
+    }
 
+    private void runOnce() {
+      try {
+        dropDagsOfReleasedShards();
+
+        //Initialize the new dags first, so that a dag loaded from the DagStateStore to be cancelled is found.
         while (!queue.isEmpty()) {
           Dag<JobExecutionPlan> dag = queue.poll();
           //Poll the queue for a new Dag to execute.
@@ -499,6 +891,12 @@ public class DagManager extends AbstractIdleService {
           }
         }
 
+        String nextDagToCancel = cancelQueue.poll();
+        //Poll the cancelQueue for a new Dag to cancel.
+        if (nextDagToCancel != null) {
+          cancelDag(nextDagToCancel);
+        }
+
         while (!resumeQueue.isEmpty()) {
           String dagId = resumeQueue.poll();
           beginResumingDag(dagId);
@@ -506,10 +904,15 @@ public class DagManager extends AbstractIdleService {
 
         finishResumingDags();
 
-        log.debug("Polling job statuses..");
-        //Poll and update the job statuses of running jobs.
-        pollAndAdvanceDag();
-        log.debug("Poll done.");
+        if (this.jobStatusQueue == null || isReconciliationDue()) {
+          log.debug("Polling job statuses..");
+          //Poll and update the job statuses of running jobs.
+          pollAndAdvanceDag();
+          log.debug("Poll done.");
+        } else {
+          //Update the running jobs with the job statuses pushed since the last run.
+          advanceDagWithJobStatusEvents();
+        }
         //Clean up any finished dags
         log.debug("Cleaning up finished dags..");
         cleanUp();
@@ -519,6 +922,56 @@ public class DagManager extends AbstractIdleService {
       }
     }
 
+    /**
+     * Stop managing the dags whose shard is not owned by this instance anymore, in sharded mode. The dags are not
+     * cancelled: the next owner of their shard loads them from the {@link DagStateStore} and keeps tracking their jobs.
+     */
+    private void dropDagsOfReleasedShards() {
+      if (this.dagShardManager == null) {
+        return;
+      }
+      for (String dagId : new ArrayList<>(this.dags.keySet())) {
+        if (this.dagShardManager.isOwned(DagManagerUtils.getFlowExecId(dagId))) {
+          continue;
+        }
+        log.info("Dropping dag {} of a shard released by this instance", dagId);
+        List<DagNode<JobExecutionPlan>> runningJobs = this.dagToJobs.remove(dagId);
+        if (runningJobs != null) {
+          for (DagNode<JobExecutionPlan> dagNode : runningJobs) {
+            this.jobToDag.remove(dagNode);
+            releaseQuota(dagNode);
+            if (this.metricContext != null) {
+              getRunningJobsCounter(dagNode).dec();
+              getRunningJobsCounterForUser(dagNode).forEach(counter -> counter.dec());
+            }
+          }
+        }
+        this.dags.remove(dagId);
+        this.dagToSLA.remove(dagId);
+        this.failedDagIdsFinishAllPossible.remove(dagId);
+      }
+      this.resumingDags.keySet().removeIf(dagId -> !this.dagShardManager.isOwned(DagManagerUtils.getFlowExecId(dagId)));
+    }
+
+    /**
+     * Request an additional run of this thread, e.g. because a job status was pushed.
+     * @return true if no other run was requested since the last run started, false otherwise.
+     */
+    boolean requestRun() {
+      return this.runRequested.compareAndSet(false, true);
+    }
+
+    private boolean isReconciliationDue() {
+      long now = System.currentTimeMillis();
+      if (now - this.lastReconciliationMillis < this.reconciliationIntervalMillis) {
+        return false;
+      }
+      this.lastReconciliationMillis = now;
+      // The polled job statuses supersede the pushed ones
+      this.jobStatusQueue.clear();
+      return true;
+    }
+
     /**
      * Begin resuming a dag by setting the status of both the dag and the failed/cancelled dag nodes to {@link ExecutionStatus#PENDING_RESUME},
      * and also sending events so that this status will be reflected in the job status state store.
@@ -693,6 +1146,27 @@ public class DagManager extends AbstractIdleService {
      * Proceed the execution of each dag node based on job status.
      */
     private void pollAndAdvanceDag() throws IOException, ExecutionException, InterruptedException {
+      advanceDag(null);
+    }
+
+    /**
+     * Proceed the execution of the dag nodes whose job statuses were pushed since the last run. The other dag nodes are
+     * only checked for their SLA.
+     */
+    private void advanceDagWithJobStatusEvents() throws IOException, ExecutionException, InterruptedException {
+      Map<String, JobStatus> pushedJobStatuses = new HashMap<>();
+      JobStatus jobStatus;
+      while ((jobStatus = this.jobStatusQueue.poll()) != null) {
+        pushedJobStatuses.put(DagManagerUtils.generateJobId(jobStatus), jobStatus);
+      }
+      advanceDag(pushedJobStatuses);
+    }
+
+    /**
+     * @param pushedJobStatuses pushed job statuses by job id, or null to poll the job status of every dag node
+     */
+    private void advanceDag(Map<String, JobStatus> pushedJobStatuses)
+        throws IOException, ExecutionException, InterruptedException {
       this.failedDagIdsFinishRunning.clear();
       Map<String, Set<DagNode<JobExecutionPlan>>> nextSubmitted = Maps.newHashMap();
       List<DagNode<JobExecutionPlan>> nodesToCleanUp = Lists.newArrayList();
@@ -700,7 +1174,16 @@ public class DagManager extends AbstractIdleService {
       for (DagNode<JobExecutionPlan> node : this.jobToDag.keySet()) {
         boolean slaKilled = slaKillIfNeeded(node);
 
-        JobStatus jobStatus = pollJobStatus(node);
+        JobStatus jobStatus;
+        if (pushedJobStatuses == null) {
+          jobStatus = pollJobStatus(node);
+        } else {
+          jobStatus = pushedJobStatuses.get(DagManagerUtils.generateJobId(node));
+          if (jobStatus == null && !slaKilled) {
+            // No news for this job, wait for its job status to be pushed or for the next reconciliation
+            continue;
+          }
+        }
 
         boolean killOrphanFlow = killJobIfOrphaned(node, jobStatus);
 
@@ -41,6 +41,7 @@ import org.apache.gobblin.service.modules.flowgraph.Dag;
 import org.apache.gobblin.service.modules.flowgraph.Dag.DagNode;
 import org.apache.gobblin.service.modules.orchestration.DagManager.FailureOption;
 import org.apache.gobblin.service.modules.spec.JobExecutionPlan;
+import org.apache.gobblin.service.monitoring.JobStatus;
 import org.apache.gobblin.util.ConfigUtils;
 
 
@@ -100,6 +101,32 @@ public class DagManagerUtils {
     return Joiner.on("_").join(flowGroup, flowName, flowExecutionId);
   }
 
+  /**
+   * @return true if the dagId was generated from the flowGroup and flowName.
+   */
+  static boolean isDagOfFlow(String dagId, String flowGroup, String flowName) {
+    return dagId.substring(0, dagId.lastIndexOf('_')).equals(Joiner.on("_").join(flowGroup, flowName));
+  }
+
+  /**
+   * Generate an id for a job of a flow execution, matching the job status of the job reported by the
+   * {@link org.apache.gobblin.service.monitoring.JobStatusRetriever}.
+   */
+  static String generateJobId(DagNode<JobExecutionPlan> dagNode) {
+    Config jobConfig = dagNode.getValue().getJobSpec().getConfig();
+    return generateJobId(generateDagId(jobConfig), jobConfig.getString(ConfigurationKeys.JOB_GROUP_KEY),
+        jobConfig.getString(ConfigurationKeys.JOB_NAME_KEY));
+  }
+
+  static String generateJobId(JobStatus jobStatus) {
+    return generateJobId(generateDagId(jobStatus.getFlowGroup(), jobStatus.getFlowName(), jobStatus.getFlowExecutionId()),
+        jobStatus.getJobGroup(), jobStatus.getJobName());
+  }
+
+  private static String generateJobId(String dagId, String jobGroup, String jobName) {
+    return Joiner.on("_").join(dagId, jobGroup, jobName);
+  }
+
   /**
    * Returns a fully-qualified {@link Dag} name that includes: (flowGroup, flowName, flowExecutionId).
    * @param dag
@@ -286,6 +313,10 @@ public class DagManagerUtils {
     return (int) (flowExecutionId % numThreads);
   }
 
+  static int getDagShardId(long flowExecutionId, int numShards) {
+    return (int) (flowExecutionId % numShards);
+  }
+
   static void emitFlowEvent(Optional<EventSubmitter> eventSubmitter, Dag<JobExecutionPlan> dag, String flowEvent) {
     if (eventSubmitter.isPresent() && !dag.isEmpty()) {
       // Every dag node will contain the same flow metadata
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.service.modules.orchestration;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import com.google.common.base.Optional;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.apache.gobblin.runtime.api.SpecProducer;
+import org.apache.gobblin.service.ExecutionStatus;
+import org.apache.gobblin.service.modules.flowgraph.Dag;
+import org.apache.gobblin.service.modules.spec.JobExecutionPlan;
+import org.apache.gobblin.service.modules.spec.SerializationConstants;
+
+
+/**
+ * Serializes the state of the nodes of a {@link Dag} which changes during its execution, i.e. the
+ * {@link ExecutionStatus} and the job future of each {@link JobExecutionPlan}, separately from the
+ * {@link org.apache.gobblin.runtime.api.JobSpec}s and {@link org.apache.gobblin.runtime.api.SpecExecutor}s of the
+ * {@link Dag}, which do not change.
+ *
+ * A {@link DagStateStore} with incremental checkpoints (see {@link DagManager#INCREMENTAL_CHECKPOINTS_ENABLED_KEY})
+ * writes the whole {@link Dag} once, and only the statuses of its nodes on the following checkpoints. The statuses
+ * are listed in the order of {@link Dag#getNodes()}, which is preserved by the serialization of the {@link Dag}.
+ */
+class DagNodeStatuses {
+  private DagNodeStatuses() {
+  }
+
+  static String serialize(Dag<JobExecutionPlan> dag) throws IOException {
+    JsonArray jsonArray = new JsonArray();
+    for (Dag.DagNode<JobExecutionPlan> dagNode : dag.getNodes()) {
+      JobExecutionPlan jobExecutionPlan = dagNode.getValue();
+      JsonObject statusJson = new JsonObject();
+      statusJson.addProperty(SerializationConstants.EXECUTION_STATUS_KEY, jobExecutionPlan.getExecutionStatus().name());
+      statusJson.addProperty(SerializationConstants.JOB_EXECUTION_FUTURE,
+          getSpecProducer(jobExecutionPlan).serializeAddSpecResponse(jobExecutionPlan.getJobFuture().orNull()));
+      jsonArray.add(statusJson);
+    }
+    return jsonArray.toString();
+  }
+
+  /**
+   * Set the statuses serialized by {@link #serialize(Dag)} on the nodes of a {@link Dag}.
+   */
+  static void apply(Dag<JobExecutionPlan> dag, String serializedStatuses) throws IOException {
+    JsonArray jsonArray = new JsonParser().parse(serializedStatuses).getAsJsonArray();
+    List<Dag.DagNode<JobExecutionPlan>> dagNodes = dag.getNodes();
+    if (jsonArray.size() != dagNodes.size()) {
+      throw new IOException(String.format("Found %d node statuses for dag %s with %d nodes", jsonArray.size(),
+          DagManagerUtils.generateDagId(dag), dagNodes.size()));
+    }
+    for (int i = 0; i < dagNodes.size(); i++) {
+      JsonObject statusJson = jsonArray.get(i).getAsJsonObject();
+      JobExecutionPlan jobExecutionPlan = dagNodes.get(i).getValue();
+      jobExecutionPlan.setExecutionStatus(
+          ExecutionStatus.valueOf(statusJson.get(SerializationConstants.EXECUTION_STATUS_KEY).getAsString()));
+      JsonElement jobExecutionFuture = statusJson.get(SerializationConstants.JOB_EXECUTION_FUTURE);
+      if (jobExecutionFuture != null && !jobExecutionFuture.isJsonNull()) {
+        Future future = getSpecProducer(jobExecutionPlan).deserializeAddSpecResponse(jobExecutionFuture.getAsString());
+        jobExecutionPlan.setJobFuture(Optional.fromNullable(future));
+      }
+    }
+  }
+
+  private static SpecProducer<?> getSpecProducer(JobExecutionPlan jobExecutionPlan) throws IOException {
+    try {
+      return jobExecutionPlan.getSpecExecutor().getProducer().get();
+    } catch (ExecutionException | InterruptedException e) {
+      throw new IOException("Failed to get the spec producer of job " + jobExecutionPlan.getJobSpec().getUri(), e);
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.service.modules.orchestration;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import lombok.Value;
+
+import org.apache.gobblin.annotation.Alpha;
+
+
+/**
+ * An interface for the time-bounded leases through which the {@link DagManager}s of the gobblin-service instances share
+ * the shards of the {@link org.apache.gobblin.service.modules.flowgraph.Dag}s in sharded mode. A shard is owned by at
+ * most one instance at a time, and is available to other instances once its lease expired without being renewed.
+ *
+ * The store also holds the kill and resume requests of the dags of a shard received by other instances, until the
+ * owner of the shard handles them. The requests of a shard without owner wait for the next one.
+ */
+@Alpha
+public interface DagShardLeaseStore {
+  /**
+   * Mark an instance live for the next leaseTimeSecs seconds.
+   */
+  void heartbeat(String instanceId, long leaseTimeSecs) throws IOException;
+
+  /**
+   * @return the number of instances which sent a heartbeat in the last lease time.
+   */
+  int getNumLiveInstances() throws IOException;
+
+  /**
+   * @return the shards leased by any instance.
+   */
+  Set<Integer> getLeasedShards() throws IOException;
+
+  /**
+   * Extend the leases of an instance on some shards by leaseTimeSecs seconds. The leases which expired are not renewed.
+   * @return the renewed shards.
+   */
+  Set<Integer> renewLeases(String instanceId, Set<Integer> shardIds, long leaseTimeSecs) throws IOException;
+
+  /**
+   * Lease a shard for leaseTimeSecs seconds, if it is not leased by another instance.
+   * @return true if the shard was leased.
+   */
+  boolean tryAcquireLease(int shardId, String instanceId, long leaseTimeSecs) throws IOException;
+
+  /**
+   * Store a request for the owner of a shard. A request which is already stored is not added again.
+   */
+  void addDagAction(int shardId, DagAction dagAction) throws IOException;
+
+  /**
+   * @return the requests stored for some shards.
+   */
+  List<DagAction> getDagActions(Set<Integer> shardIds) throws IOException;
+
+  /**
+   * Delete a request once it is handled.
+   */
+  void deleteDagAction(DagAction dagAction) throws IOException;
+
+  /**
+   * A kill or resume request of a flow execution.
+   */
+  @Value
+  class DagAction {
+    public enum Type {
+      KILL, RESUME
+    }
+
+    Type type;
+    String flowGroup;
+    String flowName;
+    long flowExecutionId;
+  }
+}
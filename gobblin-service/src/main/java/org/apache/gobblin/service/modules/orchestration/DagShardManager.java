@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.service.modules.orchestration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableSet;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Tracks the shards of {@link org.apache.gobblin.service.modules.flowgraph.Dag}s owned by a {@link DagManager} in
+ * sharded mode, through the leases of a {@link DagShardLeaseStore}.
+ *
+ * <p>
+ *   Each call to {@link #updateLeases()} renews the leases of the instance on at most its fair share of the shards,
+ *   i.e. the number of shards divided by the number of live instances rounded up, and acquires the shards whose leases
+ *   expired while the instance owns fewer. The shards beyond the fair share are released by not renewing their leases:
+ *   the instance stops managing them right away, and other instances acquire them once the leases expire. The shards
+ *   of a failed instance are handed off the same way.
+ * </p>
+ *
+ * <p>
+ *   The kill and resume requests of the dags of a shard received by other instances are stored in the
+ *   {@link DagShardLeaseStore} until its owner gets them with {@link #getDagActions()}, so that the requests of a shard
+ *   which is being handed off are handled by the next owner.
+ * </p>
+ *
+ * <p>
+ *   A shard is only considered owned until the lease acquired or renewed by the last successful call expires, measured
+ *   from the start of that call, so that an instance which cannot reach the {@link DagShardLeaseStore} stops managing its
+ *   shards before another instance can acquire them. The lease time must therefore exceed the interval between two runs
+ *   of the {@link DagManager.DagManagerThread}s.
+ * </p>
+ */
+@Slf4j
+class DagShardManager {
+  private final DagShardLeaseStore leaseStore;
+  @Getter
+  private final String instanceId;
+  @Getter
+  private final int numShards;
+  private final long leaseTimeSecs;
+
+  private volatile Set<Integer> ownedShards = Collections.emptySet();
+  private volatile long ownershipExpiryMillis = 0L;
+
+  DagShardManager(DagShardLeaseStore leaseStore, String instanceId, int numShards, long leaseTimeSecs) {
+    this.leaseStore = leaseStore;
+    this.instanceId = instanceId;
+    this.numShards = numShards;
+    this.leaseTimeSecs = leaseTimeSecs;
+  }
+
+  int getShardId(long flowExecutionId) {
+    return DagManagerUtils.getDagShardId(flowExecutionId, this.numShards);
+  }
+
+  /**
+   * @return true if the shard of the flow execution is owned by this instance.
+   */
+  boolean isOwned(long flowExecutionId) {
+    return System.currentTimeMillis() < this.ownershipExpiryMillis
+        && this.ownedShards.contains(getShardId(flowExecutionId));
+  }
+
+  /**
+   * @return the shards currently owned by this instance.
+   */
+  Set<Integer> getOwnedShards() {
+    return System.currentTimeMillis() < this.ownershipExpiryMillis ? this.ownedShards : Collections.emptySet();
+  }
+
+  /**
+   * Store a kill or resume request for the owner of the shard of its flow execution, whichever instance it is or will
+   * be.
+   */
+  void addDagAction(DagShardLeaseStore.DagAction dagAction) throws IOException {
+    this.leaseStore.addDagAction(getShardId(dagAction.getFlowExecutionId()), dagAction);
+  }
+
+  /**
+   * @return the kill and resume requests stored for the shards currently owned by this instance.
+   */
+  List<DagShardLeaseStore.DagAction> getDagActions() throws IOException {
+    Set<Integer> ownedShards = getOwnedShards();
+    return ownedShards.isEmpty() ? Collections.emptyList() : this.leaseStore.getDagActions(ownedShards);
+  }
+
+  void deleteDagAction(DagShardLeaseStore.DagAction dagAction) throws IOException {
+    this.leaseStore.deleteDagAction(dagAction);
+  }
+
+  /**
+   * Renew and acquire the leases of this instance, see {@link DagShardManager}.
+   * @return the shards acquired by this call.
+   */
+  synchronized Set<Integer> updateLeases() throws IOException {
+    long startMillis = System.currentTimeMillis();
+    this.leaseStore.heartbeat(this.instanceId, this.leaseTimeSecs);
+    int numLiveInstances = Math.max(1, this.leaseStore.getNumLiveInstances());
+    int fairShare = (this.numShards + numLiveInstances - 1) / numLiveInstances;
+
+    // Keep the shards with the lowest ids, so that the same shards are released no matter the order of the updates
+    Set<Integer> shardsToRenew = new HashSet<>();
+    for (int shardId : new TreeSet<>(getOwnedShards())) {
+      if (shardsToRenew.size() >= fairShare) {
+        break;
+      }
+      shardsToRenew.add(shardId);
+    }
+    Set<Integer> renewedShards = this.leaseStore.renewLeases(this.instanceId, shardsToRenew, this.leaseTimeSecs);
+    if (renewedShards.size() < getOwnedShards().size()) {
+      log.info("Releasing {} dag shards of instance {}", getOwnedShards().size() - renewedShards.size(), this.instanceId);
+    }
+
+    Set<Integer> acquiredShards = new HashSet<>();
+    if (renewedShards.size() < fairShare) {
+      Set<Integer> leasedShards = this.leaseStore.getLeasedShards();
+      List<Integer> freeShards = new ArrayList<>();
+      for (int shardId = 0; shardId < this.numShards; shardId++) {
+        if (!leasedShards.contains(shardId)) {
+          freeShards.add(shardId);
+        }
+      }
+      // Instances acquiring shards at the same time mostly try different ones
+      Collections.shuffle(freeShards);
+      for (int shardId : freeShards) {
+        if (renewedShards.size() + acquiredShards.size() >= fairShare) {
+          break;
+        }
+        if (this.leaseStore.tryAcquireLease(shardId, this.instanceId, this.leaseTimeSecs)) {
+          acquiredShards.add(shardId);
+        }
+      }
+      if (!acquiredShards.isEmpty()) {
+        log.info("Instance {} acquired dag shards {}", this.instanceId, acquiredShards);
+      }
+    }
+
+    this.ownedShards = ImmutableSet.<Integer>builder().addAll(renewedShards).addAll(acquiredShards).build();
+    this.ownershipExpiryMillis = startMillis + TimeUnit.SECONDS.toMillis(this.leaseTimeSecs);
+    return acquiredShards;
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.gobblin.service.modules.orchestration;
 import java.io.IOException;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.gobblin.annotation.Alpha;
 import org.apache.gobblin.service.modules.flowgraph.Dag;
@@ -70,4 +71,13 @@ public interface DagStateStore {
    * Return a list of all dag IDs contained in the dag state store.
    */
   Set<String> getDagIds() throws IOException;
+
+  /**
+   * Return the IDs of the dags of a flow contained in the dag state store. Implementations should override this method
+   * if the dags can be looked up by flow without listing all of them.
+   */
+  default Set<String> getDagIds(String flowGroup, String flowName) throws IOException {
+    return getDagIds().stream().filter(dagId -> DagManagerUtils.isDagOfFlow(dagId, flowGroup, flowName))
+        .collect(Collectors.toSet());
+  }
 }
@@ -48,16 +48,27 @@ import org.apache.gobblin.service.modules.spec.JobExecutionPlan;
 import org.apache.gobblin.service.modules.spec.JobExecutionPlanDagFactory;
 import org.apache.gobblin.service.modules.spec.JobExecutionPlanListDeserializer;
 import org.apache.gobblin.service.modules.spec.JobExecutionPlanListSerializer;
+import org.apache.gobblin.util.ConfigUtils;
 
 
+/**
+ * A {@link DagStateStore} writing each {@link Dag} to a file of a local directory. With incremental checkpoints, the
+ * {@link Dag} file is only written by the first checkpoint, and the following checkpoints write the statuses of the
+ * nodes of the {@link Dag} (see {@link DagNodeStatuses}) to a separate file, which is applied when the {@link Dag} is
+ * loaded.
+ */
 @Alpha
 @Slf4j
 public class FSDagStateStore implements DagStateStore {
   public static final String DAG_FILE_EXTENSION = ".dag";
+  public static final String DAG_STATUS_FILE_EXTENSION = ".status";
   static final String DAG_STATESTORE_DIR = DagManager.DAG_MANAGER_PREFIX + "dagStateStoreDir";
 
   private final String dagCheckpointDir;
   private final GsonSerDe<List<JobExecutionPlan>> serDe;
+  private final boolean incrementalCheckpointsEnabled;
+  // The dags written by this instance, whose following incremental checkpoints only write the statuses of their nodes
+  private final Set<String> checkpointedDagIds = new HashSet<>();
 
   public FSDagStateStore(Config config, Map<URI, TopologySpec> topologySpecMap) throws IOException {
     this.dagCheckpointDir = config.getString(DAG_STATESTORE_DIR);
@@ -77,6 +88,8 @@ public class FSDagStateStore implements DagStateStore {
      * */
     Type typeToken = new TypeToken<List<JobExecutionPlan>>(){}.getType();
     this.serDe = new GsonSerDe<>(typeToken, serializer, deserializer);
+    this.incrementalCheckpointsEnabled =
+        ConfigUtils.getBoolean(config, DagManager.INCREMENTAL_CHECKPOINTS_ENABLED_KEY, false);
   }
 
   /**
@@ -84,15 +97,25 @@ public class FSDagStateStore implements DagStateStore {
    */
   @Override
   public synchronized void writeCheckpoint(Dag<JobExecutionPlan> dag) throws IOException {
+    String dagId = DagManagerUtils.generateDagId(dag);
+    if (this.incrementalCheckpointsEnabled && this.checkpointedDagIds.contains(dagId)) {
+      writeFile(dagId + DAG_STATUS_FILE_EXTENSION, DagNodeStatuses.serialize(dag));
+      return;
+    }
+    writeFile(dagId + DAG_FILE_EXTENSION, serializeDag(dag));
+    if (this.checkpointedDagIds.add(dagId)) {
+      // The statuses written by the incremental checkpoints of another instance are part of the dag file now
+      new File(this.dagCheckpointDir, dagId + DAG_STATUS_FILE_EXTENSION).delete();
+    }
+  }
+
+  private void writeFile(String fileName, String content) throws IOException {
     // write to a temporary name then rename to make the operation atomic when the file system allows a file to be
     // replaced
-    String fileName = DagManagerUtils.generateDagId(dag) + DAG_FILE_EXTENSION;
-    String serializedDag = serializeDag(dag);
-
     File tmpCheckpointFile = new File(this.dagCheckpointDir, fileName + ".tmp");
     File checkpointFile = new File(this.dagCheckpointDir, fileName);
 
-    Files.write(serializedDag, tmpCheckpointFile, Charsets.UTF_8);
+    Files.write(content, tmpCheckpointFile, Charsets.UTF_8);
     Files.move(tmpCheckpointFile, checkpointFile);
   }
 
@@ -110,12 +133,17 @@ public class FSDagStateStore implements DagStateStore {
   @Override
   public synchronized void cleanUp(String dagId) {
     String fileName = dagId + DAG_FILE_EXTENSION;
+    this.checkpointedDagIds.remove(dagId);
 
     //Delete the dag checkpoint file from the checkpoint directory
     File checkpointFile = new File(this.dagCheckpointDir, fileName);
     if (!checkpointFile.delete()) {
       log.error("Could not delete checkpoint file: {}", checkpointFile.getName());
     }
+    File statusFile = new File(this.dagCheckpointDir, dagId + DAG_STATUS_FILE_EXTENSION);
+    if (statusFile.exists() && !statusFile.delete()) {
+      log.error("Could not delete checkpoint file: {}", statusFile.getName());
+    }
   }
 
   /**
@@ -152,7 +180,13 @@ public class FSDagStateStore implements DagStateStore {
   @VisibleForTesting
   public Dag<JobExecutionPlan> getDag(File dagFile) throws IOException {
     String serializedDag = Files.toString(dagFile, Charsets.UTF_8);
-    return deserializeDag(serializedDag);
+    Dag<JobExecutionPlan> dag = deserializeDag(serializedDag);
+    File statusFile = new File(dagFile.getParentFile(),
+        StringUtils.removeEnd(dagFile.getName(), DAG_FILE_EXTENSION) + DAG_STATUS_FILE_EXTENSION);
+    if (statusFile.exists()) {
+      DagNodeStatuses.apply(dag, Files.toString(statusFile, Charsets.UTF_8));
+    }
+    return dag;
   }
 
   /**
@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.service.modules.orchestration;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.base.Joiner;
+import com.typesafe.config.Config;
+
+import javax.sql.DataSource;
+
+import org.apache.gobblin.broker.SharedResourcesBrokerFactory;
+import org.apache.gobblin.metastore.MysqlDataSourceFactory;
+import org.apache.gobblin.service.ServiceConfigKeys;
+import org.apache.gobblin.util.ConfigUtils;
+
+import static org.apache.gobblin.service.ServiceConfigKeys.GOBBLIN_SERVICE_PREFIX;
+
+
+/**
+ * A {@link DagShardLeaseStore} backed by three MySQL tables, one holding the lease of each shard, one holding the
+ * heartbeat of each instance and one holding the requests for the owners of the shards. The expiration times are
+ * computed and compared by MySQL, so that the leases do not depend on the clocks of the instances.
+ *
+ * The schemas are:
+ * | shard_id | owner | lease_expiry |
+ * | instance_id | heartbeat_expiry |
+ * | flow_group | flow_name | flow_execution_id | action | shard_id |
+ */
+public class MysqlDagShardLeaseStore implements DagShardLeaseStore {
+  public static final String CONFIG_PREFIX = GOBBLIN_SERVICE_PREFIX + "mysqlDagShardLeaseStore";
+  public static final String LEASE_TABLE_KEY = "leaseTable";
+  public static final String DEFAULT_LEASE_TABLE = "dag_shard_leases";
+  public static final String INSTANCE_TABLE_KEY = "instanceTable";
+  public static final String DEFAULT_INSTANCE_TABLE = "dag_manager_instances";
+  public static final String DAG_ACTION_TABLE_KEY = "dagActionTable";
+  public static final String DEFAULT_DAG_ACTION_TABLE = "dag_shard_actions";
+
+  private static final String CREATE_LEASE_TABLE_STATEMENT = "CREATE TABLE IF NOT EXISTS %s (shard_id INT NOT NULL, "
+      + "owner VARCHAR(512) NOT NULL, lease_expiry TIMESTAMP(3) NOT NULL, PRIMARY KEY (shard_id))";
+  private static final String CREATE_INSTANCE_TABLE_STATEMENT = "CREATE TABLE IF NOT EXISTS %s (instance_id VARCHAR(512) "
+      + "NOT NULL, heartbeat_expiry TIMESTAMP(3) NOT NULL, PRIMARY KEY (instance_id))";
+  private static final String CREATE_DAG_ACTION_TABLE_STATEMENT = "CREATE TABLE IF NOT EXISTS %s (flow_group VARCHAR("
+      + ServiceConfigKeys.MAX_FLOW_GROUP_LENGTH + ") NOT NULL, flow_name VARCHAR("
+      + ServiceConfigKeys.MAX_FLOW_NAME_LENGTH + ") NOT NULL, flow_execution_id BIGINT NOT NULL, "
+      + "action VARCHAR(16) NOT NULL, shard_id INT NOT NULL, "
+      + "PRIMARY KEY (flow_group, flow_name, flow_execution_id, action), INDEX (shard_id))";
+  private static final String HEARTBEAT_STATEMENT = "INSERT INTO %s (instance_id, heartbeat_expiry) "
+      + "VALUES (?, DATE_ADD(NOW(3), INTERVAL ? SECOND)) ON DUPLICATE KEY UPDATE heartbeat_expiry = VALUES(heartbeat_expiry)";
+  private static final String GET_NUM_LIVE_INSTANCES_STATEMENT = "SELECT COUNT(*) FROM %s WHERE heartbeat_expiry > NOW(3)";
+  private static final String GET_LEASED_SHARDS_STATEMENT = "SELECT shard_id FROM %s WHERE lease_expiry > NOW(3)";
+  private static final String GET_OWNED_SHARDS_STATEMENT =
+      "SELECT shard_id FROM %s WHERE owner = ? AND lease_expiry > NOW(3)";
+  private static final String RENEW_LEASES_STATEMENT = "UPDATE %s SET lease_expiry = DATE_ADD(NOW(3), INTERVAL ? SECOND) "
+      + "WHERE owner = ? AND lease_expiry > NOW(3) AND shard_id IN (%s)";
+  // The owner is only replaced if the lease expired. lease_expiry is assigned last, so both conditions see its old value
+  private static final String ACQUIRE_LEASE_STATEMENT = "INSERT INTO %s (shard_id, owner, lease_expiry) "
+      + "VALUES (?, ?, DATE_ADD(NOW(3), INTERVAL ? SECOND)) ON DUPLICATE KEY UPDATE "
+      + "owner = IF(lease_expiry > NOW(3), owner, VALUES(owner)), "
+      + "lease_expiry = IF(lease_expiry > NOW(3), lease_expiry, VALUES(lease_expiry))";
+  private static final String GET_LEASE_OWNER_STATEMENT =
+      "SELECT owner FROM %s WHERE shard_id = ? AND lease_expiry > NOW(3)";
+  private static final String ADD_DAG_ACTION_STATEMENT = "INSERT IGNORE INTO %s (flow_group, flow_name, "
+      + "flow_execution_id, action, shard_id) VALUES (?, ?, ?, ?, ?)";
+  private static final String GET_DAG_ACTIONS_STATEMENT =
+      "SELECT action, flow_group, flow_name, flow_execution_id FROM %s WHERE shard_id IN (%s)";
+  private static final String DELETE_DAG_ACTION_STATEMENT =
+      "DELETE FROM %s WHERE flow_group = ? AND flow_name = ? AND flow_execution_id = ? AND action = ?";
+
+  private final DataSource dataSource;
+  private final String leaseTable;
+  private final String instanceTable;
+  private final String dagActionTable;
+
+  public MysqlDagShardLeaseStore(Config config) throws IOException {
+    if (config.hasPath(CONFIG_PREFIX)) {
+      config = config.getConfig(CONFIG_PREFIX).withFallback(config);
+    }
+
+    this.dataSource = MysqlDataSourceFactory.get(config, SharedResourcesBrokerFactory.getImplicitBroker());
+    this.leaseTable = ConfigUtils.getString(config, LEASE_TABLE_KEY, DEFAULT_LEASE_TABLE);
+    this.instanceTable = ConfigUtils.getString(config, INSTANCE_TABLE_KEY, DEFAULT_INSTANCE_TABLE);
+    this.dagActionTable = ConfigUtils.getString(config, DAG_ACTION_TABLE_KEY, DEFAULT_DAG_ACTION_TABLE);
+
+    try (Connection connection = this.dataSource.getConnection();
+        PreparedStatement createLeaseTable = connection.prepareStatement(
+            String.format(CREATE_LEASE_TABLE_STATEMENT, this.leaseTable));
+        PreparedStatement createInstanceTable = connection.prepareStatement(
+            String.format(CREATE_INSTANCE_TABLE_STATEMENT, this.instanceTable));
+        PreparedStatement createDagActionTable = connection.prepareStatement(
+            String.format(CREATE_DAG_ACTION_TABLE_STATEMENT, this.dagActionTable))) {
+      createLeaseTable.executeUpdate();
+      createInstanceTable.executeUpdate();
+      createDagActionTable.executeUpdate();
+      connection.commit();
+    } catch (SQLException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public void heartbeat(String instanceId, long leaseTimeSecs) throws IOException {
+    try (Connection connection = this.dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(String.format(HEARTBEAT_STATEMENT, this.instanceTable))) {
+      statement.setString(1, instanceId);
+      statement.setLong(2, leaseTimeSecs);
+      statement.executeUpdate();
+      connection.commit();
+    } catch (SQLException e) {
+      throw new IOException("Failed to send the heartbeat of instance " + instanceId, e);
+    }
+  }
+
+  @Override
+  public int getNumLiveInstances() throws IOException {
+    try (Connection connection = this.dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            String.format(GET_NUM_LIVE_INSTANCES_STATEMENT, this.instanceTable));
+        ResultSet rs = statement.executeQuery()) {
+      rs.next();
+      return rs.getInt(1);
+    } catch (SQLException e) {
+      throw new IOException("Failed to count the live instances", e);
+    }
+  }
+
+  @Override
+  public Set<Integer> getLeasedShards() throws IOException {
+    try (Connection connection = this.dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            String.format(GET_LEASED_SHARDS_STATEMENT, this.leaseTable));
+        ResultSet rs = statement.executeQuery()) {
+      Set<Integer> shardIds = new HashSet<>();
+      while (rs.next()) {
+        shardIds.add(rs.getInt(1));
+      }
+      return shardIds;
+    } catch (SQLException e) {
+      throw new IOException("Failed to get the leased shards", e);
+    }
+  }
+
+  @Override
+  public Set<Integer> renewLeases(String instanceId, Set<Integer> shardIds, long leaseTimeSecs) throws IOException {
+    if (shardIds.isEmpty()) {
+      return Collections.emptySet();
+    }
+    String renewStatement = String.format(RENEW_LEASES_STATEMENT, this.leaseTable,
+        Joiner.on(", ").join(Collections.nCopies(shardIds.size(), "?")));
+    try (Connection connection = this.dataSource.getConnection();
+        PreparedStatement renew = connection.prepareStatement(renewStatement);
+        PreparedStatement getOwned = connection.prepareStatement(
+            String.format(GET_OWNED_SHARDS_STATEMENT, this.leaseTable))) {
+      int index = 1;
+      renew.setLong(index++, leaseTimeSecs);
+      renew.setString(index++, instanceId);
+      for (int shardId : shardIds) {
+        renew.setInt(index++, shardId);
+      }
+      renew.executeUpdate();
+
+      Set<Integer> renewedShardIds = new HashSet<>();
+      getOwned.setString(1, instanceId);
+      try (ResultSet rs = getOwned.executeQuery()) {
+        while (rs.next()) {
+          if (shardIds.contains(rs.getInt(1))) {
+            renewedShardIds.add(rs.getInt(1));
+          }
+        }
+      }
+      connection.commit();
+      return renewedShardIds;
+    } catch (SQLException e) {
+      throw new IOException("Failed to renew the leases of instance " + instanceId, e);
+    }
+  }
+
+  @Override
+  public boolean tryAcquireLease(int shardId, String instanceId, long leaseTimeSecs) throws IOException {
+    try (Connection connection = this.dataSource.getConnection();
+        PreparedStatement acquire = connection.prepareStatement(String.format(ACQUIRE_LEASE_STATEMENT, this.leaseTable));
+        PreparedStatement getOwner = connection.prepareStatement(
+            String.format(GET_LEASE_OWNER_STATEMENT, this.leaseTable))) {
+      acquire.setInt(1, shardId);
+      acquire.setString(2, instanceId);
+      acquire.setLong(3, leaseTimeSecs);
+      acquire.executeUpdate();
+
+      getOwner.setInt(1, shardId);
+      boolean acquired;
+      try (ResultSet rs = getOwner.executeQuery()) {
+        acquired = rs.next() && instanceId.equals(rs.getString(1));
+      }
+      connection.commit();
+      return acquired;
+    } catch (SQLException e) {
+      throw new IOException("Failed to acquire the lease of shard " + shardId, e);
+    }
+  }
+
+  @Override
+  public void addDagAction(int shardId, DagAction dagAction) throws IOException {
+    try (Connection connection = this.dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            String.format(ADD_DAG_ACTION_STATEMENT, this.dagActionTable))) {
+      statement.setString(1, dagAction.getFlowGroup());
+      statement.setString(2, dagAction.getFlowName());
+      statement.setLong(3, dagAction.getFlowExecutionId());
+      statement.setString(4, dagAction.getType().name());
+      statement.setInt(5, shardId);
+      statement.executeUpdate();
+      connection.commit();
+    } catch (SQLException e) {
+      throw new IOException("Failed to add " + dagAction, e);
+    }
+  }
+
+  @Override
+  public List<DagAction> getDagActions(Set<Integer> shardIds) throws IOException {
+    if (shardIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+    String getStatement = String.format(GET_DAG_ACTIONS_STATEMENT, this.dagActionTable,
+        Joiner.on(", ").join(Collections.nCopies(shardIds.size(), "?")));
+    try (Connection connection = this.dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(getStatement)) {
+      int index = 1;
+      for (int shardId : shardIds) {
+        statement.setInt(index++, shardId);
+      }
+      List<DagAction> dagActions = new ArrayList<>();
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          dagActions.add(new DagAction(DagAction.Type.valueOf(rs.getString(1)), rs.getString(2), rs.getString(3),
+              rs.getLong(4)));
+        }
+      }
+      return dagActions;
+    } catch (SQLException e) {
+      throw new IOException("Failed to get the dag actions of shards " + shardIds, e);
+    }
+  }
+
+  @Override
+  public void deleteDagAction(DagAction dagAction) throws IOException {
+    try (Connection connection = this.dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            String.format(DELETE_DAG_ACTION_STATEMENT, this.dagActionTable))) {
+      statement.setString(1, dagAction.getFlowGroup());
+      statement.setString(2, dagAction.getFlowName());
+      statement.setLong(3, dagAction.getFlowExecutionId());
+      statement.setString(4, dagAction.getType().name());
+      statement.executeUpdate();
+      connection.commit();
+    } catch (SQLException e) {
+      throw new IOException("Failed to delete " + dagAction, e);
+    }
+  }
+}
@@ -20,9 +20,13 @@ package org.apache.gobblin.service.modules.orchestration;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.apache.gobblin.configuration.State;
@@ -39,6 +43,7 @@ import org.apache.gobblin.service.modules.spec.JobExecutionPlan;
 import org.apache.gobblin.service.modules.spec.JobExecutionPlanDagFactory;
 import org.apache.gobblin.service.modules.spec.JobExecutionPlanListDeserializer;
 import org.apache.gobblin.service.modules.spec.JobExecutionPlanListSerializer;
+import org.apache.gobblin.util.ConfigUtils;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Predicates;
@@ -62,12 +67,17 @@ import static org.apache.gobblin.service.modules.orchestration.DagManagerUtils.g
  * where storeName represents FlowId, a combination of FlowGroup and FlowName, and tableName represents FlowExecutionId.
  * State is a pocket for serialized {@link Dag} object.
  *
- *
+ * With incremental checkpoints, the {@link Dag} is only written by its first checkpoint, and the following checkpoints
+ * write the statuses of its nodes (see {@link DagNodeStatuses}) in a separate entry, whose tableName is the
+ * FlowExecutionId followed by {@link #STATUS_TABLE_SUFFIX}. The statuses are applied to the {@link Dag} when it is
+ * loaded. Since the storeName is the FlowId, the dags of a flow are looked up without listing all the dags.
  */
 public class MysqlDagStateStore implements DagStateStore {
 
   public static final String CONFIG_PREFIX = GOBBLIN_SERVICE_PREFIX + "mysqlDagStateStore";
   public static final String DAG_KEY_IN_STATE = "dag";
+  public static final String DAG_STATUS_KEY_IN_STATE = "dagStatus";
+  public static final String STATUS_TABLE_SUFFIX = ".status";
 
   /**
    * The schema of {@link MysqlStateStore} is fixed but the columns are semantically projected into Dag's context:
@@ -77,6 +87,9 @@ public class MysqlDagStateStore implements DagStateStore {
   private MysqlStateStore<State> mysqlStateStore;
   private final GsonSerDe<List<JobExecutionPlan>> serDe;
   private JobExecutionPlanDagFactory jobExecPlanDagFactory;
+  private final boolean incrementalCheckpointsEnabled;
+  // The dags written by this instance, whose following incremental checkpoints only write the statuses of their nodes
+  private final Set<String> checkpointedDagIds = ConcurrentHashMap.newKeySet();
 
   public MysqlDagStateStore(Config config, Map<URI, TopologySpec> topologySpecMap) {
     if (config.hasPath(CONFIG_PREFIX)) {
@@ -91,6 +104,8 @@ public class MysqlDagStateStore implements DagStateStore {
     }.getType();
     this.serDe = new GsonSerDe<>(typeToken, serializer, deserializer);
     this.jobExecPlanDagFactory = new JobExecutionPlanDagFactory();
+    this.incrementalCheckpointsEnabled =
+        ConfigUtils.getBoolean(config, DagManager.INCREMENTAL_CHECKPOINTS_ENABLED_KEY, false);
   }
 
   /**
@@ -107,7 +122,22 @@ public class MysqlDagStateStore implements DagStateStore {
   @Override
   public void writeCheckpoint(Dag<JobExecutionPlan> dag)
       throws IOException {
-    mysqlStateStore.put(getStoreNameFromDagId(generateDagId(dag)), getTableNameFromDagId(generateDagId(dag)), convertDagIntoState(dag));
+    String dagId = generateDagId(dag);
+    String storeName = getStoreNameFromDagId(dagId);
+    String tableName = getTableNameFromDagId(dagId);
+    if (this.incrementalCheckpointsEnabled && this.checkpointedDagIds.contains(dagId)) {
+      State statusState = new State();
+      // The id identifies the dag of the statuses when all the entries are read at once, see getDags()
+      statusState.setId(dagId);
+      statusState.setProp(DAG_STATUS_KEY_IN_STATE, DagNodeStatuses.serialize(dag));
+      mysqlStateStore.put(storeName, tableName + STATUS_TABLE_SUFFIX, statusState);
+      return;
+    }
+    mysqlStateStore.put(storeName, tableName, convertDagIntoState(dag));
+    if (this.checkpointedDagIds.add(dagId)) {
+      // The statuses written by the incremental checkpoints of another instance are part of the dag now
+      mysqlStateStore.delete(storeName, tableName + STATUS_TABLE_SUFFIX);
+    }
   }
 
   @Override
@@ -119,29 +149,78 @@ public class MysqlDagStateStore implements DagStateStore {
   @Override
   public void cleanUp(String dagId)
       throws IOException {
+    this.checkpointedDagIds.remove(dagId);
     mysqlStateStore.delete(getStoreNameFromDagId(dagId), getTableNameFromDagId(dagId));
+    mysqlStateStore.delete(getStoreNameFromDagId(dagId), getTableNameFromDagId(dagId) + STATUS_TABLE_SUFFIX);
   }
 
+  /**
+   * {@inheritDoc}
+   * The dags and the statuses of their nodes are read with a single query.
+   */
   @Override
   public List<Dag<JobExecutionPlan>> getDags()
       throws IOException {
-    return mysqlStateStore.getAll().stream().map(this::convertStateObjIntoDag).collect(Collectors.toList());
+    Map<String, Dag<JobExecutionPlan>> dags = new LinkedHashMap<>();
+    Map<String, String> serializedStatuses = new HashMap<>();
+    for (State state : mysqlStateStore.getAll()) {
+      if (state.contains(DAG_STATUS_KEY_IN_STATE)) {
+        serializedStatuses.put(state.getId(), state.getProp(DAG_STATUS_KEY_IN_STATE));
+      } else {
+        Dag<JobExecutionPlan> dag = convertStateObjIntoDag(state);
+        dags.put(generateDagId(dag), dag);
+      }
+    }
+    for (Map.Entry<String, String> entry : serializedStatuses.entrySet()) {
+      Dag<JobExecutionPlan> dag = dags.get(entry.getKey());
+      if (dag != null) {
+        DagNodeStatuses.apply(dag, entry.getValue());
+      }
+    }
+    return new ArrayList<>(dags.values());
   }
 
   @Override
   public Dag<JobExecutionPlan> getDag(String dagId) throws IOException {
-    List<State> states = mysqlStateStore.getAll(getStoreNameFromDagId(dagId), getTableNameFromDagId(dagId));
+    String storeName = getStoreNameFromDagId(dagId);
+    String tableName = getTableNameFromDagId(dagId);
+    List<State> states = mysqlStateStore.getAll(storeName, tableName);
     if (states.isEmpty()) {
       return null;
     }
-    return convertStateObjIntoDag(states.get(0));
+    Dag<JobExecutionPlan> dag = convertStateObjIntoDag(states.get(0));
+    List<State> statusStates = mysqlStateStore.getAll(storeName, tableName + STATUS_TABLE_SUFFIX);
+    if (!statusStates.isEmpty()) {
+      DagNodeStatuses.apply(dag, statusStates.get(0).getProp(DAG_STATUS_KEY_IN_STATE));
+    }
+    return dag;
   }
 
   @Override
   public Set<String> getDagIds() throws IOException {
+    return getDagEntries().stream().map(entry -> entryToDagId(entry.getStoreName(), entry.getTableName()))
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * {@inheritDoc}
+   * The dags of a flow share the same storeName, which is part of the primary key of the {@link MysqlStateStore}.
+   */
+  @Override
+  public Set<String> getDagIds(String flowGroup, String flowName) throws IOException {
+    String storeName = Joiner.on(ServiceConfigKeys.DAG_STORE_KEY_SEPARATION_CHARACTER).join(flowGroup, flowName);
+    return mysqlStateStore.getTableNames(storeName, tableName -> !tableName.endsWith(STATUS_TABLE_SUFFIX)).stream()
+        .map(tableName -> entryToDagId(storeName, tableName)).collect(Collectors.toSet());
+  }
+
+  /**
+   * Return the entries of the {@link Dag}s, without the entries of the statuses of their nodes.
+   */
+  private List<MysqlStateStoreEntryManager> getDagEntries() throws IOException {
     List<MysqlStateStoreEntryManager> entries = (List<MysqlStateStoreEntryManager>) mysqlStateStore
         .getMetadataForTables(new StateStorePredicate(Predicates.alwaysTrue()));
-    return entries.stream().map(entry -> entryToDagId(entry.getStoreName(), entry.getTableName())).collect(Collectors.toSet());
+    return entries.stream().filter(entry -> !entry.getTableName().endsWith(STATUS_TABLE_SUFFIX))
+        .collect(Collectors.toList());
   }
 
   /**
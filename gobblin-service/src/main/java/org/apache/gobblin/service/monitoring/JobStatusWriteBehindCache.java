@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.service.monitoring;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.Striped;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.gobblin.configuration.State;
+import org.apache.gobblin.metastore.StateStore;
+
+
+/**
+ * A write-behind cache of the job statuses stored by {@link KafkaJobStatusMonitor}.
+ *
+ * <p>
+ *   A job status is merged in memory with the latest job status of the same job, the {@link StateStore} is only read
+ *   for jobs which are not cached. Merged job statuses are pending until {@link #flush()} writes them to the
+ *   {@link StateStore}, once per job no matter how many job statuses of the job were merged since the previous flush.
+ *   Flushed job statuses are kept in a cache bounded in size and time, pending job statuses are flushed by
+ *   {@link #add(State)} once there are more than a maximum number of them.
+ * </p>
+ */
+@Slf4j
+class JobStatusWriteBehindCache {
+
+  private final StateStore<State> stateStore;
+  private final int maxPendingJobStatuses;
+  private final Map<JobStatusKey, State> pendingJobStatuses = new ConcurrentHashMap<>();
+  private final Cache<JobStatusKey, State> flushedJobStatuses;
+  // Serializes the merges of the job statuses of a job
+  private final Striped<Lock> locks = Striped.lock(64);
+
+  JobStatusWriteBehindCache(StateStore<State> stateStore, int maxPendingJobStatuses, long maxFlushedJobStatuses,
+      long expirationSecs) {
+    this.stateStore = stateStore;
+    this.maxPendingJobStatuses = maxPendingJobStatuses;
+    this.flushedJobStatuses = CacheBuilder.newBuilder().maximumSize(maxFlushedJobStatuses)
+        .expireAfterAccess(expirationSecs, TimeUnit.SECONDS).build();
+  }
+
+  /**
+   * Merge a job status with the latest job status of the same job, see
+   * {@link KafkaJobStatusMonitor#addJobStatusToStateStore(State, StateStore)}.
+   * @return the merged job status, which is written to the {@link StateStore} by the next {@link #flush()}
+   */
+  State add(State jobStatus) throws IOException {
+    KafkaJobStatusMonitor.setDefaultJobGroupAndName(jobStatus);
+    JobStatusKey key = new JobStatusKey(KafkaJobStatusMonitor.jobStatusStoreName(jobStatus),
+        KafkaJobStatusMonitor.jobStatusTableName(jobStatus));
+
+    Lock lock = this.locks.get(key);
+    lock.lock();
+    try {
+      State mergedJobStatus = KafkaJobStatusMonitor.mergeJobStatus(jobStatus, getLatestJobStatus(key));
+      this.pendingJobStatuses.put(key, mergedJobStatus);
+      this.flushedJobStatuses.invalidate(key);
+      jobStatus = mergedJobStatus;
+    } finally {
+      lock.unlock();
+    }
+
+    if (this.pendingJobStatuses.size() > this.maxPendingJobStatuses) {
+      flush();
+    }
+    return jobStatus;
+  }
+
+  private State getLatestJobStatus(JobStatusKey key) throws IOException {
+    State latestJobStatus = this.pendingJobStatuses.get(key);
+    if (latestJobStatus == null) {
+      latestJobStatus = this.flushedJobStatuses.getIfPresent(key);
+    }
+    if (latestJobStatus == null) {
+      List<State> states = this.stateStore.getAll(key.getStoreName(), key.getTableName());
+      latestJobStatus = states.isEmpty() ? null : states.get(states.size() - 1);
+    }
+    return latestJobStatus;
+  }
+
+  /**
+   * Write the pending job statuses to the {@link StateStore}. All job statuses merged before the call are written
+   * when it returns.
+   */
+  synchronized void flush() throws IOException {
+    int numFlushed = 0;
+    for (JobStatusKey key : this.pendingJobStatuses.keySet()) {
+      // Hold the lock of the job, so that its job status is not read from the state store before it is written
+      Lock lock = this.locks.get(key);
+      lock.lock();
+      try {
+        State jobStatus = this.pendingJobStatuses.get(key);
+        if (jobStatus == null) {
+          continue;
+        }
+        this.stateStore.put(key.getStoreName(), key.getTableName(), jobStatus);
+        this.pendingJobStatuses.remove(key);
+        this.flushedJobStatuses.put(key, jobStatus);
+        numFlushed++;
+      } finally {
+        lock.unlock();
+      }
+    }
+    log.debug("Flushed {} job statuses", numFlushed);
+  }
+
+  /**
+   * Drop all cached job statuses, so that the next job status of each job is merged with the one in the
+   * {@link StateStore}, e.g. because another instance may have updated it. Pending job statuses are dropped too: the
+   * Kafka offsets of their messages were not committed, so the messages are consumed again.
+   */
+  synchronized void invalidateAll() {
+    this.pendingJobStatuses.clear();
+    this.flushedJobStatuses.invalidateAll();
+  }
+
+  int getNumPendingJobStatuses() {
+    return this.pendingJobStatuses.size();
+  }
+
+  @Value
+  private static class JobStatusKey {
+    String storeName;
+    String tableName;
+  }
+}
@@ -18,6 +18,7 @@
 package org.apache.gobblin.service.monitoring;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.Executors;
@@ -30,11 +31,13 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.eventbus.EventBus;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 
 import avro.shaded.com.google.common.annotations.VisibleForTesting;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.gobblin.configuration.ConfigurationKeys;
@@ -53,6 +56,7 @@ import org.apache.gobblin.runtime.troubleshooter.IssueEventBuilder;
 import org.apache.gobblin.runtime.troubleshooter.JobIssueEventHandler;
 import org.apache.gobblin.service.ExecutionStatus;
 import org.apache.gobblin.service.ServiceConfigKeys;
+import org.apache.gobblin.source.extractor.extract.kafka.KafkaPartition;
 import org.apache.gobblin.source.workunit.WorkUnit;
 import org.apache.gobblin.util.ConfigUtils;
 
@@ -60,7 +64,15 @@ import org.apache.gobblin.util.ConfigUtils;
 /**
  * A Kafka monitor that tracks {@link org.apache.gobblin.metrics.GobblinTrackingEvent}s reporting statuses of
  * running jobs. The job statuses are stored as {@link org.apache.gobblin.configuration.State} objects in
- * a {@link FileContextBasedFsStateStore}.
+ * a {@link FileContextBasedFsStateStore}. If an {@link EventBus} is set, a {@link JobStatusEvent} is posted to it
+ * for every stored job status.
+ *
+ * <p>
+ *   If {@link #WRITE_BEHIND_ENABLED_KEY} is set, job statuses are merged in memory by a
+ *   {@link JobStatusWriteBehindCache} and written to the state store in batches, before the Kafka offsets of their
+ *   messages are committed. Auto commit of the offsets must not be enabled in this mode. The cache is dropped when
+ *   partitions are revoked, since the job statuses of their jobs may then be updated by another instance.
+ * </p>
  */
 @Slf4j
 public abstract class KafkaJobStatusMonitor extends HighLevelConsumer<byte[], byte[]> {
@@ -69,6 +81,8 @@ public abstract class KafkaJobStatusMonitor extends HighLevelConsumer<byte[], by
   //gst refers to the state store suffix for GaaS-orchestrated Gobblin jobs.
   public static final String GET_AND_SET_JOB_STATUS = MetricRegistry.name(ServiceMetricNames.GOBBLIN_SERVICE_PREFIX,
       JOB_STATUS_MONITOR_PREFIX,  "getAndSetJobStatus");
+  public static final String FLUSH_JOB_STATUSES = MetricRegistry.name(ServiceMetricNames.GOBBLIN_SERVICE_PREFIX,
+      JOB_STATUS_MONITOR_PREFIX, "flushJobStatuses");
 
   private static final String PROCESS_JOB_ISSUE = MetricRegistry
       .name(ServiceMetricNames.GOBBLIN_SERVICE_PREFIX, JOB_STATUS_MONITOR_PREFIX, "jobIssueProcessingTime");
@@ -78,6 +92,17 @@ public abstract class KafkaJobStatusMonitor extends HighLevelConsumer<byte[], by
   static final String JOB_STATUS_MONITOR_CLASS_KEY = "class";
   static final String DEFAULT_JOB_STATUS_MONITOR_CLASS = KafkaAvroJobStatusMonitor.class.getName();
 
+  /** Whether job statuses are merged in memory and written to the state store before the Kafka offsets are committed */
+  static final String WRITE_BEHIND_ENABLED_KEY = "writeBehind.enabled";
+  /** Number of pending job statuses above which they are written without waiting for the offsets to be committed */
+  static final String WRITE_BEHIND_MAX_PENDING_JOB_STATUSES_KEY = "writeBehind.maxPendingJobStatuses";
+  static final int DEFAULT_WRITE_BEHIND_MAX_PENDING_JOB_STATUSES = 1000;
+  /** Number of written job statuses kept in memory */
+  static final String WRITE_BEHIND_CACHE_SIZE_KEY = "writeBehind.cacheSize";
+  static final long DEFAULT_WRITE_BEHIND_CACHE_SIZE = 10000L;
+  static final String WRITE_BEHIND_CACHE_EXPIRATION_SECS_KEY = "writeBehind.cacheExpirationSecs";
+  static final long DEFAULT_WRITE_BEHIND_CACHE_EXPIRATION_SECS = 3600L;
+
   private static final String KAFKA_AUTO_OFFSET_RESET_KEY = "auto.offset.reset";
   private static final String KAFKA_AUTO_OFFSET_RESET_SMALLEST = "smallest";
 
@@ -94,6 +119,12 @@ public abstract class KafkaJobStatusMonitor extends HighLevelConsumer<byte[], by
 
   private final JobIssueEventHandler jobIssueEventHandler;
 
+  // Null if every job status is written to the state store when it is processed
+  private final JobStatusWriteBehindCache writeBehindCache;
+
+  @Setter
+  private volatile EventBus eventBus;
+
   public KafkaJobStatusMonitor(String topic, Config config, int numThreads, JobIssueEventHandler jobIssueEventHandler)
       throws ReflectiveOperationException {
     super(topic, config.withFallback(DEFAULTS), numThreads);
@@ -104,6 +135,15 @@ public abstract class KafkaJobStatusMonitor extends HighLevelConsumer<byte[], by
     this.scheduledExecutorService = Executors.newScheduledThreadPool(1);
 
     this.jobIssueEventHandler = jobIssueEventHandler;
+
+    if (ConfigUtils.getBoolean(config, WRITE_BEHIND_ENABLED_KEY, false)) {
+      this.writeBehindCache = new JobStatusWriteBehindCache(this.stateStore,
+          ConfigUtils.getInt(config, WRITE_BEHIND_MAX_PENDING_JOB_STATUSES_KEY, DEFAULT_WRITE_BEHIND_MAX_PENDING_JOB_STATUSES),
+          ConfigUtils.getLong(config, WRITE_BEHIND_CACHE_SIZE_KEY, DEFAULT_WRITE_BEHIND_CACHE_SIZE),
+          ConfigUtils.getLong(config, WRITE_BEHIND_CACHE_EXPIRATION_SECS_KEY, DEFAULT_WRITE_BEHIND_CACHE_EXPIRATION_SECS));
+    } else {
+      this.writeBehindCache = null;
+    }
   }
 
   @Override
@@ -128,6 +168,14 @@ public abstract class KafkaJobStatusMonitor extends HighLevelConsumer<byte[], by
      } catch (InterruptedException e) {
        log.error("Exception encountered when shutting down state store cleaner", e);
      }
+     if (this.writeBehindCache != null) {
+       try {
+         // The offsets of the flushed job statuses are not committed, their messages are processed again on restart
+         this.writeBehindCache.flush();
+       } catch (IOException e) {
+         log.error("Failed to write pending job statuses to state store", e);
+       }
+     }
   }
 
   @Override
@@ -153,7 +201,15 @@ public abstract class KafkaJobStatusMonitor extends HighLevelConsumer<byte[], by
       org.apache.gobblin.configuration.State jobStatus = parseJobStatus(gobblinTrackingEvent);
       if (jobStatus != null) {
         try(Timer.Context context = getMetricContext().timer(GET_AND_SET_JOB_STATUS).time()) {
-          addJobStatusToStateStore(jobStatus, this.stateStore);
+          if (this.writeBehindCache != null) {
+            jobStatus = this.writeBehindCache.add(jobStatus);
+          } else {
+            jobStatus = addJobStatusToStateStore(jobStatus, this.stateStore);
+          }
+        }
+        EventBus eventBus = this.eventBus;
+        if (eventBus != null) {
+          eventBus.post(new JobStatusEvent(JobStatusRetriever.createJobStatusBuilder(jobStatus).build()));
         }
       }
     } catch (IOException ioe) {
@@ -162,51 +218,89 @@ public abstract class KafkaJobStatusMonitor extends HighLevelConsumer<byte[], by
     }
   }
 
+  /**
+   * Write the job statuses merged by the write-behind cache, if enabled, before their Kafka offsets are committed.
+   */
+  @Override
+  protected void beforeCommitOffsets() throws IOException {
+    if (this.writeBehindCache != null) {
+      try (Timer.Context context = getMetricContext().timer(FLUSH_JOB_STATUSES).time()) {
+        this.writeBehindCache.flush();
+      }
+    }
+  }
+
+  /**
+   * Drop the job statuses cached by the write-behind cache, if enabled, since they may be updated by the consumer the
+   * revoked partitions are assigned to.
+   */
+  @Override
+  protected void afterPartitionsRevoked(Collection<KafkaPartition> partitions) {
+    if (this.writeBehindCache != null) {
+      this.writeBehindCache.invalidateAll();
+    }
+  }
+
   /**
    * Persist job status to the underlying {@link StateStore}.
    * It fills missing fields in job status and also merge the fields with the
    * existing job status in the state store. Merging is required because we
    * do not want to lose the information sent by other GobblinTrackingEvents.
    * @param jobStatus
+   * @return the job status stored
    * @throws IOException
    */
   @VisibleForTesting
-  static void addJobStatusToStateStore(org.apache.gobblin.configuration.State jobStatus, StateStore stateStore)
+  static org.apache.gobblin.configuration.State addJobStatusToStateStore(org.apache.gobblin.configuration.State jobStatus, StateStore stateStore)
       throws IOException {
+    setDefaultJobGroupAndName(jobStatus);
+    String storeName = jobStatusStoreName(jobStatus);
+    String tableName = jobStatusTableName(jobStatus);
+
+    List<org.apache.gobblin.configuration.State> states = stateStore.getAll(storeName, tableName);
+    jobStatus = mergeJobStatus(jobStatus, states.size() > 0 ? states.get(states.size() - 1) : null);
+
+    stateStore.put(storeName, tableName, jobStatus);
+    return jobStatus;
+  }
+
+  static void setDefaultJobGroupAndName(org.apache.gobblin.configuration.State jobStatus) {
     if (!jobStatus.contains(TimingEvent.FlowEventConstants.JOB_NAME_FIELD)) {
       jobStatus.setProp(TimingEvent.FlowEventConstants.JOB_NAME_FIELD, JobStatusRetriever.NA_KEY);
     }
     if (!jobStatus.contains(TimingEvent.FlowEventConstants.JOB_GROUP_FIELD)) {
       jobStatus.setProp(TimingEvent.FlowEventConstants.JOB_GROUP_FIELD, JobStatusRetriever.NA_KEY);
     }
+  }
 
-    String flowName = jobStatus.getProp(TimingEvent.FlowEventConstants.FLOW_NAME_FIELD);
-    String flowGroup = jobStatus.getProp(TimingEvent.FlowEventConstants.FLOW_GROUP_FIELD);
-    String flowExecutionId = jobStatus.getProp(TimingEvent.FlowEventConstants.FLOW_EXECUTION_ID_FIELD);
-    String jobName = jobStatus.getProp(TimingEvent.FlowEventConstants.JOB_NAME_FIELD);
-    String jobGroup = jobStatus.getProp(TimingEvent.FlowEventConstants.JOB_GROUP_FIELD);
-    String storeName = jobStatusStoreName(flowGroup, flowName);
-    String tableName = jobStatusTableName(flowExecutionId, jobGroup, jobName);
-
-    List<org.apache.gobblin.configuration.State> states = stateStore.getAll(storeName, tableName);
-    if (states.size() > 0) {
-      String previousStatus = states.get(states.size() - 1).getProp(JobStatusRetriever.EVENT_NAME_FIELD);
+  /**
+   * Merge a job status with the previous job status of the same job and modify it if the job should be retried.
+   * @param previousJobStatus the previous job status, or null if there is none
+   * @return the merged job status
+   */
+  static org.apache.gobblin.configuration.State mergeJobStatus(org.apache.gobblin.configuration.State jobStatus,
+      org.apache.gobblin.configuration.State previousJobStatus) {
+    if (previousJobStatus != null) {
+      String previousStatus = previousJobStatus.getProp(JobStatusRetriever.EVENT_NAME_FIELD);
       String currentStatus = jobStatus.getProp(JobStatusRetriever.EVENT_NAME_FIELD);
 
       // PENDING_RESUME is allowed to override, because it happens when a flow is being resumed from previously being failed
       if (previousStatus != null && currentStatus != null && !currentStatus.equals(ExecutionStatus.PENDING_RESUME.name())
         && ORDERED_EXECUTION_STATUSES.indexOf(ExecutionStatus.valueOf(currentStatus)) < ORDERED_EXECUTION_STATUSES.indexOf(ExecutionStatus.valueOf(previousStatus))) {
         log.warn(String.format("Received status %s when status is already %s for flow (%s, %s, %s), job (%s, %s)",
-            currentStatus, previousStatus, flowGroup, flowName, flowExecutionId, jobGroup, jobName));
-        jobStatus = mergeState(states.get(states.size() - 1), jobStatus);
+            currentStatus, previousStatus, jobStatus.getProp(TimingEvent.FlowEventConstants.FLOW_GROUP_FIELD),
+            jobStatus.getProp(TimingEvent.FlowEventConstants.FLOW_NAME_FIELD),
+            jobStatus.getProp(TimingEvent.FlowEventConstants.FLOW_EXECUTION_ID_FIELD),
+            jobStatus.getProp(TimingEvent.FlowEventConstants.JOB_GROUP_FIELD),
+            jobStatus.getProp(TimingEvent.FlowEventConstants.JOB_NAME_FIELD)));
+        jobStatus = mergeState(previousJobStatus, jobStatus);
       } else {
-        jobStatus = mergeState(jobStatus, states.get(states.size() - 1));
+        jobStatus = mergeState(jobStatus, previousJobStatus);
       }
     }
 
     modifyStateIfRetryRequired(jobStatus);
-
-    stateStore.put(storeName, tableName, jobStatus);
+    return jobStatus;
   }
 
   private static void modifyStateIfRetryRequired(org.apache.gobblin.configuration.State state) {
@@ -249,6 +343,17 @@ public abstract class KafkaJobStatusMonitor extends HighLevelConsumer<byte[], by
     return Joiner.on(ServiceConfigKeys.STATE_STORE_KEY_SEPARATION_CHARACTER).join(flowGroup, flowName);
   }
 
+  static String jobStatusStoreName(org.apache.gobblin.configuration.State jobStatus) {
+    return jobStatusStoreName(jobStatus.getProp(TimingEvent.FlowEventConstants.FLOW_GROUP_FIELD),
+        jobStatus.getProp(TimingEvent.FlowEventConstants.FLOW_NAME_FIELD));
+  }
+
+  static String jobStatusTableName(org.apache.gobblin.configuration.State jobStatus) {
+    return jobStatusTableName(jobStatus.getProp(TimingEvent.FlowEventConstants.FLOW_EXECUTION_ID_FIELD),
+        jobStatus.getProp(TimingEvent.FlowEventConstants.JOB_GROUP_FIELD),
+        jobStatus.getProp(TimingEvent.FlowEventConstants.JOB_NAME_FIELD));
+  }
+
   public static long getExecutionIdFromTableName(String tableName) {
     return Long.parseLong(Splitter.on(ServiceConfigKeys.STATE_STORE_KEY_SEPARATION_CHARACTER).splitToList(tableName).get(0));
   }
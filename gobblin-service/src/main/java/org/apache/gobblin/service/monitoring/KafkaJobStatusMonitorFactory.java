@@ -19,11 +19,13 @@ package org.apache.gobblin.service.monitoring;
 
 import java.util.Objects;
 
+import com.google.common.eventbus.EventBus;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigValueFactory;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Provider;
 import lombok.extern.slf4j.Slf4j;
 
@@ -31,6 +33,8 @@ import org.apache.gobblin.configuration.ConfigurationKeys;
 import org.apache.gobblin.kafka.schemareg.KafkaSchemaRegistryConfigurationKeys;
 import org.apache.gobblin.metrics.kafka.KafkaAvroSchemaRegistry;
 import org.apache.gobblin.runtime.troubleshooter.JobIssueEventHandler;
+import org.apache.gobblin.service.modules.core.GobblinServiceManager;
+import org.apache.gobblin.service.modules.orchestration.DagManager;
 import org.apache.gobblin.util.ConfigUtils;
 import org.apache.gobblin.util.reflection.GobblinConstructorUtils;
 
@@ -45,11 +49,14 @@ public class KafkaJobStatusMonitorFactory implements Provider<KafkaJobStatusMoni
 
   private final Config config;
   private final JobIssueEventHandler jobIssueEventHandler;
+  private final EventBus eventBus;
 
   @Inject
-  public KafkaJobStatusMonitorFactory(Config config, JobIssueEventHandler jobIssueEventHandler) {
+  public KafkaJobStatusMonitorFactory(Config config, JobIssueEventHandler jobIssueEventHandler,
+      @Named(GobblinServiceManager.SERVICE_EVENT_BUS_NAME) EventBus eventBus) {
     this.config = Objects.requireNonNull(config);
     this.jobIssueEventHandler = Objects.requireNonNull(jobIssueEventHandler);
+    this.eventBus = Objects.requireNonNull(eventBus);
   }
 
   private KafkaJobStatusMonitor createJobStatusMonitor()
@@ -76,8 +83,13 @@ public class KafkaJobStatusMonitorFactory implements Provider<KafkaJobStatusMoni
           config.getValue(KafkaSchemaRegistryConfigurationKeys.KAFKA_SCHEMA_REGISTRY_OVERRIDE_NAMESPACE));
     }
     jobStatusConfig = jobStatusConfig.withFallback(kafkaSslConfig).withFallback(schemaRegistryConfig);
-    return (KafkaJobStatusMonitor) GobblinConstructorUtils
+    KafkaJobStatusMonitor jobStatusMonitor = (KafkaJobStatusMonitor) GobblinConstructorUtils
         .invokeLongestConstructor(jobStatusMonitorClass, topic, jobStatusConfig, numThreads, jobIssueEventHandler);
+    if (ConfigUtils.getBoolean(config, DagManager.JOB_STATUS_EVENTS_ENABLED_KEY, false)) {
+      // Push the job status changes to the DagManager
+      jobStatusMonitor.setEventBus(this.eventBus);
+    }
+    return jobStatusMonitor;
   }
 
   @Override
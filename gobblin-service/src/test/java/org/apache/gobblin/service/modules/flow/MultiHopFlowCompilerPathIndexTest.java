@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.service.modules.flow;
+
+import java.util.List;
+
+import org.apache.hadoop.fs.Path;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+
+import org.apache.gobblin.configuration.ConfigurationKeys;
+import org.apache.gobblin.runtime.api.FlowSpec;
+import org.apache.gobblin.service.modules.flowgraph.BaseDataNode;
+import org.apache.gobblin.service.modules.flowgraph.BaseFlowGraph;
+import org.apache.gobblin.service.modules.flowgraph.Dag;
+import org.apache.gobblin.service.modules.flowgraph.Dag.DagNode;
+import org.apache.gobblin.service.modules.flowgraph.FlowGraphConfigurationKeys;
+import org.apache.gobblin.service.modules.flowgraph.datanodes.fs.HdfsDataNode;
+import org.apache.gobblin.service.modules.flowgraph.pathfinder.PathIndex;
+import org.apache.gobblin.service.modules.spec.JobExecutionPlan;
+
+
+/**
+ * Tests of a {@link MultiHopFlowCompiler} with a {@link PathIndex}, on the flow graph of
+ * {@link MultiHopFlowCompilerTest}.
+ */
+public class MultiHopFlowCompilerPathIndexTest {
+  private static final List<String> EDGE_NAMES =
+      Lists.newArrayList("localToHdfs", "hdfsConvertToJsonAndEncrypt", "hdfsToHdfs", "hdfsToAdl");
+
+  private BaseFlowGraph flowGraph;
+  private MultiHopFlowCompiler specCompiler;
+
+  @BeforeClass
+  public void setUp() throws Exception {
+    //Create a FlowGraph with a path index
+    this.flowGraph = new BaseFlowGraph(ConfigFactory.empty()
+        .withValue(FlowGraphConfigurationKeys.FLOW_GRAPH_PATH_INDEX_ENABLED, ConfigValueFactory.fromAnyRef(true)));
+    this.specCompiler = MultiHopFlowCompilerTest.createSpecCompiler(this.flowGraph);
+  }
+
+  @Test
+  public void testCompileFlowWithIndexedPath() throws Exception {
+    PathIndex pathIndex = this.flowGraph.getPathIndex();
+    FlowSpec spec = MultiHopFlowCompilerTest.createFlowSpec("flow/flow1.conf", "LocalFS-1", "ADLS-1", false, false);
+    assertPath(this.specCompiler.compileFlow(spec));
+    long numIndexedPaths = pathIndex.size();
+    Assert.assertTrue(numIndexedPaths > 0);
+    Assert.assertEquals(pathIndex.getNumReplayedPaths(), 0);
+
+    //The path indexed for the previous execution of the flow is replayed with the config of the flow
+    spec = MultiHopFlowCompilerTest.createFlowSpec("flow/flow1.conf", "LocalFS-1", "ADLS-1", false, false);
+    assertPath(this.specCompiler.compileFlow(spec));
+    Assert.assertEquals(pathIndex.size(), numIndexedPaths);
+    Assert.assertEquals(pathIndex.getNumReplayedPaths(), 1);
+  }
+
+  @Test (dependsOnMethods = "testCompileFlowWithIndexedPath")
+  public void testCompileFlowWithDifferentConfig() throws Exception {
+    PathIndex pathIndex = this.flowGraph.getPathIndex();
+    long numIndexedPaths = pathIndex.size();
+
+    //The edges a flow can use depend on its config, a flow with a different config does not use the indexed path
+    FlowSpec spec = MultiHopFlowCompilerTest.createFlowSpec("flow/flow1.conf", "LocalFS-1", "ADLS-1", false, false);
+    spec = FlowSpec.builder(new Path("/tmp/flowSpecCatalog").toUri())
+        .withConfig(spec.getConfig().withValue("param1", ConfigValueFactory.fromAnyRef("value1")))
+        .withDescription("dummy description")
+        .withVersion(FlowSpec.Builder.DEFAULT_VERSION)
+        .build();
+    long numReplayedPaths = pathIndex.getNumReplayedPaths();
+    assertPath(this.specCompiler.compileFlow(spec));
+    Assert.assertEquals(pathIndex.size(), numIndexedPaths + 1);
+    Assert.assertEquals(pathIndex.getNumReplayedPaths(), numReplayedPaths);
+  }
+
+  @Test (dependsOnMethods = "testCompileFlowWithDifferentConfig")
+  public void testIndexedPathInvalidatedByNodeReactivation() throws Exception {
+    PathIndex pathIndex = this.flowGraph.getPathIndex();
+    Config hdfs3Config = ((BaseDataNode) this.flowGraph.getNode("HDFS-3")).getRawConfig();
+
+    //The flow goes through HDFS-2 while HDFS-3 is inactive
+    this.flowGraph.addDataNode(new HdfsDataNode(hdfs3Config
+        .withValue(FlowGraphConfigurationKeys.DATA_NODE_IS_ACTIVE_KEY, ConfigValueFactory.fromAnyRef(false))));
+    FlowSpec spec = MultiHopFlowCompilerTest.createFlowSpec("flow/flow1.conf", "LocalFS-1", "ADLS-1", false, false);
+    Dag<JobExecutionPlan> jobDag = this.specCompiler.compileFlow(spec);
+    String jobName =
+        jobDag.getStartNodes().get(0).getValue().getJobSpec().getConfig().getString(ConfigurationKeys.JOB_NAME_KEY);
+    Assert.assertTrue(jobName.contains("HDFS-2"), jobName);
+
+    //The indexed path does not go through HDFS-3, but the reactivated node is on the path a search prefers
+    long numReplayedPaths = pathIndex.getNumReplayedPaths();
+    this.flowGraph.addDataNode(new HdfsDataNode(hdfs3Config
+        .withValue(FlowGraphConfigurationKeys.DATA_NODE_IS_ACTIVE_KEY, ConfigValueFactory.fromAnyRef(true))));
+    spec = MultiHopFlowCompilerTest.createFlowSpec("flow/flow1.conf", "LocalFS-1", "ADLS-1", false, false);
+    assertPath(this.specCompiler.compileFlow(spec));
+    Assert.assertEquals(pathIndex.getNumReplayedPaths(), numReplayedPaths);
+  }
+
+  @Test (dependsOnMethods = "testIndexedPathInvalidatedByNodeReactivation")
+  public void testIndexedPathInvalidatedByEdgeDeletion() throws Exception {
+    PathIndex pathIndex = this.flowGraph.getPathIndex();
+    Assert.assertTrue(pathIndex.size() > 0);
+
+    //The indexed path goes through the deleted edge, the flow now goes through HDFS-2
+    this.flowGraph.deleteFlowEdge("HDFS-1_HDFS-1_hdfsConvertToJsonAndEncrypt");
+    Assert.assertEquals(pathIndex.size(), 0);
+
+    FlowSpec spec = MultiHopFlowCompilerTest.createFlowSpec("flow/flow1.conf", "LocalFS-1", "ADLS-1", false, false);
+    Dag<JobExecutionPlan> jobDag = this.specCompiler.compileFlow(spec);
+    Assert.assertEquals(jobDag.getNodes().size(), 4);
+    String jobName =
+        jobDag.getStartNodes().get(0).getValue().getJobSpec().getConfig().getString(ConfigurationKeys.JOB_NAME_KEY);
+    Assert.assertTrue(jobName.contains("HDFS-2"), jobName);
+  }
+
+  private static void assertPath(Dag<JobExecutionPlan> jobDag) {
+    Assert.assertEquals(jobDag.getNodes().size(), 4);
+    Assert.assertEquals(jobDag.getStartNodes().size(), 1);
+    Assert.assertEquals(jobDag.getEndNodes().size(), 1);
+
+    DagNode<JobExecutionPlan> dagNode = jobDag.getStartNodes().get(0);
+    for (String edgeName : EDGE_NAMES) {
+      String jobName = dagNode.getValue().getJobSpec().getConfig().getString(ConfigurationKeys.JOB_NAME_KEY);
+      Assert.assertTrue(jobName.contains(edgeName), jobName);
+      List<DagNode<JobExecutionPlan>> children = jobDag.getChildren(dagNode);
+      dagNode = children.isEmpty() ? null : children.get(0);
+    }
+  }
+}
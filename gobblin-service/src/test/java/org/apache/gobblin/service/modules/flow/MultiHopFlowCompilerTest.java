@@ -103,7 +103,15 @@ public class MultiHopFlowCompilerTest {
       throws URISyntaxException, IOException, ReflectiveOperationException, FlowEdgeFactory.FlowEdgeCreationException {
     //Create a FlowGraph
     this.flowGraph = new BaseFlowGraph();
+    this.specCompiler = createSpecCompiler(this.flowGraph);
+  }
 
+  /**
+   * A helper method to add the test {@link DataNode}s and {@link FlowEdge}s to a {@link FlowGraph}.
+   * @return a {@link MultiHopFlowCompiler} for the flowGraph.
+   */
+  static MultiHopFlowCompiler createSpecCompiler(FlowGraph flowGraph)
+      throws URISyntaxException, IOException, ReflectiveOperationException, FlowEdgeFactory.FlowEdgeCreationException {
     //Add DataNodes to the graph from the node properties files
     URI dataNodesUri = MultiHopFlowCompilerTest.class.getClassLoader().getResource("flowgraph/datanodes").toURI();
     FileSystem fs = FileSystem.get(dataNodesUri, new Configuration());
@@ -118,15 +126,15 @@ public class MultiHopFlowCompilerTest {
         Class dataNodeClass = Class.forName(ConfigUtils
             .getString(nodeConfig, FlowGraphConfigurationKeys.DATA_NODE_CLASS, FlowGraphConfigurationKeys.DEFAULT_DATA_NODE_CLASS));
         DataNode dataNode = (DataNode) GobblinConstructorUtils.invokeLongestConstructor(dataNodeClass, nodeConfig);
-        this.flowGraph.addDataNode(dataNode);
+        flowGraph.addDataNode(dataNode);
       }
     }
 
-    URI specExecutorCatalogUri = this.getClass().getClassLoader().getResource("topologyspec_catalog").toURI();
+    URI specExecutorCatalogUri = MultiHopFlowCompilerTest.class.getClassLoader().getResource("topologyspec_catalog").toURI();
     Map<URI, TopologySpec> topologySpecMap = buildTopologySpecMap(specExecutorCatalogUri);
 
     //Create a FSFlowTemplateCatalog instance
-    URI flowTemplateCatalogUri = this.getClass().getClassLoader().getResource("template_catalog").toURI();
+    URI flowTemplateCatalogUri = MultiHopFlowCompilerTest.class.getClassLoader().getResource("template_catalog").toURI();
     Properties properties = new Properties();
     properties.put(ServiceConfigKeys.TEMPLATE_CATALOGS_FULLY_QUALIFIED_PATH_KEY, flowTemplateCatalogUri.toString());
     Config config = ConfigFactory.parseProperties(properties);
@@ -152,10 +160,10 @@ public class MultiHopFlowCompilerTest {
           specExecutors.add(topologySpecMap.get(new URI(specExecutorName)).getSpecExecutor());
         }
         FlowEdge edge = flowEdgeFactory.createFlowEdge(flowEdgeConfig, flowCatalog, specExecutors);
-        this.flowGraph.addFlowEdge(edge);
+        flowGraph.addFlowEdge(edge);
       }
     }
-    this.specCompiler = new MultiHopFlowCompiler(config, this.flowGraph);
+    return new MultiHopFlowCompiler(config, flowGraph);
   }
 
   /**
@@ -195,7 +203,7 @@ public class MultiHopFlowCompilerTest {
     return topologySpecMap;
   }
 
-  private FlowSpec createFlowSpec(String flowConfigResource, String source, String destination, boolean applyRetention, boolean applyRetentionOnInput)
+  static FlowSpec createFlowSpec(String flowConfigResource, String source, String destination, boolean applyRetention, boolean applyRetentionOnInput)
       throws IOException, URISyntaxException {
     //Create a flow spec
     Properties flowProperties = new Properties();
@@ -22,8 +22,12 @@ import java.net.URI;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.mockito.Mockito;
 import org.testng.Assert;
@@ -44,6 +48,7 @@ import org.apache.gobblin.service.FlowId;
 import org.apache.gobblin.service.modules.flowgraph.Dag;
 import org.apache.gobblin.service.modules.spec.JobExecutionPlan;
 import org.apache.gobblin.service.monitoring.JobStatusRetriever;
+import org.apache.gobblin.service.monitoring.KillFlowEvent;
 import org.apache.gobblin.testing.AssertWithBackoff;
 import org.apache.gobblin.util.ConfigUtils;
 
@@ -256,6 +261,68 @@ public class DagManagerFlowTest {
         assertTrue(input -> !dagManager.dagManagerThreads[queue].dagToSLA.containsKey(dagId), ERROR_MESSAGE);
   }
 
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  void testJobQuotaRejectedWithSharding() {
+    Properties props = new Properties();
+    props.put(DagManager.SHARDING_ENABLED_KEY, true);
+    props.put(DagManager.DAG_MANAGER_PREFIX + "defaultJobQuota", 2);
+    new MockedDagManager(ConfigUtils.propertiesToConfig(props), false);
+  }
+
+  @Test
+  void testKillForwardedToShardOwner() throws Exception {
+    int numShards = 4;
+    InMemoryDagShardLeaseStore leaseStore = new InMemoryDagShardLeaseStore();
+    DagStateStore dagStateStore = new DagManagerTest.InMemoryDagStateStore();
+    // Another instance owns all the shards
+    new DagShardManager(leaseStore, "instance1", numShards, 60).updateLeases();
+
+    Properties props = new Properties();
+    props.put(DagManager.JOB_STATUS_POLLING_INTERVAL_KEY, 1);
+    props.put(DagManager.SHARDING_ENABLED_KEY, true);
+    props.put(DagManager.SHARDING_LEASE_RENEWAL_INTERVAL_KEY, 1);
+    AtomicInteger numDagStateStores = new AtomicInteger();
+    MockedDagManager shardedDagManager = new MockedDagManager(ConfigUtils.propertiesToConfig(props), false) {
+      @Override
+      DagStateStore createDagStateStore(Config config, Map<URI, TopologySpec> topologySpecMap) {
+        // The second dag state store is the one of the failed dags
+        return numDagStateStores.getAndIncrement() == 0 ? dagStateStore : new DagManagerTest.InMemoryDagStateStore();
+      }
+
+      @Override
+      DagShardManager createDagShardManager(Config config) {
+        return new DagShardManager(leaseStore, "instance2", numShards, 60);
+      }
+    };
+    shardedDagManager.setActive(true);
+
+    try {
+      long flowExecutionId = System.currentTimeMillis();
+      Dag<JobExecutionPlan> dag = DagManagerTest.buildDag("7", flowExecutionId, "FINISH_RUNNING", 1);
+      // The dag is submitted by the other instance
+      dagStateStore.writeCheckpoint(dag);
+
+      // The kill request is kept for the owner of the shard
+      shardedDagManager.handleKillFlowEvent(new KillFlowEvent("group7", "flow7", flowExecutionId));
+      Set<Integer> allShards = IntStream.range(0, numShards).boxed().collect(Collectors.toSet());
+      Assert.assertEquals(leaseStore.getDagActions(allShards).size(), 1);
+
+      // The other instance fails before handling it, the next owner of the shard loads the dag and kills it
+      leaseStore.expireInstance("instance1");
+      leaseStore.expireLeases("instance1", 0, numShards);
+      AssertWithBackoff.create().maxSleepMs(5000).backoffFactor(1).assertTrue(new CancelPredicate(dag), ERROR_MESSAGE);
+      AssertWithBackoff.create().maxSleepMs(1000).backoffFactor(1).assertTrue(input -> {
+        try {
+          return leaseStore.getDagActions(allShards).isEmpty();
+        } catch (IOException e) {
+          return false;
+        }
+      }, ERROR_MESSAGE);
+    } finally {
+      shardedDagManager.setActive(false);
+    }
+  }
+
   @Test
   void slaConfigCheck() throws Exception {
     Dag<JobExecutionPlan> dag = DagManagerTest.buildDag("5", 123456783L, "FINISH_RUNNING", 1);
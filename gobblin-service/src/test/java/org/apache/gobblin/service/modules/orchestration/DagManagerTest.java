@@ -31,6 +31,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FileUtils;
 import org.mockito.Mockito;
@@ -645,6 +646,121 @@ public class DagManagerTest {
     Assert.assertFalse(this.dags.containsKey(dagId));
   }
 
+  @Test
+  public void testDagAdvancedByJobStatusEvents() throws Exception {
+    long flowExecutionId = System.currentTimeMillis();
+    String flowGroupId = "20";
+    String flowGroup = "group" + flowGroupId;
+    String flowName = "flow" + flowGroupId;
+
+    JobStatusRetriever jobStatusRetriever = Mockito.mock(JobStatusRetriever.class);
+    LinkedBlockingQueue<Dag<JobExecutionPlan>> dagQueue = new LinkedBlockingQueue<>();
+    LinkedBlockingQueue<JobStatus> jobStatusQueue = new LinkedBlockingQueue<>();
+    MetricContext metricContext = Instrumented.getMetricContext(ConfigUtils.configToState(ConfigFactory.empty()), getClass());
+    // Reconcile on the first run only
+    DagManager.DagManagerThread dagManagerThread = new DagManager.DagManagerThread(jobStatusRetriever,
+        new InMemoryDagStateStore(), new InMemoryDagStateStore(), dagQueue, new LinkedBlockingQueue<>(),
+        new LinkedBlockingQueue<>(), true, 5, new HashMap<>(), new HashSet<>(),
+        metricContext.contextAwareMeter("successMeter"), metricContext.contextAwareMeter("failedMeter"),
+        jobStatusQueue, TimeUnit.HOURS.toMillis(1));
+
+    Field dagsField = DagManager.DagManagerThread.class.getDeclaredField("dags");
+    dagsField.setAccessible(true);
+    Map<String, Dag<JobExecutionPlan>> dags = (Map<String, Dag<JobExecutionPlan>>) dagsField.get(dagManagerThread);
+    Field dagToJobsField = DagManager.DagManagerThread.class.getDeclaredField("dagToJobs");
+    dagToJobsField.setAccessible(true);
+    Map<String, LinkedList<DagNode<JobExecutionPlan>>> dagToJobs =
+        (Map<String, LinkedList<DagNode<JobExecutionPlan>>>) dagToJobsField.get(dagManagerThread);
+
+    Dag<JobExecutionPlan> dag = buildDag(flowGroupId, flowExecutionId, "FINISH_RUNNING", true);
+    String dagId = DagManagerUtils.generateDagId(dag);
+    dagQueue.offer(dag);
+    Mockito.when(jobStatusRetriever.getJobStatusesForFlowExecution(Mockito.anyString(), Mockito.anyString(),
+        Mockito.anyLong(), Mockito.anyString(), Mockito.anyString())).
+        thenReturn(getMockJobStatus(flowName, flowGroup, flowExecutionId, flowGroup, "job0",
+            String.valueOf(ExecutionStatus.RUNNING)));
+
+    // The first run reconciles the job statuses with the job status store
+    dagManagerThread.run();
+    Assert.assertEquals(dagToJobs.get(dagId).size(), 1);
+    Mockito.verify(jobStatusRetriever, Mockito.times(1)).getJobStatusesForFlowExecution(Mockito.anyString(),
+        Mockito.anyString(), Mockito.anyLong(), Mockito.anyString(), Mockito.anyString());
+
+    // Without pushed job statuses the running job is left alone
+    dagManagerThread.run();
+    Assert.assertEquals(dagToJobs.get(dagId).size(), 1);
+
+    // job0 is complete, so job1 and job2 are submitted
+    jobStatusQueue.offer(getMockJobStatus(flowName, flowGroup, flowExecutionId, flowGroup, "job0",
+        String.valueOf(ExecutionStatus.COMPLETE)).next());
+    Assert.assertTrue(dagManagerThread.requestRun());
+    Assert.assertFalse(dagManagerThread.requestRun());
+    dagManagerThread.run();
+    Assert.assertEquals(dagToJobs.get(dagId).size(), 2);
+    Assert.assertTrue(dagToJobs.get(dagId).contains(dag.getEndNodes().get(0)));
+    Assert.assertTrue(dagToJobs.get(dagId).contains(dag.getEndNodes().get(1)));
+
+    // job1 and job2 are complete, so the dag is cleaned up
+    jobStatusQueue.offer(getMockJobStatus(flowName, flowGroup, flowExecutionId, flowGroup, "job1",
+        String.valueOf(ExecutionStatus.COMPLETE)).next());
+    jobStatusQueue.offer(getMockJobStatus(flowName, flowGroup, flowExecutionId, flowGroup, "job2",
+        String.valueOf(ExecutionStatus.COMPLETE)).next());
+    dagManagerThread.run();
+    Assert.assertFalse(dags.containsKey(dagId));
+    Assert.assertFalse(dagToJobs.containsKey(dagId));
+
+    // The job status store was only queried by the first run
+    Mockito.verify(jobStatusRetriever, Mockito.times(1)).getJobStatusesForFlowExecution(Mockito.anyString(),
+        Mockito.anyString(), Mockito.anyLong(), Mockito.anyString(), Mockito.anyString());
+  }
+
+  @Test
+  public void testDagsOfReleasedShardsDropped() throws Exception {
+    long flowExecutionId = System.currentTimeMillis();
+    String flowGroupId = "21";
+    String flowGroup = "group" + flowGroupId;
+    String flowName = "flow" + flowGroupId;
+
+    JobStatusRetriever jobStatusRetriever = Mockito.mock(JobStatusRetriever.class);
+    DagShardManager dagShardManager = Mockito.mock(DagShardManager.class);
+    Mockito.when(dagShardManager.isOwned(Mockito.anyLong())).thenReturn(true);
+    DagStateStore dagStateStore = new InMemoryDagStateStore();
+    LinkedBlockingQueue<Dag<JobExecutionPlan>> dagQueue = new LinkedBlockingQueue<>();
+    MetricContext metricContext = Instrumented.getMetricContext(ConfigUtils.configToState(ConfigFactory.empty()), getClass());
+    DagManager.DagManagerThread dagManagerThread = new DagManager.DagManagerThread(jobStatusRetriever, dagStateStore,
+        new InMemoryDagStateStore(), dagQueue, new LinkedBlockingQueue<>(), new LinkedBlockingQueue<>(), true, 5,
+        new HashMap<>(), new HashSet<>(), metricContext.contextAwareMeter("successMeter"),
+        metricContext.contextAwareMeter("failedMeter"), null, 0, dagShardManager);
+
+    Field dagsField = DagManager.DagManagerThread.class.getDeclaredField("dags");
+    dagsField.setAccessible(true);
+    Map<String, Dag<JobExecutionPlan>> dags = (Map<String, Dag<JobExecutionPlan>>) dagsField.get(dagManagerThread);
+    Field jobToDagField = DagManager.DagManagerThread.class.getDeclaredField("jobToDag");
+    jobToDagField.setAccessible(true);
+    Map<DagNode<JobExecutionPlan>, Dag<JobExecutionPlan>> jobToDag =
+        (Map<DagNode<JobExecutionPlan>, Dag<JobExecutionPlan>>) jobToDagField.get(dagManagerThread);
+
+    Dag<JobExecutionPlan> dag = buildDag(flowGroupId, flowExecutionId, "FINISH_RUNNING", true);
+    String dagId = DagManagerUtils.generateDagId(dag);
+    dagStateStore.writeCheckpoint(dag);
+    dagQueue.offer(dag);
+    Mockito.when(jobStatusRetriever.getJobStatusesForFlowExecution(Mockito.anyString(), Mockito.anyString(),
+        Mockito.anyLong(), Mockito.anyString(), Mockito.anyString())).
+        thenReturn(getMockJobStatus(flowName, flowGroup, flowExecutionId, flowGroup, "job0",
+            String.valueOf(ExecutionStatus.RUNNING)));
+
+    dagManagerThread.run();
+    Assert.assertTrue(dags.containsKey(dagId));
+    Assert.assertEquals(jobToDag.size(), 1);
+
+    // The shard of the dag is released, the dag is dropped but left in the dag state store for the next owner
+    Mockito.when(dagShardManager.isOwned(Mockito.anyLong())).thenReturn(false);
+    dagManagerThread.run();
+    Assert.assertFalse(dags.containsKey(dagId));
+    Assert.assertTrue(jobToDag.isEmpty());
+    Assert.assertNotNull(dagStateStore.getDag(dagId));
+  }
+
   @AfterClass
   public void cleanUp() throws Exception {
     FileUtils.deleteDirectory(new File(this.dagStateStoreDir));
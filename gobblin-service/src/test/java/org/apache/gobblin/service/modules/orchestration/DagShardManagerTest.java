@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.service.modules.orchestration;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class DagShardManagerTest {
+  private static final int NUM_SHARDS = 8;
+
+  @Test
+  public void testShardsSplitBetweenInstances() throws Exception {
+    InMemoryDagShardLeaseStore leaseStore = new InMemoryDagShardLeaseStore();
+    DagShardManager instance1 = new DagShardManager(leaseStore, "instance1", NUM_SHARDS, 60);
+
+    // A single instance owns all the shards
+    Assert.assertEquals(instance1.updateLeases().size(), NUM_SHARDS);
+    for (long flowExecutionId = 0; flowExecutionId < NUM_SHARDS; flowExecutionId++) {
+      Assert.assertTrue(instance1.isOwned(flowExecutionId));
+    }
+
+    // A new instance does not get any shard until the first instance releases its share
+    DagShardManager instance2 = new DagShardManager(leaseStore, "instance2", NUM_SHARDS, 60);
+    Assert.assertTrue(instance2.updateLeases().isEmpty());
+    Assert.assertTrue(instance1.updateLeases().isEmpty());
+    Assert.assertEquals(instance1.getOwnedShards().size(), NUM_SHARDS / 2);
+
+    // The released shards are acquired once their leases expire
+    Assert.assertTrue(instance2.updateLeases().isEmpty());
+    leaseStore.expireLeases("instance1", NUM_SHARDS / 2, NUM_SHARDS);
+    Assert.assertEquals(instance2.updateLeases().size(), NUM_SHARDS / 2);
+    for (long flowExecutionId = 0; flowExecutionId < NUM_SHARDS; flowExecutionId++) {
+      Assert.assertTrue(instance1.isOwned(flowExecutionId) ^ instance2.isOwned(flowExecutionId));
+    }
+
+    // The shards of a failed instance are handed off to the live ones
+    leaseStore.expireInstance("instance1");
+    leaseStore.expireLeases("instance1", 0, NUM_SHARDS);
+    Assert.assertEquals(instance2.updateLeases().size(), NUM_SHARDS / 2);
+    Assert.assertEquals(instance2.getOwnedShards().size(), NUM_SHARDS);
+  }
+
+  @Test
+  public void testShardsNotOwnedAfterFailedRenewal() throws Exception {
+    InMemoryDagShardLeaseStore leaseStore = new InMemoryDagShardLeaseStore();
+    DagShardManager dagShardManager = new DagShardManager(leaseStore, "instance1", NUM_SHARDS, 0);
+    dagShardManager.updateLeases();
+
+    // The ownership lapses with the lease, even if it could not be renewed
+    leaseStore.setFailing(true);
+    try {
+      dagShardManager.updateLeases();
+      Assert.fail("The lease store should fail");
+    } catch (IOException e) {
+      // Expected
+    }
+    Assert.assertFalse(dagShardManager.isOwned(0L));
+    Assert.assertTrue(dagShardManager.getOwnedShards().isEmpty());
+  }
+
+  @Test
+  public void testDagActionsHandedOffWithShards() throws Exception {
+    InMemoryDagShardLeaseStore leaseStore = new InMemoryDagShardLeaseStore();
+    DagShardManager instance1 = new DagShardManager(leaseStore, "instance1", NUM_SHARDS, 60);
+    DagShardManager instance2 = new DagShardManager(leaseStore, "instance2", NUM_SHARDS, 60);
+    instance1.updateLeases();
+    instance2.updateLeases();
+
+    // A request received by an instance which does not own the shard is only visible to the owner
+    DagShardLeaseStore.DagAction dagAction =
+        new DagShardLeaseStore.DagAction(DagShardLeaseStore.DagAction.Type.KILL, "group", "flow", 0L);
+    instance2.addDagAction(dagAction);
+    instance2.addDagAction(dagAction);
+    Assert.assertTrue(instance2.getDagActions().isEmpty());
+    Assert.assertEquals(instance1.getDagActions(), Collections.singletonList(dagAction));
+
+    // The request is kept while the shard has no owner, and handled by the next owner
+    leaseStore.expireInstance("instance1");
+    leaseStore.expireLeases("instance1", 0, NUM_SHARDS);
+    Assert.assertTrue(instance2.getDagActions().isEmpty());
+    instance2.updateLeases();
+    Assert.assertEquals(instance2.getDagActions(), Collections.singletonList(dagAction));
+    instance2.deleteDagAction(dagAction);
+    Assert.assertTrue(instance2.getDagActions().isEmpty());
+  }
+}
@@ -20,6 +20,7 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -149,6 +150,44 @@ public class FSDagStateStoreTest {
     }
   }
 
+  @Test (dependsOnMethods = "testGetDags")
+  public void testIncrementalCheckpoint() throws IOException, URISyntaxException {
+    Config config = ConfigFactory.empty()
+        .withValue(FSDagStateStore.DAG_STATESTORE_DIR, ConfigValueFactory.fromAnyRef(this.dagStateStoreDir))
+        .withValue(DagManager.INCREMENTAL_CHECKPOINTS_ENABLED_KEY, ConfigValueFactory.fromAnyRef(true));
+    DagStateStore dagStateStore = new FSDagStateStore(config, this.topologySpecMap);
+    Dag<JobExecutionPlan> dag = DagTestUtils.buildDag("3", System.currentTimeMillis());
+    String dagId = DagManagerUtils.generateDagId(dag);
+    File dagFile = new File(this.checkpointDir, dagId + FSDagStateStore.DAG_FILE_EXTENSION);
+    File statusFile = new File(this.checkpointDir, dagId + FSDagStateStore.DAG_STATUS_FILE_EXTENSION);
+
+    dagStateStore.writeCheckpoint(dag);
+    String serializedDag = FileUtils.readFileToString(dagFile);
+    Assert.assertFalse(statusFile.exists());
+
+    // Only the statuses of the jobs are written once the dag was checkpointed
+    dag.getNodes().get(0).getValue().setExecutionStatus(ExecutionStatus.COMPLETE);
+    dagStateStore.writeCheckpoint(dag);
+    Assert.assertEquals(FileUtils.readFileToString(dagFile), serializedDag);
+    Assert.assertTrue(statusFile.exists());
+
+    Dag<JobExecutionPlan> dagDeserialized = dagStateStore.getDag(dagId);
+    Assert.assertEquals(dagDeserialized.getNodes().get(0).getValue().getExecutionStatus(), ExecutionStatus.COMPLETE);
+    Assert.assertEquals(dagDeserialized.getNodes().get(1).getValue().getExecutionStatus(), ExecutionStatus.RUNNING);
+    Assert.assertEquals(dagStateStore.getDagIds("group3", "flow3"), Collections.singleton(dagId));
+
+    // Writing the whole dag again merges the statuses into it
+    this._dagStateStore.writeCheckpoint(dagDeserialized);
+    Assert.assertFalse(statusFile.exists());
+    Assert.assertEquals(this._dagStateStore.getDag(dagId).getNodes().get(0).getValue().getExecutionStatus(),
+        ExecutionStatus.COMPLETE);
+
+    dagStateStore.writeCheckpoint(dag);
+    dagStateStore.cleanUp(dagId);
+    Assert.assertFalse(dagFile.exists());
+    Assert.assertFalse(statusFile.exists());
+  }
+
   @AfterClass
   public void cleanUp() throws IOException {
     FileUtils.deleteDirectory(this.checkpointDir);
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.service.modules.orchestration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * A {@link DagShardLeaseStore} whose leases never expire by themselves.
+ */
+class InMemoryDagShardLeaseStore implements DagShardLeaseStore {
+  private final Set<String> liveInstances = new HashSet<>();
+  private final Map<Integer, String> leases = new HashMap<>();
+  private final Map<DagAction, Integer> dagActions = new LinkedHashMap<>();
+  private boolean failing = false;
+
+  synchronized void setFailing(boolean failing) {
+    this.failing = failing;
+  }
+
+  synchronized void expireInstance(String instanceId) {
+    this.liveInstances.remove(instanceId);
+  }
+
+  synchronized void expireLeases(String instanceId, int fromShardId, int toShardId) {
+    for (int shardId = fromShardId; shardId < toShardId; shardId++) {
+      this.leases.remove(shardId, instanceId);
+    }
+  }
+
+  private void checkFailing() throws IOException {
+    if (this.failing) {
+      throw new IOException("Test exception");
+    }
+  }
+
+  @Override
+  public synchronized void heartbeat(String instanceId, long leaseTimeSecs) throws IOException {
+    checkFailing();
+    this.liveInstances.add(instanceId);
+  }
+
+  @Override
+  public synchronized int getNumLiveInstances() throws IOException {
+    checkFailing();
+    return this.liveInstances.size();
+  }
+
+  @Override
+  public synchronized Set<Integer> getLeasedShards() throws IOException {
+    checkFailing();
+    return new HashSet<>(this.leases.keySet());
+  }
+
+  @Override
+  public synchronized Set<Integer> renewLeases(String instanceId, Set<Integer> shardIds, long leaseTimeSecs)
+      throws IOException {
+    checkFailing();
+    Set<Integer> renewedShardIds = new HashSet<>();
+    for (int shardId : shardIds) {
+      if (instanceId.equals(this.leases.get(shardId))) {
+        renewedShardIds.add(shardId);
+      }
+    }
+    return renewedShardIds;
+  }
+
+  @Override
+  public synchronized boolean tryAcquireLease(int shardId, String instanceId, long leaseTimeSecs) throws IOException {
+    checkFailing();
+    return instanceId.equals(this.leases.computeIfAbsent(shardId, k -> instanceId));
+  }
+
+  @Override
+  public synchronized void addDagAction(int shardId, DagAction dagAction) throws IOException {
+    checkFailing();
+    this.dagActions.putIfAbsent(dagAction, shardId);
+  }
+
+  @Override
+  public synchronized List<DagAction> getDagActions(Set<Integer> shardIds) throws IOException {
+    checkFailing();
+    List<DagAction> shardDagActions = new ArrayList<>();
+    for (Map.Entry<DagAction, Integer> entry : this.dagActions.entrySet()) {
+      if (shardIds.contains(entry.getValue())) {
+        shardDagActions.add(entry.getKey());
+      }
+    }
+    return shardDagActions;
+  }
+
+  @Override
+  public synchronized void deleteDagAction(DagAction dagAction) throws IOException {
+    checkFailing();
+    this.dagActions.remove(dagAction);
+  }
+}
@@ -18,6 +18,7 @@
 package org.apache.gobblin.service.modules.orchestration;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -151,6 +152,36 @@ public class MysqlDagStateStoreTest {
     Assert.assertEquals(dags.size(), 0);
   }
 
+  @Test (dependsOnMethods = "testCleanUp")
+  public void testIncrementalCheckpoint() throws Exception {
+    DagStateStore dagStateStore = new TestMysqlDagStateStore(ConfigBuilder.create()
+        .addPrimitive(DagManager.INCREMENTAL_CHECKPOINTS_ENABLED_KEY, true).build(), this.topologySpecMap);
+    Dag<JobExecutionPlan> dag = DagTestUtils.buildDag("random_2", 789L);
+    String dagId = DagManagerUtils.generateDagId(dag);
+    dagStateStore.writeCheckpoint(dag);
+    dag.getNodes().get(0).getValue().setExecutionStatus(ExecutionStatus.COMPLETE);
+    dagStateStore.writeCheckpoint(dag);
+
+    // The statuses of the jobs are stored separately from the dag
+    Assert.assertEquals(dagStateStore.getDagIds(), Collections.singleton(dagId));
+    Assert.assertEquals(dagStateStore.getDagIds("grouprandom_2", "flowrandom_2"), Collections.singleton(dagId));
+    Assert.assertTrue(dagStateStore.getDagIds("grouprandom_2", "flowrandom_3").isEmpty());
+    Dag<JobExecutionPlan> dagDeserialized = dagStateStore.getDag(dagId);
+    Assert.assertEquals(dagDeserialized.getNodes().get(0).getValue().getExecutionStatus(), ExecutionStatus.COMPLETE);
+    Assert.assertEquals(dagDeserialized.getNodes().get(1).getValue().getExecutionStatus(), ExecutionStatus.RUNNING);
+
+    // The statuses are also applied to the dags read at once
+    List<Dag<JobExecutionPlan>> dags = dagStateStore.getDags();
+    Assert.assertEquals(dags.size(), 1);
+    Assert.assertEquals(DagManagerUtils.generateDagId(dags.get(0)), dagId);
+    Assert.assertEquals(dags.get(0).getNodes().get(0).getValue().getExecutionStatus(), ExecutionStatus.COMPLETE);
+    Assert.assertEquals(dags.get(0).getNodes().get(1).getValue().getExecutionStatus(), ExecutionStatus.RUNNING);
+
+    dagStateStore.cleanUp(dagId);
+    Assert.assertNull(dagStateStore.getDag(dagId));
+    Assert.assertTrue(dagStateStore.getDags().isEmpty());
+  }
+
   /**
    * Only overwrite {@link #createStateStore(Config)} method to directly return a mysqlStateStore
    * backed by mocked db.
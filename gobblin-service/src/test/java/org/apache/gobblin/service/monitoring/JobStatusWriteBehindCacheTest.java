@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.service.monitoring;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import org.apache.gobblin.configuration.State;
+import org.apache.gobblin.metastore.StateStore;
+import org.apache.gobblin.metrics.event.TimingEvent;
+import org.apache.gobblin.service.ExecutionStatus;
+
+
+public class JobStatusWriteBehindCacheTest {
+  private static final String FLOW_GROUP = "myFlowGroup";
+  private static final String FLOW_NAME = "myFlowName";
+  private static final String JOB_GROUP = "myJobGroup";
+  private static final String JOB_NAME = "myJobName";
+  private static final String STORE_NAME = KafkaJobStatusMonitor.jobStatusStoreName(FLOW_GROUP, FLOW_NAME);
+
+  private State createJobStatus(long flowExecutionId, String status) {
+    State jobStatus = new State();
+    jobStatus.setProp(TimingEvent.FlowEventConstants.FLOW_GROUP_FIELD, FLOW_GROUP);
+    jobStatus.setProp(TimingEvent.FlowEventConstants.FLOW_NAME_FIELD, FLOW_NAME);
+    jobStatus.setProp(TimingEvent.FlowEventConstants.FLOW_EXECUTION_ID_FIELD, flowExecutionId);
+    jobStatus.setProp(TimingEvent.FlowEventConstants.JOB_GROUP_FIELD, JOB_GROUP);
+    jobStatus.setProp(TimingEvent.FlowEventConstants.JOB_NAME_FIELD, JOB_NAME);
+    jobStatus.setProp(JobStatusRetriever.EVENT_NAME_FIELD, status);
+    return jobStatus;
+  }
+
+  @Test
+  public void testCoalescedWrites() throws Exception {
+    StateStore<State> stateStore = Mockito.mock(StateStore.class);
+    Mockito.when(stateStore.getAll(Mockito.anyString(), Mockito.anyString())).thenReturn(Collections.emptyList());
+    JobStatusWriteBehindCache cache = new JobStatusWriteBehindCache(stateStore, 100, 100, 3600);
+    String tableName = KafkaJobStatusMonitor.jobStatusTableName(1L, JOB_GROUP, JOB_NAME);
+
+    State orchestrated = createJobStatus(1L, ExecutionStatus.ORCHESTRATED.name());
+    orchestrated.setProp(TimingEvent.METADATA_MESSAGE, "message");
+    cache.add(orchestrated);
+    cache.add(createJobStatus(1L, ExecutionStatus.RUNNING.name()));
+    State merged = cache.add(createJobStatus(1L, ExecutionStatus.COMPLETE.name()));
+    // An out of order job status does not override the latest one
+    Assert.assertEquals(cache.add(createJobStatus(1L, ExecutionStatus.RUNNING.name()))
+        .getProp(JobStatusRetriever.EVENT_NAME_FIELD), ExecutionStatus.COMPLETE.name());
+    Assert.assertEquals(merged.getProp(JobStatusRetriever.EVENT_NAME_FIELD), ExecutionStatus.COMPLETE.name());
+    Assert.assertEquals(merged.getProp(TimingEvent.METADATA_MESSAGE), "message");
+    Assert.assertEquals(cache.getNumPendingJobStatuses(), 1);
+
+    // The state store is read once, and not written before the flush
+    Mockito.verify(stateStore, Mockito.times(1)).getAll(STORE_NAME, tableName);
+    Mockito.verify(stateStore, Mockito.never()).put(Mockito.anyString(), Mockito.anyString(), Mockito.any(State.class));
+
+    cache.flush();
+    ArgumentCaptor<State> written = ArgumentCaptor.forClass(State.class);
+    Mockito.verify(stateStore, Mockito.times(1)).put(Mockito.eq(STORE_NAME), Mockito.eq(tableName), written.capture());
+    Assert.assertEquals(written.getValue().getProp(JobStatusRetriever.EVENT_NAME_FIELD), ExecutionStatus.COMPLETE.name());
+    Assert.assertEquals(written.getValue().getProp(TimingEvent.METADATA_MESSAGE), "message");
+    Assert.assertEquals(cache.getNumPendingJobStatuses(), 0);
+
+    // The flushed job status is merged from the cache
+    cache.add(createJobStatus(1L, ExecutionStatus.COMPLETE.name()));
+    Mockito.verify(stateStore, Mockito.times(1)).getAll(STORE_NAME, tableName);
+  }
+
+  @Test
+  public void testFlushOnMaxPendingJobStatuses() throws Exception {
+    StateStore<State> stateStore = Mockito.mock(StateStore.class);
+    Mockito.when(stateStore.getAll(Mockito.anyString(), Mockito.anyString())).thenReturn(Collections.emptyList());
+    JobStatusWriteBehindCache cache = new JobStatusWriteBehindCache(stateStore, 2, 100, 3600);
+
+    cache.add(createJobStatus(1L, ExecutionStatus.RUNNING.name()));
+    cache.add(createJobStatus(2L, ExecutionStatus.RUNNING.name()));
+    Assert.assertEquals(cache.getNumPendingJobStatuses(), 2);
+    cache.add(createJobStatus(3L, ExecutionStatus.RUNNING.name()));
+    Assert.assertEquals(cache.getNumPendingJobStatuses(), 0);
+    Mockito.verify(stateStore, Mockito.times(3)).put(Mockito.anyString(), Mockito.anyString(), Mockito.any(State.class));
+  }
+
+  @Test
+  public void testFailedFlush() throws Exception {
+    StateStore<State> stateStore = Mockito.mock(StateStore.class);
+    Mockito.when(stateStore.getAll(Mockito.anyString(), Mockito.anyString())).thenReturn(Collections.emptyList());
+    Mockito.doThrow(new IOException("Test exception")).doNothing().when(stateStore)
+        .put(Mockito.anyString(), Mockito.anyString(), Mockito.any(State.class));
+    JobStatusWriteBehindCache cache = new JobStatusWriteBehindCache(stateStore, 100, 100, 3600);
+
+    cache.add(createJobStatus(1L, ExecutionStatus.RUNNING.name()));
+    try {
+      cache.flush();
+      Assert.fail("Flush should fail");
+    } catch (IOException e) {
+      // Expected
+    }
+    // The job status is written by the next flush
+    Assert.assertEquals(cache.getNumPendingJobStatuses(), 1);
+    cache.flush();
+    Assert.assertEquals(cache.getNumPendingJobStatuses(), 0);
+    Mockito.verify(stateStore, Mockito.times(2)).put(Mockito.anyString(), Mockito.anyString(), Mockito.any(State.class));
+  }
+
+  @Test
+  public void testInvalidateAll() throws Exception {
+    StateStore<State> stateStore = Mockito.mock(StateStore.class);
+    String tableName = KafkaJobStatusMonitor.jobStatusTableName(1L, JOB_GROUP, JOB_NAME);
+    Mockito.when(stateStore.getAll(Mockito.anyString(), Mockito.anyString())).thenReturn(Collections.emptyList());
+    JobStatusWriteBehindCache cache = new JobStatusWriteBehindCache(stateStore, 100, 100, 3600);
+
+    cache.add(createJobStatus(1L, ExecutionStatus.RUNNING.name()));
+    cache.flush();
+    cache.add(createJobStatus(2L, ExecutionStatus.RUNNING.name()));
+
+    // e.g. the partitions were revoked, and another instance completed the job
+    cache.invalidateAll();
+    Assert.assertEquals(cache.getNumPendingJobStatuses(), 0);
+    Mockito.when(stateStore.getAll(STORE_NAME, tableName))
+        .thenReturn(Collections.singletonList(createJobStatus(1L, ExecutionStatus.COMPLETE.name())));
+
+    // The job status is merged with the one in the state store rather than the stale cached one
+    State merged = cache.add(createJobStatus(1L, ExecutionStatus.RUNNING.name()));
+    Assert.assertEquals(merged.getProp(JobStatusRetriever.EVENT_NAME_FIELD), ExecutionStatus.COMPLETE.name());
+    Mockito.verify(stateStore, Mockito.times(2)).getAll(STORE_NAME, tableName);
+    cache.flush();
+    Mockito.verify(stateStore, Mockito.times(2)).put(Mockito.anyString(), Mockito.anyString(), Mockito.any(State.class));
+  }
+}
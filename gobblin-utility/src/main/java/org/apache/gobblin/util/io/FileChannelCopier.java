@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.util.io;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import com.codahale.metrics.Meter;
+
+
+/**
+ * A class that copies a range of bytes of a {@link FileChannel} into another {@link FileChannel} using
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, which lets the operating system
+ * move the bytes without copying them through JVM buffers. Unlike {@link StreamCopier}, this only works when both
+ * ends are files on a local (or locally mounted) file system.
+ */
+@NotThreadSafe
+public class FileChannelCopier {
+
+  // Upper bound for a single transferTo call, so that progress is reported regularly on the copy speed meter
+  private static final long MAX_TRANSFER_BYTES = 8 * 1024 * 1024;
+
+  private final FileChannel inputChannel;
+  private final FileChannel outputChannel;
+  private final long position;
+  private final Long maxBytes;
+  private Meter copySpeedMeter;
+
+  private volatile boolean copied = false;
+
+  public FileChannelCopier(FileChannel inputChannel, FileChannel outputChannel) {
+    this(inputChannel, 0, null, outputChannel);
+  }
+
+  /**
+   * @param inputChannel channel to copy from
+   * @param position position in the input channel to start copying at
+   * @param maxBytes maximum number of bytes to copy, or null to copy until the end of the input channel
+   * @param outputChannel channel to copy to
+   */
+  public FileChannelCopier(FileChannel inputChannel, long position, Long maxBytes, FileChannel outputChannel) {
+    this.inputChannel = inputChannel;
+    this.outputChannel = outputChannel;
+    this.position = position;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Set a {@link Meter} where copy speed will be reported.
+   */
+  public FileChannelCopier withCopySpeedMeter(Meter copySpeedMeter) {
+    this.copySpeedMeter = copySpeedMeter;
+    return this;
+  }
+
+  /**
+   * Execute the copy. If maxBytes is specified, limits the number of bytes copied to maxBytes.
+   * Note: this method should only be called once. Further calls will throw a {@link IllegalStateException}.
+   * @return Number of bytes copied.
+   */
+  public synchronized long copy() throws IOException {
+    if (this.copied) {
+      throw new IllegalStateException(String.format("%s already copied.", FileChannelCopier.class.getName()));
+    }
+    this.copied = true;
+
+    long end = this.inputChannel.size();
+    if (this.maxBytes != null) {
+      end = Math.min(end, this.position + this.maxBytes);
+    }
+
+    long totalBytes = 0;
+    while (this.position + totalBytes < end) {
+      long numBytes = this.inputChannel.transferTo(this.position + totalBytes,
+          Math.min(MAX_TRANSFER_BYTES, end - this.position - totalBytes), this.outputChannel);
+      if (numBytes <= 0) {
+        // The input channel was truncated while copying
+        break;
+      }
+      totalBytes += numBytes;
+      if (this.copySpeedMeter != null) {
+        this.copySpeedMeter.mark(numBytes);
+      }
+    }
+    return totalBytes;
+  }
+}
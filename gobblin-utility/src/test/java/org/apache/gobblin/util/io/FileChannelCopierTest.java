@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.util.io;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+
+public class FileChannelCopierTest {
+
+  @Test
+  public void testCopy() throws Exception {
+    String testString = "This is a string";
+    Assert.assertEquals(copy(testString, 0, null, null), testString);
+  }
+
+  @Test
+  public void testRangeCopy() throws Exception {
+    String testString = "This is a string";
+    Assert.assertEquals(copy(testString, 5, 2L, null), "is");
+    // maxBytes past the end of the file only copies up to the end
+    Assert.assertEquals(copy(testString, 10, 100L, null), "string");
+  }
+
+  @Test
+  public void testCopyMeter() throws Exception {
+    String testString = "This is a string";
+    Meter meter = new MetricRegistry().meter("my.meter");
+    copy(testString, 0, null, meter);
+    Assert.assertEquals(meter.getCount(), testString.length());
+  }
+
+  private String copy(String content, long position, Long maxBytes, Meter meter) throws Exception {
+    File dir = Files.createTempDir();
+    try {
+      File source = new File(dir, "source");
+      File destination = new File(dir, "destination");
+      Files.write(content, source, Charsets.UTF_8);
+      try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+          FileChannel out = FileChannel.open(destination.toPath(), StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE)) {
+        FileChannelCopier copier = new FileChannelCopier(in, position, maxBytes, out);
+        if (meter != null) {
+          copier.withCopySpeedMeter(meter);
+        }
+        copier.copy();
+      }
+      return Files.toString(destination, Charsets.UTF_8);
+    } finally {
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+}